@@ -0,0 +1,260 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.reef.benchmarks;
+
+import org.apache.reef.exception.evaluator.NetworkException;
+import org.apache.reef.io.network.Connection;
+import org.apache.reef.io.network.ConnectionFactory;
+import org.apache.reef.io.network.Message;
+import org.apache.reef.io.network.NetworkConnectionService;
+import org.apache.reef.io.network.group.impl.GroupCommunicationMessage;
+import org.apache.reef.io.network.group.impl.GroupCommunicationMessageCodec;
+import org.apache.reef.io.network.group.impl.primitive.IntArrayCodec;
+import org.apache.reef.io.network.group.impl.primitive.IntArrayPartitioner;
+import org.apache.reef.io.network.group.impl.primitive.IntArrayReduceFunction;
+import org.apache.reef.io.network.group.impl.utils.AllReduceExchange;
+import org.apache.reef.io.network.group.impl.utils.PeerMailbox;
+import org.apache.reef.io.network.impl.config.NetworkConnectionServiceIdFactory;
+import org.apache.reef.io.network.naming.NameResolverConfiguration;
+import org.apache.reef.io.network.naming.NameServer;
+import org.apache.reef.io.network.proto.ReefNetworkGroupCommProtos.GroupCommMessage.Type;
+import org.apache.reef.tang.Configuration;
+import org.apache.reef.tang.Injector;
+import org.apache.reef.tang.Tang;
+import org.apache.reef.tang.annotations.Name;
+import org.apache.reef.tang.annotations.NamedParameter;
+import org.apache.reef.wake.EventHandler;
+import org.apache.reef.wake.Identifier;
+import org.apache.reef.wake.IdentifierFactory;
+import org.apache.reef.wake.remote.address.LocalAddressProvider;
+import org.apache.reef.wake.remote.transport.netty.LoggingLinkListener;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One AllReduce of an int vector among tasks that each have their own NetworkConnectionService
+ * on the loopback interface, by recursive doubling, on a ring, or as the Reduce to a root
+ * followed by a Broadcast that jobs like the BGD example use.
+ * <p>
+ * The tasks run AllReduceExchange over GroupCommunicationMessages of type AllReduce, as AllReducer
+ * does, without the driver-managed topology. Varying the number of tasks and the vector size shows
+ * how the latency-bound recursive doubling and the bandwidth-bound ring scale, and where the root
+ * of Reduce and Broadcast becomes the bottleneck.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class AllReduceBenchmark {
+
+  private static final String GROUP_NAME = BenchmarkGroup.class.getName();
+  private static final String OPERATOR_NAME = BenchmarkOperator.class.getName();
+
+  @Param({"RecursiveDoubling", "Ring", "ReduceBroadcast"})
+  private String algorithm;
+
+  @Param({"2", "4", "8"})
+  private int numTasks;
+
+  @Param({"1024", "262144"})
+  private int numElements;
+
+  private NameServer nameServer;
+  private ExecutorService executor;
+  private final List<String> taskIds = new ArrayList<>();
+  private final List<BenchmarkTask> tasks = new ArrayList<>();
+
+  /**
+   * Name of the communication group of the messages.
+   */
+  @NamedParameter
+  public static final class BenchmarkGroup implements Name<String> {
+  }
+
+  /**
+   * Name of the operator of the messages.
+   */
+  @NamedParameter
+  public static final class BenchmarkOperator implements Name<String> {
+  }
+
+  @Setup
+  public void setUp() throws Exception {
+    final Injector injector = Tang.Factory.getTang().newInjector();
+    final String localAddress = injector.getInstance(LocalAddressProvider.class).getLocalAddress();
+    this.nameServer = injector.getInstance(NameServer.class);
+    final Configuration netConf = NameResolverConfiguration.CONF
+        .set(NameResolverConfiguration.NAME_SERVER_HOSTNAME, localAddress)
+        .set(NameResolverConfiguration.NAME_SERVICE_PORT, this.nameServer.getPort())
+        .build();
+
+    for (int i = 0; i < this.numTasks; ++i) {
+      this.taskIds.add("task-" + i);
+    }
+    for (int i = 0; i < this.numTasks; ++i) {
+      this.tasks.add(new BenchmarkTask(injector.forkInjector(netConf), i));
+    }
+    this.executor = Executors.newFixedThreadPool(this.numTasks);
+  }
+
+  @TearDown
+  public void tearDown() throws Exception {
+    this.executor.shutdownNow();
+    for (final BenchmarkTask task : this.tasks) {
+      task.close();
+    }
+    this.nameServer.close();
+  }
+
+  @Benchmark
+  public int round() throws Exception {
+    int checksum = 0;
+    for (final Future<int[]> result : this.executor.invokeAll(this.tasks)) {
+      checksum += result.get()[0];
+    }
+    return checksum;
+  }
+
+  /**
+   * A task with its own NetworkConnectionService; each call runs one AllReduce.
+   */
+  private final class BenchmarkTask implements Callable<int[]>, AllReduceExchange.Channel {
+
+    private final String selfId;
+    private final int[] vector;
+    private final NetworkConnectionService service;
+    private final ConnectionFactory<GroupCommunicationMessage> connFactory;
+    private final IdentifierFactory idFactory;
+    private final Map<String, Connection<GroupCommunicationMessage>> connections = new HashMap<>();
+    private final PeerMailbox mailbox = new PeerMailbox();
+    private final IntArrayCodec codec = new IntArrayCodec();
+    private final IntArrayReduceFunction sum = new IntArrayReduceFunction.Sum();
+    private final AllReduceExchange<int[]> exchange;
+    private int round = 0;
+
+    BenchmarkTask(final Injector injector, final int rank) throws Exception {
+      this.selfId = taskIds.get(rank);
+      this.vector = new int[numElements];
+      Arrays.fill(this.vector, rank);
+      this.idFactory = injector.getNamedInstance(NetworkConnectionServiceIdFactory.class);
+      final Identifier connFactoryId = this.idFactory.getNewInstance(GROUP_NAME);
+      this.service = injector.getInstance(NetworkConnectionService.class);
+      this.service.registerConnectionFactory(connFactoryId, new GroupCommunicationMessageCodec(),
+          new TaskHandler(), new LoggingLinkListener<Message<GroupCommunicationMessage>>(),
+          this.idFactory.getNewInstance(this.selfId));
+      this.connFactory = this.service.getConnectionFactory(connFactoryId);
+      this.exchange = new AllReduceExchange<>(this.codec, this.sum, new IntArrayPartitioner(), 0, this);
+    }
+
+    @Override
+    public int[] call() throws Exception {
+      switch (algorithm) {
+      case "RecursiveDoubling":
+        return this.exchange.recursiveDoubling(this.vector, taskIds, this.selfId);
+      case "Ring":
+        return this.exchange.ring(this.vector, taskIds, this.selfId);
+      case "ReduceBroadcast":
+        return reduceBroadcast();
+      default:
+        throw new IllegalStateException("Unsupported algorithm " + algorithm);
+      }
+    }
+
+    /**
+     * Every task sends its vector to the first one, which sums them and sends the sum back.
+     */
+    private int[] reduceBroadcast() throws NetworkException, InterruptedException {
+      final int seq = this.round++;
+      final String rootId = taskIds.get(0);
+      if (!this.selfId.equals(rootId)) {
+        send(rootId, seq, this.codec.encode(this.vector));
+        return this.codec.decode(receive(rootId, seq));
+      }
+      final List<int[]> vectors = new ArrayList<>(taskIds.size());
+      vectors.add(this.vector);
+      for (final String taskId : taskIds.subList(1, taskIds.size())) {
+        vectors.add(this.codec.decode(receive(taskId, seq)));
+      }
+      final int[] result = this.sum.apply(vectors);
+      final byte[] encoded = this.codec.encode(result);
+      for (final String taskId : taskIds.subList(1, taskIds.size())) {
+        send(taskId, seq, encoded);
+      }
+      return result;
+    }
+
+    @Override
+    public void send(final String destId, final int seq, final byte[] data) throws NetworkException {
+      Connection<GroupCommunicationMessage> connection = this.connections.get(destId);
+      if (connection == null) {
+        connection = this.connFactory.newConnection(this.idFactory.getNewInstance(destId));
+        connection.open();
+        this.connections.put(destId, connection);
+      }
+      final byte[] seqBytes = ByteBuffer.allocate(Integer.SIZE / Byte.SIZE).putInt(seq).array();
+      connection.write(new GroupCommunicationMessage(GROUP_NAME, OPERATOR_NAME, Type.AllReduce, this.selfId, 0,
+          destId, 0, new byte[][] {seqBytes, data}));
+    }
+
+    @Override
+    public byte[] receive(final String srcId, final int seq) throws InterruptedException, NetworkException {
+      return this.mailbox.take(srcId, 0, seq);
+    }
+
+    void close() throws Exception {
+      this.service.close();
+    }
+
+    /**
+     * Puts the messages of other tasks into the mailbox.
+     */
+    private final class TaskHandler implements EventHandler<Message<GroupCommunicationMessage>> {
+      @Override
+      public void onNext(final Message<GroupCommunicationMessage> value) {
+        for (final GroupCommunicationMessage msg : value.getData()) {
+          mailbox.put(msg.getSrcid(), 0, ByteBuffer.wrap(msg.getData()[0]).getInt(), msg.getData()[1]);
+        }
+      }
+    }
+  }
+}
@@ -0,0 +1,55 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.reef.benchmarks;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Entry point of the benchmarks jar.
+ * <p>
+ * Runs JMH with the given command line, but writes the results as JSON to
+ * {@value #DEFAULT_RESULT_FILE} unless a result format (-rf) or file (-rff) is given,
+ * so that the output of two releases can be diffed directly.
+ * For example, {@code java -jar target/benchmarks.jar Stage -p stage=RingBufferStage}.
+ */
+public final class BenchmarkMain {
+
+  /**
+   * File the results are written to when no -rff option is given.
+   */
+  public static final String DEFAULT_RESULT_FILE = "reef-benchmarks.json";
+
+  private BenchmarkMain() {
+  }
+
+  public static void main(final String[] args) throws Exception {
+    final List<String> jmhArgs = new ArrayList<>(Arrays.asList(args));
+    if (!jmhArgs.contains("-rf")) {
+      jmhArgs.add("-rf");
+      jmhArgs.add("json");
+    }
+    if (!jmhArgs.contains("-rff")) {
+      jmhArgs.add("-rff");
+      jmhArgs.add(DEFAULT_RESULT_FILE);
+    }
+    org.openjdk.jmh.Main.main(jmhArgs.toArray(new String[jmhArgs.size()]));
+  }
+}
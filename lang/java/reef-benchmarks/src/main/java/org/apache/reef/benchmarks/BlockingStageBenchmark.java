@@ -0,0 +1,123 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.reef.benchmarks;
+
+import org.apache.reef.wake.EventHandler;
+import org.apache.reef.wake.impl.ThreadPoolStage;
+import org.apache.reef.wake.impl.VirtualThreadExecutorService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Events whose handlers block, as handlers waiting on network I/O or on InjectionFutures do.
+ * Each invocation submits a batch of events to a ThreadPoolStage and waits until all of them are handled;
+ * the stage runs them either on its own fixed pool of platform threads or on a {@link VirtualThreadExecutorService}.
+ * On JDKs without virtual threads the latter falls back to a cached pool of platform threads.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class BlockingStageBenchmark {
+
+  private static final int BATCH = 1024;
+
+  @Param({"ThreadPoolStage", "VirtualThreadExecutorService"})
+  private String executor;
+
+  /**
+   * Platform threads of the fixed pool.
+   */
+  @Param({"16", "128"})
+  private int numThreads;
+
+  /**
+   * Time each handler blocks.
+   */
+  @Param({"100", "1000"})
+  private int blockMicros;
+
+  private final AtomicLong handled = new AtomicLong();
+  private long submitted = 0;
+  private VirtualThreadExecutorService virtualExecutor;
+  private ThreadPoolStage<Object> stage;
+
+  @Setup
+  public void setUp() {
+    final EventHandler<Object> handler = new EventHandler<Object>() {
+      @Override
+      public void onNext(final Object value) {
+        try {
+          TimeUnit.MICROSECONDS.sleep(blockMicros);
+        } catch (final InterruptedException e) {
+          Thread.currentThread().interrupt();
+        }
+        handled.incrementAndGet();
+      }
+    };
+    switch (this.executor) {
+    case "ThreadPoolStage":
+      this.stage = new ThreadPoolStage<>(handler, this.numThreads);
+      break;
+    case "VirtualThreadExecutorService":
+      this.virtualExecutor = new VirtualThreadExecutorService(BlockingStageBenchmark.class.getSimpleName());
+      this.stage = new ThreadPoolStage<>(handler, this.virtualExecutor);
+      break;
+    default:
+      throw new IllegalArgumentException("Unknown executor " + this.executor);
+    }
+  }
+
+  @TearDown
+  public void tearDown() throws Exception {
+    this.stage.close();
+    if (this.virtualExecutor != null) {
+      this.virtualExecutor.shutdown();
+      this.virtualExecutor.awaitTermination(1, TimeUnit.MINUTES);
+    }
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(BATCH)
+  public void blockingHandlers() {
+    for (int i = 0; i < BATCH; ++i) {
+      this.stage.onNext(i);
+    }
+    this.submitted += BATCH;
+    while (this.handled.get() < this.submitted) {
+      Thread.yield();
+    }
+  }
+}
@@ -0,0 +1,100 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.reef.benchmarks;
+
+import org.apache.reef.tang.Tang;
+import org.apache.reef.tang.exceptions.InjectionException;
+import org.apache.reef.wake.EventHandler;
+import org.apache.reef.wake.time.Clock;
+import org.apache.reef.wake.time.event.Alarm;
+import org.apache.reef.wake.time.runtime.RuntimeClock;
+import org.apache.reef.wake.time.runtime.TimerWheelClock;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Scheduling of alarms on RuntimeClock and TimerWheelClock from many threads,
+ * as drivers do when they set a timeout per evaluator.
+ * The alarms fire within a few seconds, so the clock under test also keeps firing them while it is measured.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(8)
+@State(Scope.Benchmark)
+public class ClockSchedulingBenchmark {
+
+  private static final int MAX_OFFSET = 2000;
+
+  @Param({"RuntimeClock", "TimerWheelClock"})
+  private String clock;
+
+  private Clock clockUnderTest;
+
+  private final EventHandler<Alarm> handler = new EventHandler<Alarm>() {
+    @Override
+    public void onNext(final Alarm value) {
+    }
+  };
+
+  @Setup
+  public void setUp() throws InjectionException {
+    final Class<? extends Clock> clockClass;
+    switch (this.clock) {
+    case "RuntimeClock":
+      clockClass = RuntimeClock.class;
+      break;
+    case "TimerWheelClock":
+      clockClass = TimerWheelClock.class;
+      break;
+    default:
+      throw new IllegalArgumentException("Unknown clock " + this.clock);
+    }
+    this.clockUnderTest = Tang.Factory.getTang().newInjector(Tang.Factory.getTang().newConfigurationBuilder()
+        .bind(Clock.class, clockClass)
+        .build()).getInstance(Clock.class);
+    new Thread(this.clockUnderTest).start();
+  }
+
+  @TearDown
+  public void tearDown() {
+    this.clockUnderTest.stop();
+  }
+
+  @Benchmark
+  public Object scheduleAlarm() {
+    return this.clockUnderTest.scheduleAlarm(1 + ThreadLocalRandom.current().nextInt(MAX_OFFSET), this.handler);
+  }
+}
@@ -0,0 +1,312 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.reef.benchmarks;
+
+import org.apache.reef.driver.context.ActiveContext;
+import org.apache.reef.driver.parameters.DriverIdentifier;
+import org.apache.reef.driver.task.RunningTask;
+import org.apache.reef.driver.task.TaskConfiguration;
+import org.apache.reef.io.network.group.api.driver.CommunicationGroupDriver;
+import org.apache.reef.io.network.group.api.driver.GroupCommDriver;
+import org.apache.reef.io.network.group.api.driver.GroupCommServiceDriver;
+import org.apache.reef.io.network.group.api.task.CommunicationGroupClient;
+import org.apache.reef.io.network.group.api.task.GroupCommClient;
+import org.apache.reef.io.network.group.impl.config.BroadcastOperatorSpec;
+import org.apache.reef.io.network.group.impl.config.GatherOperatorSpec;
+import org.apache.reef.io.network.group.impl.config.ReduceOperatorSpec;
+import org.apache.reef.io.network.group.impl.config.ScatterOperatorSpec;
+import org.apache.reef.io.network.group.impl.driver.FlatTopology;
+import org.apache.reef.io.network.group.impl.primitive.IntArrayCodec;
+import org.apache.reef.io.network.group.impl.primitive.IntArrayPartitioner;
+import org.apache.reef.io.network.group.impl.primitive.IntArrayReduceFunction;
+import org.apache.reef.io.network.impl.NetworkService;
+import org.apache.reef.io.network.naming.NameServer;
+import org.apache.reef.io.network.util.StringIdentifierFactory;
+import org.apache.reef.runtime.common.driver.task.TaskRepresenter;
+import org.apache.reef.tang.Configuration;
+import org.apache.reef.tang.Injector;
+import org.apache.reef.tang.Tang;
+import org.apache.reef.tang.annotations.Name;
+import org.apache.reef.tang.annotations.NamedParameter;
+import org.apache.reef.task.Task;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One round of the Broadcast, Reduce, Scatter or Gather operator between a root task and its children.
+ * <p>
+ * The setup runs the driver and the tasks of a communication group in this JVM: GroupCommDriver builds the
+ * flat topology, and each task gets its GroupCommClient and NetworkService from the task and service
+ * configurations the driver hands out, as an evaluator would. A round is one call of the operator on every
+ * task, each on its own thread, so it measures the operator classes on top of the loopback transport.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class GroupCommBenchmark {
+
+  private static final String DRIVER_ID = "GroupCommBenchmarkDriver";
+  private static final String ROOT_ID = "task-0";
+
+  @Param({"Broadcast", "Reduce", "Scatter", "Gather"})
+  private String operator;
+
+  @Param({"4"})
+  private int numChildren;
+
+  @Param({"1024", "65536"})
+  private int numElements;
+
+  private int[] data;
+  private List<int[]> blocks;
+
+  private NameServer nameServer;
+  private ExecutorService executor;
+  private final List<NetworkService<?>> taskServices = new ArrayList<>();
+  private final List<BenchmarkTask> tasks = new ArrayList<>();
+
+  /**
+   * Name of the communication group.
+   */
+  @NamedParameter
+  public static final class BenchmarkGroup implements Name<String> {
+  }
+
+  /**
+   * Name of the operator.
+   */
+  @NamedParameter
+  public static final class BenchmarkOperator implements Name<String> {
+  }
+
+  @Setup
+  public void setUp() throws Exception {
+    final int numTasks = this.numChildren + 1;
+    this.data = new int[this.numElements];
+    for (int i = 0; i < this.numElements; ++i) {
+      this.data[i] = i;
+    }
+    this.blocks = new IntArrayPartitioner().split(this.data, numTasks);
+
+    final Injector driverInjector = Tang.Factory.getTang().newInjector(Tang.Factory.getTang()
+        .newConfigurationBuilder().bindNamedParameter(DriverIdentifier.class, DRIVER_ID).build());
+    final GroupCommServiceDriver groupCommDriver =
+        (GroupCommServiceDriver) driverInjector.getInstance(GroupCommDriver.class);
+    this.nameServer = driverInjector.getInstance(NameServer.class);
+
+    final CommunicationGroupDriver commGroupDriver = groupCommDriver
+        .newCommunicationGroup(BenchmarkGroup.class, FlatTopology.class, numTasks, numTasks);
+    addOperator(commGroupDriver);
+    commGroupDriver.finalise();
+
+    for (int i = 0; i < numTasks; ++i) {
+      final String taskId = "task-" + i;
+      final Configuration partialTaskConf = TaskConfiguration.CONF
+          .set(TaskConfiguration.IDENTIFIER, taskId)
+          .set(TaskConfiguration.TASK, IdleTask.class)
+          .build();
+      commGroupDriver.addTask(partialTaskConf);
+      final Injector taskInjector = Tang.Factory.getTang().newInjector(
+          groupCommDriver.getTaskConfiguration(partialTaskConf), groupCommDriver.getServiceConfiguration());
+      // what BindNSToTask does when the task starts on an evaluator
+      final NetworkService<?> taskService = taskInjector.getInstance(NetworkService.class);
+      taskService.registerId(new StringIdentifierFactory().getNewInstance(taskId));
+      this.taskServices.add(taskService);
+      this.tasks.add(new BenchmarkTask(taskId,
+          taskInjector.getInstance(GroupCommClient.class).getCommunicationGroup(BenchmarkGroup.class)));
+    }
+    for (final BenchmarkTask task : this.tasks) {
+      groupCommDriver.getGroupCommRunningTaskStage().onNext(new LocalRunningTask(task.taskId));
+    }
+    this.executor = Executors.newFixedThreadPool(numTasks);
+  }
+
+  private void addOperator(final CommunicationGroupDriver commGroupDriver) {
+    switch (this.operator) {
+    case "Broadcast":
+      commGroupDriver.addBroadcast(BenchmarkOperator.class, BroadcastOperatorSpec.newBuilder()
+          .setSenderId(ROOT_ID).setDataCodecClass(IntArrayCodec.class).build());
+      break;
+    case "Reduce":
+      commGroupDriver.addReduce(BenchmarkOperator.class, ReduceOperatorSpec.newBuilder()
+          .setReceiverId(ROOT_ID).setDataCodecClass(IntArrayCodec.class)
+          .setReduceFunctionClass(IntArrayReduceFunction.Sum.class).build());
+      break;
+    case "Scatter":
+      commGroupDriver.addScatter(BenchmarkOperator.class, ScatterOperatorSpec.newBuilder()
+          .setSenderId(ROOT_ID).setDataCodecClass(IntArrayCodec.class).build());
+      break;
+    case "Gather":
+      commGroupDriver.addGather(BenchmarkOperator.class, GatherOperatorSpec.newBuilder()
+          .setReceiverId(ROOT_ID).setDataCodecClass(IntArrayCodec.class).build());
+      break;
+    default:
+      throw new IllegalStateException("Unsupported operator " + this.operator);
+    }
+  }
+
+  @TearDown
+  public void tearDown() throws Exception {
+    this.executor.shutdownNow();
+    for (final NetworkService<?> taskService : this.taskServices) {
+      taskService.close();
+    }
+    this.nameServer.close();
+  }
+
+  @Benchmark
+  public int round() throws Exception {
+    int checksum = 0;
+    for (final Future<Integer> result : this.executor.invokeAll(this.tasks)) {
+      checksum += result.get();
+    }
+    return checksum;
+  }
+
+  /**
+   * The task side of one round: the root sends or receives, the children receive or send.
+   */
+  private final class BenchmarkTask implements Callable<Integer> {
+
+    private final String taskId;
+    private final CommunicationGroupClient commGroupClient;
+    private final boolean isRoot;
+
+    BenchmarkTask(final String taskId, final CommunicationGroupClient commGroupClient) {
+      this.taskId = taskId;
+      this.commGroupClient = commGroupClient;
+      this.isRoot = ROOT_ID.equals(taskId);
+    }
+
+    @Override
+    public Integer call() throws Exception {
+      switch (operator) {
+      case "Broadcast":
+        if (this.isRoot) {
+          this.commGroupClient.getBroadcastSender(BenchmarkOperator.class).send(data);
+          return data.length;
+        }
+        return ((int[]) this.commGroupClient.getBroadcastReceiver(BenchmarkOperator.class).receive()).length;
+      case "Reduce":
+        if (this.isRoot) {
+          return ((int[]) this.commGroupClient.getReduceReceiver(BenchmarkOperator.class).reduce())[0];
+        }
+        this.commGroupClient.getReduceSender(BenchmarkOperator.class).send(data);
+        return 0;
+      case "Scatter":
+        if (this.isRoot) {
+          this.commGroupClient.getScatterSender(BenchmarkOperator.class).send(blocks);
+          return blocks.size();
+        }
+        return this.commGroupClient.getScatterReceiver(BenchmarkOperator.class).receive().size();
+      case "Gather":
+        if (this.isRoot) {
+          return this.commGroupClient.getGatherReceiver(BenchmarkOperator.class).receive().size();
+        }
+        this.commGroupClient.getGatherSender(BenchmarkOperator.class).send(blocks.get(0));
+        return 0;
+      default:
+        throw new IllegalStateException("Unsupported operator " + operator);
+      }
+    }
+  }
+
+  /**
+   * The task class named in the task configurations; the benchmark calls the operators itself.
+   */
+  public static final class IdleTask implements Task {
+    @Override
+    public byte[] call(final byte[] memento) {
+      return null;
+    }
+  }
+
+  /**
+   * The running task event that the driver would get from an evaluator; only the identifier is used.
+   */
+  private static final class LocalRunningTask implements RunningTask {
+
+    private final String taskId;
+
+    LocalRunningTask(final String taskId) {
+      this.taskId = taskId;
+    }
+
+    @Override
+    public String getId() {
+      return this.taskId;
+    }
+
+    @Override
+    public ActiveContext getActiveContext() {
+      throw new UnsupportedOperationException("No context in the benchmark");
+    }
+
+    @Override
+    public void send(final byte[] message) {
+      throw new UnsupportedOperationException("No evaluator in the benchmark");
+    }
+
+    @Override
+    public void suspend(final byte[] message) {
+      throw new UnsupportedOperationException("No evaluator in the benchmark");
+    }
+
+    @Override
+    public void suspend() {
+      throw new UnsupportedOperationException("No evaluator in the benchmark");
+    }
+
+    @Override
+    public void close(final byte[] message) {
+      throw new UnsupportedOperationException("No evaluator in the benchmark");
+    }
+
+    @Override
+    public void close() {
+      throw new UnsupportedOperationException("No evaluator in the benchmark");
+    }
+
+    @Override
+    public TaskRepresenter getTaskRepresenter() {
+      throw new UnsupportedOperationException("No evaluator in the benchmark");
+    }
+  }
+}
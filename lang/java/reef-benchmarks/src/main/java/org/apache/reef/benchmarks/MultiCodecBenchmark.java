@@ -0,0 +1,98 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.reef.benchmarks;
+
+import org.apache.reef.wake.remote.Codec;
+import org.apache.reef.wake.remote.impl.ByteCodec;
+import org.apache.reef.wake.remote.impl.MultiCodec;
+import org.apache.reef.wake.remote.impl.ObjectSerializableCodec;
+import org.apache.reef.wake.remote.impl.StringCodec;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Type dispatch of MultiCodec: looking up the codec of an event's class on encode,
+ * and of the encoded class name or type tag on decode.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class MultiCodecBenchmark {
+
+  @Param({"String", "byte[]", "Long"})
+  private String type;
+
+  @Param({"false", "true"})
+  private boolean compactTypeTags;
+
+  private MultiCodec<Object> codec;
+  private Object event;
+  private byte[] encoded;
+
+  @Setup
+  public void setUp() {
+    final Map<Class<? extends Object>, Codec<? extends Object>> codecs = new HashMap<>();
+    codecs.put(String.class, new StringCodec());
+    codecs.put(byte[].class, new ByteCodec());
+    codecs.put(Long.class, new ObjectSerializableCodec<Long>());
+    codecs.put(Double.class, new ObjectSerializableCodec<Double>());
+    this.codec = new MultiCodec<>(codecs, this.compactTypeTags);
+
+    switch (this.type) {
+    case "String":
+      this.event = "multi-codec-benchmark";
+      break;
+    case "byte[]":
+      this.event = new byte[64];
+      break;
+    case "Long":
+      this.event = Long.valueOf(42L);
+      break;
+    default:
+      throw new IllegalArgumentException("Unknown type " + this.type);
+    }
+    this.encoded = this.codec.encode(this.event);
+  }
+
+  @Benchmark
+  public byte[] encode() {
+    return this.codec.encode(this.event);
+  }
+
+  @Benchmark
+  public Object decode() {
+    return this.codec.decode(this.encoded);
+  }
+}
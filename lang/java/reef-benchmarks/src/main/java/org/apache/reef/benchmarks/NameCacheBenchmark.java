@@ -0,0 +1,106 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.reef.benchmarks;
+
+import org.apache.reef.io.network.naming.NameCache;
+import org.apache.reef.io.network.util.StringIdentifierFactory;
+import org.apache.reef.wake.Identifier;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.net.InetSocketAddress;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Lookups in the NameCache every NetworkConnectionService consults before opening a link.
+ * A hit returns a cached address; a miss loads the address through the fetcher, as after an invalidation.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(4)
+@State(Scope.Benchmark)
+public class NameCacheBenchmark {
+
+  private static final long TIMEOUT = TimeUnit.HOURS.toMillis(1);
+
+  @Param({"16", "4096"})
+  private int numEntries;
+
+  private NameCache cache;
+  private Identifier[] ids;
+  private Callable<InetSocketAddress> fetcher;
+
+  /**
+   * Index of the next identifier to look up, private to each benchmark thread.
+   */
+  @State(Scope.Thread)
+  public static class Cursor {
+    private int next = 0;
+
+    int next(final int bound) {
+      this.next = (this.next + 1) % bound;
+      return this.next;
+    }
+  }
+
+  @Setup
+  public void setUp() throws ExecutionException {
+    final StringIdentifierFactory factory = new StringIdentifierFactory();
+    final InetSocketAddress address = new InetSocketAddress("127.0.0.1", 10000);
+    this.fetcher = new Callable<InetSocketAddress>() {
+      @Override
+      public InetSocketAddress call() {
+        return address;
+      }
+    };
+    this.cache = new NameCache(TIMEOUT);
+    this.ids = new Identifier[this.numEntries];
+    for (int i = 0; i < this.numEntries; ++i) {
+      this.ids[i] = factory.getNewInstance("task-" + i);
+      this.cache.get(this.ids[i], this.fetcher);
+    }
+  }
+
+  @Benchmark
+  public InetSocketAddress hit(final Cursor cursor) throws ExecutionException {
+    return this.cache.get(this.ids[cursor.next(this.numEntries)], this.fetcher);
+  }
+
+  @Benchmark
+  public InetSocketAddress miss(final Cursor cursor) throws ExecutionException {
+    final Identifier id = this.ids[cursor.next(this.numEntries)];
+    this.cache.invalidate(id);
+    return this.cache.get(id, this.fetcher);
+  }
+}
@@ -0,0 +1,112 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.reef.benchmarks;
+
+import org.apache.reef.tang.Injector;
+import org.apache.reef.tang.Tang;
+import org.apache.reef.wake.EventHandler;
+import org.apache.reef.wake.impl.SyncStage;
+import org.apache.reef.wake.remote.address.LocalAddressProvider;
+import org.apache.reef.wake.remote.impl.ByteCodec;
+import org.apache.reef.wake.remote.impl.TransportEvent;
+import org.apache.reef.wake.remote.transport.Link;
+import org.apache.reef.wake.remote.transport.Transport;
+import org.apache.reef.wake.remote.transport.TransportFactory;
+import org.apache.reef.wake.remote.transport.netty.LoggingLinkListener;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.net.InetSocketAddress;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Round trips over the loopback interface between two NettyMessagingTransports:
+ * the server echoes every message back on the link it arrived on.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class NettyTransportBenchmark {
+
+  @Param({"16", "1024", "65536"})
+  private int payloadSize;
+
+  private final AtomicLong received = new AtomicLong();
+  private long sent = 0;
+  private byte[] payload;
+  private Transport server;
+  private Transport client;
+  private Link<byte[]> link;
+
+  @Setup
+  public void setUp() throws Exception {
+    final Injector injector = Tang.Factory.getTang().newInjector();
+    final String hostAddress = injector.getInstance(LocalAddressProvider.class).getLocalAddress();
+    final TransportFactory tpFactory = injector.getInstance(TransportFactory.class);
+
+    final SyncStage<TransportEvent> echoStage = new SyncStage<>(new EventHandler<TransportEvent>() {
+      @Override
+      public void onNext(final TransportEvent value) {
+        value.getLink().write(value.getData());
+      }
+    });
+    final SyncStage<TransportEvent> replyStage = new SyncStage<>(new EventHandler<TransportEvent>() {
+      @Override
+      public void onNext(final TransportEvent value) {
+        value.release();
+        received.incrementAndGet();
+      }
+    });
+
+    this.server = tpFactory.newInstance(hostAddress, 0, echoStage, echoStage, 1, 10000);
+    this.client = tpFactory.newInstance(hostAddress, 0, replyStage, replyStage, 1, 10000);
+    this.link = this.client.open(new InetSocketAddress(hostAddress, this.server.getListeningPort()),
+        new ByteCodec(), new LoggingLinkListener<byte[]>());
+    this.payload = new byte[this.payloadSize];
+  }
+
+  @TearDown
+  public void tearDown() throws Exception {
+    this.client.close();
+    this.server.close();
+  }
+
+  @Benchmark
+  public void roundTrip() {
+    this.link.write(this.payload);
+    ++this.sent;
+    while (this.received.get() < this.sent) {
+      Thread.yield();
+    }
+  }
+}
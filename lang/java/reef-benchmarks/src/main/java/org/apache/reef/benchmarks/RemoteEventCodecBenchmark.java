@@ -0,0 +1,77 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.reef.benchmarks;
+
+import org.apache.reef.wake.remote.impl.ByteCodec;
+import org.apache.reef.wake.remote.impl.RemoteEvent;
+import org.apache.reef.wake.remote.impl.RemoteEventCodec;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.net.InetSocketAddress;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Encoding and decoding of RemoteEvents, i.e. the envelope every remote manager message goes through.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class RemoteEventCodecBenchmark {
+
+  @Param({"16", "1024", "65536"})
+  private int payloadSize;
+
+  private RemoteEventCodec<byte[]> codec;
+  private RemoteEvent<byte[]> event;
+  private byte[] encoded;
+
+  @Setup
+  public void setUp() {
+    final byte[] payload = new byte[this.payloadSize];
+    new Random(0).nextBytes(payload);
+    this.codec = new RemoteEventCodec<>(new ByteCodec());
+    this.event = new RemoteEvent<>(new InetSocketAddress("127.0.0.1", 10001),
+        new InetSocketAddress("127.0.0.1", 10002), 1L, payload);
+    this.encoded = this.codec.encode(this.event);
+  }
+
+  @Benchmark
+  public byte[] encode() {
+    return this.codec.encode(this.event);
+  }
+
+  @Benchmark
+  public RemoteEvent<byte[]> decode() {
+    return this.codec.decode(this.encoded);
+  }
+}
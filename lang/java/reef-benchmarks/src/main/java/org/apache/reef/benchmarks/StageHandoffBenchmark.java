@@ -0,0 +1,116 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.reef.benchmarks;
+
+import org.apache.reef.wake.EStage;
+import org.apache.reef.wake.EventHandler;
+import org.apache.reef.wake.impl.RingBufferStage;
+import org.apache.reef.wake.impl.SingleThreadStage;
+import org.apache.reef.wake.impl.ThreadPoolStage;
+import org.apache.reef.wake.impl.WorkStealingStage;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Handoff of events from a producer thread to the threads of a stage.
+ * Each invocation submits a batch of events and waits until the stage has handled all of them,
+ * so the score is the sustained rate of the stage rather than the rate of filling its queue.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class StageHandoffBenchmark {
+
+  private static final int BATCH = 1024;
+  private static final int CAPACITY = 65536;
+  private static final Object EVENT = new Object();
+
+  @Param({"ThreadPoolStage", "SingleThreadStage", "WorkStealingStage", "RingBufferStage"})
+  private String stage;
+
+  /**
+   * Worker threads of ThreadPoolStage and WorkStealingStage; the other stages always have a single consumer.
+   */
+  @Param({"1", "4"})
+  private int numThreads;
+
+  private final AtomicLong handled = new AtomicLong();
+  private long submitted = 0;
+  private EStage<Object> eStage;
+
+  @Setup
+  public void setUp() {
+    final EventHandler<Object> handler = new EventHandler<Object>() {
+      @Override
+      public void onNext(final Object value) {
+        handled.incrementAndGet();
+      }
+    };
+    switch (this.stage) {
+    case "ThreadPoolStage":
+      this.eStage = new ThreadPoolStage<>(handler, this.numThreads);
+      break;
+    case "SingleThreadStage":
+      this.eStage = new SingleThreadStage<>(handler, CAPACITY);
+      break;
+    case "WorkStealingStage":
+      this.eStage = new WorkStealingStage<>(handler, this.numThreads);
+      break;
+    case "RingBufferStage":
+      this.eStage = new RingBufferStage<>(handler, CAPACITY);
+      break;
+    default:
+      throw new IllegalArgumentException("Unknown stage " + this.stage);
+    }
+  }
+
+  @TearDown
+  public void tearDown() throws Exception {
+    this.eStage.close();
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(BATCH)
+  public void handoff() {
+    for (int i = 0; i < BATCH; ++i) {
+      this.eStage.onNext(EVENT);
+    }
+    this.submitted += BATCH;
+    while (this.handled.get() < this.submitted) {
+      Thread.yield();
+    }
+  }
+}
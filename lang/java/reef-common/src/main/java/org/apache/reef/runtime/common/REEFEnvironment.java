@@ -29,7 +29,9 @@ import org.apache.reef.tang.Tang;
 import org.apache.reef.tang.exceptions.InjectionException;
 import org.apache.reef.util.EnvironmentUtils;
 import org.apache.reef.util.REEFVersion;
+import org.apache.reef.wake.metrics.MetricsReporter;
 import org.apache.reef.wake.profiler.WakeProfiler;
+import org.apache.reef.wake.profiler.HandlerProfiler;
 import org.apache.reef.wake.profiler.ProfilerState;
 import org.apache.reef.wake.time.Clock;
 
@@ -58,6 +60,9 @@ public final class REEFEnvironment implements Runnable, AutoCloseable {
 
   private final JobStatusHandler jobStatusHandler;
 
+  /** Periodic dumps of the Wake stage and link metrics, if enabled. */
+  private final MetricsReporter metricsReporter;
+
   /**
    * Create a new REEF environment.
    * @param configurations REEF component (Driver or Evaluator) configuration.
@@ -88,7 +93,7 @@ public final class REEFEnvironment implements Runnable, AutoCloseable {
       LOG.log(Level.FINEST, "Configuration:\n--\n{0}\n--", Configurations.toString(config, true));
     }
 
-    final Injector injector = TANG.newInjector(config);
+    final Injector injector = newInjector(config);
 
     if (ProfilerState.isProfilingEnabled(injector)) {
       final WakeProfiler profiler = new WakeProfiler();
@@ -96,10 +101,16 @@ public final class REEFEnvironment implements Runnable, AutoCloseable {
       injector.bindAspect(profiler);
     }
 
+    final int samplingInterval = ProfilerState.getSamplingInterval(injector);
+    if (samplingInterval > 0) {
+      HandlerProfiler.instance().start(samplingInterval);
+    }
+
     injector.getInstance(REEFVersion.class).logVersion();
 
     final REEFErrorHandler errorHandler = injector.getInstance(REEFErrorHandler.class);
     final JobStatusHandler jobStatusHandler = injector.getInstance(JobStatusHandler.class);
+    final MetricsReporter metricsReporter = injector.getInstance(MetricsReporter.class);
 
     if (hostUser != null) {
       try {
@@ -114,7 +125,7 @@ public final class REEFEnvironment implements Runnable, AutoCloseable {
     try {
 
       final Clock clock = injector.getInstance(Clock.class);
-      return new REEFEnvironment(clock, errorHandler, jobStatusHandler);
+      return new REEFEnvironment(clock, errorHandler, jobStatusHandler, metricsReporter);
 
     } catch (final Throwable ex) {
       LOG.log(Level.SEVERE, "Error while instantiating the clock", ex);
@@ -127,19 +138,36 @@ public final class REEFEnvironment implements Runnable, AutoCloseable {
     }
   }
 
+  /**
+   * Creates the injector of the environment. When profiling, the ProfilingStopHandler is bound
+   * to the stop event of the Clock, so that the profiles are written when the clock stops.
+   * @param config REEF component configuration.
+   * @return Injector of the environment.
+   * @throws InjectionException Thrown on configuration error.
+   */
+  private static Injector newInjector(final Configuration config) throws InjectionException {
+    final Injector injector = TANG.newInjector(config);
+    if (!ProfilerState.isProfilingEnabled(injector) && ProfilerState.getSamplingInterval(injector) <= 0) {
+      return injector;
+    }
+    return TANG.newInjector(Configurations.merge(config, ProfilingStopHandler.CONF));
+  }
+
   /**
    * Use .fromConfiguration() method to create new REEF environment.
    * @param clock main event loop.
    * @param errorHandler error handler.
    * @param jobStatusHandler an object that receives notifications on job status changes
    * and can be queried for the last received job status.
+   * @param metricsReporter periodic dumps of the Wake metrics.
    */
-  private REEFEnvironment(
-      final Clock clock, final REEFErrorHandler errorHandler, final JobStatusHandler jobStatusHandler) {
+  private REEFEnvironment(final Clock clock, final REEFErrorHandler errorHandler,
+                          final JobStatusHandler jobStatusHandler, final MetricsReporter metricsReporter) {
 
     this.clock = clock;
     this.errorHandler = errorHandler;
     this.jobStatusHandler = jobStatusHandler;
+    this.metricsReporter = metricsReporter;
   }
 
   /**
@@ -162,6 +190,11 @@ public final class REEFEnvironment implements Runnable, AutoCloseable {
         LOG.log(Level.SEVERE, "Error while handling the exception " + ex, exHandling);
       }
     } finally {
+      try {
+        this.metricsReporter.close();
+      } catch (final Throwable ex) {
+        LOG.log(Level.SEVERE, "Error while closing the metrics reporter", ex);
+      }
       try {
         this.errorHandler.close();
       } catch (final Throwable ex) {
@@ -19,9 +19,13 @@
 package org.apache.reef.runtime.common.launch;
 
 import org.apache.reef.runtime.common.launch.parameters.LaunchID;
+import org.apache.reef.tang.Configuration;
+import org.apache.reef.tang.Tang;
 import org.apache.reef.tang.annotations.Parameter;
 import org.apache.reef.wake.EventHandler;
+import org.apache.reef.wake.profiler.HandlerProfiler;
 import org.apache.reef.wake.profiler.WakeProfiler;
+import org.apache.reef.wake.time.Clock;
 import org.apache.reef.wake.time.event.StopTime;
 
 import javax.inject.Inject;
@@ -32,10 +36,19 @@ import java.util.logging.Level;
 import java.util.logging.Logger;
 
 /**
- * An EventHandler that writes out the profiler results.
+ * An EventHandler that writes out the profiler results: the object graph of the WakeProfiler,
+ * and the flame graph stacks and Chrome trace of the HandlerProfiler if it sampled the handlers.
  */
 public final class ProfilingStopHandler implements EventHandler<StopTime> {
   private static final Logger LOG = Logger.getLogger(ProfilingStopHandler.class.getName());
+
+  /**
+   * Binds the handler to the stop event of the Clock, so that the profiles are written when the process stops.
+   */
+  public static final Configuration CONF = Tang.Factory.getTang().newConfigurationBuilder()
+      .bindSetEntry(Clock.StopHandler.class, ProfilingStopHandler.class)
+      .build();
+
   private static WakeProfiler profiler;
   private final String launchID;
 
@@ -50,10 +63,22 @@ public final class ProfilingStopHandler implements EventHandler<StopTime> {
 
   @Override
   public void onNext(final StopTime stopTime) {
-    try (final PrintWriter out = new PrintWriter("profile-" + launchID + ".json", "UTF-8")) {
-      out.print(profiler.objectGraphToString());
+    if (profiler != null) {
+      write("profile-" + launchID + ".json", profiler.objectGraphToString());
+    }
+    final HandlerProfiler handlerProfiler = HandlerProfiler.instance();
+    if (handlerProfiler.isRunning()) {
+      handlerProfiler.stop();
+      write("profile-" + launchID + ".folded", handlerProfiler.toFoldedStacks(true));
+      write("profile-" + launchID + ".trace.json", handlerProfiler.toChromeTrace());
+    }
+  }
+
+  private static void write(final String fileName, final String profile) {
+    try (final PrintWriter out = new PrintWriter(fileName, "UTF-8")) {
+      out.print(profile);
     } catch (final FileNotFoundException | UnsupportedEncodingException e) {
-      LOG.log(Level.WARNING, "Unable to write the profile", e);
+      LOG.log(Level.WARNING, "Unable to write the profile " + fileName, e);
     }
   }
 }
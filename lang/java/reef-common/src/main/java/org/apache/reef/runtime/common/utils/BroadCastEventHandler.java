@@ -19,6 +19,8 @@
 package org.apache.reef.runtime.common.utils;
 
 import org.apache.reef.wake.EventHandler;
+import org.apache.reef.wake.metrics.StageMetrics;
+import org.apache.reef.wake.profiler.HandlerProfiler;
 
 import java.util.ArrayList;
 import java.util.Collection;
@@ -37,7 +39,13 @@ public class BroadCastEventHandler<E> implements EventHandler<E> {
   @Override
   public void onNext(final E event) {
     for (final EventHandler<E> handler : handlers) {
-      handler.onNext(event);
+      // shows the user handlers in the stacks of the HandlerProfiler, under the stage that dispatched the event
+      final HandlerProfiler.Sample sample = HandlerProfiler.instance().begin(null, handler, StageMetrics.NOT_TIMED);
+      try {
+        handler.onNext(event);
+      } finally {
+        HandlerProfiler.instance().end(sample);
+      }
     }
   }
 
@@ -0,0 +1,98 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.reef.runtime.common.launch;
+
+import org.apache.reef.runtime.common.launch.parameters.LaunchID;
+import org.apache.reef.tang.Configurations;
+import org.apache.reef.tang.Tang;
+import org.apache.reef.wake.EventHandler;
+import org.apache.reef.wake.impl.SyncStage;
+import org.apache.reef.wake.profiler.HandlerProfiler;
+import org.apache.reef.wake.time.Clock;
+import org.apache.reef.wake.time.event.StopTime;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Set;
+
+import static org.junit.Assert.*;
+
+/**
+ * Test for ProfilingStopHandler.
+ */
+public final class ProfilingStopHandlerTest {
+
+  private static final String LAUNCH_ID = "ProfilingStopHandlerTest";
+
+  /**
+   * Test that the configuration of the handler binds it to the stop event of the Clock.
+   */
+  @Test
+  public void testBoundToClockStop() throws Exception {
+    final Set<EventHandler<StopTime>> stopHandlers = Tang.Factory.getTang().newInjector(Configurations.merge(
+        ProfilingStopHandler.CONF,
+        Tang.Factory.getTang().newConfigurationBuilder().bindNamedParameter(LaunchID.class, LAUNCH_ID).build()))
+        .getNamedInstance(Clock.StopHandler.class);
+    assertEquals(1, stopHandlers.size());
+    assertTrue(stopHandlers.iterator().next() instanceof ProfilingStopHandler);
+  }
+
+  /**
+   * Test that the stop event stops the handler profiler and writes its folded stacks and Chrome trace.
+   */
+  @Test
+  public void testExportOnStop() throws Exception {
+    final File folded = new File("profile-" + LAUNCH_ID + ".folded");
+    final File trace = new File("profile-" + LAUNCH_ID + ".trace.json");
+    final HandlerProfiler profiler = HandlerProfiler.instance();
+    profiler.start(1);
+    try {
+      final SyncStage<Integer> stage = new SyncStage<>("ProfiledStage", new ProfiledHandler());
+      for (int i = 0; i < 10; ++i) {
+        stage.onNext(i);
+      }
+      stage.close();
+
+      new ProfilingStopHandler(LAUNCH_ID).onNext(new StopTime(0));
+
+      assertFalse(profiler.isRunning());
+      final String stacks = read(folded);
+      assertTrue(stacks, stacks.contains("ProfiledStage;") && stacks.contains("ProfiledHandler"));
+      final String events = read(trace);
+      assertTrue(events, events.contains("\"traceEvents\":[") && events.contains("\"cat\":\"ProfiledStage\""));
+    } finally {
+      profiler.stop();
+      Files.deleteIfExists(folded.toPath());
+      Files.deleteIfExists(trace.toPath());
+    }
+  }
+
+  private static String read(final File file) throws IOException {
+    return new String(Files.readAllBytes(file.toPath()), StandardCharsets.UTF_8);
+  }
+
+  private static final class ProfiledHandler implements EventHandler<Integer> {
+    @Override
+    public void onNext(final Integer value) {
+    }
+  }
+}
@@ -19,6 +19,8 @@
 package org.apache.reef.io.network.group.api.driver;
 
 import org.apache.reef.annotations.audience.DriverSide;
+import org.apache.reef.driver.evaluator.EvaluatorDescriptor;
+import org.apache.reef.io.network.group.impl.config.AllReduceOperatorSpec;
 import org.apache.reef.io.network.group.impl.config.BroadcastOperatorSpec;
 import org.apache.reef.io.network.group.impl.config.GatherOperatorSpec;
 import org.apache.reef.io.network.group.impl.config.ReduceOperatorSpec;
@@ -78,6 +80,15 @@ public interface CommunicationGroupDriver {
    */
   CommunicationGroupDriver addGather(Class<? extends Name<String>> operatorName, GatherOperatorSpec spec);
 
+  /**
+   * Add the all-reduce operator specified by {@code operatorName} and {@code spec}.
+   *
+   * @param operatorName
+   * @param spec
+   * @return
+   */
+  CommunicationGroupDriver addAllReduce(Class<? extends Name<String>> operatorName, AllReduceOperatorSpec spec);
+
   /**
    * This signals to the service that no more.
    * operator specs will be added to this communication
@@ -106,4 +117,16 @@ public interface CommunicationGroupDriver {
    * @param partialTaskConf
    */
   void addTask(Configuration partialTaskConf);
+
+  /**
+   * Add the task represented by this configuration to this
+   * communication group, recording that it runs on the evaluator
+   * described by 'evaluatorDescriptor'. Topologies that implement
+   * {@link LocalityAwareTopology} use the node and rack of the
+   * evaluator to place the task.
+   *
+   * @param partialTaskConf
+   * @param evaluatorDescriptor
+   */
+  void addTask(Configuration partialTaskConf, EvaluatorDescriptor evaluatorDescriptor);
 }
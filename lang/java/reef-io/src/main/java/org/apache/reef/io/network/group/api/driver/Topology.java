@@ -26,8 +26,8 @@ import org.apache.reef.tang.Configuration;
  * A topology should implement the following
  * interface so that it can work with the
  * elastic group communication framework
- * Currently we have two implementations
- * 1. Flat 2. Tree
+ * Currently we have three implementations
+ * 1. Flat 2. Tree 3. Hierarchical (locality-aware)
  */
 public interface Topology {
 
@@ -19,6 +19,8 @@
 package org.apache.reef.io.network.group.api.operators;
 
 import org.apache.reef.exception.evaluator.NetworkException;
+import org.apache.reef.io.network.group.impl.operators.AllReducer;
+import org.apache.reef.tang.annotations.DefaultImplementation;
 import org.apache.reef.wake.Identifier;
 
 import java.util.List;
@@ -28,6 +30,7 @@ import java.util.List;
  * type T. The result will be an element which is result of applying a reduce
  * function on the list of all elements on which this operator has been applied
  */
+@DefaultImplementation(AllReducer.class)
 public interface AllReduce<T> extends GroupCommOperator {
 
   /**
@@ -52,4 +55,36 @@ public interface AllReduce<T> extends GroupCommOperator {
    * @return {@link org.apache.reef.io.network.group.api.operators.Reduce.ReduceFunction}
    */
   Reduce.ReduceFunction<T> getReduceFunction();
+
+  /**
+   * Splits an element into parts that can be reduced independently, so that
+   * large elements can be all-reduced with a ring of reduce-scatter and all-gather.
+   * Part i of every task's element is reduced with part i of the others,
+   * so all tasks must split their elements the same way.
+   */
+  interface Partitioner<T> {
+    /**
+     * Count the entries along which split divides the element, e.g. the length of an array.
+     * Operators derive the number of parts from this count, never from the encoded size,
+     * so that all tasks holding elements of the same length divide them the same way.
+     *
+     * @return number of entries of element, or 0 if element cannot be split
+     */
+    int size(T element);
+
+    /**
+     * Split the element into numParts parts.
+     *
+     * @return numParts parts of element, some of them possibly empty,
+     * or null if element cannot be split
+     */
+    List<T> split(T element, int numParts);
+
+    /**
+     * Join parts produced by split back into one element.
+     *
+     * @return element made of parts, in order
+     */
+    T join(List<T> parts);
+  }
 }
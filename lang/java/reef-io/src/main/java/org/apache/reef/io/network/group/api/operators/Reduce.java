@@ -96,4 +96,19 @@ public interface Reduce {
      */
     T apply(Iterable<T> elements);
   }
+
+  /**
+   * A {@link ReduceFunction} that folds one element at a time into an accumulator.
+   * The operators fold in the value of each child as soon as it arrives, so only
+   * the accumulator and the element being folded in are held in memory.
+   */
+  interface AccumulatingReduceFunction<T> extends ReduceFunction<T> {
+    /**
+     * Fold {@code next} into {@code acc}. The accumulator is owned by the operator
+     * and may be updated and returned in place; {@code next} must not be modified.
+     *
+     * @return the accumulated value
+     */
+    T accumulate(T acc, T next);
+  }
 }
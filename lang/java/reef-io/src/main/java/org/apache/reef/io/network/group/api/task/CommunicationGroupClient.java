@@ -19,6 +19,7 @@
 package org.apache.reef.io.network.group.api.task;
 
 import org.apache.reef.annotations.audience.TaskSide;
+import org.apache.reef.io.network.group.api.operators.AllReduce;
 import org.apache.reef.io.network.group.api.operators.Broadcast;
 import org.apache.reef.io.network.group.api.operators.Gather;
 import org.apache.reef.io.network.group.api.operators.Reduce;
@@ -119,6 +120,15 @@ public interface CommunicationGroupClient {
    */
   Gather.Sender getGatherSender(Class<? extends Name<String>> operatorName);
 
+  /**
+   * Return the all-reducer configured on this communication group.
+   * {@code operatorName} is used to specify the all-reducer to return.
+   *
+   * @param operatorName
+   * @return
+   */
+  AllReduce getAllReducer(Class<? extends Name<String>> operatorName);
+
   /**
    * @return Changes in topology of this communication group since the last time
    * this method was called
@@ -24,6 +24,7 @@ import org.apache.reef.io.network.group.impl.GroupCommunicationMessage;
 import org.apache.reef.io.network.proto.ReefNetworkGroupCommProtos;
 import org.apache.reef.io.serialization.Codec;
 
+import java.util.List;
 import java.util.Map;
 
 /**
@@ -61,5 +62,30 @@ public interface OperatorTopology {
 
   byte[] recvFromChildren() throws ParentDeadException;
 
+  /**
+   * Split {@code data} into chunks of at most {@code chunkBytes} bytes and send
+   * them to all children, one chunk after the other.
+   */
+  void sendChunksToChildren(byte[] data, int chunkBytes,
+                            ReefNetworkGroupCommProtos.GroupCommMessage.Type msgType) throws ParentDeadException;
+
+  /**
+   * Receive the chunks sent by the parent, forwarding each chunk to the
+   * children as soon as it arrives.
+   *
+   * @return the reassembled data or null if the parent died
+   */
+  byte[] recvChunksFromParent(ReefNetworkGroupCommProtos.GroupCommMessage.Type msgType) throws ParentDeadException;
+
+  /**
+   * Reduce the chunks sent by the children with {@code localChunks} one chunk
+   * index at a time, optionally sending each reduced chunk to the parent
+   * before the next one is complete.
+   *
+   * @return the reduced chunks or null if there was nothing to reduce
+   */
+  <T> List<T> recvChunksFromChildren(List<T> localChunks, ReduceFunction<T> redFunc, Codec<T> dataCodec,
+                                     boolean sendToParent) throws ParentDeadException;
+
   void initialize() throws ParentDeadException;
 }
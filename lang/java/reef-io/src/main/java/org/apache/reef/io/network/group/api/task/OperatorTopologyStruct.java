@@ -26,6 +26,7 @@ import org.apache.reef.io.serialization.Codec;
 import org.apache.reef.tang.annotations.Name;
 
 import java.util.Collection;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
@@ -75,4 +76,11 @@ public interface OperatorTopologyStruct {
   <T> T recvFromChildren(ReduceFunction<T> redFunc, Codec<T> dataCodec);
 
   byte[] recvFromChildren();
+
+  void sendChunksToChildren(byte[] data, int chunkBytes, ReefNetworkGroupCommProtos.GroupCommMessage.Type msgType);
+
+  byte[] recvChunksFromParent(ReefNetworkGroupCommProtos.GroupCommMessage.Type msgType);
+
+  <T> List<T> recvChunksFromChildren(List<T> localChunks, ReduceFunction<T> redFunc, Codec<T> dataCodec,
+                                     boolean sendToParent);
 }
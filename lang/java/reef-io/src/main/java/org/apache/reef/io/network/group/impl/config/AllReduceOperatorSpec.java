@@ -0,0 +1,161 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.reef.io.network.group.impl.config;
+
+import org.apache.reef.io.network.group.api.config.OperatorSpec;
+import org.apache.reef.io.network.group.api.operators.AllReduce.Partitioner;
+import org.apache.reef.io.network.group.api.operators.Reduce.ReduceFunction;
+import org.apache.reef.io.network.group.impl.utils.Utils;
+import org.apache.reef.io.network.group.impl.utils.WholeValuePartitioner;
+import org.apache.reef.io.serialization.Codec;
+
+/**
+ * The specification for the AllReduce operator.
+ * <p>
+ * Tasks exchange the data of an AllReduce among themselves; the root task only anchors
+ * the topology through which the driver tells the tasks who takes part.
+ */
+public class AllReduceOperatorSpec implements OperatorSpec {
+
+  private final String rootId;
+
+  /**
+   * Codec to be used to serialize data.
+   */
+  private final Class<? extends Codec> dataCodecClass;
+
+  /**
+   * The reduce function to be used for operations that do reduction.
+   */
+  private final Class<? extends ReduceFunction> redFuncClass;
+
+  /**
+   * The partitioner that splits large elements for the ring algorithm.
+   */
+  private final Class<? extends Partitioner> partitionerClass;
+
+  /**
+   * Number of entries, as counted by the partitioner, from which the ring algorithm is used.
+   */
+  private final int ringThreshold;
+
+  public AllReduceOperatorSpec(final String rootId,
+                               final Class<? extends Codec> dataCodecClass,
+                               final Class<? extends ReduceFunction> redFuncClass,
+                               final Class<? extends Partitioner> partitionerClass,
+                               final int ringThreshold) {
+    super();
+    this.rootId = rootId;
+    this.dataCodecClass = dataCodecClass;
+    this.redFuncClass = redFuncClass;
+    this.partitionerClass = partitionerClass;
+    this.ringThreshold = ringThreshold;
+  }
+
+  public String getRootId() {
+    return rootId;
+  }
+
+  /**
+   * @return the redFuncClass
+   */
+  public Class<? extends ReduceFunction> getRedFuncClass() {
+    return redFuncClass;
+  }
+
+  /**
+   * @return the partitionerClass
+   */
+  public Class<? extends Partitioner> getPartitionerClass() {
+    return partitionerClass;
+  }
+
+  /**
+   * @return the ringThreshold
+   */
+  public int getRingThreshold() {
+    return ringThreshold;
+  }
+
+  @Override
+  public Class<? extends Codec> getDataCodecClass() {
+    return dataCodecClass;
+  }
+
+  @Override
+  public String toString() {
+    return "AllReduce Operator Spec: [root=" + rootId + "] [dataCodecClass=" + Utils.simpleName(dataCodecClass)
+        + "] [reduceFunctionClass=" + Utils.simpleName(redFuncClass) + "] [partitionerClass="
+        + Utils.simpleName(partitionerClass) + "] [ringThreshold=" + ringThreshold + "]";
+  }
+
+  public static Builder newBuilder() {
+    return new AllReduceOperatorSpec.Builder();
+  }
+
+  public static class Builder implements org.apache.reef.util.Builder<AllReduceOperatorSpec> {
+
+    private String rootId;
+
+    private Class<? extends Codec> dataCodecClass;
+
+    private Class<? extends ReduceFunction> redFuncClass;
+
+    private Class<? extends Partitioner> partitionerClass = WholeValuePartitioner.class;
+
+    private int ringThreshold = 16384;
+
+    public Builder setRootId(final String rootId) {
+      this.rootId = rootId;
+      return this;
+    }
+
+    public Builder setDataCodecClass(final Class<? extends Codec> codecClazz) {
+      this.dataCodecClass = codecClazz;
+      return this;
+    }
+
+    @SuppressWarnings("checkstyle:hiddenfield")
+    public Builder setReduceFunctionClass(final Class<? extends ReduceFunction> redFuncClass) {
+      this.redFuncClass = redFuncClass;
+      return this;
+    }
+
+    /**
+     * Set the partitioner that splits large elements. Without one, recursive doubling is always used.
+     */
+    public Builder setPartitionerClass(final Class<? extends Partitioner> partitionerClass) {
+      this.partitionerClass = partitionerClass;
+      return this;
+    }
+
+    /**
+     * Set the number of entries, as counted by the partitioner, from which the ring algorithm is used.
+     */
+    public Builder setRingThreshold(final int ringThreshold) {
+      this.ringThreshold = ringThreshold;
+      return this;
+    }
+
+    @Override
+    public AllReduceOperatorSpec build() {
+      return new AllReduceOperatorSpec(rootId, dataCodecClass, redFuncClass, partitionerClass, ringThreshold);
+    }
+  }
+}
@@ -34,12 +34,24 @@ public class BroadcastOperatorSpec implements OperatorSpec {
    */
   private final Class<? extends Codec> dataCodecClass;
 
+  /**
+   * Size in bytes of the chunks the encoded value is pipelined in. Zero disables chunking.
+   */
+  private final int chunkBytes;
+
 
   public BroadcastOperatorSpec(final String senderId,
                                final Class<? extends Codec> dataCodecClass) {
+    this(senderId, dataCodecClass, 0);
+  }
+
+  public BroadcastOperatorSpec(final String senderId,
+                               final Class<? extends Codec> dataCodecClass,
+                               final int chunkBytes) {
     super();
     this.senderId = senderId;
     this.dataCodecClass = dataCodecClass;
+    this.chunkBytes = chunkBytes;
   }
 
   public String getSenderId() {
@@ -51,10 +63,14 @@ public class BroadcastOperatorSpec implements OperatorSpec {
     return dataCodecClass;
   }
 
+  public int getChunkBytes() {
+    return chunkBytes;
+  }
+
   @Override
   public String toString() {
     return "Broadcast Operator Spec: [sender=" + senderId + "] [dataCodecClass=" + Utils.simpleName(dataCodecClass)
-        + "]";
+        + "] [chunkBytes=" + chunkBytes + "]";
   }
 
   public static Builder newBuilder() {
@@ -66,6 +82,8 @@ public class BroadcastOperatorSpec implements OperatorSpec {
 
     private Class<? extends Codec> dataCodecClass;
 
+    private int chunkBytes = 0;
+
 
     public Builder setSenderId(final String senderId) {
       this.senderId = senderId;
@@ -77,9 +95,17 @@ public class BroadcastOperatorSpec implements OperatorSpec {
       return this;
     }
 
+    /**
+     * Set the number of bytes of the chunks encoded values are pipelined in.
+     */
+    public Builder setChunkBytes(final int chunkBytes) {
+      this.chunkBytes = chunkBytes;
+      return this;
+    }
+
     @Override
     public BroadcastOperatorSpec build() {
-      return new BroadcastOperatorSpec(senderId, dataCodecClass);
+      return new BroadcastOperatorSpec(senderId, dataCodecClass, chunkBytes);
     }
   }
 
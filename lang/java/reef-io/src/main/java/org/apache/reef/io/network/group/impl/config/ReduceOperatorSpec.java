@@ -18,9 +18,11 @@
  */
 package org.apache.reef.io.network.group.impl.config;
 
+import org.apache.reef.io.network.group.api.operators.AllReduce.Partitioner;
 import org.apache.reef.io.network.group.api.operators.Reduce.ReduceFunction;
 import org.apache.reef.io.network.group.api.config.OperatorSpec;
 import org.apache.reef.io.network.group.impl.utils.Utils;
+import org.apache.reef.io.network.group.impl.utils.WholeValuePartitioner;
 import org.apache.reef.io.serialization.Codec;
 
 /**
@@ -40,14 +42,35 @@ public class ReduceOperatorSpec implements OperatorSpec {
    */
   private final Class<? extends ReduceFunction> redFuncClass;
 
+  /**
+   * The partitioner used to split values into independently reduced segments when chunking is enabled.
+   */
+  private final Class<? extends Partitioner> partitionerClass;
+
+  /**
+   * Number of entries, as counted by the partitioner, of the segments values are pipelined in.
+   * Zero disables chunking.
+   */
+  private final int chunkEntries;
+
 
   public ReduceOperatorSpec(final String receiverId,
                             final Class<? extends Codec> dataCodecClass,
                             final Class<? extends ReduceFunction> redFuncClass) {
+    this(receiverId, dataCodecClass, redFuncClass, WholeValuePartitioner.class, 0);
+  }
+
+  public ReduceOperatorSpec(final String receiverId,
+                            final Class<? extends Codec> dataCodecClass,
+                            final Class<? extends ReduceFunction> redFuncClass,
+                            final Class<? extends Partitioner> partitionerClass,
+                            final int chunkEntries) {
     super();
     this.receiverId = receiverId;
     this.dataCodecClass = dataCodecClass;
     this.redFuncClass = redFuncClass;
+    this.partitionerClass = partitionerClass;
+    this.chunkEntries = chunkEntries;
   }
 
   public String getReceiverId() {
@@ -61,6 +84,14 @@ public class ReduceOperatorSpec implements OperatorSpec {
     return redFuncClass;
   }
 
+  public Class<? extends Partitioner> getPartitionerClass() {
+    return partitionerClass;
+  }
+
+  public int getChunkEntries() {
+    return chunkEntries;
+  }
+
   @Override
   public Class<? extends Codec> getDataCodecClass() {
     return dataCodecClass;
@@ -69,7 +100,8 @@ public class ReduceOperatorSpec implements OperatorSpec {
   @Override
   public String toString() {
     return "Reduce Operator Spec: [receiver=" + receiverId + "] [dataCodecClass=" + Utils.simpleName(dataCodecClass)
-        + "] [reduceFunctionClass=" + Utils.simpleName(redFuncClass) + "]";
+        + "] [reduceFunctionClass=" + Utils.simpleName(redFuncClass) + "] [partitionerClass="
+        + Utils.simpleName(partitionerClass) + "] [chunkEntries=" + chunkEntries + "]";
   }
 
   public static Builder newBuilder() {
@@ -84,6 +116,10 @@ public class ReduceOperatorSpec implements OperatorSpec {
 
     private Class<? extends ReduceFunction> redFuncClass;
 
+    private Class<? extends Partitioner> partitionerClass = WholeValuePartitioner.class;
+
+    private int chunkEntries = 0;
+
     public Builder setReceiverId(final String receiverId) {
       this.receiverId = receiverId;
       return this;
@@ -100,9 +136,32 @@ public class ReduceOperatorSpec implements OperatorSpec {
       return this;
     }
 
+    /**
+     * Set the partitioner that splits values into segments. Chunking needs one that can split values.
+     */
+    public Builder setPartitionerClass(final Class<? extends Partitioner> partitionerClass) {
+      this.partitionerClass = partitionerClass;
+      return this;
+    }
+
+    /**
+     * Set the number of entries, as counted by the partitioner, of the segments values are pipelined in.
+     */
+    public Builder setChunkEntries(final int chunkEntries) {
+      this.chunkEntries = chunkEntries;
+      return this;
+    }
+
+    /**
+     * @throws IllegalArgumentException if chunking is enabled with a partitioner that keeps values whole
+     */
     @Override
     public ReduceOperatorSpec build() {
-      return new ReduceOperatorSpec(receiverId, dataCodecClass, redFuncClass);
+      if (chunkEntries > 0 && WholeValuePartitioner.class.equals(partitionerClass)) {
+        throw new IllegalArgumentException("Chunks of " + chunkEntries + " entries"
+            + " needs a partitioner that can split values, but the partitioner is " + partitionerClass.getName());
+      }
+      return new ReduceOperatorSpec(receiverId, dataCodecClass, redFuncClass, partitionerClass, chunkEntries);
     }
   }
 }
@@ -20,6 +20,8 @@ package org.apache.reef.io.network.group.impl.driver;
 
 import org.apache.reef.annotations.audience.DriverSide;
 import org.apache.reef.annotations.audience.Private;
+import org.apache.reef.driver.catalog.NodeDescriptor;
+import org.apache.reef.driver.evaluator.EvaluatorDescriptor;
 import org.apache.reef.driver.evaluator.FailedEvaluator;
 import org.apache.reef.driver.parameters.DriverIdentifier;
 import org.apache.reef.driver.task.FailedTask;
@@ -27,8 +29,10 @@ import org.apache.reef.driver.task.RunningTask;
 import org.apache.reef.driver.task.TaskConfigurationOptions;
 import org.apache.reef.io.network.group.api.config.OperatorSpec;
 import org.apache.reef.io.network.group.api.driver.CommunicationGroupDriver;
+import org.apache.reef.io.network.group.api.driver.LocalityAwareTopology;
 import org.apache.reef.io.network.group.api.driver.Topology;
 import org.apache.reef.io.network.group.impl.GroupCommunicationMessage;
+import org.apache.reef.io.network.group.impl.config.AllReduceOperatorSpec;
 import org.apache.reef.io.network.group.impl.config.BroadcastOperatorSpec;
 import org.apache.reef.io.network.group.impl.config.GatherOperatorSpec;
 import org.apache.reef.io.network.group.impl.config.ReduceOperatorSpec;
@@ -264,6 +268,32 @@ public class CommunicationGroupDriverImpl implements CommunicationGroupDriver {
     return this;
   }
 
+  @Override
+  public CommunicationGroupDriver addAllReduce(final Class<? extends Name<String>> operatorName,
+                                               final AllReduceOperatorSpec spec) {
+    LOG.entering("CommunicationGroupDriverImpl", "addAllReduce",
+        new Object[]{getQualifiedName(), Utils.simpleName(operatorName), spec});
+    if (finalised) {
+      throw new IllegalStateException("Can't add more operators to a finalised spec");
+    }
+    operatorSpecs.put(operatorName, spec);
+
+    final Topology topology;
+    try {
+      topology = topologyFactory.getNewInstance(operatorName, topologyClass);
+    } catch (final InjectionException e) {
+      LOG.log(Level.WARNING, "Cannot inject new topology named {0}", operatorName);
+      throw new RuntimeException(e);
+    }
+
+    topology.setRootTask(spec.getRootId());
+    topology.setOperatorSpecification(spec);
+    topologies.put(operatorName, topology);
+    LOG.exiting("CommunicationGroupDriverImpl", "addAllReduce",
+        Arrays.toString(new Object[]{getQualifiedName(), Utils.simpleName(operatorName), spec}));
+    return this;
+  }
+
   @Override
   public Configuration getTaskConfiguration(final Configuration taskConf) {
     LOG.entering("CommunicationGroupDriverImpl", "getTaskConfiguration",
@@ -336,8 +366,17 @@ public class CommunicationGroupDriverImpl implements CommunicationGroupDriver {
 
   @Override
   public void addTask(final Configuration partialTaskConf) {
+    addTask(partialTaskConf, (NodeDescriptor) null);
+  }
+
+  @Override
+  public void addTask(final Configuration partialTaskConf, final EvaluatorDescriptor evaluatorDescriptor) {
+    addTask(partialTaskConf, evaluatorDescriptor.getNodeDescriptor());
+  }
+
+  private void addTask(final Configuration partialTaskConf, final NodeDescriptor nodeDescriptor) {
     LOG.entering("CommunicationGroupDriverImpl", "addTask",
-        new Object[]{getQualifiedName(), confSerializer.toString(partialTaskConf)});
+        new Object[]{getQualifiedName(), confSerializer.toString(partialTaskConf), nodeDescriptor});
     final String taskId = taskId(partialTaskConf);
     LOG.finest(getQualifiedName() + "AddTask(" + taskId + "). Waiting to acquire toBeRemovedLock");
     synchronized (toBeRemovedLock) {
@@ -358,7 +397,11 @@ public class CommunicationGroupDriverImpl implements CommunicationGroupDriver {
       boolean isRootOfSomeTopology = false;
       for (final Class<? extends Name<String>> operName : operatorSpecs.keySet()) {
         final Topology topology = topologies.get(operName);
-        topology.addTask(taskId);
+        if (nodeDescriptor != null && topology instanceof LocalityAwareTopology) {
+          ((LocalityAwareTopology) topology).addTask(taskId, nodeDescriptor);
+        } else {
+          topology.addTask(taskId);
+        }
         isRootOfSomeTopology |= topology.getRootId().equals(taskId);
       }
 
@@ -27,6 +27,7 @@ import org.apache.reef.io.network.group.api.driver.Topology;
 import org.apache.reef.io.network.group.impl.GroupChangesCodec;
 import org.apache.reef.io.network.group.impl.GroupChangesImpl;
 import org.apache.reef.io.network.group.impl.GroupCommunicationMessage;
+import org.apache.reef.io.network.group.impl.config.AllReduceOperatorSpec;
 import org.apache.reef.io.network.group.impl.config.BroadcastOperatorSpec;
 import org.apache.reef.io.network.group.impl.config.GatherOperatorSpec;
 import org.apache.reef.io.network.group.impl.config.ReduceOperatorSpec;
@@ -43,7 +44,6 @@ import org.apache.reef.tang.annotations.Name;
 import org.apache.reef.tang.annotations.Parameter;
 import org.apache.reef.wake.EStage;
 import org.apache.reef.wake.EventHandler;
-import org.apache.reef.wake.impl.SingleThreadStage;
 
 import javax.inject.Inject;
 import java.util.ArrayList;
@@ -120,6 +120,7 @@ public final class FlatTopology implements Topology {
     jcb.bindNamedParameter(TaskVersion.class, Integer.toString(version));
     if (operatorSpec instanceof BroadcastOperatorSpec) {
       final BroadcastOperatorSpec broadcastOperatorSpec = (BroadcastOperatorSpec) operatorSpec;
+      jcb.bindNamedParameter(BroadcastChunkBytes.class, Integer.toString(broadcastOperatorSpec.getChunkBytes()));
       if (taskId.equals(broadcastOperatorSpec.getSenderId())) {
         jcb.bindImplementation(GroupCommOperator.class, BroadcastSender.class);
       } else {
@@ -128,6 +129,8 @@ public final class FlatTopology implements Topology {
     } else if (operatorSpec instanceof ReduceOperatorSpec) {
       final ReduceOperatorSpec reduceOperatorSpec = (ReduceOperatorSpec) operatorSpec;
       jcb.bindNamedParameter(ReduceFunctionParam.class, reduceOperatorSpec.getRedFuncClass());
+      jcb.bindNamedParameter(ReducePartitioner.class, reduceOperatorSpec.getPartitionerClass());
+      jcb.bindNamedParameter(ReduceChunkEntries.class, Integer.toString(reduceOperatorSpec.getChunkEntries()));
       if (taskId.equals(reduceOperatorSpec.getReceiverId())) {
         jcb.bindImplementation(GroupCommOperator.class, ReduceReceiver.class);
       } else {
@@ -147,6 +150,12 @@ public final class FlatTopology implements Topology {
       } else {
         jcb.bindImplementation(GroupCommOperator.class, GatherSender.class);
       }
+    } else if (operatorSpec instanceof AllReduceOperatorSpec) {
+      final AllReduceOperatorSpec allReduceOperatorSpec = (AllReduceOperatorSpec) operatorSpec;
+      jcb.bindNamedParameter(ReduceFunctionParam.class, allReduceOperatorSpec.getRedFuncClass());
+      jcb.bindNamedParameter(AllReducePartitioner.class, allReduceOperatorSpec.getPartitionerClass());
+      jcb.bindNamedParameter(AllReduceRingThreshold.class, Integer.toString(allReduceOperatorSpec.getRingThreshold()));
+      jcb.bindImplementation(GroupCommOperator.class, AllReducer.class);
     }
     return jcb.build();
   }
@@ -285,9 +294,7 @@ public final class FlatTopology implements Topology {
         operName, driverId, 0,
         dstId, version,
         getQualifiedName(), TopologySerializer.encode(root));
-    final EStage<List<TaskNode>> nodeTopologyUpdateWaitStage = new SingleThreadStage<>("NodeTopologyUpdateWaitStage",
-        topoUpdateWaitHandler,
-        nodes.size());
+    final EStage<List<TaskNode>> nodeTopologyUpdateWaitStage = new TopologyUpdateWaitStage(topoUpdateWaitHandler);
 
     final List<TaskNode> toBeUpdatedNodes = new ArrayList<>(nodes.size());
     LOG.finest(getQualifiedName() + "Checking which nodes need to be updated");
@@ -0,0 +1,449 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.reef.io.network.group.impl.driver;
+
+import org.apache.reef.driver.catalog.NodeDescriptor;
+import org.apache.reef.driver.parameters.DriverIdentifier;
+import org.apache.reef.io.network.group.api.operators.GroupCommOperator;
+import org.apache.reef.io.network.group.api.GroupChanges;
+import org.apache.reef.io.network.group.api.config.OperatorSpec;
+import org.apache.reef.io.network.group.api.driver.TaskNode;
+import org.apache.reef.io.network.group.api.driver.LocalityAwareTopology;
+import org.apache.reef.io.network.group.impl.GroupChangesCodec;
+import org.apache.reef.io.network.group.impl.GroupChangesImpl;
+import org.apache.reef.io.network.group.impl.GroupCommunicationMessage;
+import org.apache.reef.io.network.group.impl.config.AllReduceOperatorSpec;
+import org.apache.reef.io.network.group.impl.config.BroadcastOperatorSpec;
+import org.apache.reef.io.network.group.impl.config.GatherOperatorSpec;
+import org.apache.reef.io.network.group.impl.config.ReduceOperatorSpec;
+import org.apache.reef.io.network.group.impl.config.ScatterOperatorSpec;
+import org.apache.reef.io.network.group.impl.config.parameters.*;
+import org.apache.reef.io.network.group.impl.operators.*;
+import org.apache.reef.io.network.group.impl.utils.Utils;
+import org.apache.reef.io.network.proto.ReefNetworkGroupCommProtos;
+import org.apache.reef.io.serialization.Codec;
+import org.apache.reef.tang.Configuration;
+import org.apache.reef.tang.JavaConfigurationBuilder;
+import org.apache.reef.tang.Tang;
+import org.apache.reef.tang.annotations.Name;
+import org.apache.reef.tang.annotations.Parameter;
+import org.apache.reef.tang.formats.AvroConfigurationSerializer;
+import org.apache.reef.tang.formats.ConfigurationSerializer;
+import org.apache.reef.wake.EStage;
+import org.apache.reef.wake.EventHandler;
+
+import javax.inject.Inject;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.logging.Logger;
+
+/**
+ * Implements a tree topology that follows the locality of the tasks.
+ * The first task added on a rack leads that rack and the first task
+ * added on a node leads that node. Other tasks are children of their
+ * node leader, node leaders are children of their rack leader, and rack
+ * leaders are children of the root, which also leads its own node and rack.
+ * Data is thus reduced within a node first, then within a rack, and only
+ * one message per rack crosses racks. Tasks added without a location
+ * are children of the root.
+ */
+public final class HierarchicalTopology implements LocalityAwareTopology {
+
+  private static final Logger LOG = Logger.getLogger(HierarchicalTopology.class.getName());
+
+  private final EStage<GroupCommunicationMessage> senderStage;
+  private final Class<? extends Name<String>> groupName;
+  private final Class<? extends Name<String>> operName;
+  private final String driverId;
+  private String rootId;
+  private OperatorSpec operatorSpec;
+
+  private TaskNode root;
+
+  private final ConcurrentMap<String, TaskNode> nodes = new ConcurrentSkipListMap<>();
+  private final ConcurrentMap<String, String> taskHosts = new ConcurrentHashMap<>();
+  private final ConcurrentMap<String, String> taskRacks = new ConcurrentHashMap<>();
+  private final ConcurrentMap<String, TaskNode> hostLeaders = new ConcurrentHashMap<>();
+  private final ConcurrentMap<String, TaskNode> rackLeaders = new ConcurrentHashMap<>();
+  private final ConfigurationSerializer confSer = new AvroConfigurationSerializer();
+
+  @Inject
+  private HierarchicalTopology(
+      @Parameter(GroupCommSenderStage.class) final EStage<GroupCommunicationMessage> senderStage,
+      @Parameter(CommGroupNameClass.class) final Class<? extends Name<String>> groupName,
+      @Parameter(OperatorNameClass.class) final Class<? extends Name<String>> operatorName,
+      @Parameter(DriverIdentifier.class) final String driverId) {
+    this.senderStage = senderStage;
+    this.groupName = groupName;
+    this.operName = operatorName;
+    this.driverId = driverId;
+  }
+
+  @Override
+  @SuppressWarnings("checkstyle:hiddenfield")
+  public void setRootTask(final String rootId) {
+    LOG.entering("HierarchicalTopology", "setRootTask", new Object[]{getQualifiedName(), rootId});
+    this.rootId = rootId;
+    LOG.exiting("HierarchicalTopology", "setRootTask", getQualifiedName() + rootId);
+  }
+
+  @Override
+  public String getRootId() {
+    LOG.entering("HierarchicalTopology", "getRootId", getQualifiedName());
+    LOG.exiting("HierarchicalTopology", "getRootId", getQualifiedName() + rootId);
+    return rootId;
+  }
+
+  @Override
+  public boolean isRootPresent() {
+    LOG.entering("HierarchicalTopology", "isRootPresent", getQualifiedName());
+    final boolean retVal = root != null;
+    LOG.exiting("HierarchicalTopology", "isRootPresent", String.format("%s%s", getQualifiedName(), retVal));
+    return retVal;
+  }
+
+  @Override
+  public void setOperatorSpecification(final OperatorSpec spec) {
+    LOG.entering("HierarchicalTopology", "setOperSpec", new Object[]{getQualifiedName(), spec});
+    this.operatorSpec = spec;
+    LOG.exiting("HierarchicalTopology", "setOperSpec", getQualifiedName() + spec);
+  }
+
+  @Override
+  public Configuration getTaskConfiguration(final String taskId) {
+    LOG.entering("HierarchicalTopology", "getTaskConfig", new Object[]{getQualifiedName(), taskId});
+    final TaskNode taskNode = nodes.get(taskId);
+    if (taskNode == null) {
+      throw new RuntimeException(getQualifiedName() + taskId + " does not exist");
+    }
+
+    final int version = getNodeVersion(taskId);
+    final JavaConfigurationBuilder jcb = Tang.Factory.getTang().newConfigurationBuilder();
+    jcb.bindNamedParameter(DataCodec.class, operatorSpec.getDataCodecClass());
+    jcb.bindNamedParameter(TaskVersion.class, Integer.toString(version));
+    if (operatorSpec instanceof BroadcastOperatorSpec) {
+      final BroadcastOperatorSpec broadcastOperatorSpec = (BroadcastOperatorSpec) operatorSpec;
+      jcb.bindNamedParameter(BroadcastChunkBytes.class, Integer.toString(broadcastOperatorSpec.getChunkBytes()));
+      if (taskId.equals(broadcastOperatorSpec.getSenderId())) {
+        jcb.bindImplementation(GroupCommOperator.class, BroadcastSender.class);
+      } else {
+        jcb.bindImplementation(GroupCommOperator.class, BroadcastReceiver.class);
+      }
+    } else if (operatorSpec instanceof ReduceOperatorSpec) {
+      final ReduceOperatorSpec reduceOperatorSpec = (ReduceOperatorSpec) operatorSpec;
+      jcb.bindNamedParameter(ReduceFunctionParam.class, reduceOperatorSpec.getRedFuncClass());
+      jcb.bindNamedParameter(ReducePartitioner.class, reduceOperatorSpec.getPartitionerClass());
+      jcb.bindNamedParameter(ReduceChunkEntries.class, Integer.toString(reduceOperatorSpec.getChunkEntries()));
+      if (taskId.equals(reduceOperatorSpec.getReceiverId())) {
+        jcb.bindImplementation(GroupCommOperator.class, ReduceReceiver.class);
+      } else {
+        jcb.bindImplementation(GroupCommOperator.class, ReduceSender.class);
+      }
+    } else if (operatorSpec instanceof ScatterOperatorSpec) {
+      final ScatterOperatorSpec scatterOperatorSpec = (ScatterOperatorSpec) operatorSpec;
+      if (taskId.equals(scatterOperatorSpec.getSenderId())) {
+        jcb.bindImplementation(GroupCommOperator.class, ScatterSender.class);
+      } else {
+        jcb.bindImplementation(GroupCommOperator.class, ScatterReceiver.class);
+      }
+    } else if (operatorSpec instanceof GatherOperatorSpec) {
+      final GatherOperatorSpec gatherOperatorSpec = (GatherOperatorSpec) operatorSpec;
+      if (taskId.equals(gatherOperatorSpec.getReceiverId())) {
+        jcb.bindImplementation(GroupCommOperator.class, GatherReceiver.class);
+      } else {
+        jcb.bindImplementation(GroupCommOperator.class, GatherSender.class);
+      }
+    } else if (operatorSpec instanceof AllReduceOperatorSpec) {
+      final AllReduceOperatorSpec allReduceOperatorSpec = (AllReduceOperatorSpec) operatorSpec;
+      jcb.bindNamedParameter(ReduceFunctionParam.class, allReduceOperatorSpec.getRedFuncClass());
+      jcb.bindNamedParameter(AllReducePartitioner.class, allReduceOperatorSpec.getPartitionerClass());
+      jcb.bindNamedParameter(AllReduceRingThreshold.class, Integer.toString(allReduceOperatorSpec.getRingThreshold()));
+      jcb.bindImplementation(GroupCommOperator.class, AllReducer.class);
+    }
+    final Configuration retConf = jcb.build();
+    LOG.exiting("HierarchicalTopology", "getTaskConfig", getQualifiedName() + confSer.toString(retConf));
+    return retConf;
+  }
+
+  @Override
+  public int getNodeVersion(final String taskId) {
+    LOG.entering("HierarchicalTopology", "getNodeVersion", new Object[]{getQualifiedName(), taskId});
+    final TaskNode node = nodes.get(taskId);
+    if (node == null) {
+      throw new RuntimeException(getQualifiedName() + taskId + " is not available on the nodes map");
+    }
+    final int version = node.getVersion();
+    LOG.exiting("HierarchicalTopology", "getNodeVersion", getQualifiedName() + " " + taskId + " " + version);
+    return version;
+  }
+
+  @Override
+  public void removeTask(final String taskId) {
+    LOG.entering("HierarchicalTopology", "removeTask", new Object[]{getQualifiedName(), taskId});
+    if (!nodes.containsKey(taskId)) {
+      LOG.fine("Trying to remove a non-existent node in the task graph");
+      LOG.exiting("HierarchicalTopology", "removeTask", getQualifiedName());
+      return;
+    }
+    if (taskId.equals(rootId)) {
+      unsetRootNode(taskId);
+    } else {
+      removeChild(taskId);
+    }
+    LOG.exiting("HierarchicalTopology", "removeTask", getQualifiedName() + taskId);
+  }
+
+  @Override
+  public void addTask(final String taskId, final NodeDescriptor nodeDescriptor) {
+    LOG.entering("HierarchicalTopology", "addTask", new Object[]{getQualifiedName(), taskId, nodeDescriptor});
+    taskHosts.put(taskId, nodeDescriptor.getId());
+    taskRacks.put(taskId, nodeDescriptor.getRackDescriptor().getName());
+    addTask(taskId);
+    LOG.exiting("HierarchicalTopology", "addTask", getQualifiedName() + taskId);
+  }
+
+  @Override
+  public void addTask(final String taskId) {
+    LOG.entering("HierarchicalTopology", "addTask", new Object[]{getQualifiedName(), taskId});
+    if (nodes.containsKey(taskId)) {
+      LOG.fine("Got a request to add a task that is already in the graph. " +
+          "We need to block this request till the delete finishes. ***CAUTION***");
+    }
+
+    if (taskId.equals(rootId)) {
+      setRootNode(taskId);
+    } else {
+      addChild(taskId);
+    }
+    LOG.exiting("HierarchicalTopology", "addTask", getQualifiedName() + taskId);
+  }
+
+  private void addChild(final String taskId) {
+    LOG.entering("HierarchicalTopology", "addChild", new Object[]{getQualifiedName(), taskId});
+    LOG.finest(getQualifiedName() + "Adding leaf " + taskId);
+    final TaskNode node = new TaskNodeImpl(senderStage, groupName, operName, taskId, driverId, false);
+    if (root != null) {
+      addTaskNode(node);
+    }
+    nodes.put(taskId, node);
+    LOG.exiting("HierarchicalTopology", "addChild", getQualifiedName() + taskId);
+  }
+
+  /**
+   * Attach {@code node} below the leader of its node or rack,
+   * making it the leader if there is none yet. A node that already
+   * leads its own node keeps doing so.
+   */
+  private void addTaskNode(final TaskNode node) {
+    LOG.entering("HierarchicalTopology", "addTaskNode", new Object[]{getQualifiedName(), node});
+    final String host = taskHosts.get(node.getTaskId());
+    final String rack = taskRacks.get(node.getTaskId());
+    final TaskNode parent;
+    if (rack == null) {
+      parent = root;
+    } else if (!rackLeaders.containsKey(rack)) {
+      rackLeaders.put(rack, node);
+      hostLeaders.put(host, node);
+      parent = root;
+    } else if (!hostLeaders.containsKey(host) || hostLeaders.get(host) == node) {
+      hostLeaders.put(host, node);
+      parent = rackLeaders.get(rack);
+    } else {
+      parent = hostLeaders.get(host);
+    }
+    LOG.finest(getQualifiedName() + "Placing " + node.getTaskId() + " on " + host + "/" + rack + " under "
+        + parent.getTaskId());
+    node.setParent(parent);
+    parent.addChild(node);
+    LOG.exiting("HierarchicalTopology", "addTaskNode", getQualifiedName() + node);
+  }
+
+  /**
+   * Remove a non-root task. The children of a removed leader are placed
+   * again, so the first of them takes over the leadership it held.
+   */
+  private void removeChild(final String taskId) {
+    LOG.entering("HierarchicalTopology", "removeChild", new Object[]{getQualifiedName(), taskId});
+    final TaskNode node = nodes.remove(taskId);
+    if (node.getParent() != null) {
+      node.getParent().removeChild(node);
+    }
+    hostLeaders.values().remove(node);
+    rackLeaders.values().remove(node);
+    taskHosts.remove(taskId);
+    taskRacks.remove(taskId);
+
+    final List<TaskNode> orphans = new ArrayList<>();
+    for (final TaskNode child : node.getChildren()) {
+      orphans.add(child);
+    }
+    for (final TaskNode orphan : orphans) {
+      node.removeChild(orphan);
+      orphan.setParent(null);
+      if (root != null) {
+        LOG.finest(getQualifiedName() + "Re-placing " + orphan.getTaskId() + " orphaned by " + taskId);
+        addTaskNode(orphan);
+        final TaskNode parent = orphan.getParent();
+        if (orphan.isRunning() && parent.isRunning()) {
+          orphan.onParentRunning();
+          parent.onChildRunning(orphan.getTaskId());
+        }
+      }
+    }
+    LOG.exiting("HierarchicalTopology", "removeChild", getQualifiedName() + taskId);
+  }
+
+  private void setRootNode(final String newRootId) {
+    LOG.entering("HierarchicalTopology", "setRootNode", new Object[]{getQualifiedName(), newRootId});
+    this.root = new TaskNodeImpl(senderStage, groupName, operName, newRootId, driverId, true);
+    hostLeaders.clear();
+    rackLeaders.clear();
+    for (final TaskNode node : nodes.values()) {
+      final List<TaskNode> children = new ArrayList<>();
+      for (final TaskNode child : node.getChildren()) {
+        children.add(child);
+      }
+      for (final TaskNode child : children) {
+        node.removeChild(child);
+      }
+    }
+    if (taskRacks.containsKey(newRootId)) {
+      hostLeaders.put(taskHosts.get(newRootId), root);
+      rackLeaders.put(taskRacks.get(newRootId), root);
+    }
+
+    for (final Map.Entry<String, TaskNode> nodeEntry : nodes.entrySet()) {
+      addTaskNode(nodeEntry.getValue());
+    }
+    nodes.put(newRootId, root);
+    LOG.exiting("HierarchicalTopology", "setRootNode", getQualifiedName() + newRootId);
+  }
+
+  private void unsetRootNode(final String taskId) {
+    LOG.entering("HierarchicalTopology", "unsetRootNode", new Object[]{getQualifiedName(), taskId});
+    nodes.remove(rootId);
+    root = null;
+
+    for (final Map.Entry<String, TaskNode> nodeEntry : nodes.entrySet()) {
+      final TaskNode leaf = nodeEntry.getValue();
+      leaf.setParent(null);
+    }
+    LOG.exiting("HierarchicalTopology", "unsetRootNode", getQualifiedName() + taskId);
+  }
+
+  @Override
+  public void onFailedTask(final String taskId) {
+    LOG.entering("HierarchicalTopology", "onFailedTask", new Object[]{getQualifiedName(), taskId});
+    final TaskNode taskNode = nodes.get(taskId);
+    if (taskNode == null) {
+      throw new RuntimeException(getQualifiedName() + taskId + " does not exist");
+    }
+    taskNode.onFailedTask();
+    LOG.exiting("HierarchicalTopology", "onFailedTask", getQualifiedName() + taskId);
+  }
+
+  @Override
+  public void onRunningTask(final String taskId) {
+    LOG.entering("HierarchicalTopology", "onRunningTask", new Object[]{getQualifiedName(), taskId});
+    final TaskNode taskNode = nodes.get(taskId);
+    if (taskNode == null) {
+      throw new RuntimeException(getQualifiedName() + taskId + " does not exist");
+    }
+    taskNode.onRunningTask();
+    LOG.exiting("HierarchicalTopology", "onRunningTask", getQualifiedName() + taskId);
+  }
+
+  @Override
+  public void onReceiptOfMessage(final GroupCommunicationMessage msg) {
+    LOG.entering("HierarchicalTopology", "onReceiptOfMessage", new Object[]{getQualifiedName(), msg});
+    switch (msg.getType()) {
+    case TopologyChanges:
+      onTopologyChanges(msg);
+      break;
+    case UpdateTopology:
+      onUpdateTopology(msg);
+      break;
+
+    default:
+      nodes.get(msg.getSrcid()).onReceiptOfAcknowledgement(msg);
+      break;
+    }
+    LOG.exiting("HierarchicalTopology", "onReceiptOfMessage", getQualifiedName() + msg);
+  }
+
+  private void onUpdateTopology(final GroupCommunicationMessage msg) {
+    LOG.entering("HierarchicalTopology", "onUpdateTopology", new Object[]{getQualifiedName(), msg});
+    LOG.fine(getQualifiedName() + "Update affected parts of Topology");
+    final String dstId = msg.getSrcid();
+    final int version = getNodeVersion(dstId);
+
+    LOG.finest(getQualifiedName() + "Creating NodeTopologyUpdateWaitStage to wait on nodes to be updated");
+    final EventHandler<List<TaskNode>> topoUpdateWaitHandler = new TopologyUpdateWaitHandler(senderStage, groupName,
+        operName, driverId, 0,
+        dstId, version,
+        getQualifiedName(), TopologySerializer.encode(root));
+    final EStage<List<TaskNode>> nodeTopologyUpdateWaitStage = new TopologyUpdateWaitStage(topoUpdateWaitHandler);
+
+    final List<TaskNode> toBeUpdatedNodes = new ArrayList<>(nodes.size());
+    LOG.finest(getQualifiedName() + "Checking which nodes need to be updated");
+    for (final TaskNode node : nodes.values()) {
+      if (node.isRunning() && node.hasChanges() && node.resetTopologySetupSent()) {
+        toBeUpdatedNodes.add(node);
+      }
+    }
+    for (final TaskNode node : toBeUpdatedNodes) {
+      node.updatingTopology();
+      LOG.fine(getQualifiedName() + "Asking " + node + " to UpdateTopology");
+      senderStage.onNext(Utils.bldVersionedGCM(groupName, operName,
+          ReefNetworkGroupCommProtos.GroupCommMessage.Type.UpdateTopology, driverId, 0, node.getTaskId(),
+          node.getVersion(), Utils.EMPTY_BYTE_ARR));
+    }
+    nodeTopologyUpdateWaitStage.onNext(toBeUpdatedNodes);
+    LOG.exiting("HierarchicalTopology", "onUpdateTopology", getQualifiedName() + msg);
+  }
+
+  private void onTopologyChanges(final GroupCommunicationMessage msg) {
+    LOG.entering("HierarchicalTopology", "onTopologyChanges", new Object[]{getQualifiedName(), msg});
+    LOG.fine(getQualifiedName() + "Check TopologyChanges");
+    final String dstId = msg.getSrcid();
+    boolean hasTopologyChanged = false;
+    LOG.finest(getQualifiedName() + "Checking which nodes need to be updated");
+    for (final TaskNode node : nodes.values()) {
+      if (!node.isRunning() || node.hasChanges()) {
+        hasTopologyChanged = true;
+        break;
+      }
+    }
+    final GroupChanges changes = new GroupChangesImpl(hasTopologyChanged);
+    final Codec<GroupChanges> changesCodec = new GroupChangesCodec();
+    LOG.fine(getQualifiedName() + "TopologyChanges: " + changes);
+    senderStage.onNext(Utils.bldVersionedGCM(groupName, operName,
+        ReefNetworkGroupCommProtos.GroupCommMessage.Type.TopologyChanges, driverId, 0, dstId, getNodeVersion(dstId),
+        changesCodec.encode(changes)));
+    LOG.exiting("HierarchicalTopology", "onTopologyChanges", getQualifiedName() + msg);
+  }
+
+  private String getQualifiedName() {
+    return Utils.simpleName(groupName) + ":" + Utils.simpleName(operName) + " - ";
+  }
+}
@@ -0,0 +1,76 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.reef.io.network.group.impl.driver;
+
+import org.apache.reef.io.network.group.api.driver.TaskNode;
+import org.apache.reef.wake.EStage;
+import org.apache.reef.wake.EventHandler;
+import org.apache.reef.wake.impl.SingleThreadStage;
+
+import java.util.List;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * A stage that runs one {@link TopologyUpdateWaitHandler} on its own thread,
+ * as waiting for the nodes to be updated blocks, and closes itself once the handler returns.
+ * Topologies create one per topology update, so the stage must not outlive the update
+ * or its thread and metrics would accumulate.
+ */
+final class TopologyUpdateWaitStage implements EStage<List<TaskNode>> {
+
+  private static final Logger LOG = Logger.getLogger(TopologyUpdateWaitStage.class.getName());
+
+  private final SingleThreadStage<List<TaskNode>> stage;
+
+  /**
+   * @param handler the handler waiting for the nodes to be updated
+   */
+  TopologyUpdateWaitStage(final EventHandler<List<TaskNode>> handler) {
+    this.stage = new SingleThreadStage<>("NodeTopologyUpdateWaitStage", new EventHandler<List<TaskNode>>() {
+      @Override
+      public void onNext(final List<TaskNode> nodes) {
+        try {
+          handler.onNext(nodes);
+        } finally {
+          close();
+        }
+      }
+    }, 1);
+  }
+
+  /**
+   * Waits for the nodes to be updated; must be called once.
+   *
+   * @param nodes the nodes being updated
+   */
+  @Override
+  public void onNext(final List<TaskNode> nodes) {
+    stage.onNext(nodes);
+  }
+
+  @Override
+  public void close() {
+    try {
+      stage.close();
+    } catch (final Exception e) {
+      LOG.log(Level.WARNING, "Failed to close NodeTopologyUpdateWaitStage", e);
+    }
+  }
+}
@@ -0,0 +1,297 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.reef.io.network.group.impl.operators;
+
+import org.apache.reef.driver.task.TaskConfigurationOptions;
+import org.apache.reef.exception.evaluator.NetworkException;
+import org.apache.reef.io.network.exception.ParentDeadException;
+import org.apache.reef.io.network.group.api.operators.AllReduce;
+import org.apache.reef.io.network.group.api.operators.Reduce.ReduceFunction;
+import org.apache.reef.io.network.group.api.task.CommGroupNetworkHandler;
+import org.apache.reef.io.network.group.api.task.CommunicationGroupServiceClient;
+import org.apache.reef.io.network.group.api.task.OperatorTopology;
+import org.apache.reef.io.network.group.impl.GroupCommunicationMessage;
+import org.apache.reef.io.network.group.impl.config.parameters.*;
+import org.apache.reef.io.network.group.impl.task.OperatorTopologyImpl;
+import org.apache.reef.io.network.group.impl.utils.AllReduceExchange;
+import org.apache.reef.io.network.group.impl.utils.PeerMailbox;
+import org.apache.reef.io.network.group.impl.utils.Utils;
+import org.apache.reef.io.network.impl.NetworkService;
+import org.apache.reef.io.network.proto.ReefNetworkGroupCommProtos;
+import org.apache.reef.io.serialization.Codec;
+import org.apache.reef.tang.annotations.Name;
+import org.apache.reef.tang.annotations.Parameter;
+import org.apache.reef.wake.EventHandler;
+import org.apache.reef.wake.Identifier;
+
+import javax.inject.Inject;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * AllReduce operator that runs on every task of the group.
+ * <p>
+ * The driver-managed topology is only used to initialize the operator and to learn which tasks
+ * take part, from the last topology update. The data goes directly between the tasks, by recursive
+ * doubling or on a ring, as chosen by {@link AllReduceExchange}. All tasks must apply the operator
+ * the same number of times, with the same view of the group.
+ * <p>
+ * When the driver reports a failed task, or a peer gives up on the exchange, apply throws a
+ * {@link NetworkException} on every task, which then must update the topology before applying the
+ * operator again. The update starts a new version of the exchange, with fresh sequence numbers.
+ */
+public class AllReducer<T> implements AllReduce<T>, EventHandler<GroupCommunicationMessage> {
+
+  private static final Logger LOG = Logger.getLogger(AllReducer.class.getName());
+
+  /**
+   * Sequence number of the message a task sends to its peers when it gives up on the exchange.
+   */
+  private static final int ABORT_SEQ = -1;
+
+  private final Class<? extends Name<String>> groupName;
+  private final Class<? extends Name<String>> operName;
+  private final String selfId;
+  private final CommGroupNetworkHandler commGroupNetworkHandler;
+  private final NetworkService<GroupCommunicationMessage> netService;
+  private final Sender sender;
+  private final ReduceFunction<T> reduceFunction;
+
+  private final OperatorTopology topology;
+
+  private final CommunicationGroupServiceClient commGroupClient;
+
+  private final AtomicBoolean init = new AtomicBoolean(false);
+
+  private final int version;
+
+  private final PeerMailbox mailbox = new PeerMailbox();
+  private final AllReduceExchange<T> exchange;
+
+  /**
+   * Version of the mailbox that the sequence numbers of the exchange belong to.
+   * Only used by the thread that applies the operator.
+   */
+  private int exchangeVersion = 0;
+
+  @Inject
+  public AllReducer(@Parameter(CommunicationGroupName.class) final String groupName,
+                    @Parameter(OperatorName.class) final String operName,
+                    @Parameter(TaskConfigurationOptions.Identifier.class) final String selfId,
+                    @Parameter(DataCodec.class) final Codec<T> dataCodec,
+                    @Parameter(ReduceFunctionParam.class) final ReduceFunction<T> reduceFunction,
+                    @Parameter(AllReducePartitioner.class) final Partitioner<T> partitioner,
+                    @Parameter(AllReduceRingThreshold.class) final int ringThreshold,
+                    @Parameter(DriverIdentifierGroupComm.class) final String driverId,
+                    @Parameter(TaskVersion.class) final int version,
+                    final CommGroupNetworkHandler commGroupNetworkHandler,
+                    final NetworkService<GroupCommunicationMessage> netService,
+                    final CommunicationGroupServiceClient commGroupClient) {
+    super();
+    this.version = version;
+    LOG.finest(operName + " has CommGroupHandler-" + commGroupNetworkHandler.toString());
+    this.groupName = Utils.getClass(groupName);
+    this.operName = Utils.getClass(operName);
+    this.selfId = selfId;
+    this.reduceFunction = reduceFunction;
+    this.commGroupNetworkHandler = commGroupNetworkHandler;
+    this.netService = netService;
+    this.sender = new Sender(this.netService);
+    this.topology = new OperatorTopologyImpl(this.groupName, this.operName, selfId, driverId, sender, version);
+    this.exchange = new AllReduceExchange<>(dataCodec, reduceFunction, partitioner, ringThreshold,
+        new PeerChannel());
+    this.commGroupNetworkHandler.register(this.operName, this);
+    this.commGroupClient = commGroupClient;
+  }
+
+  @Override
+  public int getVersion() {
+    return version;
+  }
+
+  @Override
+  public void initialize() throws ParentDeadException {
+    topology.initialize();
+  }
+
+  @Override
+  public Class<? extends Name<String>> getOperName() {
+    return operName;
+  }
+
+  @Override
+  public Class<? extends Name<String>> getGroupName() {
+    return groupName;
+  }
+
+  @Override
+  public String toString() {
+    return "AllReducer:" + Utils.simpleName(groupName) + ":" + Utils.simpleName(operName) + ":" + version;
+  }
+
+  /**
+   * Data messages of the exchange go to the mailbox, all others to the topology.
+   * Failures and topology updates also fail or advance the mailbox, to wake up a waiting exchange.
+   */
+  @Override
+  public void onNext(final GroupCommunicationMessage msg) {
+    switch (msg.getType()) {
+    case AllReduce:
+      final ByteBuffer header = ByteBuffer.wrap(msg.getData()[0]);
+      deliver(msg.getSrcid(), header.getInt(), header.getInt(), msg.getData()[1]);
+      break;
+
+    case ParentDead:
+    case ChildDead:
+      mailbox.fail(msg.getSrcid(), mailbox.getVersion());
+      topology.handle(msg);
+      break;
+
+    case UpdateTopology:
+      mailbox.nextVersion();
+      topology.handle(msg);
+      break;
+
+    default:
+      topology.handle(msg);
+    }
+  }
+
+  @Override
+  public T apply(final T element) throws InterruptedException, NetworkException {
+    LOG.entering("AllReducer", "apply", this);
+
+    if (init.compareAndSet(false, true)) {
+      commGroupClient.initialize();
+    }
+    final T result = exchange(element, getTaskIds());
+    LOG.exiting("AllReducer", "apply", this);
+    return result;
+  }
+
+  /**
+   * All-reduce element with the tasks ranked in the given order instead of lexicographically.
+   * The order decides which tasks are paired or neighbors in the exchange, so all tasks must pass the same one.
+   *
+   * @throws IllegalArgumentException if order does not hold exactly the tasks of the last topology update
+   */
+  @Override
+  public T apply(final T element, final List<? extends Identifier> order)
+      throws InterruptedException, NetworkException {
+    LOG.entering("AllReducer", "apply", new Object[]{this, order});
+
+    if (init.compareAndSet(false, true)) {
+      commGroupClient.initialize();
+    }
+    final List<String> orderedIds = new ArrayList<>(order.size());
+    for (final Identifier id : order) {
+      orderedIds.add(id.toString());
+    }
+    final List<String> sortedIds = new ArrayList<>(orderedIds);
+    Collections.sort(sortedIds);
+    final List<String> taskIds = getTaskIds();
+    if (!sortedIds.equals(taskIds)) {
+      throw new IllegalArgumentException("The order " + orderedIds + " does not match the tasks " + taskIds);
+    }
+    final T result = exchange(element, orderedIds);
+    LOG.exiting("AllReducer", "apply", this);
+    return result;
+  }
+
+  @Override
+  public ReduceFunction<T> getReduceFunction() {
+    return reduceFunction;
+  }
+
+  private void deliver(final String srcId, final int msgVersion, final int seq, final byte[] data) {
+    if (seq == ABORT_SEQ) {
+      mailbox.fail(srcId, msgVersion);
+    } else {
+      mailbox.put(srcId, msgVersion, seq, data);
+    }
+  }
+
+  /**
+   * Run the exchange in the current version of the mailbox. If it fails, tell the peers to give up too,
+   * since they may be waiting for messages from this task or from the failed one.
+   */
+  private T exchange(final T element, final List<String> taskIds) throws InterruptedException, NetworkException {
+    final int mailboxVersion = mailbox.getVersion();
+    if (mailboxVersion != exchangeVersion) {
+      LOG.finest(this + " moving from version " + exchangeVersion + " to " + mailboxVersion);
+      exchange.reset();
+      exchangeVersion = mailboxVersion;
+    }
+    try {
+      return exchange.apply(element, taskIds, selfId);
+    } catch (final NetworkException e) {
+      mailbox.fail(selfId, exchangeVersion);
+      for (final String taskId : taskIds) {
+        if (!taskId.equals(selfId)) {
+          try {
+            send(taskId, ABORT_SEQ, Utils.EMPTY_BYTE_ARR);
+          } catch (final NetworkException sendException) {
+            LOG.log(Level.FINE, this + " could not tell " + taskId + " to give up", sendException);
+          }
+        }
+      }
+      throw e;
+    }
+  }
+
+  private void send(final String destId, final int seq, final byte[] data) throws NetworkException {
+    final byte[] header = ByteBuffer.allocate(2 * Integer.SIZE / Byte.SIZE).putInt(exchangeVersion).putInt(seq).array();
+    sender.send(Utils.bldVersionedGCM(groupName, operName, ReefNetworkGroupCommProtos.GroupCommMessage.Type.AllReduce,
+        selfId, version, destId, version, header, data));
+  }
+
+  /**
+   * @return ids of the tasks of the last topology update, including this one, in lexicographical order
+   */
+  private List<String> getTaskIds() {
+    final List<Identifier> activeTasks = commGroupClient.getActiveSlaveTasks();
+    final List<String> taskIds = new ArrayList<>(activeTasks.size() + 1);
+    for (final Identifier activeTask : activeTasks) {
+      taskIds.add(activeTask.toString());
+    }
+    taskIds.add(selfId);
+    Collections.sort(taskIds);
+    return taskIds;
+  }
+
+  /**
+   * Sends the data of the exchange as AllReduce messages that carry their version and sequence number.
+   */
+  private final class PeerChannel implements AllReduceExchange.Channel {
+    @Override
+    public void send(final String destId, final int seq, final byte[] data) throws NetworkException {
+      AllReducer.this.send(destId, seq, data);
+    }
+
+    @Override
+    public byte[] receive(final String srcId, final int seq) throws InterruptedException, NetworkException {
+      return mailbox.take(srcId, exchangeVersion, seq);
+    }
+  }
+}
@@ -60,6 +60,8 @@ public class BroadcastReceiver<T> implements Broadcast.Receiver<T>, EventHandler
 
   private final int version;
 
+  private final int chunkBytes;
+
   @Inject
   public BroadcastReceiver(@Parameter(CommunicationGroupName.class) final String groupName,
                            @Parameter(OperatorName.class) final String operName,
@@ -67,11 +69,13 @@ public class BroadcastReceiver<T> implements Broadcast.Receiver<T>, EventHandler
                            @Parameter(DataCodec.class) final Codec<T> dataCodec,
                            @Parameter(DriverIdentifierGroupComm.class) final String driverId,
                            @Parameter(TaskVersion.class) final int version,
+                           @Parameter(BroadcastChunkBytes.class) final int chunkBytes,
                            final CommGroupNetworkHandler commGroupNetworkHandler,
                            final NetworkService<GroupCommunicationMessage> netService,
                            final CommunicationGroupServiceClient commGroupClient) {
     super();
     this.version = version;
+    this.chunkBytes = chunkBytes;
     LOG.finest(operName + " has CommGroupHandler-" + commGroupNetworkHandler.toString());
     this.groupName = Utils.getClass(groupName);
     this.operName = Utils.getClass(operName);
@@ -131,7 +135,12 @@ public class BroadcastReceiver<T> implements Broadcast.Receiver<T>, EventHandler
     LOG.fine(this + " Waiting to receive broadcast");
     final byte[] data;
     try {
-      data = topology.recvFromParent(ReefNetworkGroupCommProtos.GroupCommMessage.Type.Broadcast);
+      if (chunkBytes > 0) {
+        // Chunks are forwarded to the children as they arrive
+        data = topology.recvChunksFromParent(ReefNetworkGroupCommProtos.GroupCommMessage.Type.Broadcast);
+      } else {
+        data = topology.recvFromParent(ReefNetworkGroupCommProtos.GroupCommMessage.Type.Broadcast);
+      }
       // TODO: Should receive the identity element instead of null
       if (data == null) {
         LOG.fine(this + " Received null. Perhaps one of my ancestors is dead.");
@@ -143,7 +152,9 @@ public class BroadcastReceiver<T> implements Broadcast.Receiver<T>, EventHandler
         LOG.finest(this + " Sending to children.");
       }
 
-      topology.sendToChildren(data, ReefNetworkGroupCommProtos.GroupCommMessage.Type.Broadcast);
+      if (chunkBytes <= 0) {
+        topology.sendToChildren(data, ReefNetworkGroupCommProtos.GroupCommMessage.Type.Broadcast);
+      }
     } catch (final ParentDeadException e) {
       throw new RuntimeException("ParentDeadException", e);
     }
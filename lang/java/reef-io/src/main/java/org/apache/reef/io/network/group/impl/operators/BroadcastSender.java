@@ -60,6 +60,8 @@ public class BroadcastSender<T> implements Broadcast.Sender<T>, EventHandler<Gro
 
   private final int version;
 
+  private final int chunkBytes;
+
   @Inject
   public BroadcastSender(@Parameter(CommunicationGroupName.class) final String groupName,
                          @Parameter(OperatorName.class) final String operName,
@@ -67,11 +69,13 @@ public class BroadcastSender<T> implements Broadcast.Sender<T>, EventHandler<Gro
                          @Parameter(DataCodec.class) final Codec<T> dataCodec,
                          @Parameter(DriverIdentifierGroupComm.class) final String driverId,
                          @Parameter(TaskVersion.class) final int version,
+                         @Parameter(BroadcastChunkBytes.class) final int chunkBytes,
                          final CommGroupNetworkHandler commGroupNetworkHandler,
                          final NetworkService<GroupCommunicationMessage> netService,
                          final CommunicationGroupServiceClient commGroupClient) {
     super();
     this.version = version;
+    this.chunkBytes = chunkBytes;
     LOG.finest(operName + "has CommGroupHandler-" + commGroupNetworkHandler.toString());
     this.groupName = Utils.getClass(groupName);
     this.operName = Utils.getClass(operName);
@@ -126,7 +130,12 @@ public class BroadcastSender<T> implements Broadcast.Sender<T>, EventHandler<Gro
     }
 
     try {
-      topology.sendToChildren(dataCodec.encode(element), ReefNetworkGroupCommProtos.GroupCommMessage.Type.Broadcast);
+      if (chunkBytes > 0) {
+        topology.sendChunksToChildren(dataCodec.encode(element), chunkBytes,
+            ReefNetworkGroupCommProtos.GroupCommMessage.Type.Broadcast);
+      } else {
+        topology.sendToChildren(dataCodec.encode(element), ReefNetworkGroupCommProtos.GroupCommMessage.Type.Broadcast);
+      }
     } catch (final ParentDeadException e) {
       throw new RuntimeException("ParentDeadException", e);
     }
@@ -21,6 +21,7 @@ package org.apache.reef.io.network.group.impl.operators;
 import org.apache.reef.driver.task.TaskConfigurationOptions;
 import org.apache.reef.exception.evaluator.NetworkException;
 import org.apache.reef.io.network.exception.ParentDeadException;
+import org.apache.reef.io.network.group.api.operators.AllReduce.Partitioner;
 import org.apache.reef.io.network.group.api.operators.Reduce;
 import org.apache.reef.io.network.group.api.operators.Reduce.ReduceFunction;
 import org.apache.reef.io.network.impl.NetworkService;
@@ -63,6 +64,10 @@ public class ReduceReceiver<T> implements Reduce.Receiver<T>, EventHandler<Group
 
   private final int version;
 
+  private final Partitioner<T> partitioner;
+
+  private final int chunkEntries;
+
   @Inject
   public ReduceReceiver(@Parameter(CommunicationGroupName.class) final String groupName,
                         @Parameter(OperatorName.class) final String operName,
@@ -71,11 +76,15 @@ public class ReduceReceiver<T> implements Reduce.Receiver<T>, EventHandler<Group
                         @Parameter(ReduceFunctionParam.class) final ReduceFunction<T> reduceFunction,
                         @Parameter(DriverIdentifierGroupComm.class) final String driverId,
                         @Parameter(TaskVersion.class) final int version,
+                        @Parameter(ReducePartitioner.class) final Partitioner<T> partitioner,
+                        @Parameter(ReduceChunkEntries.class) final int chunkEntries,
                         final CommGroupNetworkHandler commGroupNetworkHandler,
                         final NetworkService<GroupCommunicationMessage> netService,
                         final CommunicationGroupServiceClient commGroupClient) {
     super();
     this.version = version;
+    this.partitioner = partitioner;
+    this.chunkEntries = chunkEntries;
     LOG.finest(operName + " has CommGroupHandler-" + commGroupNetworkHandler.toString());
     this.groupName = Utils.getClass(groupName);
     this.operName = Utils.getClass(operName);
@@ -132,7 +141,12 @@ public class ReduceReceiver<T> implements Reduce.Receiver<T>, EventHandler<Group
     // Wait for children to send
     final T redVal;
     try {
-      redVal = topology.recvFromChildren(reduceFunction, dataCodec);
+      if (chunkEntries > 0) {
+        final List<T> chunks = topology.recvChunksFromChildren(null, reduceFunction, dataCodec, false);
+        redVal = chunks == null ? null : partitioner.join(chunks);
+      } else {
+        redVal = topology.recvFromChildren(reduceFunction, dataCodec);
+      }
     } catch (final ParentDeadException e) {
       throw new RuntimeException("ParentDeadException", e);
     }
@@ -21,7 +21,9 @@ package org.apache.reef.io.network.group.impl.operators;
 import org.apache.reef.driver.task.TaskConfigurationOptions;
 import org.apache.reef.exception.evaluator.NetworkException;
 import org.apache.reef.io.network.exception.ParentDeadException;
+import org.apache.reef.io.network.group.api.operators.AllReduce.Partitioner;
 import org.apache.reef.io.network.group.api.operators.Reduce;
+import org.apache.reef.io.network.group.api.operators.Reduce.AccumulatingReduceFunction;
 import org.apache.reef.io.network.group.api.operators.Reduce.ReduceFunction;
 import org.apache.reef.io.network.impl.NetworkService;
 import org.apache.reef.io.network.group.api.task.CommGroupNetworkHandler;
@@ -39,6 +41,7 @@ import org.apache.reef.wake.EventHandler;
 
 import javax.inject.Inject;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.logging.Level;
@@ -64,6 +67,10 @@ public class ReduceSender<T> implements Reduce.Sender<T>, EventHandler<GroupComm
 
   private final int version;
 
+  private final Partitioner<T> partitioner;
+
+  private final int chunkEntries;
+
   @Inject
   public ReduceSender(
       @Parameter(CommunicationGroupName.class) final String groupName,
@@ -73,6 +80,8 @@ public class ReduceSender<T> implements Reduce.Sender<T>, EventHandler<GroupComm
       @Parameter(ReduceFunctionParam.class) final ReduceFunction<T> reduceFunction,
       @Parameter(DriverIdentifierGroupComm.class) final String driverId,
       @Parameter(TaskVersion.class) final int version,
+      @Parameter(ReducePartitioner.class) final Partitioner<T> partitioner,
+      @Parameter(ReduceChunkEntries.class) final int chunkEntries,
       final CommGroupNetworkHandler commGroupNetworkHandler,
       final NetworkService<GroupCommunicationMessage> netService,
       final CommunicationGroupServiceClient commGroupClient) {
@@ -83,6 +92,8 @@ public class ReduceSender<T> implements Reduce.Sender<T>, EventHandler<GroupComm
         new Object[]{operName, commGroupNetworkHandler});
 
     this.version = version;
+    this.partitioner = partitioner;
+    this.chunkEntries = chunkEntries;
     this.groupName = Utils.getClass(groupName);
     this.operName = Utils.getClass(operName);
     this.dataCodec = dataCodec;
@@ -137,20 +148,43 @@ public class ReduceSender<T> implements Reduce.Sender<T>, EventHandler<GroupComm
     LOG.finest("Waiting for children");
     // Wait for children to send
     try {
-      final T reducedValueOfChildren = topology.recvFromChildren(reduceFunction, dataCodec);
-      final List<T> vals = new ArrayList<>(2);
-      vals.add(myData);
-      if (reducedValueOfChildren != null) {
-        vals.add(reducedValueOfChildren);
+      if (chunkEntries > 0) {
+        // Each reduced chunk goes to the parent while the children are still sending the next ones
+        topology.recvChunksFromChildren(split(myData), reduceFunction, dataCodec, true);
+      } else {
+        final T reducedValueOfChildren = topology.recvFromChildren(reduceFunction, dataCodec);
+        final T reducedValue;
+        if (reducedValueOfChildren != null && reduceFunction instanceof AccumulatingReduceFunction) {
+          // The children's value was decoded for this call, so it can take myData in place
+          reducedValue = ((AccumulatingReduceFunction<T>) reduceFunction).accumulate(reducedValueOfChildren, myData);
+        } else {
+          final List<T> vals = new ArrayList<>(2);
+          vals.add(myData);
+          if (reducedValueOfChildren != null) {
+            vals.add(reducedValueOfChildren);
+          }
+          reducedValue = reduceFunction.apply(vals);
+        }
+        topology.sendToParent(dataCodec.encode(reducedValue), ReefNetworkGroupCommProtos.GroupCommMessage.Type.Reduce);
       }
-      final T reducedValue = reduceFunction.apply(vals);
-      topology.sendToParent(dataCodec.encode(reducedValue), ReefNetworkGroupCommProtos.GroupCommMessage.Type.Reduce);
     } catch (final ParentDeadException e) {
       throw new RuntimeException("ParentDeadException", e);
     }
     LOG.exiting("ReduceSender", "send", this);
   }
 
+  /**
+   * Split {@code myData} into segments of at most {@code chunkEntries} entries, as counted by the partitioner.
+   * The count does not depend on how the values encode, so tasks with values of the same length agree
+   * on the number of segments. Values the partitioner cannot split are sent as a single segment.
+   */
+  private List<T> split(final T myData) {
+    final int size = partitioner.size(myData);
+    final int numChunks = (size + chunkEntries - 1) / chunkEntries;
+    final List<T> chunks = numChunks > 1 ? partitioner.split(myData, numChunks) : null;
+    return chunks != null ? chunks : Collections.singletonList(myData);
+  }
+
   @Override
   public ReduceFunction<T> getReduceFunction() {
     return reduceFunction;
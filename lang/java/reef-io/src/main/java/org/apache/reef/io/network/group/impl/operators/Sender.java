@@ -26,6 +26,7 @@ import org.apache.reef.io.network.group.impl.GroupCommunicationMessage;
 import org.apache.reef.io.network.util.StringIdentifierFactory;
 import org.apache.reef.wake.Identifier;
 import org.apache.reef.wake.IdentifierFactory;
+import org.apache.reef.wake.remote.transport.LinkLane;
 
 import java.util.logging.Logger;
 
@@ -50,9 +51,28 @@ public class Sender extends AbstractGroupCommOperator {
   public void send(final GroupCommunicationMessage msg, final String dest) throws NetworkException {
     LOG.entering("Sender", "send", msg);
     final Identifier destId = idFac.getNewInstance(dest);
-    final Connection<GroupCommunicationMessage> link = netService.newConnection(destId);
+    final Connection<GroupCommunicationMessage> link = netService.newConnection(destId, getLane(msg));
     link.open();
     link.write(msg);
     LOG.exiting("Sender", "send", msg);
   }
+
+  /**
+   * Operator data goes on the BULK lane and topology messages on the CONTROL lane.
+   * The lane depends only on the type of the message, so the data of an operator stays in order.
+   */
+  private static LinkLane getLane(final GroupCommunicationMessage msg) {
+    switch (msg.getType()) {
+    case Scatter:
+    case Gather:
+    case Broadcast:
+    case Reduce:
+    case AllGather:
+    case AllReduce:
+    case ReduceScatter:
+      return LinkLane.BULK;
+    default:
+      return LinkLane.CONTROL;
+    }
+  }
 }
@@ -0,0 +1,73 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.reef.io.network.group.impl.primitive;
+
+import org.apache.reef.io.serialization.Codec;
+
+import java.lang.reflect.Array;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * Codec for primitive arrays that copies the elements in little-endian order,
+ * without a length header or per-element objects.
+ * Subclasses only move the elements between the array and a typed view of the buffer.
+ *
+ * @param <A> primitive array type
+ */
+public abstract class ArrayCodec<A> implements Codec<A> {
+
+  private final int elementSize;
+
+  /**
+   * @param elementSize size in bytes of an element
+   */
+  protected ArrayCodec(final int elementSize) {
+    this.elementSize = elementSize;
+  }
+
+  @Override
+  public byte[] encode(final A obj) {
+    final ByteBuffer buffer = ByteBuffer.allocate(Array.getLength(obj) * elementSize).order(ByteOrder.LITTLE_ENDIAN);
+    put(buffer, obj);
+    return buffer.array();
+  }
+
+  @Override
+  public A decode(final byte[] buf) {
+    if (buf.length % elementSize != 0) {
+      throw new IllegalArgumentException("Length " + buf.length + " is not a multiple of " + elementSize);
+    }
+    final A retVal = newArray(buf.length / elementSize);
+    get(ByteBuffer.wrap(buf).order(ByteOrder.LITTLE_ENDIAN), retVal);
+    return retVal;
+  }
+
+  protected abstract A newArray(int length);
+
+  /**
+   * Write all elements of {@code obj} to {@code buffer}.
+   */
+  protected abstract void put(ByteBuffer buffer, A obj);
+
+  /**
+   * Fill {@code obj} with the elements in {@code buffer}.
+   */
+  protected abstract void get(ByteBuffer buffer, A obj);
+}
@@ -0,0 +1,71 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.reef.io.network.group.impl.primitive;
+
+import org.apache.reef.io.network.group.api.operators.AllReduce;
+import org.apache.reef.io.network.group.impl.utils.ScatterHelper;
+
+import java.lang.reflect.Array;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Partitioner that splits primitive arrays into contiguous ranges of near-equal length.
+ * The size of an array is its length.
+ *
+ * @param <A> primitive array type
+ */
+public abstract class ArrayPartitioner<A> implements AllReduce.Partitioner<A> {
+
+  @Override
+  public int size(final A element) {
+    return Array.getLength(element);
+  }
+
+  @Override
+  public List<A> split(final A element, final int numParts) {
+    final List<A> retList = new ArrayList<>(numParts);
+    int offset = 0;
+    for (final int count : ScatterHelper.getUniformCounts(Array.getLength(element), numParts)) {
+      final A part = newArray(count);
+      System.arraycopy(element, offset, part, 0, count);
+      retList.add(part);
+      offset += count;
+    }
+    return retList;
+  }
+
+  @Override
+  public A join(final List<A> parts) {
+    int length = 0;
+    for (final A part : parts) {
+      length += Array.getLength(part);
+    }
+    final A retVal = newArray(length);
+    int offset = 0;
+    for (final A part : parts) {
+      final int partLength = Array.getLength(part);
+      System.arraycopy(part, 0, retVal, offset, partLength);
+      offset += partLength;
+    }
+    return retVal;
+  }
+
+  protected abstract A newArray(int length);
+}
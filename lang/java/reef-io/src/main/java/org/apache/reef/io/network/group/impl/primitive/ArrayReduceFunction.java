@@ -0,0 +1,71 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.reef.io.network.group.impl.primitive;
+
+import org.apache.reef.io.network.group.api.operators.Reduce.AccumulatingReduceFunction;
+
+import java.lang.reflect.Array;
+
+/**
+ * Element-wise reduce functions over primitive arrays of equal length.
+ * Elements are combined in place into the accumulator, without per-element objects.
+ *
+ * @param <A> primitive array type
+ */
+public abstract class ArrayReduceFunction<A> implements AccumulatingReduceFunction<A> {
+
+  /**
+   * Reduce {@code elements} into a copy of the first one, leaving all elements unmodified.
+   */
+  @Override
+  public A apply(final Iterable<A> elements) {
+    A retVal = null;
+    for (final A element : elements) {
+      if (retVal == null) {
+        final int length = Array.getLength(element);
+        retVal = newArray(length);
+        System.arraycopy(element, 0, retVal, 0, length);
+      } else {
+        accumulate(retVal, element);
+      }
+    }
+    return retVal;
+  }
+
+  /**
+   * @throws IllegalArgumentException if the arrays differ in length
+   */
+  @Override
+  public final A accumulate(final A acc, final A next) {
+    final int length = Array.getLength(acc);
+    if (length != Array.getLength(next)) {
+      throw new IllegalArgumentException("Cannot reduce arrays of length " + length + " and "
+          + Array.getLength(next));
+    }
+    combine(acc, next);
+    return acc;
+  }
+
+  protected abstract A newArray(int length);
+
+  /**
+   * Combine each element of {@code next} into the element of {@code acc} at the same index.
+   */
+  protected abstract void combine(A acc, A next);
+}
@@ -0,0 +1,85 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.reef.io.network.group.impl.primitive;
+
+import javax.inject.Inject;
+
+/**
+ * Element-wise reduce functions over {@code float[]} of equal length.
+ *
+ * @see ArrayReduceFunction
+ */
+public abstract class FloatArrayReduceFunction extends ArrayReduceFunction<float[]> {
+
+  @Override
+  protected final float[] newArray(final int length) {
+    return new float[length];
+  }
+
+  /**
+   * Element-wise sum.
+   */
+  public static final class Sum extends FloatArrayReduceFunction {
+
+    @Inject
+    public Sum() {
+    }
+
+    @Override
+    protected void combine(final float[] acc, final float[] next) {
+      for (int i = 0; i < acc.length; i++) {
+        acc[i] += next[i];
+      }
+    }
+  }
+
+  /**
+   * Element-wise maximum.
+   */
+  public static final class Max extends FloatArrayReduceFunction {
+
+    @Inject
+    public Max() {
+    }
+
+    @Override
+    protected void combine(final float[] acc, final float[] next) {
+      for (int i = 0; i < acc.length; i++) {
+        acc[i] = Math.max(acc[i], next[i]);
+      }
+    }
+  }
+
+  /**
+   * Element-wise minimum.
+   */
+  public static final class Min extends FloatArrayReduceFunction {
+
+    @Inject
+    public Min() {
+    }
+
+    @Override
+    protected void combine(final float[] acc, final float[] next) {
+      for (int i = 0; i < acc.length; i++) {
+        acc[i] = Math.min(acc[i], next[i]);
+      }
+    }
+  }
+}
@@ -0,0 +1,124 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.reef.io.network.group.impl.primitive;
+
+import org.apache.reef.io.serialization.Codec;
+
+import java.lang.reflect.Array;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * Codec for primitive arrays that only transfers the elements that are not positive zero, as (index, value) pairs.
+ * The little-endian encoding is the array length and the number of stored elements,
+ * followed by their indices in increasing order and then their values.
+ * Negative zeros are stored, so that every element decodes to the same bits.
+ *
+ * @param <A> primitive array type
+ */
+public abstract class SparseArrayCodec<A> implements Codec<A> {
+
+  private static final int HEADER_LENGTH = 8;
+  private static final int INDEX_SIZE = 4;
+
+  private final int valueSize;
+
+  /**
+   * @param valueSize size in bytes of an element
+   */
+  protected SparseArrayCodec(final int valueSize) {
+    this.valueSize = valueSize;
+  }
+
+  @Override
+  public byte[] encode(final A obj) {
+    final int length = Array.getLength(obj);
+    int numStored = 0;
+    for (int i = 0; i < length; i++) {
+      if (!isPositiveZero(obj, i)) {
+        numStored++;
+      }
+    }
+    final ByteBuffer buffer = ByteBuffer.allocate(HEADER_LENGTH + numStored * (INDEX_SIZE + valueSize))
+        .order(ByteOrder.LITTLE_ENDIAN);
+    buffer.putInt(length).putInt(numStored);
+    for (int i = 0; i < length; i++) {
+      if (!isPositiveZero(obj, i)) {
+        buffer.putInt(i);
+      }
+    }
+    for (int i = 0; i < length; i++) {
+      if (!isPositiveZero(obj, i)) {
+        putValue(buffer, obj, i);
+      }
+    }
+    return buffer.array();
+  }
+
+  /**
+   * @throws IllegalArgumentException if {@code buf} is not a valid encoding
+   */
+  @Override
+  public A decode(final byte[] buf) {
+    if (buf.length < HEADER_LENGTH) {
+      throw new IllegalArgumentException("Length " + buf.length + " is shorter than the header of " + HEADER_LENGTH);
+    }
+    final ByteBuffer buffer = ByteBuffer.wrap(buf).order(ByteOrder.LITTLE_ENDIAN);
+    final int length = buffer.getInt();
+    final int numStored = buffer.getInt();
+    if (length < 0 || numStored < 0 || numStored > length) {
+      throw new IllegalArgumentException("Invalid header: " + numStored + " stored elements of " + length);
+    }
+    final long expectedLength = HEADER_LENGTH + (long) numStored * (INDEX_SIZE + valueSize);
+    if (buf.length != expectedLength) {
+      throw new IllegalArgumentException("Length " + buf.length + " does not match the " + expectedLength
+          + " bytes of " + numStored + " stored elements");
+    }
+    final A retVal = newArray(length);
+    final int valuesOffset = HEADER_LENGTH + numStored * INDEX_SIZE;
+    int previous = -1;
+    for (int i = 0; i < numStored; i++) {
+      final int index = buffer.getInt();
+      if (index <= previous || index >= length) {
+        throw new IllegalArgumentException("Index " + index + " after " + previous
+            + " is out of order or out of bounds for length " + length);
+      }
+      getValue(buffer, valuesOffset + i * valueSize, retVal, index);
+      previous = index;
+    }
+    return retVal;
+  }
+
+  protected abstract A newArray(int length);
+
+  /**
+   * @return whether element {@code index} of {@code obj} is positive zero, which is not transferred
+   */
+  protected abstract boolean isPositiveZero(A obj, int index);
+
+  /**
+   * Write element {@code index} of {@code obj} at the position of {@code buffer}.
+   */
+  protected abstract void putValue(ByteBuffer buffer, A obj, int index);
+
+  /**
+   * Set element {@code index} of {@code obj} to the value at {@code offset} in {@code buffer}.
+   */
+  protected abstract void getValue(ByteBuffer buffer, int offset, A obj, int index);
+}
@@ -0,0 +1,56 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.reef.io.network.group.impl.primitive;
+
+import javax.inject.Inject;
+import java.nio.ByteBuffer;
+
+/**
+ * Codec for {@code double[]} that only transfers the elements that are not positive zero, as (index, value) pairs.
+ * It is smaller than {@link DoubleArrayCodec} when fewer than two thirds of the elements are stored.
+ *
+ * @see SparseArrayCodec
+ */
+public final class SparseDoubleArrayCodec extends SparseArrayCodec<double[]> {
+
+  @Inject
+  public SparseDoubleArrayCodec() {
+    super(8);
+  }
+
+  @Override
+  protected double[] newArray(final int length) {
+    return new double[length];
+  }
+
+  @Override
+  protected boolean isPositiveZero(final double[] obj, final int index) {
+    return Double.doubleToRawLongBits(obj[index]) == 0L;
+  }
+
+  @Override
+  protected void putValue(final ByteBuffer buffer, final double[] obj, final int index) {
+    buffer.putDouble(obj[index]);
+  }
+
+  @Override
+  protected void getValue(final ByteBuffer buffer, final int offset, final double[] obj, final int index) {
+    obj[index] = buffer.getDouble(offset);
+  }
+}
@@ -0,0 +1,56 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.reef.io.network.group.impl.primitive;
+
+import javax.inject.Inject;
+import java.nio.ByteBuffer;
+
+/**
+ * Codec for {@code float[]} that only transfers the elements that are not positive zero, as (index, value) pairs.
+ * It is smaller than {@link FloatArrayCodec} when fewer than half of the elements are stored.
+ *
+ * @see SparseArrayCodec
+ */
+public final class SparseFloatArrayCodec extends SparseArrayCodec<float[]> {
+
+  @Inject
+  public SparseFloatArrayCodec() {
+    super(4);
+  }
+
+  @Override
+  protected float[] newArray(final int length) {
+    return new float[length];
+  }
+
+  @Override
+  protected boolean isPositiveZero(final float[] obj, final int index) {
+    return Float.floatToRawIntBits(obj[index]) == 0;
+  }
+
+  @Override
+  protected void putValue(final ByteBuffer buffer, final float[] obj, final int index) {
+    buffer.putFloat(obj[index]);
+  }
+
+  @Override
+  protected void getValue(final ByteBuffer buffer, final int offset, final float[] obj, final int index) {
+    obj[index] = buffer.getFloat(offset);
+  }
+}
@@ -67,7 +67,7 @@ public final class CommunicationGroupClientImpl implements CommunicationGroupSer
   private final Sender sender;
 
   private final String taskId;
-  private final boolean isScatterSender;
+  private final boolean tracksActiveTasks;
   private final IdentifierFactory identifierFactory;
   private List<Identifier> activeSlaveTasks;
   private TopologySimpleNode topologySimpleNodeRoot;
@@ -108,7 +108,7 @@ public final class CommunicationGroupClientImpl implements CommunicationGroupSer
     try {
       this.groupCommNetworkHandler.register(this.groupName, commGroupNetworkHandler);
 
-      boolean operatorIsScatterSender = false;
+      boolean operatorTracksActiveTasks = false;
       for (final String operatorConfigStr : operatorConfigs) {
 
         final Configuration operatorConfig = configSerializer.fromString(operatorConfigStr);
@@ -121,12 +121,12 @@ public final class CommunicationGroupClientImpl implements CommunicationGroupSer
         this.operators.put(Utils.getClass(operName), operator);
         LOG.finest(operName + " has CommGroupHandler-" + commGroupNetworkHandler.toString());
 
-        if (!operatorIsScatterSender && operator instanceof Scatter.Sender) {
-          LOG.fine(operName + " is a scatter sender. Will keep track of active slave tasks.");
-          operatorIsScatterSender = true;
+        if (!operatorTracksActiveTasks && (operator instanceof Scatter.Sender || operator instanceof AllReduce)) {
+          LOG.fine(operName + " is a scatter sender or all-reducer. Will keep track of active slave tasks.");
+          operatorTracksActiveTasks = true;
         }
       }
-      this.isScatterSender = operatorIsScatterSender;
+      this.tracksActiveTasks = operatorTracksActiveTasks;
     } catch (final InjectionException | IOException e) {
       throw new RuntimeException("Unable to deserialize operator config", e);
     }
@@ -237,6 +237,19 @@ public final class CommunicationGroupClientImpl implements CommunicationGroupSer
     return (Gather.Sender) op;
   }
 
+  @Override
+  public AllReduce getAllReducer(final Class<? extends Name<String>> operatorName) {
+    LOG.entering("CommunicationGroupClientImpl", "getAllReducer", new Object[]{getQualifiedName(),
+        Utils.simpleName(operatorName)});
+    final GroupCommOperator op = operators.get(operatorName);
+    if (!(op instanceof AllReduce)) {
+      throw new RuntimeException("Configured operator is not an all-reducer");
+    }
+    commGroupNetworkHandler.addTopologyElement(operatorName);
+    LOG.exiting("CommunicationGroupClientImpl", "getAllReducer", getQualifiedName() + op);
+    return (AllReduce) op;
+  }
+
   @Override
   public void initialize() {
     LOG.entering("CommunicationGroupClientImpl", "initialize", getQualifiedName());
@@ -256,7 +269,7 @@ public final class CommunicationGroupClientImpl implements CommunicationGroupSer
         throw new RuntimeException("InterruptedException while waiting for initialization", e);
       }
 
-      if (isScatterSender) {
+      if (tracksActiveTasks) {
         updateTopology();
       }
 
@@ -331,7 +344,7 @@ public final class CommunicationGroupClientImpl implements CommunicationGroupSer
         msg = commGroupNetworkHandler.waitForTopologyUpdate(operName);
       } while (!isMsgVersionOk(msg));
 
-      if (isScatterSender) {
+      if (tracksActiveTasks) {
         updateActiveTasks(msg);
       }
     }
@@ -36,6 +36,7 @@ import org.apache.reef.wake.impl.SingleThreadStage;
 
 import java.util.Arrays;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.BlockingQueue;
@@ -257,6 +258,40 @@ public class OperatorTopologyImpl implements OperatorTopology {
     return retVal;
   }
 
+  @Override
+  public void sendChunksToChildren(final byte[] data, final int chunkBytes,
+                                   final ReefNetworkGroupCommProtos.GroupCommMessage.Type msgType)
+      throws ParentDeadException {
+    LOG.entering("OperatorTopologyImpl", "sendChunksToChildren", new Object[]{getQualifiedName(), msgType});
+    refreshEffectiveTopology();
+    assert effectiveTopology != null;
+    effectiveTopology.sendChunksToChildren(data, chunkBytes, msgType);
+    LOG.exiting("OperatorTopologyImpl", "sendChunksToChildren", getQualifiedName());
+  }
+
+  @Override
+  public byte[] recvChunksFromParent(final ReefNetworkGroupCommProtos.GroupCommMessage.Type msgType)
+      throws ParentDeadException {
+    LOG.entering("OperatorTopologyImpl", "recvChunksFromParent", new Object[]{getQualifiedName(), msgType});
+    refreshEffectiveTopology();
+    assert effectiveTopology != null;
+    final byte[] retVal = effectiveTopology.recvChunksFromParent(msgType);
+    LOG.exiting("OperatorTopologyImpl", "recvChunksFromParent", getQualifiedName());
+    return retVal;
+  }
+
+  @Override
+  public <T> List<T> recvChunksFromChildren(final List<T> localChunks, final Reduce.ReduceFunction<T> redFunc,
+                                            final Codec<T> dataCodec, final boolean sendToParent)
+      throws ParentDeadException {
+    LOG.entering("OperatorTopologyImpl", "recvChunksFromChildren", getQualifiedName());
+    refreshEffectiveTopology();
+    assert effectiveTopology != null;
+    final List<T> retVal = effectiveTopology.recvChunksFromChildren(localChunks, redFunc, dataCodec, sendToParent);
+    LOG.exiting("OperatorTopologyImpl", "recvChunksFromChildren", getQualifiedName());
+    return retVal;
+  }
+
   /**
    * Only refreshes the effective topology with deletion msgs from.
    * deletionDeltas queue
@@ -20,11 +20,13 @@ package org.apache.reef.io.network.group.impl.task;
 
 import org.apache.commons.lang.ArrayUtils;
 import org.apache.reef.exception.evaluator.NetworkException;
+import org.apache.reef.io.network.group.api.operators.Reduce.AccumulatingReduceFunction;
 import org.apache.reef.io.network.group.api.operators.Reduce.ReduceFunction;
 import org.apache.reef.io.network.group.api.task.NodeStruct;
 import org.apache.reef.io.network.group.api.task.OperatorTopologyStruct;
 import org.apache.reef.io.network.group.impl.GroupCommunicationMessage;
 import org.apache.reef.io.network.group.impl.operators.Sender;
+import org.apache.reef.io.network.group.impl.utils.ChunkHelper;
 import org.apache.reef.io.network.group.impl.utils.Utils;
 import org.apache.reef.io.network.proto.ReefNetworkGroupCommProtos;
 import org.apache.reef.io.serialization.Codec;
@@ -44,6 +46,17 @@ public class OperatorTopologyStructImpl implements OperatorTopologyStruct {
 
   private static final int SMALL_MSG_LENGTH = 1 << 20;
 
+  /**
+   * Number of chunks a node may send to another before it waits for an ACK.
+   */
+  private static final int CHUNK_WINDOW = 8;
+
+  /**
+   * Number of chunks a receiver ACKs at a time, less than the window so that the sender
+   * gets the ACK before its window is used up.
+   */
+  private static final int CHUNK_ACK_INTERVAL = CHUNK_WINDOW / 2;
+
   private static final Logger LOG = Logger.getLogger(OperatorTopologyStructImpl.class.getName());
 
   private final Class<? extends Name<String>> groupName;
@@ -336,11 +349,11 @@ public class OperatorTopologyStructImpl implements OperatorTopologyStruct {
   public <T> T recvFromChildren(final ReduceFunction<T> redFunc, final Codec<T> dataCodec) {
     LOG.entering("OperatorTopologyStructImpl", "recvFromChildren", new Object[]{getQualifiedName(), redFunc,
         dataCodec});
-    final List<T> retLst = new ArrayList<>(2);
     for (final NodeStruct child : children) {
       childrenToRcvFrom.add(child.getId());
     }
 
+    T redVal = null;
     while (!childrenToRcvFrom.isEmpty()) {
       LOG.finest(getQualifiedName() + "Waiting for some child to send data");
       final NodeStruct child = nodesWithDataTakeUnsafe();
@@ -348,20 +361,33 @@ public class OperatorTopologyStructImpl implements OperatorTopologyStruct {
           ReefNetworkGroupCommProtos.GroupCommMessage.Type.Reduce);
 
       if (retVal != null) {
-        retLst.add(dataCodec.decode(retVal));
-        if (retLst.size() == 2) {
-          final T redVal = redFunc.apply(retLst);
-          retLst.clear();
-          retLst.add(redVal);
-        }
+        redVal = fold(redFunc, redVal, dataCodec.decode(retVal));
       }
       childrenToRcvFrom.remove(child.getId());
     }
-    final T retVal = retLst.isEmpty() ? null : retLst.get(0);
+    final T retVal = redVal;
     LOG.exiting("OperatorTopologyStructImpl", "recvFromChildren", getQualifiedName());
     return retVal;
   }
 
+  /**
+   * Fold a freshly decoded {@code next} value into {@code acc}. The first value
+   * becomes the accumulator. Functions that implement
+   * {@link AccumulatingReduceFunction} fold in place, others are applied to the pair.
+   */
+  private static <T> T fold(final ReduceFunction<T> redFunc, final T acc, final T next) {
+    if (acc == null) {
+      return next;
+    }
+    if (redFunc instanceof AccumulatingReduceFunction) {
+      return ((AccumulatingReduceFunction<T>) redFunc).accumulate(acc, next);
+    }
+    final List<T> vals = new ArrayList<>(2);
+    vals.add(acc);
+    vals.add(next);
+    return redFunc.apply(vals);
+  }
+
   /**
    * Receive data from all children as a single byte array.
    * Messages from children are simply byte-concatenated.
@@ -393,6 +419,223 @@ public class OperatorTopologyStructImpl implements OperatorTopologyStruct {
     return retVal;
   }
 
+  /**
+   * Send chunks directly, without the readiness handshake used for big messages.
+   * Instead, at most {@link #CHUNK_WINDOW} chunks to a node are unacknowledged:
+   * the receiver ACKs every {@link #CHUNK_ACK_INTERVAL} chunks, and the sender waits for
+   * the ACK when its window is used up. Both sides know from the number of chunks which
+   * ACKs the sender will wait for, so the receiver sends exactly these and none is left over.
+   *
+   * @param numSent number of chunks already sent to {@code node} in this transfer
+   * @return false if {@code node} died while waiting for its ACK
+   */
+  private boolean sendChunkToNode(final byte[] chunk, final int numSent,
+                                  final ReefNetworkGroupCommProtos.GroupCommMessage.Type msgType,
+                                  final NodeStruct node) {
+    if (numSent >= CHUNK_WINDOW && (numSent - CHUNK_WINDOW) % CHUNK_ACK_INTERVAL == 0) {
+      LOG.finest(getQualifiedName() + "Sent " + numSent + " chunks. Waiting for ACK from " + node.getId());
+      if (receiveFromNode(node, true) == null) {
+        LOG.fine(getQualifiedName() + "Node " + node.getId() + " died after receiving " + numSent + " chunks");
+        return false;
+      }
+    }
+    sendChunkToNode(chunk, msgType, node);
+    return true;
+  }
+
+  /**
+   * ACK the chunks received from {@code node} if it is going to wait for the ACK.
+   *
+   * @param numReceived number of chunks received from {@code node} in this transfer, including the last one
+   * @param numChunks total number of chunks of the transfer
+   */
+  private void ackChunks(final int numReceived, final int numChunks,
+                         final ReefNetworkGroupCommProtos.GroupCommMessage.Type msgType,
+                         final NodeStruct node) {
+    if (numReceived % CHUNK_ACK_INTERVAL == 0 && numReceived + CHUNK_WINDOW - CHUNK_ACK_INTERVAL < numChunks) {
+      sendChunkToNode(Utils.EMPTY_BYTE_ARR, msgType, node);
+    }
+  }
+
+  private void sendChunkToNode(final byte[] chunk,
+                               final ReefNetworkGroupCommProtos.GroupCommMessage.Type msgType,
+                               final NodeStruct node) {
+    final String nodeId = node.getId();
+    try {
+      sender.send(Utils.bldVersionedGCM(groupName, operName, msgType, selfId, version, nodeId, node.getVersion(),
+          chunk));
+    } catch (final NetworkException e) {
+      throw new RuntimeException(
+          "NetworkException while sending " + msgType + " chunk from " + selfId + " to " + nodeId,
+          e);
+    }
+  }
+
+  /**
+   * Receive chunk {@code index} from {@code node}. Chunks with other indices that
+   * arrive first are kept in {@code pending} until they are asked for.
+   * This is only used to reduce, so the ACKs are Reduce messages.
+   *
+   * @return the framed chunk or null if {@code node} died
+   */
+  private byte[] recvChunkFromNode(final NodeStruct node, final int index,
+                                   final Map<Integer, byte[]> pending) {
+    byte[] retVal = pending.remove(index);
+    while (retVal == null) {
+      final byte[] chunk = receiveFromNode(node, true);
+      if (chunk == null) {
+        return null;
+      }
+      // All chunks before index were taken, so the others received so far are pending.
+      ackChunks(index + pending.size() + 1, ChunkHelper.getNumChunks(chunk),
+          ReefNetworkGroupCommProtos.GroupCommMessage.Type.Reduce, node);
+      if (ChunkHelper.getIndex(chunk) == index) {
+        retVal = chunk;
+      } else {
+        pending.put(ChunkHelper.getIndex(chunk), chunk);
+      }
+    }
+    return retVal;
+  }
+
+  /**
+   * Send a chunk to the children that are still alive, dropping those that die while waiting for their ACK.
+   */
+  private void sendChunkToChildren(final byte[] chunk, final int numSent,
+                                   final ReefNetworkGroupCommProtos.GroupCommMessage.Type msgType,
+                                   final List<NodeStruct> liveChildren) {
+    final Iterator<NodeStruct> it = liveChildren.iterator();
+    while (it.hasNext()) {
+      if (!sendChunkToNode(chunk, numSent, msgType, it.next())) {
+        it.remove();
+      }
+    }
+  }
+
+  @Override
+  public void sendChunksToChildren(final byte[] data, final int chunkBytes,
+                                   final ReefNetworkGroupCommProtos.GroupCommMessage.Type msgType) {
+    LOG.entering("OperatorTopologyStructImpl", "sendChunksToChildren",
+        new Object[]{getQualifiedName(), chunkBytes, msgType});
+    final List<NodeStruct> liveChildren = new ArrayList<>(children);
+    int numSent = 0;
+    for (final byte[] chunk : ChunkHelper.split(data, chunkBytes)) {
+      sendChunkToChildren(chunk, numSent++, msgType, liveChildren);
+    }
+    LOG.exiting("OperatorTopologyStructImpl", "sendChunksToChildren", getQualifiedName());
+  }
+
+  /**
+   * Receive chunked data from the parent. Every chunk is forwarded to the
+   * children as soon as it arrives, so the data is pipelined down the tree
+   * instead of being stored and forwarded as a whole at each level.
+   * The parent gets its ACKs only after the chunks went on to the children,
+   * so a slow task holds back the whole pipeline above it.
+   *
+   * @return reassembled data or null if the parent died
+   */
+  @Override
+  public byte[] recvChunksFromParent(final ReefNetworkGroupCommProtos.GroupCommMessage.Type msgType) {
+    LOG.entering("OperatorTopologyStructImpl", "recvChunksFromParent", new Object[]{getQualifiedName(), msgType});
+    LOG.finest(getQualifiedName() + "Waiting for " + parent.getId() + " to send chunks");
+    final List<NodeStruct> liveChildren = new ArrayList<>(children);
+    byte[][] chunks = null;
+    int numReceived = 0;
+    do {
+      final byte[] chunk = receiveFromNode(parent, true);
+      if (chunk == null) {
+        LOG.fine(getQualifiedName() + "Parent " + parent.getId() + " died after sending " + numReceived + " chunks");
+        LOG.exiting("OperatorTopologyStructImpl", "recvChunksFromParent", getQualifiedName());
+        return null;
+      }
+      sendChunkToChildren(chunk, numReceived, msgType, liveChildren);
+      if (chunks == null) {
+        chunks = new byte[ChunkHelper.getNumChunks(chunk)][];
+      }
+      chunks[ChunkHelper.getIndex(chunk)] = chunk;
+      numReceived++;
+      ackChunks(numReceived, chunks.length, msgType, parent);
+    } while (numReceived < chunks.length);
+    final byte[] retVal = ChunkHelper.join(chunks);
+    LOG.exiting("OperatorTopologyStructImpl", "recvChunksFromParent", getQualifiedName());
+    return retVal;
+  }
+
+  /**
+   * Reduce chunked data from the children one chunk index at a time.
+   * The chunks of all children with the same index are reduced, then reduced
+   * with the local chunk of that index if there is one, and optionally sent
+   * to the parent while the children are still sending the following chunks.
+   * All tasks must split their values into the same number of chunks.
+   *
+   * @param localChunks chunks of the local value or null if there is none
+   * @return reduced chunks or null if neither this task nor its children had data
+   */
+  @Override
+  public <T> List<T> recvChunksFromChildren(final List<T> localChunks, final ReduceFunction<T> redFunc,
+                                            final Codec<T> dataCodec, final boolean sendToParent) {
+    LOG.entering("OperatorTopologyStructImpl", "recvChunksFromChildren", new Object[]{getQualifiedName(), redFunc,
+        dataCodec, sendToParent});
+    final List<NodeStruct> childrenWithChunks = new ArrayList<>(children);
+    final Map<NodeStruct, Map<Integer, byte[]>> pendingChunks = new HashMap<>();
+    for (final NodeStruct child : childrenWithChunks) {
+      pendingChunks.put(child, new HashMap<Integer, byte[]>());
+    }
+
+    int numChunks = localChunks == null ? -1 : localChunks.size();
+    boolean parentAlive = parent != null;
+    final List<T> retLst = new ArrayList<>();
+    for (int index = 0; numChunks < 0 || index < numChunks; index++) {
+      T redVal = null;
+      final Iterator<NodeStruct> it = childrenWithChunks.iterator();
+      while (it.hasNext()) {
+        final NodeStruct child = it.next();
+        final byte[] chunk = recvChunkFromNode(child, index, pendingChunks.get(child));
+        if (chunk == null) {
+          LOG.fine(getQualifiedName() + "Child " + child.getId() + " died before sending chunk " + index);
+          it.remove();
+          continue;
+        }
+        if (numChunks < 0) {
+          numChunks = ChunkHelper.getNumChunks(chunk);
+        } else if (numChunks != ChunkHelper.getNumChunks(chunk)) {
+          throw new RuntimeException(getQualifiedName() + "Child " + child.getId() + " split its value into "
+              + ChunkHelper.getNumChunks(chunk) + " chunks instead of " + numChunks);
+        }
+        redVal = fold(redFunc, redVal, dataCodec.decode(ChunkHelper.getPayload(chunk)));
+      }
+
+      if (localChunks != null) {
+        final T localChunk = localChunks.get(index);
+        if (redVal != null && redFunc instanceof AccumulatingReduceFunction) {
+          redVal = ((AccumulatingReduceFunction<T>) redFunc).accumulate(redVal, localChunk);
+        } else {
+          final List<T> vals = new ArrayList<>(2);
+          vals.add(localChunk);
+          if (redVal != null) {
+            vals.add(redVal);
+          }
+          redVal = redFunc.apply(vals);
+        }
+      } else if (redVal == null) {
+        LOG.exiting("OperatorTopologyStructImpl", "recvChunksFromChildren", getQualifiedName());
+        return null;
+      }
+
+      if (sendToParent) {
+        if (parentAlive) {
+          parentAlive = sendChunkToNode(ChunkHelper.frame(index, numChunks, dataCodec.encode(redVal)), index,
+              ReefNetworkGroupCommProtos.GroupCommMessage.Type.Reduce, parent);
+        } else {
+          LOG.fine(getQualifiedName() + "Perhaps parent has died or has not been configured");
+        }
+      }
+      retLst.add(redVal);
+    }
+    LOG.exiting("OperatorTopologyStructImpl", "recvChunksFromChildren", getQualifiedName());
+    return retLst;
+  }
+
   private boolean removedDeadMsg(final String msgSrcId, final int msgSrcVersion) {
     LOG.entering("OperatorTopologyStructImpl", "removedDeadMsg", new Object[]{getQualifiedName(), msgSrcId,
         msgSrcVersion});
@@ -0,0 +1,266 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.reef.io.network.group.impl.utils;
+
+import org.apache.reef.exception.evaluator.NetworkException;
+import org.apache.reef.io.network.group.api.operators.AllReduce;
+import org.apache.reef.io.network.group.api.operators.Reduce;
+import org.apache.reef.io.serialization.Codec;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.logging.Logger;
+
+/**
+ * The message exchange of the AllReduce operator among a list of tasks.
+ * <p>
+ * Elements with fewer entries than the ring threshold, as counted by the partitioner, or
+ * that the partitioner cannot split, are all-reduced by recursive doubling: log(p) rounds in which pairs of
+ * tasks swap their partial results. This takes the fewest messages, but every message
+ * carries a whole element.
+ * <p>
+ * Larger elements are split into p parts and all-reduced on a ring: p-1 steps of
+ * reduce-scatter, after which each task holds one fully reduced part, then p-1 steps of
+ * all-gather that circulate these parts. Each task sends and receives 2(p-1)/p of an
+ * element in total, independent of p, and no task carries more traffic than the others.
+ * <p>
+ * The reduce function must be associative and commutative, and all tasks must see the same
+ * list of tasks and apply the exchange to elements with the same number of entries, as element-wise
+ * reduce functions require anyway. The algorithm then only depends on that count and the threshold,
+ * never on how well an element happens to encode, so all tasks choose the same one.
+ * Not thread-safe: one exchange runs at a time.
+ */
+public final class AllReduceExchange<T> {
+
+  private static final Logger LOG = Logger.getLogger(AllReduceExchange.class.getName());
+
+  /**
+   * Point-to-point messages between the tasks of the exchange.
+   */
+  public interface Channel {
+
+    /**
+     * Send a message without waiting for it to be delivered.
+     *
+     * @param destId id of the receiving task
+     * @param seq sequence number of the message among those sent to destId
+     * @param data payload of the message
+     */
+    void send(String destId, int seq, byte[] data) throws NetworkException;
+
+    /**
+     * Wait for a message.
+     *
+     * @param srcId id of the sending task
+     * @param seq sequence number of the message among those sent by srcId to this task
+     * @return payload of the message
+     * @throws NetworkException if the message will not come since a task failed
+     */
+    byte[] receive(String srcId, int seq) throws InterruptedException, NetworkException;
+  }
+
+  private final Codec<T> dataCodec;
+  private final Reduce.ReduceFunction<T> reduceFunction;
+  private final AllReduce.Partitioner<T> partitioner;
+  private final int ringThreshold;
+  private final Channel channel;
+
+  private final Map<String, Integer> sentCount = new HashMap<>();
+  private final Map<String, Integer> receivedCount = new HashMap<>();
+
+  public AllReduceExchange(final Codec<T> dataCodec,
+                           final Reduce.ReduceFunction<T> reduceFunction,
+                           final AllReduce.Partitioner<T> partitioner,
+                           final int ringThreshold,
+                           final Channel channel) {
+    this.dataCodec = dataCodec;
+    this.reduceFunction = reduceFunction;
+    this.partitioner = partitioner;
+    this.ringThreshold = ringThreshold;
+    this.channel = channel;
+  }
+
+  /**
+   * Start numbering the messages to and from each task at zero again, as after a topology update.
+   * The tasks must reset together, once they all gave up on the exchanges that were under way.
+   */
+  public void reset() {
+    sentCount.clear();
+    receivedCount.clear();
+  }
+
+  /**
+   * All-reduce element with the elements of the other tasks, choosing the algorithm by the number of entries.
+   *
+   * @param element element of this task
+   * @param taskIds ids of all tasks of the exchange, in the same order on all of them
+   * @param selfId id of this task
+   * @return result of reducing the elements of all tasks
+   */
+  public T apply(final T element, final List<String> taskIds, final String selfId)
+      throws NetworkException, InterruptedException {
+    final int rank = rankOf(taskIds, selfId);
+    final int numTasks = taskIds.size();
+    if (numTasks == 1) {
+      return element;
+    }
+
+    final int size = partitioner.size(element);
+    if (size > 0 && size >= ringThreshold) {
+      final List<T> parts = partitioner.split(element, numTasks);
+      if (parts == null) {
+        throw new IllegalStateException("The partitioner counted " + size + " entries but cannot split " + element);
+      }
+      return ring(parts, encodeParts(parts, numTasks), taskIds, rank);
+    }
+    return recursiveDoubling(element, taskIds, rank);
+  }
+
+  /**
+   * All-reduce element on a ring of reduce-scatter and all-gather.
+   *
+   * @throws IllegalArgumentException if the partitioner cannot split element
+   */
+  public T ring(final T element, final List<String> taskIds, final String selfId)
+      throws NetworkException, InterruptedException {
+    final int rank = rankOf(taskIds, selfId);
+    final int numTasks = taskIds.size();
+    if (numTasks == 1) {
+      return element;
+    }
+    final List<T> parts = partitioner.split(element, numTasks);
+    if (parts == null) {
+      throw new IllegalArgumentException("The partitioner cannot split " + element);
+    }
+    return ring(parts, encodeParts(parts, numTasks), taskIds, rank);
+  }
+
+  /**
+   * All-reduce element by recursive doubling.
+   */
+  public T recursiveDoubling(final T element, final List<String> taskIds, final String selfId)
+      throws NetworkException, InterruptedException {
+    final int rank = rankOf(taskIds, selfId);
+    if (taskIds.size() == 1) {
+      return element;
+    }
+    return recursiveDoubling(element, taskIds, rank);
+  }
+
+  private T ring(final List<T> initialParts, final byte[][] encodedParts, final List<String> taskIds, final int rank)
+      throws NetworkException, InterruptedException {
+    LOG.finest("Ring all-reduce of rank " + rank + " among " + taskIds.size());
+    final int numTasks = taskIds.size();
+    final List<T> parts = new ArrayList<>(initialParts);
+    final String left = taskIds.get((rank - 1 + numTasks) % numTasks);
+    final String right = taskIds.get((rank + 1) % numTasks);
+
+    // Reduce-scatter: in step s, pass on part rank-s and fold the left neighbor's part rank-s-1 into ours.
+    // After p-1 steps, part rank+1 holds the contributions of all tasks.
+    for (int step = 0; step < numTasks - 1; ++step) {
+      final int sendIndex = (rank - step + numTasks) % numTasks;
+      final int recvIndex = (rank - step - 1 + numTasks) % numTasks;
+      send(right, encodedParts[sendIndex]);
+      final T received = dataCodec.decode(receive(left));
+      parts.set(recvIndex, reduce(parts.get(recvIndex), received));
+      encodedParts[recvIndex] = dataCodec.encode(parts.get(recvIndex));
+    }
+
+    // All-gather: in step s, pass on reduced part rank+1-s and take the left neighbor's reduced part rank-s.
+    for (int step = 0; step < numTasks - 1; ++step) {
+      final int sendIndex = (rank + 1 - step + numTasks) % numTasks;
+      final int recvIndex = (rank - step + numTasks) % numTasks;
+      send(right, encodedParts[sendIndex]);
+      encodedParts[recvIndex] = receive(left);
+      parts.set(recvIndex, dataCodec.decode(encodedParts[recvIndex]));
+    }
+    return partitioner.join(parts);
+  }
+
+  private T recursiveDoubling(final T element, final List<String> taskIds, final int rank)
+      throws NetworkException, InterruptedException {
+    LOG.finest("Recursive doubling all-reduce of rank " + rank + " among " + taskIds.size());
+    final int numTasks = taskIds.size();
+    final int powerOfTwo = Integer.highestOneBit(numTasks);
+    final int numExtra = numTasks - powerOfTwo;
+
+    // Fold the tasks beyond the largest power of two into their partner below it, which
+    // takes part in the doubling on their behalf and sends them the result at the end.
+    if (rank >= powerOfTwo) {
+      final String partner = taskIds.get(rank - powerOfTwo);
+      send(partner, dataCodec.encode(element));
+      return dataCodec.decode(receive(partner));
+    }
+
+    T value = element;
+    if (rank < numExtra) {
+      value = reduce(value, dataCodec.decode(receive(taskIds.get(rank + powerOfTwo))));
+    }
+    for (int mask = 1; mask < powerOfTwo; mask <<= 1) {
+      final String partner = taskIds.get(rank ^ mask);
+      send(partner, dataCodec.encode(value));
+      value = reduce(value, dataCodec.decode(receive(partner)));
+    }
+    if (rank < numExtra) {
+      send(taskIds.get(rank + powerOfTwo), dataCodec.encode(value));
+    }
+    return value;
+  }
+
+  private byte[][] encodeParts(final List<T> parts, final int numTasks) {
+    if (parts.size() != numTasks) {
+      throw new IllegalStateException("The partitioner returned " + parts.size() + " parts instead of " + numTasks);
+    }
+    final byte[][] encodedParts = new byte[numTasks][];
+    for (int i = 0; i < numTasks; ++i) {
+      encodedParts[i] = dataCodec.encode(parts.get(i));
+    }
+    return encodedParts;
+  }
+
+  private T reduce(final T first, final T second) {
+    return reduceFunction.apply(Arrays.asList(first, second));
+  }
+
+  private void send(final String destId, final byte[] data) throws NetworkException {
+    channel.send(destId, next(sentCount, destId), data);
+  }
+
+  private byte[] receive(final String srcId) throws InterruptedException, NetworkException {
+    return channel.receive(srcId, next(receivedCount, srcId));
+  }
+
+  private static int next(final Map<String, Integer> counts, final String taskId) {
+    final Integer count = counts.get(taskId);
+    final int seq = count == null ? 0 : count;
+    counts.put(taskId, seq + 1);
+    return seq;
+  }
+
+  private static int rankOf(final List<String> taskIds, final String selfId) {
+    final int rank = taskIds.indexOf(selfId);
+    if (rank < 0) {
+      throw new IllegalArgumentException(selfId + " is not one of the tasks " + taskIds);
+    }
+    return rank;
+  }
+}
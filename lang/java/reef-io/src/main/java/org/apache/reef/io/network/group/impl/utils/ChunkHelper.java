@@ -0,0 +1,128 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.reef.io.network.group.impl.utils;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Utility class for operators that transfer values in fixed-size chunks.
+ * Every chunk carries its index and the total number of chunks in an
+ * 8 byte header so that receivers can reassemble chunks that arrive out of order.
+ */
+public final class ChunkHelper {
+
+  private static final int HEADER_LENGTH = 8;
+
+  /**
+   * Should not be instantiated.
+   */
+  private ChunkHelper() {
+  }
+
+  /**
+   * Returns the number of chunks needed to carry {@code length} bytes.
+   * Empty data still takes one chunk.
+   *
+   * @param length number of bytes to transfer
+   * @param chunkSize maximum number of payload bytes per chunk
+   * @return number of chunks
+   */
+  public static int getNumChunks(final int length, final int chunkSize) {
+    if (chunkSize <= 0) {
+      throw new IllegalArgumentException("Chunk size must be positive but was " + chunkSize);
+    }
+    return Math.max(1, (length + chunkSize - 1) / chunkSize);
+  }
+
+  /**
+   * Split {@code data} into framed chunks of at most {@code chunkSize} payload bytes each.
+   *
+   * @param data bytes to split
+   * @param chunkSize maximum number of payload bytes per chunk
+   * @return list of framed chunks, in order
+   */
+  public static List<byte[]> split(final byte[] data, final int chunkSize) {
+    final int numChunks = getNumChunks(data.length, chunkSize);
+    final List<byte[]> retList = new ArrayList<>(numChunks);
+    for (int index = 0; index < numChunks; index++) {
+      final int offset = index * chunkSize;
+      final int length = Math.min(chunkSize, data.length - offset);
+      retList.add(frame(index, numChunks, data, offset, length));
+    }
+    return retList;
+  }
+
+  /**
+   * Frame a whole payload as chunk {@code index} of {@code numChunks}.
+   *
+   * @param index index of the chunk
+   * @param numChunks total number of chunks
+   * @param payload bytes carried by the chunk
+   * @return framed chunk
+   */
+  public static byte[] frame(final int index, final int numChunks, final byte[] payload) {
+    return frame(index, numChunks, payload, 0, payload.length);
+  }
+
+  private static byte[] frame(final int index, final int numChunks,
+                              final byte[] data, final int offset, final int length) {
+    return ByteBuffer.allocate(HEADER_LENGTH + length)
+        .putInt(index)
+        .putInt(numChunks)
+        .put(data, offset, length)
+        .array();
+  }
+
+  public static int getIndex(final byte[] chunk) {
+    return ByteBuffer.wrap(chunk).getInt(0);
+  }
+
+  public static int getNumChunks(final byte[] chunk) {
+    return ByteBuffer.wrap(chunk).getInt(4);
+  }
+
+  public static byte[] getPayload(final byte[] chunk) {
+    final byte[] retVal = new byte[chunk.length - HEADER_LENGTH];
+    System.arraycopy(chunk, HEADER_LENGTH, retVal, 0, retVal.length);
+    return retVal;
+  }
+
+  /**
+   * Concatenate the payloads of a complete set of chunks.
+   *
+   * @param chunks framed chunks, indexed by chunk index
+   * @return the original data
+   */
+  public static byte[] join(final byte[][] chunks) {
+    int length = 0;
+    for (final byte[] chunk : chunks) {
+      length += chunk.length - HEADER_LENGTH;
+    }
+    final byte[] retVal = new byte[length];
+    int offset = 0;
+    for (final byte[] chunk : chunks) {
+      final int payloadLength = chunk.length - HEADER_LENGTH;
+      System.arraycopy(chunk, HEADER_LENGTH, retVal, offset, payloadLength);
+      offset += payloadLength;
+    }
+    return retVal;
+  }
+}
@@ -0,0 +1,144 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.reef.io.network.group.impl.utils;
+
+import org.apache.reef.exception.evaluator.NetworkException;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.logging.Logger;
+
+/**
+ * Holds messages from peer tasks until they are taken, keyed by source, version and sequence number.
+ * Messages of one source can arrive out of order since they are handled on several threads,
+ * so each one carries the sequence number its sender assigned to it.
+ * <p>
+ * The version counts the topology updates seen by the tasks. Messages of an older version are dropped,
+ * and those of a newer one are kept for when this mailbox catches up. Once a peer fails, or the version
+ * changes, waiting for a message of the current version throws instead of blocking forever.
+ */
+public final class PeerMailbox {
+
+  private static final Logger LOG = Logger.getLogger(PeerMailbox.class.getName());
+
+  private final Map<String, Map<Long, byte[]>> messages = new HashMap<>();
+
+  private int version = 0;
+  private String failedId = null;
+
+  /**
+   * @return the current version
+   */
+  public synchronized int getVersion() {
+    return version;
+  }
+
+  /**
+   * Deliver a message.
+   *
+   * @param srcId id of the task that sent the message
+   * @param msgVersion version of the sender when it sent the message
+   * @param seq sequence number of the message among those sent by srcId to this task in msgVersion
+   * @param data payload of the message
+   */
+  public synchronized void put(final String srcId, final int msgVersion, final int seq, final byte[] data) {
+    if (msgVersion < version) {
+      LOG.fine("Dropping message " + seq + " of version " + msgVersion + " from " + srcId
+          + " while at version " + version);
+      return;
+    }
+    Map<Long, byte[]> fromSrc = messages.get(srcId);
+    if (fromSrc == null) {
+      fromSrc = new HashMap<>();
+      messages.put(srcId, fromSrc);
+    }
+    if (fromSrc.put(key(msgVersion, seq), data) != null) {
+      throw new IllegalStateException("Received message " + seq + " of version " + msgVersion
+          + " from " + srcId + " twice");
+    }
+    notifyAll();
+  }
+
+  /**
+   * Fail the current version: wake up the waiting taker, and make all takes of this version throw.
+   *
+   * @param srcId id of the task that failed, or that gave up on the exchange
+   * @param msgVersion version in which srcId failed
+   */
+  public synchronized void fail(final String srcId, final int msgVersion) {
+    if (msgVersion == version && failedId == null) {
+      LOG.fine(srcId + " failed in version " + version);
+      failedId = srcId;
+      notifyAll();
+    }
+  }
+
+  /**
+   * Move on to the next version: wake up the waiting taker, drop the messages of the current
+   * version and forget its failure.
+   */
+  public synchronized void nextVersion() {
+    ++version;
+    failedId = null;
+    for (final Map<Long, byte[]> fromSrc : messages.values()) {
+      final Iterator<Long> it = fromSrc.keySet().iterator();
+      while (it.hasNext()) {
+        if (it.next() >>> Integer.SIZE < version) {
+          it.remove();
+        }
+      }
+    }
+    notifyAll();
+  }
+
+  /**
+   * Wait for a message and remove it from the mailbox.
+   *
+   * @param srcId id of the task that sent the message
+   * @param msgVersion version the message was sent in
+   * @param seq sequence number of the message
+   * @return payload of the message
+   * @throws NetworkException if a task failed in msgVersion, or the mailbox moved past it
+   */
+  public synchronized byte[] take(final String srcId, final int msgVersion, final int seq)
+      throws InterruptedException, NetworkException {
+    while (true) {
+      if (msgVersion != version) {
+        throw new NetworkException("The topology changed from version " + msgVersion + " to " + version
+            + " while waiting for message " + seq + " from " + srcId);
+      }
+      if (failedId != null) {
+        throw new NetworkException(failedId + " failed while waiting for message " + seq + " from " + srcId);
+      }
+      final Map<Long, byte[]> fromSrc = messages.get(srcId);
+      if (fromSrc != null) {
+        final byte[] data = fromSrc.remove(key(msgVersion, seq));
+        if (data != null) {
+          return data;
+        }
+      }
+      wait();
+    }
+  }
+
+  private static long key(final int msgVersion, final int seq) {
+    return (long) msgVersion << Integer.SIZE | seq & 0xFFFFFFFFL;
+  }
+}
@@ -0,0 +1,54 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.reef.io.network.group.impl.utils;
+
+import org.apache.reef.io.network.group.api.operators.AllReduce;
+
+import javax.inject.Inject;
+import java.util.List;
+
+/**
+ * Partitioner that keeps elements whole. AllReduce operators configured
+ * with it always use recursive doubling, and chunked Reduce operators
+ * send each element as a single segment.
+ */
+public final class WholeValuePartitioner<T> implements AllReduce.Partitioner<T> {
+
+  @Inject
+  public WholeValuePartitioner() {
+  }
+
+  @Override
+  public int size(final T element) {
+    return 0;
+  }
+
+  @Override
+  public List<T> split(final T element, final int numParts) {
+    return null;
+  }
+
+  @Override
+  public T join(final List<T> parts) {
+    if (parts.size() != 1) {
+      throw new IllegalArgumentException("Expected a single part but got " + parts.size());
+    }
+    return parts.get(0);
+  }
+}
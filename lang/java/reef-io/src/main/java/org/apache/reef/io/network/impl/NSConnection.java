@@ -24,7 +24,11 @@ import org.apache.reef.io.network.naming.exception.NamingException;
 import org.apache.reef.wake.Identifier;
 import org.apache.reef.wake.remote.Codec;
 import org.apache.reef.wake.remote.transport.Link;
+import org.apache.reef.wake.remote.transport.LinkLane;
 import org.apache.reef.wake.remote.transport.LinkListener;
+import org.apache.reef.wake.remote.transport.Transport;
+import org.apache.reef.wake.remote.transport.netty.BulkLink;
+import org.apache.reef.wake.remote.transport.netty.NettyMessagingTransport;
 
 import java.net.InetSocketAddress;
 import java.net.SocketAddress;
@@ -44,6 +48,7 @@ class NSConnection<T> implements Connection<T> {
   private final LinkListener<NSMessage<T>> listener;
   private final NetworkService<T> service;
   private final Codec<NSMessage<T>> codec;
+  private final LinkLane lane;
 
   // link can change when an endpoint physical address changes
   private Link<NSMessage<T>> link;
@@ -55,14 +60,16 @@ class NSConnection<T> implements Connection<T> {
    * @param destId   a destination identifier
    * @param listener a link listener
    * @param service  a network service
+   * @param lane     the lane of the link
    */
   NSConnection(final Identifier srcId, final Identifier destId,
-               final LinkListener<T> listener, final NetworkService<T> service) {
+               final LinkListener<T> listener, final NetworkService<T> service, final LinkLane lane) {
     this.srcId = srcId;
     this.destId = destId;
     this.listener = new NSMessageLinkListener<>(listener);
     this.service = service;
     this.codec = new NSMessageCodec<>(service.getCodec(), service.getIdentifierFactory());
+    this.lane = lane;
   }
 
   /**
@@ -85,7 +92,15 @@ class NSConnection<T> implements Connection<T> {
       LOG.log(Level.FINE, "Resolved {0} to {1}", new Object[]{this.destId, addr});
 
       // connect to a remote address
-      this.link = this.service.getTransport().open(addr, this.codec, this.listener);
+      final Transport transport = this.service.getTransport();
+      if (this.lane == LinkLane.CONTROL || !(transport instanceof NettyMessagingTransport)) {
+        this.link = transport.open(addr, this.codec, this.listener);
+      } else if (!(this.link instanceof BulkLink) || !addr.equals(this.link.getRemoteAddress())) {
+        // a bulk link stays on one connection of the pool, so that the messages of the connection arrive in order,
+        // and reconnects by itself. Without bulk links the transport returns the CONTROL link,
+        // which is opened again every time, so that a closed connection gets replaced.
+        this.link = ((NettyMessagingTransport) transport).open(addr, this.codec, this.listener, this.lane);
+      }
       LOG.log(Level.FINE, "Transport returned a link {0}", this.link);
 
     } catch (final Exception ex) {
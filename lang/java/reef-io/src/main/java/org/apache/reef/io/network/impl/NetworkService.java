@@ -30,6 +30,7 @@ import org.apache.reef.wake.impl.LoggingEventHandler;
 import org.apache.reef.wake.impl.SingleThreadStage;
 import org.apache.reef.wake.remote.Codec;
 import org.apache.reef.wake.remote.impl.TransportEvent;
+import org.apache.reef.wake.remote.transport.LinkLane;
 import org.apache.reef.wake.remote.transport.Transport;
 import org.apache.reef.wake.remote.transport.TransportFactory;
 import org.apache.reef.wake.remote.transport.netty.LoggingLinkListener;
@@ -53,6 +54,7 @@ public final class NetworkService<T> implements Stage, ConnectionFactory<T> {
   private final Transport transport;
   private final NameResolver nameResolver;
   private final ConcurrentMap<Identifier, Connection<T>> idToConnMap = new ConcurrentHashMap<>();
+  private final ConcurrentMap<Identifier, Connection<T>> idToBulkConnMap = new ConcurrentHashMap<>();
   private final EStage<Tuple<Identifier, InetSocketAddress>> nameServiceRegisteringStage;
   private final EStage<Identifier> nameServiceUnregisteringStage;
   private Identifier myId;
@@ -144,6 +146,7 @@ public final class NetworkService<T> implements Stage, ConnectionFactory<T> {
 
   void remove(final Identifier id) {
     this.idToConnMap.remove(id);
+    this.idToBulkConnMap.remove(id);
   }
 
   @Override
@@ -155,21 +158,35 @@ public final class NetworkService<T> implements Stage, ConnectionFactory<T> {
 
   @Override
   public Connection<T> newConnection(final Identifier destId) {
+    return newConnection(destId, LinkLane.CONTROL);
+  }
+
+  /**
+   * Returns the connection to the destination on the given lane.
+   * The BULK lane is for large data; it is the CONTROL lane unless the transport has bulk links.
+   *
+   * @param destId the destination identifier
+   * @param lane   the lane of the connection
+   * @return the connection
+   */
+  public Connection<T> newConnection(final Identifier destId, final LinkLane lane) {
 
     if (this.myId == null) {
       throw new RuntimeException(
           "Trying to establish a connection from a Network Service that is not bound to any task");
     }
 
-    final Connection<T> conn = this.idToConnMap.get(destId);
+    final ConcurrentMap<Identifier, Connection<T>> connMap =
+        lane == LinkLane.BULK ? this.idToBulkConnMap : this.idToConnMap;
+    final Connection<T> conn = connMap.get(destId);
     if (conn != null) {
       return conn;
     }
 
     final Connection<T> newConnection = new NSConnection<>(
-        this.myId, destId, new LoggingLinkListener<T>(), this);
+        this.myId, destId, new LoggingLinkListener<T>(), this, lane);
 
-    final Connection<T> existing = this.idToConnMap.putIfAbsent(destId, newConnection);
+    final Connection<T> existing = connMap.putIfAbsent(destId, newConnection);
     return existing == null ? newConnection : existing;
   }
 
@@ -37,6 +37,7 @@ import org.apache.reef.wake.EventHandler;
 import org.apache.reef.wake.Identifier;
 import org.apache.reef.wake.IdentifierFactory;
 import org.apache.reef.wake.remote.address.LocalAddressProvider;
+import org.apache.reef.wake.remote.transport.LinkLane;
 import org.apache.reef.wake.remote.transport.netty.MessagingTransportFactory;
 import org.junit.Assert;
 import org.junit.Assume;
@@ -144,6 +145,96 @@ public class NetworkServiceTest {
     }
   }
 
+  /**
+   * Test that a BULK connection without bulk links reconnects after its connection went down,
+   * the way group communication opens and writes it for every message.
+   */
+  @Test
+  public void testBulkConnectionReconnects() throws Exception {
+    LOG.log(Level.FINEST, name.getMethodName());
+
+    final IdentifierFactory factory = new StringIdentifierFactory();
+
+    final Injector injector = Tang.Factory.getTang().newInjector();
+    injector.bindVolatileParameter(NameServerParameters.NameServerIdentifierFactory.class, factory);
+    injector.bindVolatileInstance(LocalAddressProvider.class, this.localAddressProvider);
+
+    try (final NameServer server = injector.getInstance(NameServer.class)) {
+      final int nameServerPort = server.getPort();
+
+      final BlockingQueue<String> received = new LinkedBlockingQueue<>();
+      final EventHandler<Message<String>> receiver = new EventHandler<Message<String>>() {
+        @Override
+        public void onNext(final Message<String> value) {
+          for (final String data : value.getData()) {
+            received.add(data);
+          }
+        }
+      };
+
+      // network service; BulkLinksPerPeer is 0 by default
+      final String name2 = "task2";
+      final String name1 = "task1";
+      final Configuration nameResolverConf =
+          Tang.Factory.getTang().newConfigurationBuilder(NameResolverConfiguration.CONF
+          .set(NameResolverConfiguration.NAME_SERVER_HOSTNAME, this.localAddress)
+          .set(NameResolverConfiguration.NAME_SERVICE_PORT, nameServerPort)
+          .build())
+          .build();
+
+      final Injector injector2 = Tang.Factory.getTang().newInjector(nameResolverConf);
+
+      try (final NameResolver nameResolver = injector2.getInstance(NameResolver.class)) {
+        injector2.bindVolatileParameter(NetworkServiceParameters.NetworkServiceIdentifierFactory.class, factory);
+        injector2.bindVolatileInstance(NameResolver.class, nameResolver);
+        injector2.bindVolatileParameter(NetworkServiceParameters.NetworkServiceCodec.class, new StringCodec());
+        injector2.bindVolatileParameter(NetworkServiceParameters.NetworkServiceTransportFactory.class,
+            injector.getInstance(MessagingTransportFactory.class));
+        injector2.bindVolatileParameter(NetworkServiceParameters.NetworkServiceExceptionHandler.class,
+            new ExceptionHandler());
+
+        final Injector injectorNs2 = injector2.forkInjector();
+        injectorNs2.bindVolatileParameter(NetworkServiceParameters.NetworkServiceHandler.class, receiver);
+        final NetworkService<String> ns2 = injectorNs2.getInstance(NetworkService.class);
+
+        final Injector injectorNs1 = injector2.forkInjector();
+        injectorNs1.bindVolatileParameter(NetworkServiceParameters.NetworkServiceHandler.class,
+            new MessageHandler<String>(name1, null, 0));
+        final NetworkService<String> ns1 = injectorNs1.getInstance(NetworkService.class);
+
+        ns2.registerId(factory.getNewInstance(name2));
+        final int port2 = ns2.getTransport().getListeningPort();
+        server.register(factory.getNewInstance(name2), new InetSocketAddress(this.localAddress, port2));
+
+        ns1.registerId(factory.getNewInstance(name1));
+        final int port1 = ns1.getTransport().getListeningPort();
+        server.register(factory.getNewInstance(name1), new InetSocketAddress(this.localAddress, port1));
+
+        final Identifier destId = factory.getNewInstance(name2);
+        final Connection<String> conn = ns1.newConnection(destId, LinkLane.BULK);
+
+        conn.open();
+        conn.write("before");
+        Assert.assertEquals("before", received.poll(10, TimeUnit.SECONDS));
+
+        // restart the receiver on the same port: the connection of the sender goes down
+        ns2.getTransport().close();
+        Thread.sleep(1000); // let the sender see its connection close
+        final Injector injectorNs3 = injector2.forkInjector();
+        injectorNs3.bindVolatileParameter(NetworkServiceParameters.NetworkServiceHandler.class, receiver);
+        injectorNs3.bindVolatileParameter(NetworkServiceParameters.NetworkServicePort.class, port2);
+        final NetworkService<String> ns3 = injectorNs3.getInstance(NetworkService.class);
+
+        conn.open();
+        conn.write("after");
+        Assert.assertEquals("after", received.poll(10, TimeUnit.SECONDS));
+
+        ns1.getTransport().close();
+        ns3.getTransport().close();
+      }
+    }
+  }
+
   /**
    * NetworkService messaging rate benchmark.
    */
@@ -0,0 +1,270 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.reef.io.network.group.impl.driver;
+
+import org.apache.reef.driver.catalog.NodeDescriptor;
+import org.apache.reef.driver.catalog.RackDescriptor;
+import org.apache.reef.driver.parameters.DriverIdentifier;
+import org.apache.reef.io.network.group.api.driver.LocalityAwareTopology;
+import org.apache.reef.io.network.group.impl.GroupCommunicationMessage;
+import org.apache.reef.io.network.group.impl.config.parameters.CommGroupNameClass;
+import org.apache.reef.io.network.group.impl.config.parameters.GroupCommSenderStage;
+import org.apache.reef.io.network.group.impl.config.parameters.OperatorNameClass;
+import org.apache.reef.io.network.proto.ReefNetworkGroupCommProtos;
+import org.apache.reef.tang.Injector;
+import org.apache.reef.tang.Tang;
+import org.apache.reef.tang.annotations.Name;
+import org.apache.reef.tang.annotations.NamedParameter;
+import org.apache.reef.tang.exceptions.InjectionException;
+import org.apache.reef.wake.EStage;
+import org.apache.reef.wake.EventHandler;
+import org.apache.reef.wake.impl.SyncStage;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Tests for {@link HierarchicalTopology}.
+ */
+public final class HierarchicalTopologyTest {
+
+  private static final String ROOT_ID = "root";
+  private static final String[] TASK_IDS = {"a", "b", "c", "d", "e", "f", "g"};
+  private static final String[] HOSTS = {"h1", "h2", "h2", "h3", "h3", "h4", null};
+  private static final String[] RACKS = {"r1", "r1", "r1", "r2", "r2", "r2", null};
+
+  /**
+   * Tasks on the root's node hang off the root, other tasks off their node leader,
+   * node leaders off their rack leader, and rack leaders off the root.
+   */
+  @Test
+  public void testRootAddedFirst() throws InjectionException {
+    final Map<String, String> parents = new HashMap<>();
+    final LocalityAwareTopology topology = newTopology(parents);
+    addTask(topology, ROOT_ID, "h1", "r1");
+    for (int i = 0; i < TASK_IDS.length; i++) {
+      addTask(topology, TASK_IDS[i], HOSTS[i], RACKS[i]);
+    }
+    runTasks(topology);
+    checkParents(parents);
+  }
+
+  /**
+   * The same tree is built when the root task is added after the others.
+   */
+  @Test
+  public void testRootAddedLast() throws InjectionException {
+    final Map<String, String> parents = new HashMap<>();
+    final LocalityAwareTopology topology = newTopology(parents);
+    for (int i = 0; i < TASK_IDS.length; i++) {
+      addTask(topology, TASK_IDS[i], HOSTS[i], RACKS[i]);
+    }
+    addTask(topology, ROOT_ID, "h1", "r1");
+    runTasks(topology);
+    checkParents(parents);
+  }
+
+  /**
+   * Removing a task that leads nothing leaves the rest of the tree as it was,
+   * and the task goes back under its node leader when it is added again.
+   */
+  @Test
+  public void testRemoveTask() throws InjectionException {
+    final Map<String, String> parents = new HashMap<>();
+    final List<GroupCommunicationMessage> messages = new ArrayList<>();
+    final LocalityAwareTopology topology = newRunningTopology(parents, messages);
+    parents.clear();
+    messages.clear();
+
+    topology.onFailedTask("c");
+    topology.removeTask("c");
+    assertTrue(parents.isEmpty());
+    assertTrue(hasMessage(messages, ReefNetworkGroupCommProtos.GroupCommMessage.Type.ChildDead, "c", "b"));
+
+    addTask(topology, "c", "h2", "r1");
+    topology.onRunningTask("c");
+    assertEquals(1, parents.size());
+    assertEquals("b", parents.get("c"));
+  }
+
+  /**
+   * The children of a removed rack leader are placed again: the first one takes over
+   * the rack and its node, and a node leader among them keeps leading its node.
+   */
+  @Test
+  public void testRemoveLeader() throws InjectionException {
+    final Map<String, String> parents = new HashMap<>();
+    final List<GroupCommunicationMessage> messages = new ArrayList<>();
+    final LocalityAwareTopology topology = newRunningTopology(parents, messages);
+    parents.clear();
+
+    topology.onFailedTask("d");
+    topology.removeTask("d");
+    assertEquals(2, parents.size());
+    assertEquals(ROOT_ID, parents.get("e"));
+    assertEquals("e", parents.get("f"));
+
+    parents.clear();
+    addTask(topology, "h", "h3", "r2");
+    addTask(topology, "i", "h4", "r2");
+    addTask(topology, "j", "h5", "r2");
+    topology.onRunningTask("h");
+    topology.onRunningTask("i");
+    topology.onRunningTask("j");
+    assertEquals(3, parents.size());
+    assertEquals("e", parents.get("h"));
+    assertEquals("f", parents.get("i"));
+    assertEquals("e", parents.get("j"));
+  }
+
+  /**
+   * A failed task is reported to its parent and children, and they are told
+   * about it again once it runs with its new version.
+   */
+  @Test
+  public void testFailedTask() throws InjectionException {
+    final Map<String, String> parents = new HashMap<>();
+    final List<GroupCommunicationMessage> messages = new ArrayList<>();
+    final LocalityAwareTopology topology = newRunningTopology(parents, messages);
+    parents.clear();
+    messages.clear();
+
+    topology.onFailedTask("b");
+    assertEquals(1, topology.getNodeVersion("b"));
+    assertTrue(hasMessage(messages, ReefNetworkGroupCommProtos.GroupCommMessage.Type.ChildDead, "b", ROOT_ID));
+    assertTrue(hasMessage(messages, ReefNetworkGroupCommProtos.GroupCommMessage.Type.ParentDead, "b", "c"));
+    assertFalse(hasMessage(messages, ReefNetworkGroupCommProtos.GroupCommMessage.Type.ChildDead, "b", "d"));
+
+    messages.clear();
+    topology.onRunningTask("b");
+    assertEquals(ROOT_ID, parents.get("b"));
+    assertEquals("b", parents.get("c"));
+    assertTrue(hasMessage(messages, ReefNetworkGroupCommProtos.GroupCommMessage.Type.ChildAdd, "b", ROOT_ID));
+    assertTrue(hasMessage(messages, ReefNetworkGroupCommProtos.GroupCommMessage.Type.ChildAdd, "c", "b"));
+  }
+
+  private static boolean hasMessage(final List<GroupCommunicationMessage> messages,
+                                    final ReefNetworkGroupCommProtos.GroupCommMessage.Type type,
+                                    final String srcId, final String dstId) {
+    for (final GroupCommunicationMessage msg : messages) {
+      if (msg.getType() == type && msg.getSrcid().equals(srcId) && msg.getDestid().equals(dstId)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Create a topology with the root and all tasks added and running.
+   */
+  private static LocalityAwareTopology newRunningTopology(final Map<String, String> parents,
+                                                          final List<GroupCommunicationMessage> messages)
+      throws InjectionException {
+    final LocalityAwareTopology topology = newTopology(parents, messages);
+    addTask(topology, ROOT_ID, "h1", "r1");
+    for (int i = 0; i < TASK_IDS.length; i++) {
+      addTask(topology, TASK_IDS[i], HOSTS[i], RACKS[i]);
+    }
+    runTasks(topology);
+    checkParents(parents);
+    return topology;
+  }
+
+  private static void checkParents(final Map<String, String> parents) {
+    assertEquals(TASK_IDS.length, parents.size());
+    assertEquals(ROOT_ID, parents.get("a"));
+    assertEquals(ROOT_ID, parents.get("b"));
+    assertEquals("b", parents.get("c"));
+    assertEquals(ROOT_ID, parents.get("d"));
+    assertEquals("d", parents.get("e"));
+    assertEquals("d", parents.get("f"));
+    assertEquals(ROOT_ID, parents.get("g"));
+  }
+
+  /**
+   * Create a topology that records the parent of each task from the ParentAdd messages it sends.
+   */
+  private static LocalityAwareTopology newTopology(final Map<String, String> parents) throws InjectionException {
+    return newTopology(parents, new ArrayList<GroupCommunicationMessage>());
+  }
+
+  /**
+   * Create a topology that also records every message it sends.
+   */
+  private static LocalityAwareTopology newTopology(final Map<String, String> parents,
+                                                   final List<GroupCommunicationMessage> messages)
+      throws InjectionException {
+    final EStage<GroupCommunicationMessage> senderStage =
+        new SyncStage<>(new EventHandler<GroupCommunicationMessage>() {
+          @Override
+          public void onNext(final GroupCommunicationMessage msg) {
+            messages.add(msg);
+            if (msg.getType() == ReefNetworkGroupCommProtos.GroupCommMessage.Type.ParentAdd) {
+              parents.put(msg.getDestid(), msg.getSrcid());
+            }
+          }
+        });
+    final Injector injector = Tang.Factory.getTang().newInjector();
+    injector.bindVolatileParameter(GroupCommSenderStage.class, senderStage);
+    injector.bindVolatileParameter(CommGroupNameClass.class, GroupName.class);
+    injector.bindVolatileParameter(OperatorNameClass.class, OperatorName.class);
+    injector.bindVolatileParameter(DriverIdentifier.class, "DriverId");
+    final LocalityAwareTopology topology = injector.getInstance(HierarchicalTopology.class);
+    topology.setRootTask(ROOT_ID);
+    return topology;
+  }
+
+  private static void addTask(final LocalityAwareTopology topology, final String taskId,
+                              final String host, final String rack) {
+    if (host == null) {
+      topology.addTask(taskId);
+      return;
+    }
+    final RackDescriptor rackDescriptor = mock(RackDescriptor.class);
+    when(rackDescriptor.getName()).thenReturn(rack);
+    final NodeDescriptor nodeDescriptor = mock(NodeDescriptor.class);
+    when(nodeDescriptor.getId()).thenReturn(host);
+    when(nodeDescriptor.getRackDescriptor()).thenReturn(rackDescriptor);
+    topology.addTask(taskId, nodeDescriptor);
+  }
+
+  private static void runTasks(final LocalityAwareTopology topology) {
+    topology.onRunningTask(ROOT_ID);
+    for (final String taskId : TASK_IDS) {
+      topology.onRunningTask(taskId);
+    }
+  }
+
+  @NamedParameter()
+  private final class GroupName implements Name<String> {
+  }
+
+  @NamedParameter()
+  private final class OperatorName implements Name<String> {
+  }
+}
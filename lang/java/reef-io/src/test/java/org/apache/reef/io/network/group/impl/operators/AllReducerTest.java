@@ -0,0 +1,147 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.reef.io.network.group.impl.operators;
+
+import org.apache.reef.io.network.group.api.operators.AllReduce;
+import org.apache.reef.io.network.group.api.task.CommunicationGroupClient;
+import org.apache.reef.io.network.group.impl.config.AllReduceOperatorSpec;
+import org.apache.reef.io.network.group.impl.driver.FlatTopology;
+import org.apache.reef.io.network.group.impl.primitive.IntArrayCodec;
+import org.apache.reef.io.network.group.impl.primitive.IntArrayPartitioner;
+import org.apache.reef.io.network.group.impl.primitive.IntArrayReduceFunction;
+import org.apache.reef.io.network.util.StringIdentifierFactory;
+import org.apache.reef.tang.annotations.Name;
+import org.apache.reef.tang.annotations.NamedParameter;
+import org.apache.reef.wake.Identifier;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertArrayEquals;
+
+/**
+ * Tests for {@link AllReducer}, configured by the driver on a flat topology of tasks in this JVM.
+ */
+public final class AllReducerTest {
+
+  private static final int NUM_TASKS = 4;
+  private static final int NUM_ROUNDS = 3;
+  private static final int NUM_ENTRIES = 10;
+
+  @NamedParameter
+  private static final class AllReducerTestGroup implements Name<String> {
+  }
+
+  @NamedParameter
+  private static final class RingAllReduce implements Name<String> {
+  }
+
+  @NamedParameter
+  private static final class RecursiveDoublingAllReduce implements Name<String> {
+  }
+
+  /**
+   * Check that every task gets the sum of all vectors, on a ring, by recursive doubling,
+   * and with the tasks ranked in an order given by the caller.
+   */
+  @Test(timeout = 120000)
+  public void testAllReduce() throws Exception {
+    final List<String> taskIds = new ArrayList<>(NUM_TASKS);
+    for (int i = 0; i < NUM_TASKS; ++i) {
+      taskIds.add("AllReducerTest-" + i);
+    }
+    final List<Identifier> order = new ArrayList<>(NUM_TASKS);
+    for (final String taskId : taskIds) {
+      order.add(new StringIdentifierFactory().getNewInstance(taskId));
+    }
+    Collections.reverse(order);
+
+    final ExecutorService executor = Executors.newFixedThreadPool(NUM_TASKS);
+    try (final LocalCommGroup group = new LocalCommGroup(AllReducerTestGroup.class, FlatTopology.class, taskIds)) {
+      group.getGroupDriver()
+          .addAllReduce(RingAllReduce.class, newSpec(taskIds.get(0), 1))
+          .addAllReduce(RecursiveDoublingAllReduce.class, newSpec(taskIds.get(0), Integer.MAX_VALUE));
+      group.start();
+
+      final List<Future<List<int[]>>> results = new ArrayList<>(NUM_TASKS);
+      for (int i = 0; i < NUM_TASKS; ++i) {
+        final int rank = i;
+        final CommunicationGroupClient client = group.getClient(i);
+        results.add(executor.submit(new Callable<List<int[]>>() {
+          @Override
+          @SuppressWarnings("unchecked")
+          public List<int[]> call() throws Exception {
+            final AllReduce<int[]> ring = client.getAllReducer(RingAllReduce.class);
+            final AllReduce<int[]> recursiveDoubling = client.getAllReducer(RecursiveDoublingAllReduce.class);
+            final List<int[]> sums = new ArrayList<>();
+            for (int round = 0; round < NUM_ROUNDS; ++round) {
+              sums.add(ring.apply(vector(rank, round)));
+              sums.add(recursiveDoubling.apply(vector(rank, round)));
+              sums.add(ring.apply(vector(rank, round), order));
+            }
+            return sums;
+          }
+        }));
+      }
+
+      for (final Future<List<int[]>> result : results) {
+        final List<int[]> sums = result.get(60, TimeUnit.SECONDS);
+        for (int round = 0; round < NUM_ROUNDS; ++round) {
+          final int[] expected = new int[NUM_ENTRIES];
+          for (int rank = 0; rank < NUM_TASKS; ++rank) {
+            final int[] vector = vector(rank, round);
+            for (int j = 0; j < NUM_ENTRIES; ++j) {
+              expected[j] += vector[j];
+            }
+          }
+          for (int i = 0; i < 3; ++i) {
+            assertArrayEquals(expected, sums.get(3 * round + i));
+          }
+        }
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  private static AllReduceOperatorSpec newSpec(final String rootId, final int ringThreshold) {
+    return AllReduceOperatorSpec.newBuilder()
+        .setRootId(rootId)
+        .setDataCodecClass(IntArrayCodec.class)
+        .setReduceFunctionClass(IntArrayReduceFunction.Sum.class)
+        .setPartitionerClass(IntArrayPartitioner.class)
+        .setRingThreshold(ringThreshold)
+        .build();
+  }
+
+  private static int[] vector(final int rank, final int round) {
+    final int[] vector = new int[NUM_ENTRIES];
+    for (int j = 0; j < NUM_ENTRIES; ++j) {
+      vector[j] = (rank + 1) * (j + 1) + round;
+    }
+    return vector;
+  }
+}
@@ -0,0 +1,183 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.reef.io.network.group.impl.operators;
+
+import org.apache.reef.io.network.group.api.operators.Broadcast;
+import org.apache.reef.io.network.group.api.operators.Reduce;
+import org.apache.reef.io.network.group.api.task.CommunicationGroupClient;
+import org.apache.reef.io.network.group.impl.config.BroadcastOperatorSpec;
+import org.apache.reef.io.network.group.impl.config.ReduceOperatorSpec;
+import org.apache.reef.io.network.group.impl.driver.TreeTopology;
+import org.apache.reef.io.network.group.impl.primitive.DoubleArrayCodec;
+import org.apache.reef.io.network.group.impl.primitive.DoubleArrayPartitioner;
+import org.apache.reef.io.network.group.impl.primitive.DoubleArrayReduceFunction;
+import org.apache.reef.io.network.group.impl.primitive.SparseDoubleArrayCodec;
+import org.apache.reef.io.network.group.impl.utils.WholeValuePartitioner;
+import org.apache.reef.tang.annotations.Name;
+import org.apache.reef.tang.annotations.NamedParameter;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertNotEquals;
+
+/**
+ * Tests for chunked Broadcast and Reduce operators on a tree of tasks in this JVM,
+ * in which intermediate tasks forward and reduce chunks while their children still send.
+ */
+public final class ChunkedBroadcastReduceTest {
+
+  private static final int NUM_TASKS = 5;
+  private static final int NUM_ROUNDS = 3;
+  private static final int NUM_ENTRIES = 100;
+
+  @NamedParameter
+  private static final class ChunkedTestGroup implements Name<String> {
+  }
+
+  @NamedParameter
+  private static final class ChunkedBroadcast implements Name<String> {
+  }
+
+  @NamedParameter
+  private static final class ChunkedReduce implements Name<String> {
+  }
+
+  /**
+   * Broadcast a vector in chunks, then reduce the vectors of the tasks in chunks of entries.
+   * Both take more chunks than a node may send before it waits for an ACK, so a missing ACK blocks the tasks.
+   * The sparse codec encodes the vectors of the tasks to different sizes, which must not change
+   * how many chunks the tasks split them into.
+   */
+  @Test(timeout = 120000)
+  public void testBroadcastReduce() throws Exception {
+    final List<String> taskIds = new ArrayList<>(NUM_TASKS);
+    for (int i = 0; i < NUM_TASKS; ++i) {
+      taskIds.add("ChunkedBroadcastReduceTest-" + i);
+    }
+    final SparseDoubleArrayCodec codec = new SparseDoubleArrayCodec();
+    assertNotEquals(codec.encode(vector(1, 0)).length, codec.encode(vector(2, 0)).length);
+
+    final ExecutorService executor = Executors.newFixedThreadPool(NUM_TASKS);
+    try (final LocalCommGroup group = new LocalCommGroup(ChunkedTestGroup.class, TreeTopology.class, taskIds)) {
+      group.getGroupDriver()
+          .addBroadcast(ChunkedBroadcast.class, BroadcastOperatorSpec.newBuilder()
+              .setSenderId(taskIds.get(0))
+              .setDataCodecClass(DoubleArrayCodec.class)
+              .setChunkBytes(64)
+              .build())
+          .addReduce(ChunkedReduce.class, ReduceOperatorSpec.newBuilder()
+              .setReceiverId(taskIds.get(0))
+              .setDataCodecClass(SparseDoubleArrayCodec.class)
+              .setReduceFunctionClass(DoubleArrayReduceFunction.Sum.class)
+              .setPartitionerClass(DoubleArrayPartitioner.class)
+              .setChunkEntries(5)
+              .build());
+      group.start();
+
+      final List<Future<List<double[]>>> results = new ArrayList<>(NUM_TASKS);
+      for (int i = 0; i < NUM_TASKS; ++i) {
+        final int rank = i;
+        final CommunicationGroupClient client = group.getClient(i);
+        results.add(executor.submit(new Callable<List<double[]>>() {
+          @Override
+          @SuppressWarnings("unchecked")
+          public List<double[]> call() throws Exception {
+            final List<double[]> values = new ArrayList<>();
+            for (int round = 0; round < NUM_ROUNDS; ++round) {
+              if (rank == 0) {
+                final Broadcast.Sender<double[]> broadcastSender = client.getBroadcastSender(ChunkedBroadcast.class);
+                final Reduce.Receiver<double[]> reduceReceiver = client.getReduceReceiver(ChunkedReduce.class);
+                broadcastSender.send(broadcastValue(round));
+                values.add(reduceReceiver.reduce());
+              } else {
+                final Broadcast.Receiver<double[]> broadcastReceiver =
+                    client.getBroadcastReceiver(ChunkedBroadcast.class);
+                final Reduce.Sender<double[]> reduceSender = client.getReduceSender(ChunkedReduce.class);
+                values.add(broadcastReceiver.receive());
+                reduceSender.send(vector(rank, round));
+              }
+            }
+            return values;
+          }
+        }));
+      }
+
+      for (int rank = 0; rank < NUM_TASKS; ++rank) {
+        final List<double[]> values = results.get(rank).get(60, TimeUnit.SECONDS);
+        for (int round = 0; round < NUM_ROUNDS; ++round) {
+          if (rank == 0) {
+            final double[] expected = new double[NUM_ENTRIES];
+            for (int sender = 1; sender < NUM_TASKS; ++sender) {
+              final double[] vector = vector(sender, round);
+              for (int j = 0; j < NUM_ENTRIES; ++j) {
+                expected[j] += vector[j];
+              }
+            }
+            assertArrayEquals(expected, values.get(round), 0);
+          } else {
+            assertArrayEquals(broadcastValue(round), values.get(round), 0);
+          }
+        }
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  /**
+   * Check that a chunked Reduce cannot be configured with a partitioner that keeps values whole.
+   */
+  @Test(expected = IllegalArgumentException.class)
+  public void testChunkedReduceNeedsPartitioner() {
+    ReduceOperatorSpec.newBuilder()
+        .setReceiverId("root")
+        .setDataCodecClass(SparseDoubleArrayCodec.class)
+        .setReduceFunctionClass(DoubleArrayReduceFunction.Sum.class)
+        .setPartitionerClass(WholeValuePartitioner.class)
+        .setChunkEntries(16)
+        .build();
+  }
+
+  /**
+   * @return vector with non-zero entries every rank entries, so that its sparse encoding is smaller for higher ranks
+   */
+  private static double[] vector(final int rank, final int round) {
+    final double[] vector = new double[NUM_ENTRIES];
+    for (int j = 0; j < NUM_ENTRIES; j += rank) {
+      vector[j] = rank + j + round;
+    }
+    return vector;
+  }
+
+  private static double[] broadcastValue(final int round) {
+    final double[] value = new double[NUM_ENTRIES + round];
+    for (int j = 0; j < value.length; ++j) {
+      value[j] = j * 0.5 + round;
+    }
+    return value;
+  }
+}
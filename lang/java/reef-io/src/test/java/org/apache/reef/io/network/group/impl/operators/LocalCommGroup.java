@@ -0,0 +1,179 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.reef.io.network.group.impl.operators;
+
+import org.apache.reef.driver.context.ActiveContext;
+import org.apache.reef.driver.parameters.DriverIdentifier;
+import org.apache.reef.driver.task.RunningTask;
+import org.apache.reef.driver.task.TaskConfiguration;
+import org.apache.reef.io.network.group.api.driver.CommunicationGroupDriver;
+import org.apache.reef.io.network.group.api.driver.GroupCommDriver;
+import org.apache.reef.io.network.group.api.driver.GroupCommServiceDriver;
+import org.apache.reef.io.network.group.api.driver.Topology;
+import org.apache.reef.io.network.group.api.task.CommunicationGroupClient;
+import org.apache.reef.io.network.group.api.task.GroupCommClient;
+import org.apache.reef.io.network.impl.NetworkService;
+import org.apache.reef.io.network.util.StringIdentifierFactory;
+import org.apache.reef.runtime.common.driver.task.TaskRepresenter;
+import org.apache.reef.tang.Configuration;
+import org.apache.reef.tang.Injector;
+import org.apache.reef.tang.Tang;
+import org.apache.reef.tang.annotations.Name;
+import org.apache.reef.tang.exceptions.InjectionException;
+import org.apache.reef.task.Task;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A communication group whose tasks run in this JVM, each with its own NetworkService,
+ * managed by the group communication driver of this JVM.
+ * <p>
+ * The driver asserts that it is a singleton, so all groups share one that is never closed;
+ * each group must have its own name and task ids.
+ */
+final class LocalCommGroup implements AutoCloseable {
+
+  private static GroupCommServiceDriver groupCommDriver;
+
+  private final Class<? extends Name<String>> groupName;
+  private final CommunicationGroupDriver groupDriver;
+  private final List<String> taskIds;
+  private final List<NetworkService<?>> netServices = new ArrayList<>();
+  private final List<CommunicationGroupClient> clients = new ArrayList<>();
+
+  LocalCommGroup(final Class<? extends Name<String>> groupName,
+                 final Class<? extends Topology> topologyClass,
+                 final List<String> taskIds) throws InjectionException {
+    this.groupName = groupName;
+    this.taskIds = taskIds;
+    this.groupDriver = getGroupCommDriver().newCommunicationGroup(groupName, topologyClass, taskIds.size(), 2);
+  }
+
+  private static synchronized GroupCommServiceDriver getGroupCommDriver() throws InjectionException {
+    if (groupCommDriver == null) {
+      final Injector injector = Tang.Factory.getTang().newInjector(Tang.Factory.getTang().newConfigurationBuilder()
+          .bindNamedParameter(DriverIdentifier.class, "LocalCommGroupDriver")
+          .build());
+      groupCommDriver = (GroupCommServiceDriver) injector.getInstance(GroupCommDriver.class);
+    }
+    return groupCommDriver;
+  }
+
+  /**
+   * @return driver side of the group, to add the operators before {@link #start()}
+   */
+  CommunicationGroupDriver getGroupDriver() {
+    return groupDriver;
+  }
+
+  /**
+   * Finalise the group, start the services of all tasks, and report the tasks running to the driver.
+   */
+  void start() throws InjectionException {
+    groupDriver.finalise();
+    for (final String taskId : taskIds) {
+      final Configuration partialTaskConf = TaskConfiguration.CONF
+          .set(TaskConfiguration.IDENTIFIER, taskId)
+          .set(TaskConfiguration.TASK, NoopTask.class)
+          .build();
+      groupDriver.addTask(partialTaskConf);
+      final Injector injector = Tang.Factory.getTang().newInjector(
+          groupCommDriver.getTaskConfiguration(partialTaskConf), groupCommDriver.getServiceConfiguration());
+      final NetworkService<?> netService = injector.getInstance(NetworkService.class);
+      netService.registerId(new StringIdentifierFactory().getNewInstance(taskId));
+      netServices.add(netService);
+      clients.add(injector.getInstance(GroupCommClient.class).getCommunicationGroup(groupName));
+    }
+    for (final String taskId : taskIds) {
+      groupCommDriver.getGroupCommRunningTaskStage().onNext(new LocalRunningTask(taskId));
+    }
+  }
+
+  /**
+   * @return client of the group on the task at index i of the task ids
+   */
+  CommunicationGroupClient getClient(final int i) {
+    return clients.get(i);
+  }
+
+  @Override
+  public void close() throws Exception {
+    for (final NetworkService<?> netService : netServices) {
+      netService.close();
+    }
+  }
+
+  /**
+   * Placeholder task class of the task configurations.
+   */
+  static final class NoopTask implements Task {
+    @Override
+    public byte[] call(final byte[] memento) {
+      return null;
+    }
+  }
+
+  /**
+   * Running task that only has an id.
+   */
+  private static final class LocalRunningTask implements RunningTask {
+
+    private final String id;
+
+    LocalRunningTask(final String id) {
+      this.id = id;
+    }
+
+    @Override
+    public String getId() {
+      return id;
+    }
+
+    @Override
+    public ActiveContext getActiveContext() {
+      return null;
+    }
+
+    @Override
+    public void send(final byte[] message) {
+    }
+
+    @Override
+    public void suspend(final byte[] message) {
+    }
+
+    @Override
+    public void suspend() {
+    }
+
+    @Override
+    public void close(final byte[] message) {
+    }
+
+    @Override
+    public void close() {
+    }
+
+    @Override
+    public TaskRepresenter getTaskRepresenter() {
+      return null;
+    }
+  }
+}
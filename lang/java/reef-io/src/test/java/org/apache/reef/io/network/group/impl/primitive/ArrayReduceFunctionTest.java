@@ -0,0 +1,98 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.reef.io.network.group.impl.primitive;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for the element-wise primitive array reduce functions, run on every element type with the same helpers.
+ */
+public final class ArrayReduceFunctionTest {
+
+  @Test
+  public void testDoubleFunctions() {
+    final double[] first = {1, -2, 3};
+    final double[] second = {-1, 5, 2};
+    assertReduces(new DoubleArrayReduceFunction.Sum(), first, second, new double[]{0, 3, 5});
+    assertReduces(new DoubleArrayReduceFunction.Max(), first, second, new double[]{1, 5, 3});
+    assertReduces(new DoubleArrayReduceFunction.Min(), first, second, new double[]{-1, -2, 2});
+  }
+
+  @Test
+  public void testFloatFunctions() {
+    final float[] first = {1, -2, 3};
+    final float[] second = {-1, 5, 2};
+    assertReduces(new FloatArrayReduceFunction.Sum(), first, second, new float[]{0, 3, 5});
+    assertReduces(new FloatArrayReduceFunction.Max(), first, second, new float[]{1, 5, 3});
+    assertReduces(new FloatArrayReduceFunction.Min(), first, second, new float[]{-1, -2, 2});
+  }
+
+  @Test
+  public void testIntFunctions() {
+    final int[] first = {1, -2, 3};
+    final int[] second = {-1, 5, 2};
+    assertReduces(new IntArrayReduceFunction.Sum(), first, second, new int[]{0, 3, 5});
+    assertReduces(new IntArrayReduceFunction.Max(), first, second, new int[]{1, 5, 3});
+    assertReduces(new IntArrayReduceFunction.Min(), first, second, new int[]{-1, -2, 2});
+  }
+
+  @Test
+  public void testAccumulateInPlace() {
+    final float[] acc = {1, 2};
+    assertSame(acc, new FloatArrayReduceFunction.Sum().accumulate(acc, new float[]{3, 4}));
+    assertArrayEquals(new float[]{4, 6}, acc, 0);
+
+    final int[] intAcc = {1, 7};
+    new IntArrayReduceFunction.Max().accumulate(intAcc, new int[]{5, 2});
+    assertArrayEquals(new int[]{5, 7}, intAcc);
+    new IntArrayReduceFunction.Min().accumulate(intAcc, new int[]{6, 0});
+    assertArrayEquals(new int[]{5, 0}, intAcc);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testLengthMismatch() {
+    new IntArrayReduceFunction.Sum().accumulate(new int[2], new int[3]);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testApplyLengthMismatch() {
+    new DoubleArrayReduceFunction.Max().apply(Arrays.asList(new double[2], new double[3]));
+  }
+
+  /**
+   * Check that applying function to first and second gives expected, and that apply leaves its inputs alone.
+   */
+  private static <A> void assertReduces(final ArrayReduceFunction<A> function, final A first, final A second,
+                                        final A expected) {
+    final A firstCopy = copy(function, first);
+    final A secondCopy = copy(function, second);
+    assertTrue(Objects.deepEquals(expected, function.apply(Arrays.asList(first, second))));
+    assertTrue(Objects.deepEquals(firstCopy, first));
+    assertTrue(Objects.deepEquals(secondCopy, second));
+  }
+
+  private static <A> A copy(final ArrayReduceFunction<A> function, final A array) {
+    return function.apply(Arrays.asList(array));
+  }
+}
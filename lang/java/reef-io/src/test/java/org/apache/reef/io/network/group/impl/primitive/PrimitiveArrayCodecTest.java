@@ -0,0 +1,186 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.reef.io.network.group.impl.primitive;
+
+import org.apache.reef.io.serialization.Codec;
+import org.junit.Test;
+
+import java.lang.reflect.Array;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for primitive array codecs and partitioners, run on every element type with the same helpers.
+ */
+public final class PrimitiveArrayCodecTest {
+
+  private final Random random = new Random(7);
+
+  @Test
+  public void testDenseCodecs() {
+    assertRoundTrip(new DoubleArrayCodec(),
+        new double[]{0, -0.0, -1.5, Double.MAX_VALUE, Double.MIN_VALUE, Double.NaN});
+    assertRoundTrip(new FloatArrayCodec(), new float[]{0, -0.0f, -1.5f, Float.MAX_VALUE, Float.NaN});
+    assertRoundTrip(new IntArrayCodec(), new int[]{0, -1, Integer.MAX_VALUE, Integer.MIN_VALUE});
+    assertEquals(5 * 8, new DoubleArrayCodec().encode(new double[5]).length);
+    assertEquals(5 * 4, new FloatArrayCodec().encode(new float[5]).length);
+    assertRoundTrip(new DoubleArrayCodec(), new double[0]);
+    assertRoundTrip(new FloatArrayCodec(), new float[0]);
+    assertRoundTrip(new IntArrayCodec(), new int[0]);
+  }
+
+  /**
+   * Test that the dense encoding is little-endian.
+   */
+  @Test
+  public void testLittleEndian() {
+    assertArrayEquals(new byte[]{1, 0, 0, 0, 0, 1, 0, 0}, new IntArrayCodec().encode(new int[]{1, 256}));
+  }
+
+  /**
+   * Test that dense codecs reject data that ends within an element.
+   */
+  @Test
+  public void testDenseRejectsPartialElement() {
+    for (final Codec<?> codec : Arrays.<Codec<?>>asList(new DoubleArrayCodec(), new FloatArrayCodec(),
+        new IntArrayCodec())) {
+      assertRejects(codec, new byte[9]);
+    }
+  }
+
+  @Test
+  public void testSparseCodecs() {
+    final double[] doubles = new double[1000];
+    final float[] floats = new float[1000];
+    for (int i = 0; i < 50; i++) {
+      final int index = random.nextInt(doubles.length);
+      doubles[index] = random.nextGaussian();
+      floats[index] = (float) doubles[index];
+    }
+    assertTrue(new SparseDoubleArrayCodec().encode(doubles).length < new DoubleArrayCodec().encode(doubles).length);
+    assertTrue(new SparseFloatArrayCodec().encode(floats).length < new FloatArrayCodec().encode(floats).length);
+    assertRoundTrip(new SparseDoubleArrayCodec(), doubles);
+    assertRoundTrip(new SparseFloatArrayCodec(), floats);
+    assertRoundTrip(new SparseDoubleArrayCodec(), new double[3]);
+    assertRoundTrip(new SparseFloatArrayCodec(), new float[3]);
+    assertRoundTrip(new SparseDoubleArrayCodec(), new double[0]);
+    assertRoundTrip(new SparseFloatArrayCodec(), new float[0]);
+  }
+
+  /**
+   * Test that sparse codecs keep negative zeros and NaNs, and only leave out positive zeros.
+   */
+  @Test
+  public void testSparseKeepsSignedZeros() {
+    assertRoundTrip(new SparseDoubleArrayCodec(), new double[]{0, -0.0, Double.NaN, 1});
+    assertRoundTrip(new SparseFloatArrayCodec(), new float[]{0, -0.0f, Float.NaN, 1});
+    assertEquals(8 + 3 * (4 + 8), new SparseDoubleArrayCodec().encode(new double[]{0, -0.0, Double.NaN, 1}).length);
+  }
+
+  /**
+   * Test that sparse codecs reject malformed headers and indices with an IllegalArgumentException.
+   */
+  @Test
+  public void testSparseRejectsInvalidData() {
+    final List<byte[]> invalid = Arrays.asList(
+        new byte[4],                    // shorter than the header
+        sparse(-1, 0),                  // negative length
+        sparse(2, 3, 0, 1, 2),          // more stored elements than the length
+        sparse(4, 2, 1),                // missing an index and the values
+        sparse(4, 1, 4),                // index out of bounds
+        sparse(4, 1, -1),               // negative index
+        sparse(4, 2, 1, 1),             // repeated index
+        sparse(4, 2, 2, 1));            // indices out of order
+    for (final SparseArrayCodec<?> codec : Arrays.<SparseArrayCodec<?>>asList(new SparseDoubleArrayCodec(),
+        new SparseFloatArrayCodec())) {
+      for (final byte[] buf : invalid) {
+        assertRejects(codec, withValues(codec, buf));
+      }
+    }
+  }
+
+  @Test
+  public void testPartitioners() {
+    final double[] doubles = new double[103];
+    final float[] floats = new float[103];
+    final int[] ints = new int[103];
+    for (int i = 0; i < doubles.length; i++) {
+      doubles[i] = i;
+      floats[i] = i;
+      ints[i] = i;
+    }
+    for (final int numParts : new int[]{1, 4, 103, 110}) {
+      assertSplitJoin(new DoubleArrayPartitioner(), doubles, numParts);
+      assertSplitJoin(new FloatArrayPartitioner(), floats, numParts);
+      assertSplitJoin(new IntArrayPartitioner(), ints, numParts);
+    }
+  }
+
+  /**
+   * Check that obj decodes to an array with the same bits in every element.
+   */
+  private static <A> void assertRoundTrip(final Codec<A> codec, final A obj) {
+    assertTrue(Objects.deepEquals(obj, codec.decode(codec.encode(obj))));
+  }
+
+  private static void assertRejects(final Codec<?> codec, final byte[] buf) {
+    try {
+      codec.decode(buf);
+      fail(codec.getClass().getSimpleName() + " accepted " + Arrays.toString(buf));
+    } catch (final IllegalArgumentException expected) {
+      assertNotNull(expected.getMessage());
+    }
+  }
+
+  private static <A> void assertSplitJoin(final ArrayPartitioner<A> partitioner, final A element, final int numParts) {
+    assertEquals(Array.getLength(element), partitioner.size(element));
+    final List<A> parts = partitioner.split(element, numParts);
+    assertEquals(numParts, parts.size());
+    assertTrue(Objects.deepEquals(element, partitioner.join(parts)));
+  }
+
+  /**
+   * @return sparse header with the given length and number of stored elements, followed by indices
+   */
+  private static byte[] sparse(final int length, final int numStored, final int... indices) {
+    final ByteBuffer buffer = ByteBuffer.allocate(8 + indices.length * 4).order(ByteOrder.LITTLE_ENDIAN);
+    buffer.putInt(length).putInt(numStored);
+    for (final int index : indices) {
+      buffer.putInt(index);
+    }
+    return buffer.array();
+  }
+
+  /**
+   * @return buf followed by as many zero bytes as the values of its indices take with codec
+   */
+  private static byte[] withValues(final SparseArrayCodec<?> codec, final byte[] buf) {
+    if (buf.length < 8) {
+      return buf;
+    }
+    final int valueSize = codec instanceof SparseDoubleArrayCodec ? 8 : 4;
+    return Arrays.copyOf(buf, buf.length + (buf.length - 8) / 4 * valueSize);
+  }
+}
@@ -0,0 +1,213 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.reef.io.network.group.impl.task;
+
+import org.apache.reef.io.network.group.api.operators.Reduce.ReduceFunction;
+import org.apache.reef.io.network.group.impl.GroupCommunicationMessage;
+import org.apache.reef.io.network.group.impl.primitive.IntArrayCodec;
+import org.apache.reef.io.network.group.impl.primitive.IntArrayReduceFunction;
+import org.apache.reef.io.network.group.impl.utils.ChunkHelper;
+import org.apache.reef.io.network.group.impl.utils.Utils;
+import org.apache.reef.io.network.proto.ReefNetworkGroupCommProtos.GroupCommMessage.Type;
+import org.apache.reef.tang.annotations.Name;
+import org.apache.reef.tang.annotations.NamedParameter;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Tests for the reduction of child values in {@link OperatorTopologyStructImpl}, which folds
+ * each value into an accumulator as it arrives. The results are compared with applying the
+ * reduce function to all values at once, as Reduce did before.
+ */
+public final class OperatorTopologyStructImplTest {
+
+  private static final String SELF_ID = "parent";
+  private static final String[] CHILD_IDS = {"child-0", "child-1", "child-2", "child-3"};
+  private static final int NUM_ENTRIES = 6;
+
+  private final IntArrayCodec codec = new IntArrayCodec();
+
+  @NamedParameter
+  private static final class TestGroup implements Name<String> {
+  }
+
+  @NamedParameter
+  private static final class TestOperator implements Name<String> {
+  }
+
+  /**
+   * Check that values that arrive in another order than the children were added reduce to the same result,
+   * whether the function accumulates in place or not.
+   */
+  @Test
+  public void testChildrenOutOfOrder() {
+    for (final ReduceFunction<int[]> redFunc : reduceFunctions()) {
+      final OperatorTopologyStructImpl topology = newTopology();
+      final List<int[]> values = new ArrayList<>();
+      for (final int child : new int[]{2, 0, 3, 1}) {
+        topology.addAsData(dataMsg(child, codec.encode(value(child))));
+        values.add(value(child));
+      }
+      assertArrayEquals(redFunc.apply(values), topology.recvFromChildren(redFunc, codec));
+    }
+  }
+
+  /**
+   * Check that a child that dies after some children sent their values and before others
+   * is left out, and the values of the remaining children are reduced.
+   */
+  @Test
+  public void testChildFailsMidway() {
+    for (final ReduceFunction<int[]> redFunc : reduceFunctions()) {
+      final OperatorTopologyStructImpl topology = newTopology();
+      final List<int[]> values = new ArrayList<>();
+      for (final int child : new int[]{3, 0}) {
+        topology.addAsData(dataMsg(child, codec.encode(value(child))));
+        values.add(value(child));
+      }
+      topology.addAsData(childDeadMsg(1));
+      topology.addAsData(dataMsg(2, codec.encode(value(2))));
+      values.add(value(2));
+      assertArrayEquals(redFunc.apply(values), topology.recvFromChildren(redFunc, codec));
+    }
+  }
+
+  /**
+   * Check that chunks that arrive out of order, across children and chunk indices,
+   * reduce to the same chunks as the whole values, including the local value.
+   */
+  @Test
+  public void testChunksOutOfOrder() {
+    for (final ReduceFunction<int[]> redFunc : reduceFunctions()) {
+      final OperatorTopologyStructImpl topology = newTopology();
+      for (final int index : new int[]{1, 0}) {
+        for (final int child : new int[]{3, 1, 0, 2}) {
+          topology.addAsData(dataMsg(child, chunk(value(child), index)));
+        }
+      }
+      final List<int[]> values = new ArrayList<>();
+      for (int child = 0; child < CHILD_IDS.length; ++child) {
+        values.add(value(child));
+      }
+      final int[] localValue = value(CHILD_IDS.length);
+      values.add(localValue);
+
+      final List<int[]> chunks = topology.recvChunksFromChildren(split(localValue), redFunc, codec, false);
+      assertEquals(2, chunks.size());
+      assertArrayEquals(redFunc.apply(values), join(chunks));
+    }
+  }
+
+  /**
+   * Check that a child that dies after sending its first chunk only contributes to that chunk.
+   */
+  @Test
+  public void testChildFailsBetweenChunks() {
+    for (final ReduceFunction<int[]> redFunc : reduceFunctions()) {
+      final OperatorTopologyStructImpl topology = newTopology();
+      for (int child = 0; child < CHILD_IDS.length; ++child) {
+        topology.addAsData(dataMsg(child, chunk(value(child), 0)));
+      }
+      topology.addAsData(childDeadMsg(2));
+      for (final int child : new int[]{0, 1, 3}) {
+        topology.addAsData(dataMsg(child, chunk(value(child), 1)));
+      }
+
+      final List<int[]> firstChunks = new ArrayList<>();
+      final List<int[]> secondChunks = new ArrayList<>();
+      for (int child = 0; child < CHILD_IDS.length; ++child) {
+        firstChunks.add(split(value(child)).get(0));
+        if (child != 2) {
+          secondChunks.add(split(value(child)).get(1));
+        }
+      }
+
+      final List<int[]> chunks = topology.recvChunksFromChildren(null, redFunc, codec, false);
+      assertEquals(2, chunks.size());
+      assertArrayEquals(redFunc.apply(firstChunks), chunks.get(0));
+      assertArrayEquals(redFunc.apply(secondChunks), chunks.get(1));
+    }
+  }
+
+  /**
+   * @return a function that accumulates in place and one that only reduces lists, with the same result
+   */
+  private static List<ReduceFunction<int[]>> reduceFunctions() {
+    final IntArrayReduceFunction.Sum sum = new IntArrayReduceFunction.Sum();
+    return Arrays.asList(sum, new ReduceFunction<int[]>() {
+      @Override
+      public int[] apply(final Iterable<int[]> elements) {
+        return sum.apply(elements);
+      }
+    });
+  }
+
+  /**
+   * @return topology of this task with all children added and no parent
+   */
+  private static OperatorTopologyStructImpl newTopology() {
+    final OperatorTopologyStructImpl topology =
+        new OperatorTopologyStructImpl(TestGroup.class, TestOperator.class, SELF_ID, "driver", null, 0);
+    for (final String childId : CHILD_IDS) {
+      topology.update(Utils.bldVersionedGCM(TestGroup.class, TestOperator.class, Type.ChildAdd, childId, 0,
+          SELF_ID, 0, Utils.EMPTY_BYTE_ARR));
+    }
+    return topology;
+  }
+
+  private static GroupCommunicationMessage dataMsg(final int child, final byte[] data) {
+    return Utils.bldVersionedGCM(TestGroup.class, TestOperator.class, Type.Reduce, CHILD_IDS[child], 0,
+        SELF_ID, 0, data);
+  }
+
+  private static GroupCommunicationMessage childDeadMsg(final int child) {
+    return Utils.bldVersionedGCM(TestGroup.class, TestOperator.class, Type.ChildDead, CHILD_IDS[child], 0,
+        SELF_ID, 0, Utils.EMPTY_BYTE_ARR);
+  }
+
+  private static int[] value(final int child) {
+    final int[] value = new int[NUM_ENTRIES];
+    for (int i = 0; i < NUM_ENTRIES; ++i) {
+      value[i] = (child + 1) * 10 + i;
+    }
+    return value;
+  }
+
+  private static List<int[]> split(final int[] value) {
+    return Arrays.asList(Arrays.copyOfRange(value, 0, NUM_ENTRIES / 2),
+        Arrays.copyOfRange(value, NUM_ENTRIES / 2, NUM_ENTRIES));
+  }
+
+  private static int[] join(final List<int[]> chunks) {
+    final int[] value = new int[NUM_ENTRIES];
+    System.arraycopy(chunks.get(0), 0, value, 0, NUM_ENTRIES / 2);
+    System.arraycopy(chunks.get(1), 0, value, NUM_ENTRIES / 2, NUM_ENTRIES / 2);
+    return value;
+  }
+
+  private byte[] chunk(final int[] value, final int index) {
+    return ChunkHelper.frame(index, 2, codec.encode(split(value).get(index)));
+  }
+}
@@ -0,0 +1,221 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.reef.io.network.group.impl.utils;
+
+import org.apache.reef.exception.evaluator.NetworkException;
+import org.apache.reef.io.network.group.impl.primitive.IntArrayCodec;
+import org.apache.reef.io.network.group.impl.primitive.IntArrayPartitioner;
+import org.apache.reef.io.network.group.impl.primitive.IntArrayReduceFunction;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * Tests for {@link AllReduceExchange}, with tasks that exchange messages in memory.
+ */
+public final class AllReduceExchangeTest {
+
+  private static final int NUM_ELEMENTS = 10;
+
+  /**
+   * Check that recursive doubling sums the vectors of all tasks, also when their number is not a power of two.
+   */
+  @Test(timeout = 60000)
+  public void testRecursiveDoubling() throws Exception {
+    for (int numTasks = 1; numTasks <= 9; ++numTasks) {
+      runTasks(numTasks, Integer.MAX_VALUE, 3);
+    }
+  }
+
+  /**
+   * Check that the ring sums the vectors of all tasks, also when there are more tasks than elements.
+   */
+  @Test(timeout = 60000)
+  public void testRing() throws Exception {
+    for (int numTasks = 1; numTasks <= 13; ++numTasks) {
+      runTasks(numTasks, 0, 3);
+    }
+  }
+
+  /**
+   * Run several all-reduces on numTasks tasks and check that each task gets the sum of the vectors.
+   */
+  private void runTasks(final int numTasks, final int ringThreshold, final int numRounds) throws Exception {
+    final List<String> taskIds = new ArrayList<>();
+    final Map<String, PeerMailbox> mailboxes = new HashMap<>();
+    for (int i = 0; i < numTasks; ++i) {
+      final String taskId = "task-" + i;
+      taskIds.add(taskId);
+      mailboxes.put(taskId, new PeerMailbox());
+    }
+
+    final ExecutorService executor = Executors.newFixedThreadPool(numTasks);
+    try {
+      final List<Future<List<int[]>>> results = new ArrayList<>();
+      for (int i = 0; i < numTasks; ++i) {
+        final int rank = i;
+        final String selfId = taskIds.get(i);
+        final AllReduceExchange<int[]> exchange = newExchange(selfId, mailboxes, ringThreshold);
+        results.add(executor.submit(new Callable<List<int[]>>() {
+          @Override
+          public List<int[]> call() throws Exception {
+            final List<int[]> sums = new ArrayList<>();
+            for (int round = 0; round < numRounds; ++round) {
+              sums.add(exchange.apply(vector(rank, round), taskIds, selfId));
+            }
+            return sums;
+          }
+        }));
+      }
+
+      for (final Future<List<int[]>> result : results) {
+        final List<int[]> sums = result.get();
+        for (int round = 0; round < numRounds; ++round) {
+          final int[] expected = new int[NUM_ELEMENTS];
+          for (int rank = 0; rank < numTasks; ++rank) {
+            final int[] vector = vector(rank, round);
+            for (int j = 0; j < NUM_ELEMENTS; ++j) {
+              expected[j] += vector[j];
+            }
+          }
+          assertArrayEquals(expected, sums.get(round));
+        }
+      }
+    } finally {
+      executor.shutdown();
+      executor.awaitTermination(10, TimeUnit.SECONDS);
+    }
+  }
+
+  /**
+   * Check that the tasks give up on an exchange when a peer fails, instead of waiting for it forever,
+   * and all-reduce among the remaining tasks after they move on to the next version.
+   */
+  @Test(timeout = 60000)
+  public void testPeerFails() throws Exception {
+    final int numTasks = 4;
+    final List<String> taskIds = new ArrayList<>();
+    final Map<String, PeerMailbox> mailboxes = new HashMap<>();
+    final Map<String, AllReduceExchange<int[]>> exchanges = new HashMap<>();
+    for (int i = 0; i < numTasks; ++i) {
+      final String taskId = "task-" + i;
+      taskIds.add(taskId);
+      mailboxes.put(taskId, new PeerMailbox());
+    }
+    for (final String taskId : taskIds) {
+      exchanges.put(taskId, newExchange(taskId, mailboxes, 0));
+    }
+    final String failedId = taskIds.get(numTasks - 1);
+    final List<String> survivorIds = taskIds.subList(0, numTasks - 1);
+
+    final ExecutorService executor = Executors.newFixedThreadPool(numTasks);
+    try {
+      // The last task never takes part, so the others block until they learn that it failed.
+      final List<Future<int[]>> results = new ArrayList<>();
+      for (int i = 0; i < numTasks - 1; ++i) {
+        results.add(submit(executor, exchanges.get(taskIds.get(i)), vector(i, 0), taskIds, taskIds.get(i)));
+      }
+      Thread.sleep(100);
+      for (final String taskId : survivorIds) {
+        mailboxes.get(taskId).fail(failedId, 0);
+      }
+      for (final Future<int[]> result : results) {
+        try {
+          result.get();
+          fail("The exchange should fail when a peer fails");
+        } catch (final ExecutionException e) {
+          assertTrue(e.getCause() instanceof NetworkException);
+        }
+      }
+
+      // After the topology update, the sequence numbers start over and the survivors all-reduce without it.
+      for (final String taskId : survivorIds) {
+        mailboxes.get(taskId).nextVersion();
+        exchanges.get(taskId).reset();
+      }
+      results.clear();
+      for (int i = 0; i < numTasks - 1; ++i) {
+        results.add(submit(executor, exchanges.get(taskIds.get(i)), vector(i, 1), survivorIds, taskIds.get(i)));
+      }
+      final int[] expected = new int[NUM_ELEMENTS];
+      for (int rank = 0; rank < numTasks - 1; ++rank) {
+        final int[] vector = vector(rank, 1);
+        for (int j = 0; j < NUM_ELEMENTS; ++j) {
+          expected[j] += vector[j];
+        }
+      }
+      for (final Future<int[]> result : results) {
+        assertArrayEquals(expected, result.get());
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  private static Future<int[]> submit(final ExecutorService executor, final AllReduceExchange<int[]> exchange,
+                                      final int[] element, final List<String> taskIds, final String selfId) {
+    return executor.submit(new Callable<int[]>() {
+      @Override
+      public int[] call() throws Exception {
+        return exchange.apply(element, taskIds, selfId);
+      }
+    });
+  }
+
+  /**
+   * @return an exchange of selfId that passes its messages through the mailboxes, in the version of the sender
+   */
+  private static AllReduceExchange<int[]> newExchange(final String selfId, final Map<String, PeerMailbox> mailboxes,
+                                                      final int ringThreshold) {
+    return new AllReduceExchange<>(new IntArrayCodec(), new IntArrayReduceFunction.Sum(), new IntArrayPartitioner(),
+        ringThreshold, new AllReduceExchange.Channel() {
+          @Override
+          public void send(final String destId, final int seq, final byte[] data) {
+            mailboxes.get(destId).put(selfId, mailboxes.get(selfId).getVersion(), seq, data);
+          }
+
+          @Override
+          public byte[] receive(final String srcId, final int seq) throws InterruptedException, NetworkException {
+            final PeerMailbox mailbox = mailboxes.get(selfId);
+            return mailbox.take(srcId, mailbox.getVersion(), seq);
+          }
+        });
+  }
+
+  private static int[] vector(final int rank, final int round) {
+    final int[] vector = new int[NUM_ELEMENTS];
+    for (int j = 0; j < NUM_ELEMENTS; ++j) {
+      vector[j] = (rank + 1) * (j + 1) + round;
+    }
+    return vector;
+  }
+}
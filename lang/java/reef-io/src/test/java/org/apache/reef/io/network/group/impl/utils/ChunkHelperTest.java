@@ -0,0 +1,74 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.reef.io.network.group.impl.utils;
+
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for the chunk framing used by chunked Broadcast and Reduce.
+ */
+public final class ChunkHelperTest {
+
+  /**
+   * Test that chunks reassemble to the original data, also when they are joined in a different order
+   * than they were split in.
+   */
+  @Test
+  public void testSplitAndJoin() {
+    final Random random = new Random(1);
+    for (final int length : new int[]{0, 1, 999, 1000, 1001, 12345}) {
+      final byte[] data = new byte[length];
+      random.nextBytes(data);
+      final List<byte[]> chunks = ChunkHelper.split(data, 1000);
+      assertEquals(ChunkHelper.getNumChunks(length, 1000), chunks.size());
+
+      Collections.shuffle(chunks, random);
+      final byte[][] ordered = new byte[chunks.size()][];
+      for (final byte[] chunk : chunks) {
+        assertEquals(chunks.size(), ChunkHelper.getNumChunks(chunk));
+        assertTrue(ChunkHelper.getPayload(chunk).length <= 1000);
+        ordered[ChunkHelper.getIndex(chunk)] = chunk;
+      }
+      assertArrayEquals(data, ChunkHelper.join(ordered));
+    }
+  }
+
+  /**
+   * Test that a framed payload keeps its index, chunk count, and bytes.
+   */
+  @Test
+  public void testFrame() {
+    final byte[] payload = {1, 2, 3};
+    final byte[] chunk = ChunkHelper.frame(4, 7, payload);
+    assertEquals(4, ChunkHelper.getIndex(chunk));
+    assertEquals(7, ChunkHelper.getNumChunks(chunk));
+    assertArrayEquals(payload, ChunkHelper.getPayload(chunk));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testNonPositiveChunkSize() {
+    ChunkHelper.getNumChunks(10, 0);
+  }
+}
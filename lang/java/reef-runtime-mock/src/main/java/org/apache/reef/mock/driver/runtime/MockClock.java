@@ -85,6 +85,11 @@ public final class MockClock implements Clock {
     return alarm;
   }
 
+  @Override
+  public boolean cancelAlarm(final Time alarm) {
+    return this.alarmList.remove(alarm);
+  }
+
   @Override
   public void close() {
     if (!closed) {
@@ -0,0 +1,38 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.reef.wake;
+
+/**
+ * Listener notified when a bounded stage becomes saturated and when it has drained again.
+ * <p>
+ * Notifications alternate, start with onSaturated(), and are delivered one at a time.
+ * They run on the thread that crossed the watermark, so listeners must not block.
+ */
+public interface BackpressureListener {
+
+  /**
+   * Called when the stage holds so many events that producers should pause.
+   */
+  void onSaturated();
+
+  /**
+   * Called when the saturated stage has drained enough for producers to resume.
+   */
+  void onDrained();
+}
@@ -0,0 +1,62 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.reef.wake;
+
+/**
+ * Stage that holds a bounded number of events and signals backpressure to its producers.
+ * <p>
+ * onNext() waits for room when the stage is full, while offer() rejects the event instead.
+ * The stage becomes saturated when it holds three quarters of its capacity, which leaves room for
+ * the events producers already have in flight, and drains when it falls back to half of its capacity.
+ *
+ * @param <T> type
+ */
+public interface BoundedEStage<T> extends EStage<T> {
+
+  /**
+   * Puts the event into the stage if it has room for it, without waiting.
+   *
+   * @param value the event
+   * @return true if the stage accepted the event, false if it is full
+   */
+  boolean offer(T value);
+
+  /**
+   * @return the maximum number of events the stage holds
+   */
+  int getCapacity();
+
+  /**
+   * @return the number of events accepted but not handled yet
+   */
+  int getQueueLength();
+
+  /**
+   * @return true from the time the stage becomes saturated until it drains
+   */
+  boolean isSaturated();
+
+  /**
+   * Adds a listener of the saturated and drained transitions of the stage.
+   * A listener added while the stage is saturated is notified right away.
+   *
+   * @param listener the listener
+   */
+  void addBackpressureListener(BackpressureListener listener);
+}
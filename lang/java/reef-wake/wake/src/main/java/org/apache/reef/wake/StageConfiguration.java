@@ -57,6 +57,13 @@ public final class StageConfiguration {
   public static final class NumberOfThreads implements Name<Integer> {
   }
 
+  /**
+   * The maximum number of events a stage thread takes at once.
+   */
+  @NamedParameter(doc = "The maximum number of events a stage thread takes at once.")
+  public static final class BatchSize implements Name<Integer> {
+  }
+
   /**
    * The capacity for the stage.
    */
@@ -64,6 +71,22 @@ public final class StageConfiguration {
   public static final class Capacity implements Name<Integer> {
   }
 
+  /**
+   * Whether a single thread or many threads put events into the ring buffer of the stage.
+   */
+  @NamedParameter(doc = "Whether a single thread or many threads put events into the ring buffer of the stage: " +
+      "SINGLE or MULTI.", default_value = "MULTI")
+  public static final class ProducerType implements Name<String> {
+  }
+
+  /**
+   * How the thread of a ring buffer stage waits for events.
+   */
+  @NamedParameter(doc = "How the thread of a ring buffer stage waits for events: BUSY_SPIN, YIELD or PARK.",
+      default_value = "PARK")
+  public static final class WaitStrategy implements Name<String> {
+  }
+
   /**
    * The executor service for the stage.
    */
@@ -53,6 +53,15 @@ public final class WakeParameters {
   public static final class RemoteSendTimeout implements Name<Integer> {
   }
 
+  /**
+   * Period of the stage and link metrics dumps of the MetricsReporter, in milliseconds.
+   * By default the metrics are not dumped.
+   */
+  @NamedParameter(doc = "Period of the metrics dumps in milliseconds; 0 disables the dumps.",
+      short_name = "metrics_report_period", default_value = "0")
+  public static final class MetricsReportPeriod implements Name<Long> {
+  }
+
   /**
    * Empty private constructor to prohibit instantiation of utility class.
    */
@@ -0,0 +1,89 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.reef.wake.impl;
+
+import org.apache.reef.wake.BackpressureListener;
+import org.apache.reef.wake.BoundedEStage;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Tracks whether a bounded stage is saturated and notifies its backpressure listeners.
+ * <p>
+ * The stage calls update() after it takes in or hands out events. The check is a volatile read
+ * and a comparison; the lock is only taken to change state, and the state is checked again
+ * after each change, so a producer and a consumer crossing the watermarks at the same time
+ * cannot leave the stage saturated while it is empty.
+ */
+final class BackpressureSignal {
+
+  private final BoundedEStage<?> stage;
+  private final int highWatermark;
+  private final int lowWatermark;
+  private final List<BackpressureListener> listeners = new CopyOnWriteArrayList<>();
+
+  private volatile boolean saturated = false;
+
+  /**
+   * @param stage    the stage whose queue length is tracked
+   * @param capacity the capacity of the stage
+   */
+  BackpressureSignal(final BoundedEStage<?> stage, final int capacity) {
+    this.stage = stage;
+    this.highWatermark = Math.max(1, capacity - capacity / 4);
+    this.lowWatermark = capacity / 2;
+  }
+
+  boolean isSaturated() {
+    return this.saturated;
+  }
+
+  synchronized void addListener(final BackpressureListener listener) {
+    this.listeners.add(listener);
+    if (this.saturated) {
+      listener.onSaturated();
+    }
+  }
+
+  /**
+   * Checks the queue length of the stage against the watermarks and notifies the listeners of a transition.
+   */
+  void update() {
+    if (isCrossed()) {
+      synchronized (this) {
+        while (isCrossed()) {
+          this.saturated = !this.saturated;
+          for (final BackpressureListener listener : this.listeners) {
+            if (this.saturated) {
+              listener.onSaturated();
+            } else {
+              listener.onDrained();
+            }
+          }
+        }
+      }
+    }
+  }
+
+  private boolean isCrossed() {
+    final int length = this.stage.getQueueLength();
+    return this.saturated ? length <= this.lowWatermark : length >= this.highWatermark;
+  }
+}
@@ -0,0 +1,121 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.reef.wake.impl;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Dispatch table from event classes to values, e.g. event handlers, that takes inheritance into account:
+ * an event class matches the values registered for it and for its superclasses and interfaces.
+ * <p>
+ * The matches of each event class are resolved once and cached. The table itself is immutable;
+ * {@link #with(Class, Object)} returns a new table with an empty cache, so that a holder can swap tables on
+ * registration (copy-on-write) while lookups read the current table without taking a lock.
+ *
+ * @param <V> type of the values
+ */
+final class ClassDispatchTable<V> {
+
+  private final List<Class<?>> classes;
+  private final List<V> values;
+  private final ConcurrentMap<Class<?>, List<V>> allCache = new ConcurrentHashMap<>();
+  private final ConcurrentMap<Class<?>, V> mostSpecificCache = new ConcurrentHashMap<>();
+
+  /**
+   * Constructs an empty table.
+   */
+  ClassDispatchTable() {
+    this(Collections.<Class<?>>emptyList(), Collections.<V>emptyList());
+  }
+
+  private ClassDispatchTable(final List<Class<?>> classes, final List<V> values) {
+    this.classes = classes;
+    this.values = values;
+  }
+
+  /**
+   * Creates a table with one more registration; this table is left as it is.
+   *
+   * @param clazz the event class
+   * @param value the value for events of the class and of its subclasses
+   * @return the new table
+   */
+  ClassDispatchTable<V> with(final Class<?> clazz, final V value) {
+    final List<Class<?>> newClasses = new ArrayList<>(this.classes);
+    final List<V> newValues = new ArrayList<>(this.values);
+    newClasses.add(clazz);
+    newValues.add(value);
+    return new ClassDispatchTable<>(newClasses, newValues);
+  }
+
+  /**
+   * Gets the values of all registrations that match an event class, in the order they were registered.
+   *
+   * @param eventClass the class of an event
+   * @return an unmodifiable list of the matching values; empty if there are none
+   */
+  List<V> getAll(final Class<?> eventClass) {
+    final List<V> cached = this.allCache.get(eventClass);
+    if (cached != null) {
+      return cached;
+    }
+    final List<V> matches = new ArrayList<>();
+    for (int i = 0; i < this.classes.size(); ++i) {
+      if (this.classes.get(i).isAssignableFrom(eventClass)) {
+        matches.add(this.values.get(i));
+      }
+    }
+    final List<V> resolved = matches.isEmpty() ? Collections.<V>emptyList() : Collections.unmodifiableList(matches);
+    this.allCache.putIfAbsent(eventClass, resolved);
+    return resolved;
+  }
+
+  /**
+   * Gets the value of the most specific registration that matches an event class:
+   * the registration of the class itself, else of its closest superclass or interface.
+   * Of unrelated matches, e.g. two interfaces of the class, the one registered first wins.
+   *
+   * @param eventClass the class of an event
+   * @return the matching value, or null if there is none
+   */
+  V getMostSpecific(final Class<?> eventClass) {
+    final V cached = this.mostSpecificCache.get(eventClass);
+    if (cached != null) {
+      return cached;
+    }
+    int best = -1;
+    for (int i = 0; i < this.classes.size(); ++i) {
+      final Class<?> clazz = this.classes.get(i);
+      if (clazz.isAssignableFrom(eventClass)
+          && (best < 0 || this.classes.get(best) != clazz && this.classes.get(best).isAssignableFrom(clazz))) {
+        best = i;
+      }
+    }
+    if (best < 0) {
+      return null;
+    }
+    final V resolved = this.values.get(best);
+    this.mostSpecificCache.putIfAbsent(eventClass, resolved);
+    return resolved;
+  }
+}
@@ -0,0 +1,130 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.reef.wake.impl;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Bounded lock-free multi-producer single-consumer queue on a ring of slots.
+ * <p>
+ * Each slot carries a sequence number that tells producers when the slot is free and the consumer
+ * when it is filled, so producers only contend on a single CAS of the tail.
+ * Any number of threads can offer; at most one thread at a time may poll.
+ *
+ * @param <E> type of elements
+ */
+public final class MpscRingBuffer<E> {
+
+  private final int mask;
+  private final AtomicReferenceArray<E> slots;
+  private final AtomicLongArray sequences;
+  private final AtomicLong tail = new AtomicLong(0);
+  private final AtomicLong head = new AtomicLong(0);
+
+  /**
+   * Constructs a ring buffer.
+   *
+   * @param capacity the minimum capacity; rounded up to a power of two
+   * @throws IllegalArgumentException if the capacity is not positive or too large
+   */
+  public MpscRingBuffer(final int capacity) {
+    if (capacity <= 0 || capacity > 1 << 30) {
+      throw new IllegalArgumentException("Invalid ring buffer capacity: " + capacity);
+    }
+    final int size = Integer.highestOneBit(((capacity - 1) << 1) | 1);
+    this.mask = size - 1;
+    this.slots = new AtomicReferenceArray<>(size);
+    this.sequences = new AtomicLongArray(size);
+    for (int i = 0; i < size; ++i) {
+      this.sequences.set(i, i);
+    }
+  }
+
+  /**
+   * Inserts an element if there is room; safe to call from any thread.
+   *
+   * @param element the element
+   * @return true if inserted, false if the ring is full
+   */
+  public boolean offer(final E element) {
+    if (element == null) {
+      throw new NullPointerException("MpscRingBuffer does not accept null elements");
+    }
+    while (true) {
+      final long pos = this.tail.get();
+      final int index = (int) pos & this.mask;
+      final long delta = this.sequences.get(index) - pos;
+      if (delta == 0) {
+        if (this.tail.compareAndSet(pos, pos + 1)) {
+          this.slots.lazySet(index, element);
+          // A volatile store, so that a producer that reads consumer state next cannot miss the consumer
+          this.sequences.set(index, pos + 1);
+          return true;
+        }
+      } else if (delta < 0) {
+        return false;
+      }
+    }
+  }
+
+  /**
+   * Removes the head element; must not be called by two threads at a time.
+   *
+   * @return the head element, or null if the ring is empty or the next element is not published yet
+   */
+  public E poll() {
+    final long pos = this.head.get();
+    final int index = (int) pos & this.mask;
+    if (this.sequences.get(index) != pos + 1) {
+      return null;
+    }
+    final E element = this.slots.get(index);
+    this.slots.lazySet(index, null);
+    this.sequences.lazySet(index, pos + this.mask + 1);
+    this.head.lazySet(pos + 1);
+    return element;
+  }
+
+  /**
+   * @return true if the next element to poll is published
+   */
+  public boolean isEmpty() {
+    final long pos = this.head.get();
+    return this.sequences.get((int) pos & this.mask) != pos + 1;
+  }
+
+  /**
+   * Gets the number of elements, including ones whose producer has not finished publishing them.
+   *
+   * @return the approximate number of elements
+   */
+  public int size() {
+    final long size = this.tail.get() - this.head.get();
+    return (int) Math.max(0, Math.min(size, this.mask + 1));
+  }
+
+  /**
+   * @return the capacity of the ring
+   */
+  public int capacity() {
+    return this.mask + 1;
+  }
+}
@@ -25,20 +25,28 @@ import java.util.Map;
 
 /**
  * Event handler that dispatches an event to a specific handler based on an event class type.
+ * <p>
+ * An event without a handler for its exact class goes to the handler of its closest superclass or interface.
+ * The handler of each event class is resolved once and cached.
  *
  * @param <T> type
  */
 public class MultiEventHandler<T> implements EventHandler<T> {
 
-  private final Map<Class<? extends T>, EventHandler<? extends T>> map;
+  private final ClassDispatchTable<EventHandler<? extends T>> table;
 
   /**
    * Constructs a multi-event handler.
+   * The map is copied, so later changes to it do not affect the handler.
    *
    * @param map a map of class types to event handlers
    */
   public MultiEventHandler(final Map<Class<? extends T>, EventHandler<? extends T>> map) {
-    this.map = map;
+    ClassDispatchTable<EventHandler<? extends T>> newTable = new ClassDispatchTable<>();
+    for (final Map.Entry<Class<? extends T>, EventHandler<? extends T>> entry : map.entrySet()) {
+      newTable = newTable.with(entry.getKey(), entry.getValue());
+    }
+    this.table = newTable;
   }
 
   /**
@@ -48,8 +56,9 @@ public class MultiEventHandler<T> implements EventHandler<T> {
    * @throws WakeRuntimeException
    */
   @Override
+  @SuppressWarnings("unchecked")
   public void onNext(final T event) {
-    final EventHandler<T> handler = (EventHandler<T>) map.get(event.getClass());
+    final EventHandler<T> handler = (EventHandler<T>) table.getMostSpecific(event.getClass());
     if (handler == null) {
       throw new WakeRuntimeException("No event " + event.getClass() + " handler");
     }
@@ -57,5 +66,3 @@ public class MultiEventHandler<T> implements EventHandler<T> {
   }
 
 }
-
-
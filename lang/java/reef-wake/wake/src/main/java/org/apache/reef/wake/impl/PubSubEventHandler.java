@@ -20,32 +20,33 @@ package org.apache.reef.wake.impl;
 
 import org.apache.reef.wake.EventHandler;
 import org.apache.reef.wake.exception.WakeRuntimeException;
+import org.apache.reef.wake.metrics.StageMetrics;
+import org.apache.reef.wake.profiler.HandlerProfiler;
 
-import java.util.HashMap;
-import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
-import java.util.concurrent.locks.ReadWriteLock;
-import java.util.concurrent.locks.ReentrantReadWriteLock;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
 /**
  * Event handler that provides publish/subscribe interfaces.
+ * <p>
+ * An event goes to the handlers subscribed for its class and for its superclasses and interfaces,
+ * in the order they subscribed. Subscribing replaces the dispatch table (copy-on-write),
+ * so publishing takes no lock; an event published concurrently sees the handlers before or after the change.
  *
  * @param <T> type
  */
 public class PubSubEventHandler<T> implements EventHandler<T> {
 
   private static final Logger LOG = Logger.getLogger(PubSubEventHandler.class.getCanonicalName());
-  private final Map<Class<? extends T>, List<EventHandler<? extends T>>> clazzToListOfHandlersMap;
-  private final ReadWriteLock lock = new ReentrantReadWriteLock();
+  private volatile ClassDispatchTable<EventHandler<? extends T>> table;
 
   /**
    * Constructs a pub-sub event handler.
    */
   public PubSubEventHandler() {
-    this.clazzToListOfHandlersMap = new HashMap<>();
+    this.table = new ClassDispatchTable<>();
   }
 
   /**
@@ -54,27 +55,24 @@ public class PubSubEventHandler<T> implements EventHandler<T> {
    * @param clazzToListOfHandlersMap a map of event class types to lists of event handlers
    */
   public PubSubEventHandler(final Map<Class<? extends T>, List<EventHandler<? extends T>>> clazzToListOfHandlersMap) {
-    this.clazzToListOfHandlersMap = clazzToListOfHandlersMap;
+    ClassDispatchTable<EventHandler<? extends T>> newTable = new ClassDispatchTable<>();
+    for (final Map.Entry<Class<? extends T>, List<EventHandler<? extends T>>> entry
+        : clazzToListOfHandlersMap.entrySet()) {
+      for (final EventHandler<? extends T> handler : entry.getValue()) {
+        newTable = newTable.with(entry.getKey(), handler);
+      }
+    }
+    this.table = newTable;
   }
 
   /**
-   * Subscribes an event handler for an event class type.
+   * Subscribes an event handler for an event class type and its subclasses.
    *
    * @param clazz   an event class
    * @param handler an event handler
    */
-  public void subscribe(final Class<? extends T> clazz, final EventHandler<? extends T> handler) {
-    lock.writeLock().lock();
-    try {
-      List<EventHandler<? extends T>> list = clazzToListOfHandlersMap.get(clazz);
-      if (list == null) {
-        list = new LinkedList<EventHandler<? extends T>>();
-        clazzToListOfHandlersMap.put(clazz, list);
-      }
-      list.add(handler);
-    } finally {
-      lock.writeLock().unlock();
-    }
+  public synchronized void subscribe(final Class<? extends T> clazz, final EventHandler<? extends T> handler) {
+    this.table = this.table.with(clazz, handler);
   }
 
   /**
@@ -84,21 +82,21 @@ public class PubSubEventHandler<T> implements EventHandler<T> {
    * @throws WakeRuntimeException
    */
   @Override
+  @SuppressWarnings("unchecked")
   public void onNext(final T event) {
     LOG.log(Level.FINEST, "Invoked for event: {0}", event);
-    lock.readLock().lock();
-    final List<EventHandler<? extends T>> list;
-    try {
-      list = clazzToListOfHandlersMap.get(event.getClass());
-      if (list == null) {
-        throw new WakeRuntimeException("No event " + event.getClass() + " handler");
-      }
-      for (final EventHandler<? extends T> handler : list) {
-        LOG.log(Level.FINEST, "Invoking {0}", handler);
+    final List<EventHandler<? extends T>> list = this.table.getAll(event.getClass());
+    if (list.isEmpty()) {
+      throw new WakeRuntimeException("No event " + event.getClass() + " handler");
+    }
+    for (final EventHandler<? extends T> handler : list) {
+      LOG.log(Level.FINEST, "Invoking {0}", handler);
+      final HandlerProfiler.Sample sample = HandlerProfiler.instance().begin(null, handler, StageMetrics.NOT_TIMED);
+      try {
         ((EventHandler<T>) handler).onNext(event);
+      } finally {
+        HandlerProfiler.instance().end(sample);
       }
-    } finally {
-      lock.readLock().unlock();
     }
   }
 
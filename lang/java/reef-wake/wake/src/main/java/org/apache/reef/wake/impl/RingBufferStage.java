@@ -0,0 +1,521 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.reef.wake.impl;
+
+import org.apache.reef.tang.annotations.Parameter;
+import org.apache.reef.wake.AbstractEStage;
+import org.apache.reef.wake.BackpressureListener;
+import org.apache.reef.wake.BoundedEStage;
+import org.apache.reef.wake.EventHandler;
+import org.apache.reef.wake.StageConfiguration;
+import org.apache.reef.wake.StageConfiguration.Capacity;
+import org.apache.reef.wake.StageConfiguration.ErrorHandler;
+import org.apache.reef.wake.StageConfiguration.StageHandler;
+import org.apache.reef.wake.StageConfiguration.StageName;
+import org.apache.reef.wake.WakeParameters;
+import org.apache.reef.wake.exception.WakeRuntimeException;
+import org.apache.reef.wake.metrics.StageMetrics;
+import org.apache.reef.wake.profiler.HandlerProfiler;
+
+import javax.inject.Inject;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Stage that passes events to a single thread through a pre-allocated ring buffer, in the style of the LMAX Disruptor.
+ * <p>
+ * Producers claim a slot by sequence number, store the event reference in it and publish the sequence;
+ * the stage thread takes all published events at once and clears their slots. Nothing is allocated per event.
+ * When the ring is full, producers wait for the stage thread to free a slot, or offer() rejects the event.
+ * With ProducerType SINGLE, onNext() must always be called from the same thread.
+ * The wait strategy trades the CPU burnt by the idle stage thread for the latency of waking it up:
+ * BUSY_SPIN never gives up the core, YIELD spins then yields, and PARK spins then parks until the next event.
+ *
+ * @param <T> type
+ */
+public final class RingBufferStage<T> extends AbstractEStage<T> implements BoundedEStage<T> {
+
+  private static final Logger LOG = Logger.getLogger(RingBufferStage.class.getName());
+
+  private static final long SHUTDOWN_TIMEOUT = WakeParameters.EXECUTOR_SHUTDOWN_TIMEOUT;
+
+  /** Number of times the stage thread checks for events before it yields or parks. */
+  private static final int SPIN_TRIES = 100;
+
+  /**
+   * Whether a single thread or many threads put events into the ring buffer.
+   */
+  public enum ProducerType {
+    SINGLE,
+    MULTI
+  }
+
+  /**
+   * How the stage thread waits for events.
+   */
+  public enum WaitStrategy {
+    BUSY_SPIN,
+    YIELD,
+    PARK
+  }
+
+  private final EventHandler<T> handler;
+  private final EventHandler<Throwable> errorHandler;
+  private final ProducerType producerType;
+  private final WaitStrategy waitStrategy;
+
+  private final Object[] entries;
+  private final int mask;
+  private final int indexShift;
+
+  /** For MULTI producers, the round of the sequence last published in each slot. */
+  private final AtomicIntegerArray available;
+
+  /** Last sequence published (SINGLE) or claimed (MULTI). */
+  private final AtomicLong cursor = new PaddedAtomicLong(-1);
+
+  /** Last sequence handled by the stage thread. */
+  private final AtomicLong consumed = new PaddedAtomicLong(-1);
+
+  /** For a SINGLE producer, the last sequence it claimed and the last consumed sequence it saw. */
+  private long nextValue = -1;
+  private long cachedConsumed = -1;
+
+  private final BackpressureSignal signal;
+
+  private final Thread thread;
+
+  /** Set while the stage thread is parked or about to park; producers unpark it after publishing. */
+  private volatile boolean waiting = false;
+
+  /** Set when close() times out; the stage thread exits without handling the remaining events. */
+  private volatile boolean aborted = false;
+
+  /**
+   * Constructs a ring buffer stage with many producers that park the stage thread when idle.
+   *
+   * @param handler  the event handler to execute
+   * @param capacity the capacity of the ring buffer; rounded up to a power of two
+   * @throws WakeRuntimeException
+   */
+  @Inject
+  public RingBufferStage(@Parameter(StageHandler.class) final EventHandler<T> handler,
+                         @Parameter(Capacity.class) final int capacity) {
+    this(handler.getClass().getName(), handler, capacity, ProducerType.MULTI, WaitStrategy.PARK, null);
+  }
+
+  /**
+   * Constructs a ring buffer stage.
+   *
+   * @param name         the stage name
+   * @param handler      the event handler to execute
+   * @param capacity     the capacity of the ring buffer; rounded up to a power of two
+   * @param producerType SINGLE or MULTI
+   * @param waitStrategy BUSY_SPIN, YIELD or PARK
+   * @throws WakeRuntimeException
+   */
+  @Inject
+  public RingBufferStage(@Parameter(StageName.class) final String name,
+                         @Parameter(StageHandler.class) final EventHandler<T> handler,
+                         @Parameter(Capacity.class) final int capacity,
+                         @Parameter(StageConfiguration.ProducerType.class) final String producerType,
+                         @Parameter(StageConfiguration.WaitStrategy.class) final String waitStrategy) {
+    this(name, handler, capacity, ProducerType.valueOf(producerType), WaitStrategy.valueOf(waitStrategy), null);
+  }
+
+  /**
+   * Constructs a ring buffer stage.
+   *
+   * @param name         the stage name
+   * @param handler      the event handler to execute
+   * @param capacity     the capacity of the ring buffer; rounded up to a power of two
+   * @param producerType SINGLE or MULTI
+   * @param waitStrategy BUSY_SPIN, YIELD or PARK
+   * @param errorHandler the error handler
+   * @throws WakeRuntimeException
+   */
+  @Inject
+  public RingBufferStage(@Parameter(StageName.class) final String name,
+                         @Parameter(StageHandler.class) final EventHandler<T> handler,
+                         @Parameter(Capacity.class) final int capacity,
+                         @Parameter(StageConfiguration.ProducerType.class) final String producerType,
+                         @Parameter(StageConfiguration.WaitStrategy.class) final String waitStrategy,
+                         @Parameter(ErrorHandler.class) final EventHandler<Throwable> errorHandler) {
+    this(name, handler, capacity,
+        ProducerType.valueOf(producerType), WaitStrategy.valueOf(waitStrategy), errorHandler);
+  }
+
+  /**
+   * Constructs a ring buffer stage.
+   *
+   * @param name         the stage name
+   * @param handler      the event handler to execute
+   * @param capacity     the capacity of the ring buffer; rounded up to a power of two
+   * @param producerType whether a single thread or many threads call onNext()
+   * @param waitStrategy how the stage thread waits for events
+   * @param errorHandler the error handler; null to log exceptions of the event handler
+   * @throws WakeRuntimeException
+   */
+  public RingBufferStage(final String name,
+                         final EventHandler<T> handler,
+                         final int capacity,
+                         final ProducerType producerType,
+                         final WaitStrategy waitStrategy,
+                         final EventHandler<Throwable> errorHandler) {
+    super(name);
+    if (capacity <= 0 || capacity > 1 << 30) {
+      throw new WakeRuntimeException(name + " invalid ring buffer capacity " + capacity);
+    }
+    this.handler = handler;
+    this.errorHandler = errorHandler;
+    this.producerType = producerType;
+    this.waitStrategy = waitStrategy;
+
+    final int size = Integer.highestOneBit(((capacity - 1) << 1) | 1);
+    this.entries = new Object[size];
+    this.mask = size - 1;
+    this.indexShift = Integer.numberOfTrailingZeros(size);
+
+    if (producerType == ProducerType.MULTI) {
+      this.available = new AtomicIntegerArray(size);
+      for (int i = 0; i < size; ++i) {
+        this.available.set(i, -1);
+      }
+    } else {
+      this.available = null;
+    }
+
+    this.signal = new BackpressureSignal(this, size);
+
+    this.thread = new DefaultThreadFactory(name).newThread(new Consumer());
+    this.thread.start();
+
+    StageManager.instance().register(this);
+  }
+
+  /**
+   * Puts the event into the ring buffer, waiting for a free slot if the ring is full.
+   *
+   * @param value the event
+   * @throws RejectedExecutionException if the stage is closed
+   */
+  @Override
+  public void onNext(final T value) {
+
+    if (closed.get()) {
+      throw new RejectedExecutionException(name + " is closed");
+    }
+
+    beforeOnNext();
+    publish(this.producerType == ProducerType.SINGLE ? claimSingle() : claimMulti(), value);
+  }
+
+  /**
+   * Puts the event into the ring buffer if it has a free slot, without waiting.
+   *
+   * @param value the event
+   * @return true if the event was put into the ring buffer, false if the ring is full
+   * @throws RejectedExecutionException if the stage is closed
+   */
+  @Override
+  public boolean offer(final T value) {
+
+    if (closed.get()) {
+      throw new RejectedExecutionException(name + " is closed");
+    }
+
+    final long sequence = this.producerType == ProducerType.SINGLE ? tryClaimSingle() : tryClaimMulti();
+    if (sequence < 0) {
+      return false;
+    }
+    beforeOnNext();
+    publish(sequence, value);
+    return true;
+  }
+
+  private void publish(final long sequence, final T value) {
+    final int index = (int) sequence & this.mask;
+    this.entries[index] = value;
+    if (this.producerType == ProducerType.SINGLE) {
+      if (this.waitStrategy == WaitStrategy.PARK) {
+        this.cursor.set(sequence);
+      } else {
+        this.cursor.lazySet(sequence);
+      }
+    } else {
+      if (this.waitStrategy == WaitStrategy.PARK) {
+        this.available.set(index, (int) (sequence >>> this.indexShift));
+      } else {
+        this.available.lazySet(index, (int) (sequence >>> this.indexShift));
+      }
+    }
+
+    if (this.waiting) {
+      LockSupport.unpark(this.thread);
+    }
+
+    this.signal.update();
+  }
+
+  private long claimSingle() {
+    final long next = this.nextValue + 1;
+    final long wrapPoint = next - this.entries.length;
+    if (wrapPoint > this.cachedConsumed) {
+      long minSequence = this.consumed.get();
+      while (wrapPoint > minSequence) {
+        waitForSlot();
+        minSequence = this.consumed.get();
+      }
+      this.cachedConsumed = minSequence;
+    }
+    this.nextValue = next;
+    return next;
+  }
+
+  /**
+   * @return the claimed sequence, or -1 if the ring is full
+   */
+  private long tryClaimSingle() {
+    final long next = this.nextValue + 1;
+    final long wrapPoint = next - this.entries.length;
+    if (wrapPoint > this.cachedConsumed) {
+      final long minSequence = this.consumed.get();
+      if (wrapPoint > minSequence) {
+        return -1;
+      }
+      this.cachedConsumed = minSequence;
+    }
+    this.nextValue = next;
+    return next;
+  }
+
+  private long claimMulti() {
+    while (true) {
+      final long current = this.cursor.get();
+      final long next = current + 1;
+      if (next - this.entries.length > this.consumed.get()) {
+        waitForSlot();
+      } else if (this.cursor.compareAndSet(current, next)) {
+        return next;
+      }
+    }
+  }
+
+  /**
+   * @return the claimed sequence, or -1 if the ring is full
+   */
+  private long tryClaimMulti() {
+    while (true) {
+      final long current = this.cursor.get();
+      final long next = current + 1;
+      if (next - this.entries.length > this.consumed.get()) {
+        return -1;
+      } else if (this.cursor.compareAndSet(current, next)) {
+        return next;
+      }
+    }
+  }
+
+  /**
+   * Waits a little for the stage thread to free a slot of the full ring buffer.
+   * @throws RejectedExecutionException if the stage thread is gone
+   */
+  private void waitForSlot() {
+    if (this.aborted || !this.thread.isAlive()) {
+      throw new RejectedExecutionException(name + " is closed");
+    }
+    LockSupport.parkNanos(1);
+  }
+
+  /**
+   * @return the highest sequence, not lower than next - 1, up to which all events are published
+   */
+  private long getHighestPublished(final long next) {
+    final long claimed = this.cursor.get();
+    if (this.producerType == ProducerType.SINGLE) {
+      return claimed;
+    }
+    for (long sequence = next; sequence <= claimed; ++sequence) {
+      if (this.available.get((int) sequence & this.mask) != (int) (sequence >>> this.indexShift)) {
+        return sequence - 1;
+      }
+    }
+    return claimed;
+  }
+
+  /**
+   * Waits until the event with the given sequence is published or the stage is closed.
+   * @return the highest published sequence; lower than next if the stage is closed and drained
+   */
+  private long waitFor(final long next) {
+    int counter = SPIN_TRIES;
+    long published = getHighestPublished(next);
+    while (published < next) {
+      if (closed.get() || this.aborted) {
+        return getHighestPublished(next);
+      }
+      switch (this.waitStrategy) {
+      case YIELD:
+        if (counter > 0) {
+          --counter;
+        } else {
+          Thread.yield();
+        }
+        break;
+      case PARK:
+        if (counter > 0) {
+          --counter;
+        } else {
+          // Publish the flag before checking again, so that a producer either sees it or we see its event.
+          this.waiting = true;
+          if (getHighestPublished(next) < next && !closed.get()) {
+            LockSupport.park(this);
+          }
+          this.waiting = false;
+        }
+        break;
+      default:
+        break;
+      }
+      published = getHighestPublished(next);
+    }
+    return published;
+  }
+
+  /**
+   * Closes the stage. Waits for the events in the ring buffer to be handled,
+   * and drops the ones left when the shutdown times out.
+   */
+  @Override
+  public void close() {
+
+    if (!closed.compareAndSet(false, true)) {
+      return;
+    }
+
+    LOG.log(Level.FINEST, "Closing RingBufferStage {0}: begin", this.name);
+
+    LockSupport.unpark(this.thread);
+    try {
+      this.thread.join(SHUTDOWN_TIMEOUT);
+    } catch (final InterruptedException ex) {
+      LOG.log(Level.WARNING, "Interrupted closing RingBufferStage " + this.name, ex);
+    }
+
+    if (this.thread.isAlive()) {
+      this.aborted = true;
+      this.thread.interrupt();
+      LOG.log(Level.SEVERE,
+          "Closing RingBufferStage {0}: Thread did not terminate in {1} ms. Dropping {2} events",
+          new Object[] {this.name, SHUTDOWN_TIMEOUT, getQueueLength()});
+    }
+
+    LOG.log(Level.FINEST, "Closing RingBufferStage {0}: end", this.name);
+  }
+
+  /**
+   * Gets the number of events in the ring buffer, including the ones being put in.
+   *
+   * @return the queue length
+   */
+  @Override
+  public int getQueueLength() {
+    return (int) (this.cursor.get() - this.consumed.get());
+  }
+
+  /**
+   * Gets the capacity of the ring buffer.
+   *
+   * @return the number of slots in the ring buffer
+   */
+  @Override
+  public int getCapacity() {
+    return this.entries.length;
+  }
+
+  @Override
+  public boolean isSaturated() {
+    return this.signal.isSaturated();
+  }
+
+  @Override
+  public void addBackpressureListener(final BackpressureListener listener) {
+    this.signal.addListener(listener);
+  }
+
+  /**
+   * Takes the published events out of the ring buffer and provides them to the handler.
+   */
+  private final class Consumer implements Runnable {
+
+    @Override
+    @SuppressWarnings({"unchecked", "checkstyle:illegalcatch"})
+    public void run() {
+      long next = consumed.get() + 1;
+      while (!aborted) {
+        final long published = waitFor(next);
+        if (published < next) {
+          break;
+        }
+        for (long sequence = next; sequence <= published && !aborted; ++sequence) {
+          final int index = (int) sequence & mask;
+          final T value = (T) entries[index];
+          entries[index] = null;
+          final HandlerProfiler.Sample sample = HandlerProfiler.instance().begin(name, handler, StageMetrics.NOT_TIMED);
+          try {
+            handler.onNext(value);
+          } catch (final Throwable t) {
+            if (errorHandler != null) {
+              errorHandler.onNext(t);
+            } else {
+              LOG.log(Level.SEVERE, name + " Exception from event handler", t);
+            }
+          } finally {
+            HandlerProfiler.instance().end(sample);
+            afterOnNext();
+          }
+        }
+        // a full fence, so that a producer saturating the stage concurrently either sees the freed slots
+        // or its new state is seen by the update below
+        consumed.set(published);
+        signal.update();
+        next = published + 1;
+      }
+    }
+  }
+
+  /**
+   * Sequence padded to its own cache line, so that producers and the stage thread do not false-share.
+   */
+  @SuppressWarnings("unused")
+  private static final class PaddedAtomicLong extends AtomicLong {
+
+    private static final long serialVersionUID = 1L;
+
+    private long p1, p2, p3, p4, p5, p6, p7;
+
+    PaddedAtomicLong(final long initialValue) {
+      super(initialValue);
+    }
+  }
+}
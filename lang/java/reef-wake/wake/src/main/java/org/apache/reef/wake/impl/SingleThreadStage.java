@@ -24,6 +24,9 @@ import org.apache.reef.wake.EventHandler;
 import org.apache.reef.wake.StageConfiguration.Capacity;
 import org.apache.reef.wake.StageConfiguration.StageHandler;
 import org.apache.reef.wake.StageConfiguration.StageName;
+import org.apache.reef.wake.metrics.MetricsRegistry;
+import org.apache.reef.wake.metrics.StageMetrics;
+import org.apache.reef.wake.profiler.HandlerProfiler;
 
 import javax.inject.Inject;
 import java.util.concurrent.ArrayBlockingQueue;
@@ -40,9 +43,10 @@ import java.util.logging.Logger;
 public final class SingleThreadStage<T> extends AbstractEStage<T> {
   private static final Logger LOG = Logger.getLogger(SingleThreadStage.class.getName());
 
-  private final BlockingQueue<T> queue;
+  private final BlockingQueue<QueuedEvent<T>> queue;
   private final Thread thread;
   private final AtomicBoolean interrupted;
+  private final StageMetrics metrics;
 
   /**
    * Constructs a single thread stage.
@@ -68,8 +72,10 @@ public final class SingleThreadStage<T> extends AbstractEStage<T> {
                            @Parameter(StageHandler.class) final EventHandler<T> handler,
                            @Parameter(Capacity.class) final int capacity) {
     super(name);
-    queue = new ArrayBlockingQueue<T>(capacity);
+    queue = new ArrayBlockingQueue<>(capacity);
     interrupted = new AtomicBoolean(false);
+    metrics = MetricsRegistry.instance().register(
+        name, SingleThreadStage.class.getSimpleName(), getInMeter(), getOutMeter());
     thread = new Thread(new Producer<T>(name, queue, handler, interrupted));
     thread.setName("SingleThreadStage<" + name + ">");
     thread.start();
@@ -86,7 +92,16 @@ public final class SingleThreadStage<T> extends AbstractEStage<T> {
   @Override
   public void onNext(final T value) {
     beforeOnNext();
-    queue.add(value);
+    queue.add(new QueuedEvent<>(value, metrics.startTimer()));
+  }
+
+  /**
+   * Gets the event counts, queue and handler times of this stage.
+   *
+   * @return the stage metrics
+   */
+  public StageMetrics getMetrics() {
+    return metrics;
   }
 
   /**
@@ -97,6 +112,7 @@ public final class SingleThreadStage<T> extends AbstractEStage<T> {
   @Override
   public void close() throws Exception {
     if (closed.compareAndSet(false, true)) {
+      MetricsRegistry.instance().unregister(metrics);
       interrupted.set(true);
       thread.interrupt();
     }
@@ -109,11 +125,11 @@ public final class SingleThreadStage<T> extends AbstractEStage<T> {
   private class Producer<U> implements Runnable {
 
     private final String name;
-    private final BlockingQueue<U> queue;
+    private final BlockingQueue<QueuedEvent<U>> queue;
     private final EventHandler<U> handler;
     private final AtomicBoolean interrupted;
 
-    Producer(final String name, final BlockingQueue<U> queue, final EventHandler<U> handler,
+    Producer(final String name, final BlockingQueue<QueuedEvent<U>> queue, final EventHandler<U> handler,
              final AtomicBoolean interrupted) {
       this.name = name;
       this.queue = queue;
@@ -125,8 +141,15 @@ public final class SingleThreadStage<T> extends AbstractEStage<T> {
     public void run() {
       while (true) {
         try {
-          final U value = queue.take();
-          handler.onNext(value);
+          final QueuedEvent<U> event = queue.take();
+          final long started = metrics.recordQueueTime(event.enqueued);
+          final HandlerProfiler.Sample sample = HandlerProfiler.instance().begin(name, handler, event.enqueued);
+          try {
+            handler.onNext(event.value);
+          } finally {
+            HandlerProfiler.instance().end(sample);
+          }
+          metrics.recordHandlerTime(started);
           SingleThreadStage.this.afterOnNext();
         } catch (final InterruptedException e) {
           if (interrupted.get()) {
@@ -141,5 +164,18 @@ public final class SingleThreadStage<T> extends AbstractEStage<T> {
     }
   }
 
+  /**
+   * An event in the queue, with the time it was added.
+   */
+  private static final class QueuedEvent<U> {
+
+    private final U value;
+    private final long enqueued;
+
+    QueuedEvent(final U value, final long enqueued) {
+      this.value = value;
+      this.enqueued = enqueued;
+    }
+  }
 }
 
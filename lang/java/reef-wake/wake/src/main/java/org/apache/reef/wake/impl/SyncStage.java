@@ -24,6 +24,8 @@ import org.apache.reef.wake.EventHandler;
 import org.apache.reef.wake.StageConfiguration.ErrorHandler;
 import org.apache.reef.wake.StageConfiguration.StageHandler;
 import org.apache.reef.wake.StageConfiguration.StageName;
+import org.apache.reef.wake.metrics.StageMetrics;
+import org.apache.reef.wake.profiler.HandlerProfiler;
 
 import javax.inject.Inject;
 import java.util.logging.Level;
@@ -89,6 +91,7 @@ public final class SyncStage<T> extends AbstractEStage<T> {
   @SuppressWarnings("checkstyle:illegalcatch")
   public void onNext(final T value) {
     beforeOnNext();
+    final HandlerProfiler.Sample sample = HandlerProfiler.instance().begin(name, handler, StageMetrics.NOT_TIMED);
     try {
       handler.onNext(value);
     } catch (final Throwable t) {
@@ -98,6 +101,8 @@ public final class SyncStage<T> extends AbstractEStage<T> {
         LOG.log(Level.SEVERE, name + " Exception from event handler", t);
         throw t;
       }
+    } finally {
+      HandlerProfiler.instance().end(sample);
     }
     afterOnNext();
   }
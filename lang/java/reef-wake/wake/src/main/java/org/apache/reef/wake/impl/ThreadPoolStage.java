@@ -20,10 +20,15 @@ package org.apache.reef.wake.impl;
 
 import org.apache.reef.tang.annotations.Parameter;
 import org.apache.reef.wake.AbstractEStage;
+import org.apache.reef.wake.BackpressureListener;
+import org.apache.reef.wake.BoundedEStage;
 import org.apache.reef.wake.EventHandler;
 import org.apache.reef.wake.StageConfiguration.*;
 import org.apache.reef.wake.WakeParameters;
 import org.apache.reef.wake.exception.WakeRuntimeException;
+import org.apache.reef.wake.metrics.MetricsRegistry;
+import org.apache.reef.wake.metrics.StageMetrics;
+import org.apache.reef.wake.profiler.HandlerProfiler;
 
 import javax.inject.Inject;
 import java.util.List;
@@ -33,10 +38,15 @@ import java.util.logging.Logger;
 
 /**
  * Stage that executes an event handler with a thread pool.
+ * <p>
+ * A stage given a capacity holds at most that many events, from the time it accepts an event until
+ * its handler returns. When it is full, onNext() waits for a handler to finish and offer() returns false,
+ * and backpressure listeners learn when it is saturated and when it has drained.
+ * A stage without a capacity accepts every event and never saturates.
  *
  * @param <T> type
  */
-public final class ThreadPoolStage<T> extends AbstractEStage<T> {
+public final class ThreadPoolStage<T> extends AbstractEStage<T> implements BoundedEStage<T> {
 
   private static final Logger LOG = Logger.getLogger(ThreadPoolStage.class.getName());
 
@@ -46,6 +56,10 @@ public final class ThreadPoolStage<T> extends AbstractEStage<T> {
   private final EventHandler<Throwable> errorHandler;
   private final ExecutorService executor;
   private final int numThreads;
+  private final int capacity; // 0 for an unbounded stage
+  private final Semaphore permits; // null for an unbounded stage
+  private final BackpressureSignal signal; // null for an unbounded stage
+  private final StageMetrics metrics;
 
   /**
    * Constructs a thread-pool stage.
@@ -74,15 +88,7 @@ public final class ThreadPoolStage<T> extends AbstractEStage<T> {
                          @Parameter(StageHandler.class) final EventHandler<T> handler,
                          @Parameter(NumberOfThreads.class) final int numThreads,
                          @Parameter(ErrorHandler.class) final EventHandler<Throwable> errorHandler) {
-    super(name);
-    this.handler = handler;
-    this.errorHandler = errorHandler;
-    if (numThreads <= 0) {
-      throw new WakeRuntimeException(name + " numThreads " + numThreads + " is less than or equal to 0");
-    }
-    this.numThreads = numThreads;
-    this.executor = Executors.newFixedThreadPool(numThreads, new DefaultThreadFactory(name));
-    StageManager.instance().register(this);
+    this(name, handler, newExecutor(name, numThreads), numThreads, 0, errorHandler);
   }
 
   /**
@@ -156,28 +162,147 @@ public final class ThreadPoolStage<T> extends AbstractEStage<T> {
                          @Parameter(StageHandler.class) final EventHandler<T> handler,
                          @Parameter(StageExecutorService.class) final ExecutorService executor,
                          @Parameter(ErrorHandler.class) final EventHandler<Throwable> errorHandler) {
+    this(name, handler, executor, 0, 0, errorHandler);
+  }
+
+  /**
+   * Constructs a bounded thread-pool stage.
+   *
+   * @param name       the stage name
+   * @param handler    the event handler to execute
+   * @param numThreads the number of threads to use
+   * @param capacity   the maximum number of events the stage holds
+   * @throws WakeRuntimeException
+   */
+  @Inject
+  public ThreadPoolStage(@Parameter(StageName.class) final String name,
+                         @Parameter(StageHandler.class) final EventHandler<T> handler,
+                         @Parameter(NumberOfThreads.class) final int numThreads,
+                         @Parameter(Capacity.class) final int capacity) {
+    this(name, handler, numThreads, capacity, null);
+  }
+
+  /**
+   * Constructs a bounded thread-pool stage.
+   *
+   * @param name         the stage name
+   * @param handler      the event handler to execute
+   * @param numThreads   the number of threads to use
+   * @param capacity     the maximum number of events the stage holds
+   * @param errorHandler the error handler
+   * @throws WakeRuntimeException
+   */
+  @Inject
+  public ThreadPoolStage(@Parameter(StageName.class) final String name,
+                         @Parameter(StageHandler.class) final EventHandler<T> handler,
+                         @Parameter(NumberOfThreads.class) final int numThreads,
+                         @Parameter(Capacity.class) final int capacity,
+                         @Parameter(ErrorHandler.class) final EventHandler<Throwable> errorHandler) {
+    this(name, handler, newExecutor(name, numThreads), numThreads, checkCapacity(name, capacity), errorHandler);
+  }
+
+  /**
+   * Constructs a bounded thread-pool stage.
+   *
+   * @param name         the stage name
+   * @param handler      the event handler to execute
+   * @param executor     the external executor service provided
+   * @param capacity     the maximum number of events the stage holds
+   * @param errorHandler the error handler
+   * @throws WakeRuntimeException
+   */
+  @Inject
+  public ThreadPoolStage(@Parameter(StageName.class) final String name,
+                         @Parameter(StageHandler.class) final EventHandler<T> handler,
+                         @Parameter(StageExecutorService.class) final ExecutorService executor,
+                         @Parameter(Capacity.class) final int capacity,
+                         @Parameter(ErrorHandler.class) final EventHandler<Throwable> errorHandler) {
+    this(name, handler, executor, 0, checkCapacity(name, capacity), errorHandler);
+  }
+
+  private ThreadPoolStage(final String name,
+                          final EventHandler<T> handler,
+                          final ExecutorService executor,
+                          final int numThreads,
+                          final int capacity,
+                          final EventHandler<Throwable> errorHandler) {
     super(name);
     this.handler = handler;
     this.errorHandler = errorHandler;
-    this.numThreads = 0;
+    this.numThreads = numThreads;
     this.executor = executor;
+    this.capacity = capacity;
+    this.permits = capacity > 0 ? new Semaphore(capacity) : null;
+    this.signal = capacity > 0 ? new BackpressureSignal(this, capacity) : null;
+    this.metrics = MetricsRegistry.instance().register(
+        name, ThreadPoolStage.class.getSimpleName(), getInMeter(), getOutMeter());
     StageManager.instance().register(this);
   }
 
+  private static ExecutorService newExecutor(final String name, final int numThreads) {
+    if (numThreads <= 0) {
+      throw new WakeRuntimeException(name + " numThreads " + numThreads + " is less than or equal to 0");
+    }
+    return Executors.newFixedThreadPool(numThreads, new DefaultThreadFactory(name));
+  }
+
+  private static int checkCapacity(final String name, final int capacity) {
+    if (capacity <= 0) {
+      throw new WakeRuntimeException(name + " capacity " + capacity + " is less than or equal to 0");
+    }
+    return capacity;
+  }
+
   /**
    * Handles the event using a thread in the thread pool.
+   * A bounded stage that is full waits for a handler to finish first.
    *
    * @param value the event
+   * @throws WakeRuntimeException if interrupted while waiting
    */
   @Override
-  @SuppressWarnings("checkstyle:illegalcatch")
   public void onNext(final T value) {
+    if (this.permits != null) {
+      try {
+        this.permits.acquire();
+      } catch (final InterruptedException ex) {
+        Thread.currentThread().interrupt();
+        throw new WakeRuntimeException(name + " interrupted waiting for room", ex);
+      }
+    }
+    submit(value);
+  }
+
+  /**
+   * Handles the event using a thread in the thread pool if the stage has room for it, without waiting.
+   * An unbounded stage always has room.
+   *
+   * @param value the event
+   * @return true if the stage accepted the event, false if it is full
+   */
+  @Override
+  public boolean offer(final T value) {
+    if (this.permits != null && !this.permits.tryAcquire()) {
+      return false;
+    }
+    submit(value);
+    return true;
+  }
+
+  @SuppressWarnings("checkstyle:illegalcatch")
+  private void submit(final T value) {
     beforeOnNext();
+    if (this.signal != null) {
+      this.signal.update();
+    }
+    final long enqueued = metrics.startTimer();
     try {
       executor.submit(new Runnable() {
 
         @Override
         public void run() {
+          final long started = metrics.recordQueueTime(enqueued);
+          final HandlerProfiler.Sample sample = HandlerProfiler.instance().begin(name, handler, enqueued);
           try {
             handler.onNext(value);
           } catch (final Throwable t) {
@@ -188,17 +313,26 @@ public final class ThreadPoolStage<T> extends AbstractEStage<T> {
               throw t;
             }
           } finally {
-            afterOnNext();
+            HandlerProfiler.instance().end(sample);
+            metrics.recordHandlerTime(started);
+            release();
           }
         }
 
       });
     } catch (final Exception e) {
       LOG.log(Level.SEVERE, "Encountered error when submitting to executor in ThreadPoolStage.");
-      afterOnNext();
+      release();
       throw e;
     }
+  }
 
+  private void release() {
+    afterOnNext();
+    if (this.permits != null) {
+      this.permits.release();
+      this.signal.update();
+    }
   }
 
   /**
@@ -207,6 +341,8 @@ public final class ThreadPoolStage<T> extends AbstractEStage<T> {
   @Override
   public void close() {
 
+    MetricsRegistry.instance().unregister(metrics);
+
     if (closed.compareAndSet(false, true) && numThreads > 0) {
 
       LOG.log(Level.FINEST, "Closing ThreadPoolStage {0}: begin", this.name);
@@ -236,12 +372,52 @@ public final class ThreadPoolStage<T> extends AbstractEStage<T> {
   }
 
   /**
-   * Gets the queue length of this stage.
+   * @return the capacity of the stage; Integer.MAX_VALUE for an unbounded stage
+   */
+  @Override
+  public int getCapacity() {
+    return this.capacity > 0 ? this.capacity : Integer.MAX_VALUE;
+  }
+
+  /**
+   * Gets the queue length of this stage: for a bounded stage, the events accepted and not handled yet,
+   * both queued and running; for an unbounded stage, the events queued in a thread pool executor.
    *
    * @return the queue length
    */
+  @Override
   public int getQueueLength() {
-    return ((ThreadPoolExecutor) executor).getQueue().size();
+    if (this.permits != null) {
+      return this.capacity - this.permits.availablePermits();
+    }
+    // executors other than a thread pool, e.g. one thread per task, have no queue to inspect
+    return executor instanceof ThreadPoolExecutor ? ((ThreadPoolExecutor) executor).getQueue().size() : 0;
+  }
+
+  @Override
+  public boolean isSaturated() {
+    return this.signal != null && this.signal.isSaturated();
+  }
+
+  /**
+   * Adds a backpressure listener; an unbounded stage never notifies it.
+   *
+   * @param listener the listener
+   */
+  @Override
+  public void addBackpressureListener(final BackpressureListener listener) {
+    if (this.signal != null) {
+      this.signal.addListener(listener);
+    }
+  }
+
+  /**
+   * Gets the event counts, queue and handler times of this stage.
+   *
+   * @return the stage metrics
+   */
+  public StageMetrics getMetrics() {
+    return metrics;
   }
 
   /**
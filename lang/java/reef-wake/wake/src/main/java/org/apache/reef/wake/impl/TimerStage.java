@@ -26,6 +26,9 @@ import org.apache.reef.wake.StageConfiguration.StageName;
 import org.apache.reef.wake.StageConfiguration.TimerInitialDelay;
 import org.apache.reef.wake.StageConfiguration.TimerPeriod;
 import org.apache.reef.wake.WakeParameters;
+import org.apache.reef.wake.metrics.MetricsRegistry;
+import org.apache.reef.wake.metrics.StageMetrics;
+import org.apache.reef.wake.profiler.HandlerProfiler;
 
 import javax.inject.Inject;
 import java.util.List;
@@ -46,6 +49,7 @@ public final class TimerStage implements Stage {
   private final ScheduledExecutorService executor;
   private final PeriodicEvent event = new PeriodicEvent();
   private final long shutdownTimeout = WakeParameters.EXECUTOR_SHUTDOWN_TIMEOUT;
+  private final StageMetrics metrics;
 
   /**
    * Constructs a timer stage with no initial delay.
@@ -101,14 +105,32 @@ public final class TimerStage implements Stage {
                     @Parameter(TimerInitialDelay.class) final long initialDelay,
                     @Parameter(TimerPeriod.class) final long period) {
     this.executor = Executors.newScheduledThreadPool(1, new DefaultThreadFactory(name));
+    this.metrics = MetricsRegistry.instance().register(name, TimerStage.class.getSimpleName());
+    final long periodNanos = TimeUnit.MILLISECONDS.toNanos(period);
+    final long firstDue = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(initialDelay);
     executor.scheduleAtFixedRate(new Runnable() {
 
+      /**
+       * When the current run was due; the time queued of a timer event is how late it fires.
+       */
+      private long due = firstDue;
+
       @Override
       public void run() {
         if (LOG.isLoggable(Level.FINEST)) {
           LOG.log(Level.FINEST, "{0} {1}", new Object[]{name, event});
         }
-        handler.onNext(event);
+        metrics.getInMeter().mark(1);
+        final long started = metrics.recordQueueTime(due);
+        final HandlerProfiler.Sample sample = HandlerProfiler.instance().begin(name, handler, due);
+        due += periodNanos;
+        try {
+          handler.onNext(event);
+        } finally {
+          HandlerProfiler.instance().end(sample);
+        }
+        metrics.recordHandlerTime(started);
+        metrics.getOutMeter().mark(1);
       }
 
     }, initialDelay, period, TimeUnit.MILLISECONDS);
@@ -116,6 +138,15 @@ public final class TimerStage implements Stage {
   }
 
 
+  /**
+   * Gets the number of timer events, how late they fired and how long their handling took.
+   *
+   * @return the stage metrics
+   */
+  public StageMetrics getMetrics() {
+    return metrics;
+  }
+
   /**
    * Closes resources.
    *
@@ -124,6 +155,7 @@ public final class TimerStage implements Stage {
   @Override
   public void close() throws Exception {
     if (closed.compareAndSet(false, true)) {
+      MetricsRegistry.instance().unregister(metrics);
       executor.shutdown();
       if (!executor.awaitTermination(shutdownTimeout, TimeUnit.MILLISECONDS)) {
         LOG.log(Level.WARNING, "Executor did not terminate in " + shutdownTimeout + "ms.");
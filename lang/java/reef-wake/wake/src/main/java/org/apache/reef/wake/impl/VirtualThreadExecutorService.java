@@ -0,0 +1,147 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.reef.wake.impl;
+
+import javax.inject.Inject;
+import java.lang.reflect.InvocationTargetException;
+import java.util.List;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * An executor service that runs each task on a new virtual thread.
+ * <p>
+ * Handlers that block on network I/O or on InjectionFutures then do not hold a platform thread while they wait,
+ * so a stage can have thousands of events in flight. Bind it as the executor of a ThreadPoolStage with
+ * {@code bindNamedParameter(StageConfiguration.StageExecutorService.class, VirtualThreadExecutorService.class)}.
+ * <p>
+ * Virtual threads need JDK 21 (or JDK 19 and 20 with preview features enabled); they are looked up by reflection,
+ * since Wake is built for older JDKs. Without them, tasks run on a cached pool of platform threads,
+ * which grows as handlers block instead of queueing events behind them.
+ */
+public final class VirtualThreadExecutorService extends AbstractExecutorService {
+
+  private static final Logger LOG = Logger.getLogger(VirtualThreadExecutorService.class.getName());
+
+  private static final String DEFAULT_PREFIX = VirtualThreadExecutorService.class.getSimpleName();
+
+  private final ExecutorService executor;
+  private final boolean virtual;
+
+  /**
+   * Constructs an executor service whose threads are named after the class.
+   */
+  @Inject
+  public VirtualThreadExecutorService() {
+    this(DEFAULT_PREFIX);
+  }
+
+  /**
+   * Constructs an executor service.
+   *
+   * @param prefix the name prefix of the threads
+   */
+  public VirtualThreadExecutorService(final String prefix) {
+    final ExecutorService virtualExecutor = newVirtualThreadPerTaskExecutor(prefix);
+    this.virtual = virtualExecutor != null;
+    this.executor = this.virtual ? virtualExecutor : Executors.newCachedThreadPool(new DefaultThreadFactory(prefix));
+  }
+
+  /**
+   * @return true if virtual threads are available on this JVM
+   */
+  public static boolean isVirtualThreadSupported() {
+    final ExecutorService probe = newVirtualThreadPerTaskExecutor(DEFAULT_PREFIX);
+    if (probe == null) {
+      return false;
+    }
+    probe.shutdown();
+    return true;
+  }
+
+  /**
+   * @return true if tasks run on virtual threads, false if they run on the platform thread fallback
+   */
+  public boolean isVirtual() {
+    return this.virtual;
+  }
+
+  @Override
+  public void execute(final Runnable command) {
+    this.executor.execute(command);
+  }
+
+  @Override
+  public void shutdown() {
+    this.executor.shutdown();
+  }
+
+  @Override
+  public List<Runnable> shutdownNow() {
+    return this.executor.shutdownNow();
+  }
+
+  @Override
+  public boolean isShutdown() {
+    return this.executor.isShutdown();
+  }
+
+  @Override
+  public boolean isTerminated() {
+    return this.executor.isTerminated();
+  }
+
+  @Override
+  public boolean awaitTermination(final long timeout, final TimeUnit unit) throws InterruptedException {
+    return this.executor.awaitTermination(timeout, unit);
+  }
+
+  @Override
+  public String toString() {
+    return "VirtualThreadExecutorService: { virtual: " + this.virtual + " executor: " + this.executor + " }";
+  }
+
+  /**
+   * Creates {@code Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name(prefix, 0).factory())}.
+   *
+   * @return the executor, or null if the JVM has no virtual threads
+   */
+  private static ExecutorService newVirtualThreadPerTaskExecutor(final String prefix) {
+    try {
+      final Class<?> builderClass = Class.forName("java.lang.Thread$Builder");
+      final Object builder = builderClass.getMethod("name", String.class, long.class)
+          .invoke(Thread.class.getMethod("ofVirtual").invoke(null), prefix + ":virtual-", 0L);
+      final ThreadFactory factory = (ThreadFactory) builderClass.getMethod("factory").invoke(builder);
+      return (ExecutorService) Executors.class.getMethod("newThreadPerTaskExecutor", ThreadFactory.class)
+          .invoke(null, factory);
+    } catch (final ClassNotFoundException | NoSuchMethodException e) {
+      LOG.log(Level.FINE, "Virtual threads are not available; using platform threads", e);
+      return null;
+    } catch (final IllegalAccessException | InvocationTargetException e) {
+      // on JDK 19 and 20, virtual threads are a preview feature and ofVirtual() throws without --enable-preview
+      LOG.log(Level.FINE, "Virtual threads are disabled; using platform threads", e);
+      return null;
+    }
+  }
+}
@@ -0,0 +1,422 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.reef.wake.impl;
+
+import org.apache.reef.tang.annotations.Parameter;
+import org.apache.reef.wake.AbstractEStage;
+import org.apache.reef.wake.EventHandler;
+import org.apache.reef.wake.StageConfiguration.*;
+import org.apache.reef.wake.WakeParameters;
+import org.apache.reef.wake.exception.WakeRuntimeException;
+
+import javax.inject.Inject;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Stage that executes an event handler with a fixed set of threads, each with its own event queue.
+ * <p>
+ * Unlike ThreadPoolStage, which submits a task per event to the shared queue of an executor,
+ * this stage enqueues the event itself. Events produced by one of the stage threads go to its own queue,
+ * and events from any other thread go to the queue of the stage thread picked by the producer thread id,
+ * so the events of one producer are mostly handled by the same thread. A stage thread takes up to
+ * batchSize events from the head of its queue at once; when its queue is empty, it steals a batch
+ * from the tail of the queue of another stage thread.
+ *
+ * @param <T> type
+ */
+public final class WorkStealingStage<T> extends AbstractEStage<T> {
+
+  private static final Logger LOG = Logger.getLogger(WorkStealingStage.class.getName());
+
+  private static final long SHUTDOWN_TIMEOUT = WakeParameters.EXECUTOR_SHUTDOWN_TIMEOUT;
+
+  /**
+   * The default maximum number of events a stage thread takes at once.
+   */
+  public static final int DEFAULT_BATCH_SIZE = 64;
+
+  private final EventHandler<T> handler;
+  private final EventHandler<Throwable> errorHandler;
+  private final int batchSize;
+  private final List<Worker> workers;
+  private final ThreadLocal<Worker> currentWorker = new ThreadLocal<>();
+  private final AtomicInteger numParked = new AtomicInteger(0);
+
+  /** Set when close() times out; the stage threads exit without handling the remaining events. */
+  private volatile boolean aborted = false;
+
+  /**
+   * Constructs a work-stealing stage.
+   *
+   * @param handler    the event handler to execute
+   * @param numThreads the number of threads to use
+   * @throws WakeRuntimeException
+   */
+  @Inject
+  public WorkStealingStage(@Parameter(StageHandler.class) final EventHandler<T> handler,
+                           @Parameter(NumberOfThreads.class) final int numThreads) {
+    this(handler.getClass().getName(), handler, numThreads, DEFAULT_BATCH_SIZE, null);
+  }
+
+  /**
+   * Constructs a work-stealing stage.
+   *
+   * @param name       the stage name
+   * @param handler    the event handler to execute
+   * @param numThreads the number of threads to use
+   * @throws WakeRuntimeException
+   */
+  @Inject
+  public WorkStealingStage(@Parameter(StageName.class) final String name,
+                           @Parameter(StageHandler.class) final EventHandler<T> handler,
+                           @Parameter(NumberOfThreads.class) final int numThreads) {
+    this(name, handler, numThreads, DEFAULT_BATCH_SIZE, null);
+  }
+
+  /**
+   * Constructs a work-stealing stage.
+   *
+   * @param name         the stage name
+   * @param handler      the event handler to execute
+   * @param numThreads   the number of threads to use
+   * @param errorHandler the error handler
+   * @throws WakeRuntimeException
+   */
+  @Inject
+  public WorkStealingStage(@Parameter(StageName.class) final String name,
+                           @Parameter(StageHandler.class) final EventHandler<T> handler,
+                           @Parameter(NumberOfThreads.class) final int numThreads,
+                           @Parameter(ErrorHandler.class) final EventHandler<Throwable> errorHandler) {
+    this(name, handler, numThreads, DEFAULT_BATCH_SIZE, errorHandler);
+  }
+
+  /**
+   * Constructs a work-stealing stage.
+   *
+   * @param name       the stage name
+   * @param handler    the event handler to execute
+   * @param numThreads the number of threads to use
+   * @param batchSize  the maximum number of events a thread takes at once
+   * @throws WakeRuntimeException
+   */
+  @Inject
+  public WorkStealingStage(@Parameter(StageName.class) final String name,
+                           @Parameter(StageHandler.class) final EventHandler<T> handler,
+                           @Parameter(NumberOfThreads.class) final int numThreads,
+                           @Parameter(BatchSize.class) final int batchSize) {
+    this(name, handler, numThreads, batchSize, null);
+  }
+
+  /**
+   * Constructs a work-stealing stage.
+   *
+   * @param name         the stage name
+   * @param handler      the event handler to execute
+   * @param numThreads   the number of threads to use
+   * @param batchSize    the maximum number of events a thread takes at once
+   * @param errorHandler the error handler
+   * @throws WakeRuntimeException
+   */
+  @Inject
+  public WorkStealingStage(@Parameter(StageName.class) final String name,
+                           @Parameter(StageHandler.class) final EventHandler<T> handler,
+                           @Parameter(NumberOfThreads.class) final int numThreads,
+                           @Parameter(BatchSize.class) final int batchSize,
+                           @Parameter(ErrorHandler.class) final EventHandler<Throwable> errorHandler) {
+    super(name);
+    if (numThreads <= 0) {
+      throw new WakeRuntimeException(name + " numThreads " + numThreads + " is less than or equal to 0");
+    }
+    if (batchSize <= 0) {
+      throw new WakeRuntimeException(name + " batchSize " + batchSize + " is less than or equal to 0");
+    }
+    this.handler = handler;
+    this.errorHandler = errorHandler;
+    this.batchSize = batchSize;
+
+    final DefaultThreadFactory threadFactory = new DefaultThreadFactory(name);
+    final List<Worker> newWorkers = new ArrayList<>(numThreads);
+    for (int i = 0; i < numThreads; ++i) {
+      newWorkers.add(new Worker(i, threadFactory));
+    }
+    this.workers = newWorkers;
+    for (final Worker worker : this.workers) {
+      worker.thread.start();
+    }
+
+    StageManager.instance().register(this);
+  }
+
+  /**
+   * Queues the event to a stage thread.
+   *
+   * @param value the event
+   * @throws RejectedExecutionException if the stage is closed
+   */
+  @Override
+  public void onNext(final T value) {
+
+    if (closed.get()) {
+      throw new RejectedExecutionException(name + " is closed");
+    }
+
+    beforeOnNext();
+
+    Worker target = this.currentWorker.get();
+    if (target == null) {
+      target = this.workers.get((int) (Thread.currentThread().getId() % this.workers.size()));
+    }
+    target.queue.offerLast(value);
+
+    if (target.parked) {
+      LockSupport.unpark(target.thread);
+    } else if (this.numParked.get() > 0) {
+      // The target is busy: wake up an idle thread to steal from it.
+      for (final Worker worker : this.workers) {
+        if (worker.parked) {
+          LockSupport.unpark(worker.thread);
+          break;
+        }
+      }
+    }
+  }
+
+  /**
+   * Closes the stage. Waits for the queued events to be handled,
+   * and drops the ones left when the shutdown times out.
+   */
+  @Override
+  public void close() {
+
+    if (!closed.compareAndSet(false, true)) {
+      return;
+    }
+
+    LOG.log(Level.FINEST, "Closing WorkStealingStage {0}: begin", this.name);
+
+    for (final Worker worker : this.workers) {
+      LockSupport.unpark(worker.thread);
+    }
+
+    final long deadline = System.currentTimeMillis() + SHUTDOWN_TIMEOUT;
+    try {
+      for (final Worker worker : this.workers) {
+        final long waitTime = deadline - System.currentTimeMillis();
+        if (waitTime > 0) {
+          worker.thread.join(waitTime);
+        }
+      }
+    } catch (final InterruptedException ex) {
+      LOG.log(Level.WARNING, "Interrupted closing WorkStealingStage " + this.name, ex);
+    }
+
+    final int remaining = getQueueLength();
+    if (remaining > 0 || isAnyAlive()) {
+      this.aborted = true;
+      for (final Worker worker : this.workers) {
+        worker.thread.interrupt();
+      }
+      LOG.log(Level.SEVERE,
+          "Closing WorkStealingStage {0}: Threads did not terminate in {1} ms. Dropping {2} events",
+          new Object[] {this.name, SHUTDOWN_TIMEOUT, remaining});
+    }
+
+    LOG.log(Level.FINEST, "Closing WorkStealingStage {0}: end", this.name);
+  }
+
+  private boolean isAnyAlive() {
+    for (final Worker worker : this.workers) {
+      if (worker.thread.isAlive()) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Gets the queue length of this stage, i.e. the sum of the queue lengths of its threads.
+   * Takes time linear in the queue length.
+   *
+   * @return the queue length
+   */
+  public int getQueueLength() {
+    int length = 0;
+    for (final Worker worker : this.workers) {
+      length += worker.queue.size();
+    }
+    return length;
+  }
+
+  /**
+   * Gets the queue length of each thread of this stage.
+   * Takes time linear in the queue length.
+   *
+   * @return the queue lengths, indexed by thread
+   */
+  public int[] getQueueLengths() {
+    final int[] lengths = new int[this.workers.size()];
+    for (int i = 0; i < lengths.length; ++i) {
+      lengths[i] = this.workers.get(i).queue.size();
+    }
+    return lengths;
+  }
+
+  /**
+   * Gets the number of events each thread of this stage stole from the queues of the other threads.
+   *
+   * @return the steal counts, indexed by thread
+   */
+  public long[] getStealCounts() {
+    final long[] counts = new long[this.workers.size()];
+    for (int i = 0; i < counts.length; ++i) {
+      counts[i] = this.workers.get(i).stealCount.get();
+    }
+    return counts;
+  }
+
+  /**
+   * Gets the active count of this stage.
+   * @return the active count
+   */
+  public int getActiveCount() {
+    return (int)(getInMeter().getCount() - getOutMeter().getCount());
+  }
+
+  /**
+   * A stage thread and its event queue.
+   */
+  private final class Worker implements Runnable {
+
+    private final int index;
+    private final Deque<T> queue = new ConcurrentLinkedDeque<>();
+    private final AtomicLong stealCount = new AtomicLong(0);
+    private final List<T> batch = new ArrayList<>();
+    private final Thread thread;
+
+    /** Set while the thread is parked or about to park; producers unpark it after queueing. */
+    private volatile boolean parked = false;
+
+    Worker(final int index, final DefaultThreadFactory threadFactory) {
+      this.index = index;
+      this.thread = threadFactory.newThread(this);
+    }
+
+    @Override
+    public void run() {
+      currentWorker.set(this);
+      while (!aborted) {
+
+        if (takeBatch() || stealBatch()) {
+          handleBatch();
+          continue;
+        }
+
+        if (closed.get()) {
+          break;
+        }
+
+        // Publish the parked flag before checking the queues again, so that a producer either
+        // sees the flag and unparks us, or we see its event.
+        this.parked = true;
+        numParked.incrementAndGet();
+        if (this.queue.isEmpty() && !canSteal() && !closed.get()) {
+          LockSupport.park(this);
+        }
+        numParked.decrementAndGet();
+        this.parked = false;
+      }
+      currentWorker.remove();
+    }
+
+    /**
+     * Takes up to batchSize events from the head of the own queue.
+     * @return true if any events were taken.
+     */
+    private boolean takeBatch() {
+      while (this.batch.size() < batchSize) {
+        final T value = this.queue.pollFirst();
+        if (value == null) {
+          break;
+        }
+        this.batch.add(value);
+      }
+      return !this.batch.isEmpty();
+    }
+
+    /**
+     * Takes up to batchSize events from the tail of the queue of another thread.
+     * @return true if any events were stolen.
+     */
+    private boolean stealBatch() {
+      final int numWorkers = workers.size();
+      for (int i = 1; i < numWorkers; ++i) {
+        final Worker victim = workers.get((this.index + i) % numWorkers);
+        while (this.batch.size() < batchSize) {
+          final T value = victim.queue.pollLast();
+          if (value == null) {
+            break;
+          }
+          this.batch.add(value);
+        }
+        if (!this.batch.isEmpty()) {
+          this.stealCount.addAndGet(this.batch.size());
+          return true;
+        }
+      }
+      return false;
+    }
+
+    private boolean canSteal() {
+      for (final Worker worker : workers) {
+        if (worker != this && !worker.queue.isEmpty()) {
+          return true;
+        }
+      }
+      return false;
+    }
+
+    @SuppressWarnings("checkstyle:illegalcatch")
+    private void handleBatch() {
+      for (final T value : this.batch) {
+        try {
+          handler.onNext(value);
+        } catch (final Throwable t) {
+          if (errorHandler != null) {
+            errorHandler.onNext(t);
+          } else {
+            LOG.log(Level.SEVERE, name + " Exception from event handler", t);
+          }
+        } finally {
+          afterOnNext();
+        }
+      }
+      this.batch.clear();
+    }
+  }
+}
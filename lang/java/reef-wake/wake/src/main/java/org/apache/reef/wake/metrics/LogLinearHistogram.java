@@ -0,0 +1,328 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.reef.wake.metrics;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * An {@link Histogram} of non-negative values with log-linear bins, in the manner of HdrHistogram.
+ * Each power of two is split into {@code 2^precisionBits} linear bins, so every recorded value
+ * is known within a relative error of {@code 2^-precisionBits} across the whole range of longs.
+ * <p>
+ * Recording is lock-free and allocates nothing. Percentiles are read from the live counters,
+ * so they are consistent once concurrent recording stops. Histograms with the same precision
+ * can be merged, e.g. on the driver, from the compact form produced by {@link #toByteArray()}.
+ */
+public final class LogLinearHistogram implements Histogram {
+
+  /**
+   * The default precision: 32 bins per power of two, i.e. values within about 3%.
+   */
+  public static final int DEFAULT_PRECISION_BITS = 5;
+
+  private static final int MAX_PRECISION_BITS = 16;
+
+  private final int precisionBits;
+  private final int subBins;
+  private final AtomicLongArray values;
+  private final AtomicLong count = new AtomicLong(0);
+  private final AtomicLong total = new AtomicLong(0);
+  private final AtomicLong min = new AtomicLong(Long.MAX_VALUE);
+  private final AtomicLong max = new AtomicLong(0);
+
+  /**
+   * Constructs a histogram with the default precision.
+   */
+  public LogLinearHistogram() {
+    this(DEFAULT_PRECISION_BITS);
+  }
+
+  /**
+   * Constructs a histogram.
+   *
+   * @param precisionBits the base 2 logarithm of the number of linear bins per power of two, between 1 and 16
+   */
+  public LogLinearHistogram(final int precisionBits) {
+    if (precisionBits < 1 || precisionBits > MAX_PRECISION_BITS) {
+      throw new IllegalArgumentException("Invalid precision: " + precisionBits + " bits");
+    }
+    this.precisionBits = precisionBits;
+    this.subBins = 1 << precisionBits;
+    this.values = new AtomicLongArray((Long.SIZE - precisionBits) * this.subBins);
+  }
+
+  /**
+   * Records a value; negative values count as zero.
+   *
+   * @param value the value
+   */
+  @Override
+  public void update(final long value) {
+    final long v = Math.max(value, 0);
+    values.incrementAndGet(getIndex(v));
+    count.incrementAndGet();
+    total.addAndGet(v);
+    updateMin(v);
+    updateMax(v);
+  }
+
+  /**
+   * Returns the number of recorded values.
+   *
+   * @return the number of recorded values
+   */
+  @Override
+  public long getCount() {
+    return count.get();
+  }
+
+  /**
+   * Returns the number of values in a bin.
+   *
+   * @param index the bin index
+   * @return the number of values in the bin
+   */
+  @Override
+  public long getValue(final int index) {
+    return values.get(index);
+  }
+
+  /**
+   * Returns the number of bins.
+   *
+   * @return the number of bins
+   */
+  @Override
+  public int getNumBins() {
+    return values.length();
+  }
+
+  /**
+   * @return the base 2 logarithm of the number of linear bins per power of two
+   */
+  public int getPrecisionBits() {
+    return precisionBits;
+  }
+
+  /**
+   * @param index the bin index
+   * @return the smallest value counted in the bin
+   */
+  public long getBinLowerBound(final int index) {
+    if (index < subBins) {
+      return index;
+    }
+    final int shift = index / subBins - 1;
+    return (long) (index - shift * subBins) << shift;
+  }
+
+  /**
+   * @param index the bin index
+   * @return the largest value counted in the bin
+   */
+  public long getBinUpperBound(final int index) {
+    if (index < subBins) {
+      return index;
+    }
+    final int shift = index / subBins - 1;
+    return getBinLowerBound(index) + (1L << shift) - 1;
+  }
+
+  /**
+   * @return the smallest recorded value, or 0 if none was recorded
+   */
+  public long getMin() {
+    return getCount() == 0 ? 0 : min.get();
+  }
+
+  /**
+   * @return the largest recorded value
+   */
+  public long getMax() {
+    return max.get();
+  }
+
+  /**
+   * @return the mean of the recorded values, or 0 if none was recorded
+   */
+  public double getMean() {
+    final long n = getCount();
+    return n == 0 ? 0.0 : (double) total.get() / n;
+  }
+
+  /**
+   * Estimates a percentile as the largest value of the bin it falls into, within the recorded range.
+   *
+   * @param percentile the percentile, between 0 and 100
+   * @return the estimated value, or 0 if none was recorded
+   */
+  public long getPercentile(final double percentile) {
+    final long n = getCount();
+    if (n == 0) {
+      return 0;
+    }
+    final long rank = Math.max(1, (long) Math.ceil(n * percentile / 100.0));
+    long seen = 0;
+    for (int i = 0; i < values.length(); ++i) {
+      seen += values.get(i);
+      if (seen >= rank) {
+        return Math.max(Math.min(getBinUpperBound(i), getMax()), getMin());
+      }
+    }
+    return getMax();
+  }
+
+  /**
+   * Adds the values recorded by another histogram to this one.
+   *
+   * @param other a histogram with the same precision
+   * @throws IllegalArgumentException if the precisions differ
+   */
+  public void merge(final LogLinearHistogram other) {
+    if (other.precisionBits != precisionBits) {
+      throw new IllegalArgumentException(
+          "Cannot merge a histogram of " + other.precisionBits + " bits into one of " + precisionBits + " bits");
+    }
+    long n = 0;
+    for (int i = 0; i < values.length(); ++i) {
+      final long c = other.values.get(i);
+      if (c != 0) {
+        values.addAndGet(i, c);
+        n += c;
+      }
+    }
+    if (n != 0) {
+      count.addAndGet(n);
+      total.addAndGet(other.total.get());
+      updateMin(other.min.get());
+      updateMax(other.max.get());
+    }
+  }
+
+  /**
+   * Serializes the histogram compactly: only the non-empty bins are written, as varints.
+   *
+   * @return the serialized histogram
+   * @see #fromByteArray(byte[])
+   */
+  public byte[] toByteArray() {
+    final ByteArrayOutputStream out = new ByteArrayOutputStream();
+    writeVarint(out, precisionBits);
+    writeVarint(out, total.get());
+    writeVarint(out, getMin());
+    writeVarint(out, getMax());
+    int last = 0;
+    for (int i = 0; i < values.length(); ++i) {
+      final long c = values.get(i);
+      if (c != 0) {
+        writeVarint(out, i - last);
+        writeVarint(out, c);
+        last = i;
+      }
+    }
+    return out.toByteArray();
+  }
+
+  /**
+   * Deserializes a histogram written by {@link #toByteArray()}.
+   *
+   * @param data the serialized histogram
+   * @return a new histogram
+   * @throws IllegalArgumentException if the data is malformed
+   */
+  public static LogLinearHistogram fromByteArray(final byte[] data) {
+    final ByteBuffer in = ByteBuffer.wrap(data);
+    try {
+      final LogLinearHistogram histogram = new LogLinearHistogram((int) readVarint(in));
+      final long total = readVarint(in);
+      final long min = readVarint(in);
+      final long max = readVarint(in);
+      long n = 0;
+      int index = 0;
+      while (in.hasRemaining()) {
+        index += (int) readVarint(in);
+        final long c = readVarint(in);
+        histogram.values.set(index, c);
+        n += c;
+      }
+      if (n != 0) {
+        histogram.count.set(n);
+        histogram.total.set(total);
+        histogram.min.set(min);
+        histogram.max.set(max);
+      }
+      return histogram;
+    } catch (final BufferUnderflowException | IndexOutOfBoundsException e) {
+      throw new IllegalArgumentException("Malformed histogram", e);
+    }
+  }
+
+  private int getIndex(final long v) {
+    if (v < subBins) {
+      return (int) v;
+    }
+    final int shift = Long.SIZE - 1 - Long.numberOfLeadingZeros(v) - precisionBits;
+    return shift * subBins + (int) (v >>> shift);
+  }
+
+  private void updateMin(final long v) {
+    long current = min.get();
+    while (v < current && !min.compareAndSet(current, v)) {
+      current = min.get();
+    }
+  }
+
+  private void updateMax(final long v) {
+    long current = max.get();
+    while (v > current && !max.compareAndSet(current, v)) {
+      current = max.get();
+    }
+  }
+
+  private static void writeVarint(final ByteArrayOutputStream out, final long value) {
+    long remaining = value;
+    while ((remaining & ~0x7FL) != 0) {
+      out.write((int) (remaining & 0x7F | 0x80));
+      remaining >>>= 7;
+    }
+    out.write((int) remaining);
+  }
+
+  private static long readVarint(final ByteBuffer in) {
+    long result = 0;
+    for (int shift = 0; shift < Long.SIZE; shift += 7) {
+      final byte b = in.get();
+      result |= (long) (b & 0x7F) << shift;
+      if ((b & 0x80) == 0) {
+        return result;
+      }
+    }
+    throw new IllegalArgumentException("Malformed varint");
+  }
+
+  @Override
+  public String toString() {
+    return String.format("LogLinearHistogram: { count: %d mean: %.1f p50: %d p99: %d p999: %d max: %d }",
+        getCount(), getMean(), getPercentile(50), getPercentile(99), getPercentile(99.9), getMax());
+  }
+}
@@ -0,0 +1,62 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.reef.wake.metrics;
+
+import org.apache.reef.wake.remote.Codec;
+import org.apache.reef.wake.remote.exception.RemoteRuntimeException;
+
+import javax.inject.Inject;
+
+/**
+ * Codec that sends a {@link LogLinearHistogram} in its compact form,
+ * e.g. from evaluators to the driver, which merges them.
+ */
+public final class LogLinearHistogramCodec implements Codec<LogLinearHistogram> {
+
+  @Inject
+  public LogLinearHistogramCodec() {
+  }
+
+  /**
+   * Encodes the histogram to bytes.
+   *
+   * @param obj the histogram
+   * @return bytes
+   */
+  @Override
+  public byte[] encode(final LogLinearHistogram obj) {
+    return obj.toByteArray();
+  }
+
+  /**
+   * Decodes a histogram from bytes.
+   *
+   * @param buf bytes
+   * @return a new histogram
+   * @throws RemoteRuntimeException if the bytes are not a serialized histogram
+   */
+  @Override
+  public LogLinearHistogram decode(final byte[] buf) {
+    try {
+      return LogLinearHistogram.fromByteArray(buf);
+    } catch (final IllegalArgumentException e) {
+      throw new RemoteRuntimeException(e);
+    }
+  }
+}
@@ -0,0 +1,166 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.reef.wake.metrics;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Registry of the metrics of all stages and links of the process.
+ * <p>
+ * Stages register their metrics when they are created and unregister them when they are closed,
+ * much like they register themselves with the StageManager.
+ * The registry can be dumped as JSON, e.g. periodically by a {@link MetricsReporter} or over HTTP.
+ */
+public final class MetricsRegistry {
+
+  private static final Logger LOG = Logger.getLogger(MetricsRegistry.class.getName());
+
+  private static final MetricsRegistry INSTANCE = new MetricsRegistry();
+
+  private final ConcurrentMap<String, StageMetrics> metrics = new ConcurrentSkipListMap<>();
+  private final AtomicLong nameSequence = new AtomicLong(0);
+  private volatile boolean timingEnabled = true;
+
+  private MetricsRegistry() {
+  }
+
+  public static MetricsRegistry instance() {
+    return INSTANCE;
+  }
+
+  /**
+   * Registers the metrics of a stage that meters its events itself.
+   * If the name is taken, e.g. by another stage of the same handler class, a sequence number is appended.
+   *
+   * @param name     the stage name
+   * @param type     the kind of stage
+   * @param inMeter  the meter of accepted events
+   * @param outMeter the meter of completed events
+   * @return the registered metrics
+   */
+  public StageMetrics register(final String name, final String type, final Meter inMeter, final Meter outMeter) {
+    String uniqueName = name;
+    StageMetrics stageMetrics = new StageMetrics(this, uniqueName, type, inMeter, outMeter);
+    while (this.metrics.putIfAbsent(uniqueName, stageMetrics) != null) {
+      uniqueName = name + "#" + this.nameSequence.incrementAndGet();
+      stageMetrics = new StageMetrics(this, uniqueName, type, inMeter, outMeter);
+    }
+    LOG.log(Level.FINEST, "Registered metrics {0}", uniqueName);
+    return stageMetrics;
+  }
+
+  /**
+   * Registers the metrics of a stage or link, with new meters.
+   *
+   * @param name the stage or link name
+   * @param type the kind of stage or link
+   * @return the registered metrics
+   */
+  public StageMetrics register(final String name, final String type) {
+    return register(name, type, new Meter(name + "_in"), new Meter(name + "_out"));
+  }
+
+  /**
+   * Removes metrics from the registry. Does nothing if they are not registered.
+   *
+   * @param stageMetrics the metrics to remove
+   */
+  public void unregister(final StageMetrics stageMetrics) {
+    if (stageMetrics != null && this.metrics.remove(stageMetrics.getName(), stageMetrics)) {
+      LOG.log(Level.FINEST, "Unregistered metrics {0}", stageMetrics.getName());
+    }
+  }
+
+  /**
+   * @param name the name the metrics were registered under
+   * @return the metrics, or null if there are none of that name
+   */
+  public StageMetrics get(final String name) {
+    return this.metrics.get(name);
+  }
+
+  /**
+   * @return the registered metrics, ordered by name
+   */
+  public List<StageMetrics> getAll() {
+    return new ArrayList<>(this.metrics.values());
+  }
+
+  /**
+   * @return true if queue and handler times are measured
+   */
+  public boolean isTimingEnabled() {
+    return this.timingEnabled;
+  }
+
+  /**
+   * Turns the measurement of queue and handler times on or off; event counts are always kept.
+   *
+   * @param enabled true to measure times
+   */
+  public void setTimingEnabled(final boolean enabled) {
+    this.timingEnabled = enabled;
+  }
+
+  /**
+   * Dumps all registered metrics.
+   *
+   * @return a JSON object with the current time in milliseconds and the metrics of every stage and link
+   */
+  public String toJson() {
+    final StringBuilder json = new StringBuilder();
+    json.append("{\"timestamp\":").append(System.currentTimeMillis()).append(",\"stages\":[");
+    boolean first = true;
+    for (final StageMetrics stageMetrics : this.metrics.values()) {
+      if (!first) {
+        json.append(',');
+      }
+      stageMetrics.toJson(json);
+      first = false;
+    }
+    return json.append("]}").toString();
+  }
+
+  /**
+   * Appends a string as a quoted JSON string; shared by the JSON exports of the metrics and of the profiler.
+   *
+   * @param json  the JSON being built
+   * @param value the string to append
+   */
+  public static void appendJsonString(final StringBuilder json, final String value) {
+    json.append('"');
+    for (int i = 0; i < value.length(); ++i) {
+      final char c = value.charAt(i);
+      if (c == '"' || c == '\\') {
+        json.append('\\').append(c);
+      } else if (c < ' ') {
+        json.append(String.format("\\u%04x", (int) c));
+      } else {
+        json.append(c);
+      }
+    }
+    json.append('"');
+  }
+}
@@ -0,0 +1,79 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.reef.wake.metrics;
+
+import org.apache.reef.tang.annotations.Parameter;
+import org.apache.reef.wake.EventHandler;
+import org.apache.reef.wake.WakeParameters.MetricsReportPeriod;
+import org.apache.reef.wake.impl.PeriodicEvent;
+import org.apache.reef.wake.impl.TimerStage;
+
+import javax.inject.Inject;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Periodically logs the contents of the {@link MetricsRegistry} as JSON, at level INFO.
+ * Instantiate it (e.g. through Tang) to start the dumps; close it to stop them.
+ * REEFEnvironment instantiates it in every Driver and Evaluator, so the dumps are turned on
+ * by setting {@link MetricsReportPeriod}.
+ */
+public final class MetricsReporter implements EventHandler<PeriodicEvent>, AutoCloseable {
+
+  private static final Logger LOG = Logger.getLogger(MetricsReporter.class.getName());
+
+  private final TimerStage timer;
+
+  /**
+   * Starts dumping the metrics.
+   *
+   * @param period the period of the dumps in milliseconds; 0 disables the dumps
+   */
+  @Inject
+  public MetricsReporter(@Parameter(MetricsReportPeriod.class) final long period) {
+    if (period < 0) {
+      throw new IllegalArgumentException("Invalid metrics report period: " + period);
+    }
+    this.timer = period == 0 ? null : new TimerStage(MetricsReporter.class.getSimpleName(), this, period, period);
+  }
+
+  /**
+   * Dumps the metrics.
+   *
+   * @param event the timer event
+   */
+  @Override
+  public void onNext(final PeriodicEvent event) {
+    if (LOG.isLoggable(Level.INFO)) {
+      LOG.log(Level.INFO, "Wake metrics: {0}", MetricsRegistry.instance().toJson());
+    }
+  }
+
+  /**
+   * Stops the dumps.
+   *
+   * @throws Exception if the timer cannot be closed
+   */
+  @Override
+  public void close() throws Exception {
+    if (this.timer != null) {
+      this.timer.close();
+    }
+  }
+}
@@ -0,0 +1,193 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.reef.wake.metrics;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Metrics of a stage or a link: the events it accepted and completed, how many are still pending,
+ * how long they waited before being handled and how long their handling took.
+ * <p>
+ * Instances are created by {@link MetricsRegistry#register}. Timing follows the pattern
+ * <pre>{@code
+ * final long enqueued = metrics.startTimer();      // when the event is accepted
+ * ...
+ * final long started = metrics.recordQueueTime(enqueued);  // when the handler picks it up
+ * handler.onNext(event);
+ * metrics.recordHandlerTime(started);
+ * }</pre>
+ * and costs nothing but a branch while timing is disabled in the registry.
+ */
+public final class StageMetrics {
+
+  /**
+   * Timestamp returned while timing is disabled.
+   */
+  public static final long NOT_TIMED = Long.MIN_VALUE;
+
+  /**
+   * Precision of the time histograms: 8 bins per power of two, i.e. times within about 12%.
+   */
+  private static final int PRECISION_BITS = 3;
+
+  private final MetricsRegistry registry;
+  private final String name;
+  private final String type;
+  private final Meter inMeter;
+  private final Meter outMeter;
+  private final LogLinearHistogram queueTime = new LogLinearHistogram(PRECISION_BITS);
+  private final LogLinearHistogram handlerTime = new LogLinearHistogram(PRECISION_BITS);
+
+  StageMetrics(final MetricsRegistry registry, final String name, final String type,
+               final Meter inMeter, final Meter outMeter) {
+    this.registry = registry;
+    this.name = name;
+    this.type = type;
+    this.inMeter = inMeter;
+    this.outMeter = outMeter;
+  }
+
+  /**
+   * @return the name under which the metrics are registered
+   */
+  public String getName() {
+    return name;
+  }
+
+  /**
+   * @return the kind of stage or link, e.g. ThreadPoolStage
+   */
+  public String getType() {
+    return type;
+  }
+
+  /**
+   * @return the meter of accepted events
+   */
+  public Meter getInMeter() {
+    return inMeter;
+  }
+
+  /**
+   * @return the meter of completed events
+   */
+  public Meter getOutMeter() {
+    return outMeter;
+  }
+
+  /**
+   * Gets the number of events accepted but not completed yet, i.e. queued or being handled.
+   *
+   * @return the number of pending events
+   */
+  public long getPendingCount() {
+    return Math.max(inMeter.getCount() - outMeter.getCount(), 0);
+  }
+
+  /**
+   * @return the time in nanoseconds events spent between being accepted and being handled
+   */
+  public LogLinearHistogram getQueueTime() {
+    return queueTime;
+  }
+
+  /**
+   * @return the time in nanoseconds spent handling events
+   */
+  public LogLinearHistogram getHandlerTime() {
+    return handlerTime;
+  }
+
+  /**
+   * Takes the timestamp of an accepted event.
+   *
+   * @return the current time in nanoseconds, or {@link #NOT_TIMED} if timing is disabled
+   */
+  public long startTimer() {
+    return registry.isTimingEnabled() ? System.nanoTime() : NOT_TIMED;
+  }
+
+  /**
+   * Records the time an event was queued, when its handling starts.
+   *
+   * @param enqueued the timestamp taken by {@link #startTimer()}, or the time the event was due
+   * @return the start of the handling, to pass to {@link #recordHandlerTime(long)}
+   */
+  public long recordQueueTime(final long enqueued) {
+    if (enqueued == NOT_TIMED || !registry.isTimingEnabled()) {
+      return NOT_TIMED;
+    }
+    final long now = System.nanoTime();
+    queueTime.update(now - enqueued);
+    return now;
+  }
+
+  /**
+   * Records the time the handling of an event took.
+   *
+   * @param started the timestamp returned by {@link #recordQueueTime(long)} or {@link #startTimer()}
+   */
+  public void recordHandlerTime(final long started) {
+    if (started != NOT_TIMED) {
+      handlerTime.update(System.nanoTime() - started);
+    }
+  }
+
+  /**
+   * Appends the metrics as a JSON object.
+   *
+   * @param json the builder to append to
+   */
+  void toJson(final StringBuilder json) {
+    json.append("{\"name\":");
+    MetricsRegistry.appendJsonString(json, name);
+    json.append(",\"type\":");
+    MetricsRegistry.appendJsonString(json, type);
+    json.append(",\"in\":").append(inMeter.getCount())
+        .append(",\"out\":").append(outMeter.getCount())
+        .append(",\"pending\":").append(getPendingCount())
+        .append(",\"inRate1m\":").append(inMeter.get1mEWMAThp())
+        .append(",\"outRate1m\":").append(outMeter.get1mEWMAThp())
+        .append(",\"queueTime\":");
+    appendLatency(json, queueTime);
+    json.append(",\"handlerTime\":");
+    appendLatency(json, handlerTime);
+    json.append('}');
+  }
+
+  private static void appendLatency(final StringBuilder json, final LogLinearHistogram latency) {
+    json.append("{\"count\":").append(latency.getCount())
+        .append(",\"meanUs\":").append(toMicros(latency.getMean()))
+        .append(",\"p50Us\":").append(toMicros(latency.getPercentile(50)))
+        .append(",\"p99Us\":").append(toMicros(latency.getPercentile(99)))
+        .append(",\"maxUs\":").append(toMicros(latency.getMax()))
+        .append('}');
+  }
+
+  private static double toMicros(final double nanos) {
+    return nanos / TimeUnit.MICROSECONDS.toNanos(1);
+  }
+
+  @Override
+  public String toString() {
+    final StringBuilder json = new StringBuilder();
+    toJson(json);
+    return json.toString();
+  }
+}
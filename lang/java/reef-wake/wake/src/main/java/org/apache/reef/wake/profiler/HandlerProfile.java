@@ -0,0 +1,118 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.reef.wake.profiler;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Profile of the sampled invocations of an event handler, for one stack of nested stages and handlers.
+ * <p>
+ * The stack lists the stage and the handler class of each nested invocation, outermost first,
+ * separated by semicolons. Self times exclude the time of the nested invocations.
+ */
+public final class HandlerProfile {
+
+  private final String stack;
+  private final AtomicLong samples = new AtomicLong(0);
+  private final AtomicLong wallNanos = new AtomicLong(0);
+  private final AtomicLong selfWallNanos = new AtomicLong(0);
+  private final AtomicLong cpuNanos = new AtomicLong(0);
+  private final AtomicLong selfCpuNanos = new AtomicLong(0);
+  private final AtomicLong queued = new AtomicLong(0);
+  private final AtomicLong queueNanos = new AtomicLong(0);
+
+  HandlerProfile(final String stack) {
+    this.stack = stack;
+  }
+
+  void record(final long wall, final long selfWall, final long cpu, final long selfCpu, final long queue) {
+    this.samples.incrementAndGet();
+    this.wallNanos.addAndGet(wall);
+    this.selfWallNanos.addAndGet(selfWall);
+    this.cpuNanos.addAndGet(cpu);
+    this.selfCpuNanos.addAndGet(selfCpu);
+    if (queue >= 0) {
+      this.queued.incrementAndGet();
+      this.queueNanos.addAndGet(queue);
+    }
+  }
+
+  /**
+   * @return the stages and handler classes of the nested invocations, outermost first, separated by semicolons
+   */
+  public String getStack() {
+    return this.stack;
+  }
+
+  /**
+   * @return the number of sampled invocations
+   */
+  public long getSamples() {
+    return this.samples.get();
+  }
+
+  /**
+   * @return the total wall-clock time of the sampled invocations, in nanoseconds
+   */
+  public long getWallNanos() {
+    return this.wallNanos.get();
+  }
+
+  /**
+   * @return the wall-clock time of the sampled invocations minus that of their nested invocations, in nanoseconds
+   */
+  public long getSelfWallNanos() {
+    return this.selfWallNanos.get();
+  }
+
+  /**
+   * @return the total CPU time of the sampled invocations, in nanoseconds; 0 if the JVM does not measure it
+   */
+  public long getCpuNanos() {
+    return this.cpuNanos.get();
+  }
+
+  /**
+   * @return the CPU time of the sampled invocations minus that of their nested invocations, in nanoseconds
+   */
+  public long getSelfCpuNanos() {
+    return this.selfCpuNanos.get();
+  }
+
+  /**
+   * @return the number of sampled invocations whose time in the queue of the stage is known
+   */
+  public long getQueuedSamples() {
+    return this.queued.get();
+  }
+
+  /**
+   * @return the total time the sampled events waited in the queue of the stage, in nanoseconds
+   */
+  public long getQueueNanos() {
+    return this.queueNanos.get();
+  }
+
+  @Override
+  public String toString() {
+    return String.format("%s: samples %d wall %d us (self %d us) cpu %d us (self %d us) queue %d us",
+        this.stack, getSamples(), getWallNanos() / 1000, getSelfWallNanos() / 1000, getCpuNanos() / 1000,
+        getSelfCpuNanos() / 1000, getQueueNanos() / 1000);
+  }
+}
@@ -0,0 +1,443 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.reef.wake.profiler;
+
+import org.apache.reef.wake.metrics.MetricsRegistry;
+import org.apache.reef.wake.metrics.StageMetrics;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.regex.Pattern;
+
+/**
+ * A sampling profiler of the event handler invocations of all stages, at run time.
+ * <p>
+ * Unlike the {@link WakeProfiler}, which instruments the handlers Tang injects and reports the object graph,
+ * this profiler is fed by the stages themselves: they call {@link #begin} before and {@link #end} after
+ * each handler invocation, which costs a volatile read while the profiler is stopped.
+ * Once started, every n-th invocation on each thread is sampled, together with the invocations nested in it,
+ * e.g. handlers of synchronous stages called from the sampled handler. For each stack of nested handlers,
+ * the profiler records the wall-clock and CPU time, with and without the nested invocations,
+ * and the time the events waited in the queue of the stage.
+ * <p>
+ * The profiles can be exported as folded stacks, the input of flame graph tools,
+ * and the most recent samples as a Chrome trace, which chrome://tracing and Perfetto display as a timeline.
+ */
+public final class HandlerProfiler {
+
+  private static final Logger LOG = Logger.getLogger(HandlerProfiler.class.getName());
+
+  /**
+   * Suffix of the names of the handler subclasses generated by the WakeProfiler.
+   */
+  private static final Pattern GENERATED_SUFFIX = Pattern.compile("\\$\\$.+$");
+
+  /**
+   * Frame names of the handler classes, so that sampling does not rebuild them on every invocation.
+   */
+  private static final ConcurrentMap<Class<?>, String> HANDLER_NAMES = new ConcurrentHashMap<>();
+
+  private static final HandlerProfiler INSTANCE = new HandlerProfiler();
+
+  /**
+   * The number of samples kept for the Chrome trace by default.
+   */
+  public static final int DEFAULT_TRACE_CAPACITY = 10000;
+
+  /**
+   * Returned by begin() for invocations that are not sampled.
+   */
+  private static final Sample NOT_SAMPLED = new Sample(null, null, null, null, 0, 0, -1);
+
+  /** Set up by the first start(), so that stages that are never profiled do not touch the management beans. */
+  private volatile ThreadMXBean threadBean = null;
+  private volatile boolean cpuTimeSupported = false;
+
+  private final ConcurrentMap<String, HandlerProfile> profiles = new ConcurrentHashMap<>();
+
+  private final ThreadLocal<ThreadState> threadState = new ThreadLocal<ThreadState>() {
+    @Override
+    protected ThreadState initialValue() {
+      return new ThreadState();
+    }
+  };
+
+  private volatile boolean running = false;
+  private volatile int samplingInterval = 1;
+  private volatile long startNanos = System.nanoTime();
+
+  /** Ring of the most recent samples; guarded by this. */
+  private TraceEvent[] trace = new TraceEvent[0];
+  private long traceCount = 0;
+
+  private HandlerProfiler() {
+  }
+
+  public static HandlerProfiler instance() {
+    return INSTANCE;
+  }
+
+  /**
+   * Starts sampling, with the default trace capacity. Discards the profiles of the previous run.
+   *
+   * @param interval sample one in that many invocations on each thread; 1 samples all of them
+   */
+  public void start(final int interval) {
+    start(interval, DEFAULT_TRACE_CAPACITY);
+  }
+
+  /**
+   * Starts sampling. Discards the profiles of the previous run.
+   *
+   * @param interval      sample one in that many invocations on each thread; 1 samples all of them
+   * @param traceCapacity the number of most recent samples kept for the Chrome trace; 0 keeps none
+   */
+  public synchronized void start(final int interval, final int traceCapacity) {
+    if (interval <= 0) {
+      throw new IllegalArgumentException("Invalid sampling interval: " + interval);
+    }
+    if (traceCapacity < 0) {
+      throw new IllegalArgumentException("Invalid trace capacity: " + traceCapacity);
+    }
+    if (this.threadBean == null) {
+      this.threadBean = ManagementFactory.getThreadMXBean();
+      try {
+        this.cpuTimeSupported = this.threadBean.isCurrentThreadCpuTimeSupported();
+        if (this.cpuTimeSupported && !this.threadBean.isThreadCpuTimeEnabled()) {
+          this.threadBean.setThreadCpuTimeEnabled(true);
+        }
+      } catch (final UnsupportedOperationException | SecurityException ex) {
+        LOG.log(Level.FINE, "Thread CPU time is not available; profiles report wall-clock time only", ex);
+        this.cpuTimeSupported = false;
+      }
+    }
+    this.profiles.clear();
+    this.trace = new TraceEvent[traceCapacity];
+    this.traceCount = 0;
+    this.samplingInterval = interval;
+    this.startNanos = System.nanoTime();
+    this.running = true;
+    LOG.log(Level.INFO, "Handler profiler started: sampling one in {0} invocations", interval);
+  }
+
+  /**
+   * Stops sampling. The profiles are kept until the next start.
+   */
+  public void stop() {
+    this.running = false;
+    LOG.log(Level.INFO, "Handler profiler stopped");
+  }
+
+  /**
+   * @return true while sampling
+   */
+  public boolean isRunning() {
+    return this.running;
+  }
+
+  /**
+   * @return one in how many invocations on each thread is sampled
+   */
+  public int getSamplingInterval() {
+    return this.samplingInterval;
+  }
+
+  /**
+   * @return true if the profiles include CPU time, false if the JVM does not measure the CPU time of threads
+   */
+  public boolean isCpuTimeSupported() {
+    return this.cpuTimeSupported;
+  }
+
+  /**
+   * Called by a stage right before it invokes its handler; must be followed by {@link #end}, even on exceptions.
+   *
+   * @param stageName the name of the stage; null for handlers invoked by other handlers, e.g. subscribers
+   * @param handler   the handler about to be invoked
+   * @param enqueued  when the stage accepted the event, from {@link StageMetrics#startTimer()};
+   *                  {@link StageMetrics#NOT_TIMED} if unknown
+   * @return the sample to pass to end(); null while the profiler is stopped
+   */
+  public Sample begin(final String stageName, final Object handler, final long enqueued) {
+
+    if (!this.running) {
+      return null;
+    }
+
+    final ThreadState state = this.threadState.get();
+    if (state.current == null) {
+      if (state.unsampledDepth > 0 || --state.countdown > 0) {
+        ++state.unsampledDepth;
+        return NOT_SAMPLED;
+      }
+      state.countdown = this.samplingInterval;
+    }
+
+    final String frames = getFrames(stageName, handler);
+    final String stack = state.current == null ? frames : state.current.stack + ';' + frames;
+    final long now = System.nanoTime();
+    final long queue = enqueued == StageMetrics.NOT_TIMED ? -1 : Math.max(now - enqueued, 0);
+    final Sample sample = new Sample(state.current, stack, stageName, getHandlerName(handler),
+        now, getCpuTime(), queue);
+    state.current = sample;
+    return sample;
+  }
+
+  /**
+   * Called by a stage right after its handler returned or threw.
+   *
+   * @param sample the sample returned by begin()
+   */
+  public void end(final Sample sample) {
+
+    if (sample == null) {
+      return;
+    }
+
+    final ThreadState state = this.threadState.get();
+    if (sample == NOT_SAMPLED) {
+      --state.unsampledDepth;
+      return;
+    }
+
+    final long wall = System.nanoTime() - sample.startNanos;
+    final long cpu = this.cpuTimeSupported ? getCpuTime() - sample.startCpuNanos : 0;
+    if (sample.parent != null) {
+      sample.parent.childWallNanos += wall;
+      sample.parent.childCpuNanos += cpu;
+    }
+    state.current = sample.parent;
+
+    HandlerProfile profile = this.profiles.get(sample.stack);
+    if (profile == null) {
+      final HandlerProfile newProfile = new HandlerProfile(sample.stack);
+      profile = this.profiles.putIfAbsent(sample.stack, newProfile);
+      if (profile == null) {
+        profile = newProfile;
+      }
+    }
+    profile.record(wall, wall - sample.childWallNanos, cpu, cpu - sample.childCpuNanos, sample.queueNanos);
+
+    addTraceEvent(new TraceEvent(sample, state.threadId, state.threadName, wall, cpu));
+  }
+
+  private synchronized void addTraceEvent(final TraceEvent event) {
+    if (this.trace.length > 0) {
+      this.trace[(int) (this.traceCount % this.trace.length)] = event;
+      ++this.traceCount;
+    }
+  }
+
+  private long getCpuTime() {
+    return this.cpuTimeSupported ? this.threadBean.getCurrentThreadCpuTime() : 0;
+  }
+
+  /**
+   * @return the profiles of all stacks sampled since the profiler started
+   */
+  public List<HandlerProfile> getProfiles() {
+    return new ArrayList<>(this.profiles.values());
+  }
+
+  /**
+   * Exports the profiles as folded stacks: one line per stack with its frames separated by semicolons,
+   * a space and the self time of the stack in microseconds. Stacks with no self time are left out.
+   *
+   * @param cpuTime true for CPU time, false for wall-clock time; wall-clock time if CPU time is not supported
+   * @return the folded stacks, e.g. for flamegraph.pl or speedscope
+   */
+  public String toFoldedStacks(final boolean cpuTime) {
+    final boolean cpu = cpuTime && this.cpuTimeSupported;
+    final StringBuilder folded = new StringBuilder();
+    for (final HandlerProfile profile : this.profiles.values()) {
+      final long micros = TimeUnit.NANOSECONDS.toMicros(cpu ? profile.getSelfCpuNanos() : profile.getSelfWallNanos());
+      if (micros > 0) {
+        folded.append(profile.getStack()).append(' ').append(micros).append('\n');
+      }
+    }
+    return folded.toString();
+  }
+
+  /**
+   * Exports the most recent samples in the Chrome trace event format, one complete event per sample.
+   * The arguments of each event hold its CPU time and the time it waited in the queue of its stage.
+   *
+   * @return the trace as JSON
+   */
+  public String toChromeTrace() {
+
+    final List<TraceEvent> events = new ArrayList<>();
+    synchronized (this) {
+      final long first = Math.max(this.traceCount - this.trace.length, 0);
+      for (long i = first; i < this.traceCount; ++i) {
+        events.add(this.trace[(int) (i % this.trace.length)]);
+      }
+    }
+
+    final StringBuilder json = new StringBuilder("{\"displayTimeUnit\":\"ms\",\"traceEvents\":[");
+    final Set<Long> threads = new HashSet<>();
+    boolean first = true;
+    for (final TraceEvent event : events) {
+      if (threads.add(event.threadId)) {
+        first = appendSeparator(json, first);
+        json.append("{\"name\":\"thread_name\",\"ph\":\"M\",\"pid\":1,\"tid\":").append(event.threadId)
+            .append(",\"args\":{\"name\":");
+        MetricsRegistry.appendJsonString(json, event.threadName);
+        json.append("}}");
+      }
+      first = appendSeparator(json, first);
+      json.append("{\"name\":");
+      MetricsRegistry.appendJsonString(json, event.handlerName);
+      json.append(",\"cat\":");
+      MetricsRegistry.appendJsonString(json, event.stageName);
+      json.append(",\"ph\":\"X\",\"pid\":1,\"tid\":").append(event.threadId)
+          .append(",\"ts\":").append(toMicros(event.startNanos - this.startNanos))
+          .append(",\"dur\":").append(toMicros(event.wallNanos))
+          .append(",\"args\":{\"cpuUs\":").append(toMicros(event.cpuNanos));
+      if (event.queueNanos >= 0) {
+        json.append(",\"queueUs\":").append(toMicros(event.queueNanos));
+      }
+      json.append("}}");
+    }
+    json.append("]}");
+    return json.toString();
+  }
+
+  private static boolean appendSeparator(final StringBuilder json, final boolean first) {
+    if (!first) {
+      json.append(",\n");
+    }
+    return false;
+  }
+
+  private static double toMicros(final long nanos) {
+    return nanos / 1000.0;
+  }
+
+  /**
+   * @return the stage and handler frames of an invocation; just the handler if the stage is named after it,
+   * or if the handler is invoked outside of a stage
+   */
+  private static String getFrames(final String stageName, final Object handler) {
+    final String handlerName = getHandlerName(handler);
+    if (stageName == null) {
+      return handlerName;
+    }
+    final String stageFrame = toFrame(stageName);
+    return stageFrame.equals(handlerName) ? handlerName : stageFrame + ';' + handlerName;
+  }
+
+  private static String getHandlerName(final Object handler) {
+    final Class<?> handlerClass = handler.getClass();
+    String name = HANDLER_NAMES.get(handlerClass);
+    if (name == null) {
+      // strip the suffix of the subclasses generated by the WakeProfiler
+      name = toFrame(GENERATED_SUFFIX.matcher(handlerClass.getName()).replaceAll(""));
+      HANDLER_NAMES.putIfAbsent(handlerClass, name);
+    }
+    return name;
+  }
+
+  private static String toFrame(final String name) {
+    return name.replace(';', ':').replace('\n', ' ');
+  }
+
+  /**
+   * A sampled handler invocation in progress.
+   */
+  public static final class Sample {
+
+    private final Sample parent;
+    private final String stack;
+    private final String stageName;
+    private final String handlerName;
+    private final long startNanos;
+    private final long startCpuNanos;
+    private final long queueNanos;
+
+    /** Time of the invocations nested in this one; only touched by the thread of the invocation. */
+    private long childWallNanos = 0;
+    private long childCpuNanos = 0;
+
+    private Sample(final Sample parent, final String stack, final String stageName, final String handlerName,
+                   final long startNanos, final long startCpuNanos, final long queueNanos) {
+      this.parent = parent;
+      this.stack = stack;
+      this.stageName = stageName;
+      this.handlerName = handlerName;
+      this.startNanos = startNanos;
+      this.startCpuNanos = startCpuNanos;
+      this.queueNanos = queueNanos;
+    }
+  }
+
+  /**
+   * The sampling state of a thread.
+   */
+  private static final class ThreadState {
+
+    private final long threadId = Thread.currentThread().getId();
+    private final String threadName = Thread.currentThread().getName();
+
+    /** The innermost sampled invocation in progress, or null. */
+    private Sample current = null;
+
+    /** The depth of the invocations in progress that are not sampled. */
+    private int unsampledDepth = 0;
+
+    /** The number of outermost invocations left until the next sample. */
+    private int countdown = 1;
+  }
+
+  /**
+   * A completed sample, kept for the Chrome trace.
+   */
+  private static final class TraceEvent {
+
+    private final String stageName;
+    private final String handlerName;
+    private final long threadId;
+    private final String threadName;
+    private final long startNanos;
+    private final long wallNanos;
+    private final long cpuNanos;
+    private final long queueNanos;
+
+    private TraceEvent(final Sample sample, final long threadId, final String threadName,
+                       final long wallNanos, final long cpuNanos) {
+      this.stageName = sample.stageName == null ? "" : toFrame(sample.stageName);
+      this.handlerName = sample.handlerName;
+      this.threadId = threadId;
+      this.threadName = threadName;
+      this.startNanos = sample.startNanos;
+      this.wallNanos = wallNanos;
+      this.cpuNanos = cpuNanos;
+      this.queueNanos = sample.queueNanos;
+    }
+  }
+}
@@ -36,6 +36,14 @@ public final class ProfilerState {
   @NamedParameter(doc = "If true, profiling will be enabled", short_name = "profiling", default_value = "false")
   private static final class ProfilingEnabled implements Name<Boolean> { }
 
+  /**
+   * Parameter to sample the event handler invocations of all stages with the HandlerProfiler.
+   * By default sampling is disabled.
+   */
+  @NamedParameter(doc = "Sample one in that many event handler invocations on each thread; 0 disables sampling",
+      short_name = "profiling_sampling", default_value = "0")
+  private static final class SamplingInterval implements Name<Integer> { }
+
   /**
    * Gets the class of the NamedParameter ProfilingEnabled.
    *
@@ -55,4 +63,15 @@ public final class ProfilerState {
   public static boolean isProfilingEnabled(final Injector injector) throws InjectionException {
     return injector.getNamedInstance(getProfilingEnabledClass());
   }
+
+  /**
+   * Gets the sampling interval of the HandlerProfiler.
+   *
+   * @param injector the tang injector that stores value of SamplingInterval.
+   * @return one in how many handler invocations is sampled; 0 if sampling is disabled
+   * @throws InjectionException if name resolution fails
+   */
+  public static int getSamplingInterval(final Injector injector) throws InjectionException {
+    return injector.getNamedInstance(SamplingInterval.class);
+  }
 }
@@ -0,0 +1,54 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.reef.wake.remote;
+
+import java.nio.ByteBuffer;
+
+/**
+ * An encoder that can also write straight into a caller-provided buffer,
+ * so that enclosing encoders can frame a message in one pre-sized output buffer
+ * instead of copying the encoded bytes of each layer.
+ *
+ * @param <T> The type of the objects serialized
+ */
+public interface BufferEncoder<T> extends Encoder<T> {
+
+  /**
+   * Returned by {@link #getEncodedSize(Object)} when the size of an object
+   * is only known after encoding it.
+   */
+  int UNKNOWN_SIZE = -1;
+
+  /**
+   * Returns the exact number of bytes {@link #encode(Object, ByteBuffer)} writes for the given object.
+   *
+   * @param obj an object to be encoded
+   * @return the encoded size in bytes, or {@link #UNKNOWN_SIZE}
+   */
+  int getEncodedSize(T obj);
+
+  /**
+   * Encodes the given object at the position of the buffer, advancing the position by the encoded size.
+   * Only valid for objects whose encoded size is known; the buffer must have at least that many bytes remaining.
+   *
+   * @param obj an object to be encoded
+   * @param buffer the buffer to write to
+   */
+  void encode(T obj, ByteBuffer buffer);
+}
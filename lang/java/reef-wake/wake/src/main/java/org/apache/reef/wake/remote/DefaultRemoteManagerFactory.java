@@ -24,6 +24,8 @@ import org.apache.reef.tang.annotations.Parameter;
 import org.apache.reef.tang.exceptions.InjectionException;
 import org.apache.reef.wake.EventHandler;
 import org.apache.reef.wake.remote.address.LocalAddressProvider;
+import org.apache.reef.wake.remote.impl.RemoteReceiverStagePolicy;
+import org.apache.reef.wake.remote.impl.RemoteSenderQueuePolicy;
 import org.apache.reef.wake.remote.ports.TcpPortProvider;
 import org.apache.reef.wake.remote.transport.TransportFactory;
 
@@ -41,9 +43,12 @@ final class DefaultRemoteManagerFactory implements RemoteManagerFactory {
   private final boolean orderingGuarantee;
   private final int numberOfTries;
   private final int retryTimeout;
+  private final boolean compactTypeTags;
   private final LocalAddressProvider localAddressProvider;
   private final TransportFactory transportFactory;
   private final TcpPortProvider tcpPortProvider;
+  private final RemoteSenderQueuePolicy senderQueuePolicy;
+  private final RemoteReceiverStagePolicy receiverStagePolicy;
 
   @Inject
   private DefaultRemoteManagerFactory(
@@ -52,18 +57,24 @@ final class DefaultRemoteManagerFactory implements RemoteManagerFactory {
       @Parameter(RemoteConfiguration.OrderingGuarantee.class) final boolean orderingGuarantee,
       @Parameter(RemoteConfiguration.NumberOfTries.class) final int numberOfTries,
       @Parameter(RemoteConfiguration.RetryTimeout.class) final int retryTimeout,
+      @Parameter(RemoteConfiguration.CompactTypeTags.class) final boolean compactTypeTags,
       final LocalAddressProvider localAddressProvider,
       final TransportFactory tpFactory,
-      final TcpPortProvider tcpPortProvider) {
+      final TcpPortProvider tcpPortProvider,
+      final RemoteSenderQueuePolicy senderQueuePolicy,
+      final RemoteReceiverStagePolicy receiverStagePolicy) {
 
     this.codec = codec;
     this.errorHandler = errorHandler;
     this.orderingGuarantee = orderingGuarantee;
     this.numberOfTries = numberOfTries;
     this.retryTimeout = retryTimeout;
+    this.compactTypeTags = compactTypeTags;
     this.localAddressProvider = localAddressProvider;
     this.transportFactory = tpFactory;
     this.tcpPortProvider = tcpPortProvider;
+    this.senderQueuePolicy = senderQueuePolicy;
+    this.receiverStagePolicy = receiverStagePolicy;
   }
 
   @Override
@@ -139,9 +150,12 @@ final class DefaultRemoteManagerFactory implements RemoteManagerFactory {
       newInjector.bindVolatileParameter(RemoteConfiguration.OrderingGuarantee.class, newOrderingGuarantee);
       newInjector.bindVolatileParameter(RemoteConfiguration.NumberOfTries.class, newNumberOfTries);
       newInjector.bindVolatileParameter(RemoteConfiguration.RetryTimeout.class, newRetryTimeout);
+      newInjector.bindVolatileParameter(RemoteConfiguration.CompactTypeTags.class, this.compactTypeTags);
       newInjector.bindVolatileInstance(LocalAddressProvider.class, newLocalAddressProvider);
       newInjector.bindVolatileInstance(TransportFactory.class, this.transportFactory);
       newInjector.bindVolatileInstance(TcpPortProvider.class, newTcpPortProvider);
+      newInjector.bindVolatileInstance(RemoteSenderQueuePolicy.class, this.senderQueuePolicy);
+      newInjector.bindVolatileInstance(RemoteReceiverStagePolicy.class, this.receiverStagePolicy);
 
       return newInjector.getInstance(RemoteManager.class);
 
@@ -25,6 +25,7 @@ import org.apache.reef.wake.EventHandler;
 import org.apache.reef.wake.WakeParameters;
 import org.apache.reef.wake.remote.impl.DefaultTransportEStage;
 import org.apache.reef.wake.remote.impl.ObjectSerializableCodec;
+import org.apache.reef.wake.remote.impl.RemoteEvent;
 import org.apache.reef.wake.remote.impl.TransportEvent;
 
 /**
@@ -117,6 +118,219 @@ public final class RemoteConfiguration {
     // Intentionally empty       
   }
 
+  /**
+   * Whether a RemoteManager whose message codec is a MultiCodec sends compact type tags instead of class names.
+   * Only turn it on when all peers decode type tags; they decode class names either way.
+   */
+  @NamedParameter(doc = "Whether a MultiCodec message codec sends compact type tags instead of class names.",
+      default_value = "false")
+  public static final class CompactTypeTags implements Name<Boolean> {
+    // Intentionally empty
+  }
+
+  /**
+   * Whether the messaging transport passes received messages on in pooled buffers instead of byte arrays.
+   */
+  @NamedParameter(doc = "Whether the messaging transport passes received messages on in pooled buffers " +
+      "instead of byte arrays.", default_value = "false")
+  public static final class ZeroCopyTransport implements Name<Boolean> {
+    // Intentionally empty
+  }
+
+  /**
+   * The capacity of the queue of outgoing events to each remote destination.
+   */
+  @NamedParameter(doc = "The capacity of the queue of outgoing events to each remote destination; " +
+      "rounded up to a power of two.", default_value = "65536")
+  public static final class SenderQueueCapacity implements Name<Integer> {
+    // Intentionally empty
+  }
+
+  /**
+   * What a sender does when the queue to a remote destination is full.
+   * BLOCK waits for room, DROP hands the event to the SenderDropHandler and FAIL_FAST throws.
+   * Dropped and failed events leave a gap in the sequence numbers that the ordered receiver stage waits on,
+   * so DROP and FAIL_FAST are meant for remote managers without the ordering guarantee.
+   */
+  @NamedParameter(doc = "What a sender does when the queue to a remote destination is full: " +
+      "BLOCK, DROP or FAIL_FAST.", default_value = "BLOCK")
+  public static final class SenderBackpressure implements Name<String> {
+    // Intentionally empty
+  }
+
+  /**
+   * The event handler for events dropped because the queue to their destination is full
+   * or because the connection to their destination failed.
+   */
+  @NamedParameter(doc = "The event handler for events dropped because the queue to their destination is full " +
+      "or because the connection to their destination failed.",
+      default_class = DefaultSenderDropHandler.class)
+  public static final class SenderDropHandler implements Name<EventHandler<RemoteEvent<?>>> {
+    // Intentionally empty
+  }
+
+  /**
+   * The stage that dispatches received events to their handlers.
+   * THREAD_POOL hands each event to a pool of threads; RING_BUFFER passes the events to a single thread
+   * through a pre-allocated ring buffer, which allocates nothing per event.
+   * The ordered receiver stage of remote managers with the ordering guarantee is not affected.
+   */
+  @NamedParameter(doc = "The stage that dispatches received events to their handlers: THREAD_POOL or RING_BUFFER.",
+      default_value = "THREAD_POOL")
+  public static final class ReceiverStage implements Name<String> {
+    // Intentionally empty
+  }
+
+  /**
+   * The capacity of the ring buffer of the RING_BUFFER receiver stage.
+   */
+  @NamedParameter(doc = "The capacity of the ring buffer of the RING_BUFFER receiver stage; " +
+      "rounded up to a power of two.", default_value = "65536")
+  public static final class ReceiverRingBufferSize implements Name<Integer> {
+    // Intentionally empty
+  }
+
+  /**
+   * How the thread of the RING_BUFFER receiver stage waits for events.
+   */
+  @NamedParameter(doc = "How the thread of the RING_BUFFER receiver stage waits for events: " +
+      "BUSY_SPIN, YIELD or PARK.", default_value = "PARK")
+  public static final class ReceiverWaitStrategy implements Name<String> {
+    // Intentionally empty
+  }
+
+  /**
+   * The maximum number of received events the THREAD_POOL receiver stage holds.
+   * When the stage is saturated, the transport stops reading from its connections until it drains,
+   * so that senders are throttled by TCP flow control instead of growing the queue of the receiver.
+   * The RING_BUFFER receiver stage is bounded by its ring buffer and signals backpressure in the same way.
+   */
+  @NamedParameter(doc = "The maximum number of received events the THREAD_POOL receiver stage holds " +
+      "before the transport pauses reads; 0 for unbounded.", default_value = "0")
+  public static final class ReceiverStageCapacity implements Name<Integer> {
+    // Intentionally empty
+  }
+
+  /**
+   * The number of worker threads of the ordered receiver stage of remote managers with the ordering guarantee.
+   * The events of each source are always handled by the same worker, which keeps them in order.
+   * 0 keeps the former behavior of two unbounded cached thread pools.
+   */
+  @NamedParameter(doc = "The number of worker threads of the ordered receiver stage; " +
+      "0 uses unbounded cached thread pools.", default_value = "0")
+  public static final class OrderedReceiverThreads implements Name<Integer> {
+    // Intentionally empty
+  }
+
+  /**
+   * The number of connections to each peer for the BULK link lane, on top of the CONTROL connection.
+   */
+  @NamedParameter(doc = "The number of connections to each peer reserved for bulk data; " +
+      "0 sends bulk data over the control connection.", default_value = "0")
+  public static final class BulkLinksPerPeer implements Name<Integer> {
+    // Intentionally empty
+  }
+
+  /**
+   * Whether links coalesce writes and flush them in batches.
+   */
+  @NamedParameter(doc = "Whether links coalesce writes and flush them in batches.", default_value = "false")
+  public static final class WriteBatching implements Name<Boolean> {
+    // Intentionally empty
+  }
+
+  /**
+   * The number of pending bytes on a channel that triggers a flush when write batching is on.
+   */
+  @NamedParameter(doc = "The number of pending bytes on a channel that triggers a flush when write batching is on.",
+      default_value = "65536")
+  public static final class WriteBatchMaxBytes implements Name<Integer> {
+    // Intentionally empty
+  }
+
+  /**
+   * The number of pending messages on a channel that triggers a flush when write batching is on.
+   */
+  @NamedParameter(doc = "The number of pending messages on a channel that triggers a flush " +
+      "when write batching is on.", default_value = "64")
+  public static final class WriteBatchMaxMessages implements Name<Integer> {
+    // Intentionally empty
+  }
+
+  /**
+   * The time in microseconds a batched write can wait for a flush.
+   * Zero flushes as soon as the event loop of the channel has run its other pending tasks.
+   */
+  @NamedParameter(doc = "The time in microseconds a batched write can wait for a flush. " +
+      "Zero flushes as soon as the event loop of the channel has run its other pending tasks.", default_value = "200")
+  public static final class WriteBatchFlushDelay implements Name<Integer> {
+    // Intentionally empty
+  }
+
+  /**
+   * The codec that compresses the messages of the messaging transport: NONE, LZ4 or DEFLATE.
+   * Both ends of a link must enable compression; they can use different codecs.
+   */
+  @NamedParameter(doc = "The codec that compresses the messages of the messaging transport: NONE, LZ4 or DEFLATE. " +
+      "Both ends of a link must enable compression; they can use different codecs.", default_value = "NONE")
+  public static final class Compression implements Name<String> {
+    // Intentionally empty
+  }
+
+  /**
+   * The size in bytes below which messages are sent uncompressed when compression is on.
+   */
+  @NamedParameter(doc = "The size in bytes below which messages are sent uncompressed when compression is on.",
+      default_value = "1024")
+  public static final class CompressionThreshold implements Name<Integer> {
+    // Intentionally empty
+  }
+
+  /**
+   * Whether the messaging transport uses the native epoll transport of Netty.
+   * The transport falls back to NIO if the native library cannot be loaded.
+   */
+  @NamedParameter(doc = "Whether the messaging transport uses the native epoll transport of Netty. " +
+      "The transport falls back to NIO if the native library cannot be loaded.", default_value = "false")
+  public static final class NativeTransport implements Name<Boolean> {
+    // Intentionally empty
+  }
+
+  /**
+   * Whether sockets disable Nagle's algorithm.
+   */
+  @NamedParameter(doc = "Whether sockets disable Nagle's algorithm.", default_value = "true")
+  public static final class TcpNoDelay implements Name<Boolean> {
+    // Intentionally empty
+  }
+
+  /**
+   * Whether the server socket sets SO_REUSEPORT. Only the native transport supports it.
+   */
+  @NamedParameter(doc = "Whether the server socket sets SO_REUSEPORT. Only the native transport supports it.",
+      default_value = "false")
+  public static final class ReusePort implements Name<Boolean> {
+    // Intentionally empty
+  }
+
+  /**
+   * The socket send buffer size in bytes; 0 keeps the operating system default.
+   */
+  @NamedParameter(doc = "The socket send buffer size in bytes; 0 keeps the operating system default.",
+      default_value = "0")
+  public static final class SendBufferSize implements Name<Integer> {
+    // Intentionally empty
+  }
+
+  /**
+   * The socket receive buffer size in bytes; 0 keeps the operating system default.
+   */
+  @NamedParameter(doc = "The socket receive buffer size in bytes; 0 keeps the operating system default.",
+      default_value = "0")
+  public static final class ReceiveBufferSize implements Name<Integer> {
+    // Intentionally empty
+  }
+
   /**
    * Client stage for messaging transport.
    */
@@ -0,0 +1,90 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.reef.wake.remote.impl;
+
+import org.apache.reef.wake.remote.BufferDecoder;
+import org.apache.reef.wake.remote.BufferEncoder;
+import org.apache.reef.wake.remote.Codec;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Codec that performs identity transformation on byte buffers.
+ * Decoding from a buffer returns a view of the same memory, so the result
+ * is only valid as long as the buffer it was decoded from.
+ */
+public class ByteBufferCodec implements Codec<ByteBuffer>, BufferEncoder<ByteBuffer>, BufferDecoder<ByteBuffer> {
+
+  /**
+   * Returns the remaining bytes of the buffer as a byte array.
+   *
+   * @param obj the buffer
+   * @return a copy of the remaining bytes
+   */
+  @Override
+  public byte[] encode(final ByteBuffer obj) {
+    final byte[] buf = new byte[obj.remaining()];
+    obj.duplicate().get(buf);
+    return buf;
+  }
+
+  /**
+   * Returns the number of remaining bytes of the buffer.
+   *
+   * @param obj the buffer
+   * @return the number of bytes
+   */
+  @Override
+  public int getEncodedSize(final ByteBuffer obj) {
+    return obj.remaining();
+  }
+
+  /**
+   * Copies the remaining bytes of the buffer into the output buffer, without moving the position of the first one.
+   *
+   * @param obj the buffer
+   * @param buffer the buffer to write to
+   */
+  @Override
+  public void encode(final ByteBuffer obj, final ByteBuffer buffer) {
+    buffer.put(obj.duplicate());
+  }
+
+  /**
+   * Wraps the byte array into a buffer.
+   *
+   * @param buf bytes
+   * @return a buffer backed by the same bytes
+   */
+  @Override
+  public ByteBuffer decode(final byte[] buf) {
+    return ByteBuffer.wrap(buf);
+  }
+
+  /**
+   * Returns the buffer argument.
+   *
+   * @param buffer the buffer
+   * @return the same buffer
+   */
+  @Override
+  public ByteBuffer decode(final ByteBuffer buffer) {
+    return buffer;
+  }
+}
@@ -18,12 +18,16 @@
  */
 package org.apache.reef.wake.remote.impl;
 
+import org.apache.reef.wake.remote.BufferDecoder;
+import org.apache.reef.wake.remote.BufferEncoder;
 import org.apache.reef.wake.remote.Codec;
 
+import java.nio.ByteBuffer;
+
 /**
  * Codec that performs identity transformation on bytes.
  */
-public class ByteCodec implements Codec<byte[]> {
+public class ByteCodec implements Codec<byte[]>, BufferEncoder<byte[]>, BufferDecoder<byte[]> {
 
   /**
    * Returns the byte array argument.
@@ -36,6 +40,28 @@ public class ByteCodec implements Codec<byte[]> {
     return obj;
   }
 
+  /**
+   * Returns the length of the byte array.
+   *
+   * @param obj bytes
+   * @return the number of bytes
+   */
+  @Override
+  public int getEncodedSize(final byte[] obj) {
+    return obj.length;
+  }
+
+  /**
+   * Copies the byte array into the buffer.
+   *
+   * @param obj bytes
+   * @param buffer the buffer to write to
+   */
+  @Override
+  public void encode(final byte[] obj, final ByteBuffer buffer) {
+    buffer.put(obj);
+  }
+
   /**
    * Returns the byte array argument.
    *
@@ -47,4 +73,17 @@ public class ByteCodec implements Codec<byte[]> {
     return buf;
   }
 
+  /**
+   * Returns the remaining bytes of the buffer as a byte array.
+   *
+   * @param buffer the buffer
+   * @return a copy of the remaining bytes
+   */
+  @Override
+  public byte[] decode(final ByteBuffer buffer) {
+    final byte[] buf = new byte[buffer.remaining()];
+    buffer.duplicate().get(buf);
+    return buf;
+  }
+
 }
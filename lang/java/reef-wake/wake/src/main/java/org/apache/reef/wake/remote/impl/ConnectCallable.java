@@ -0,0 +1,47 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.reef.wake.remote.impl;
+
+import org.apache.reef.wake.remote.transport.Link;
+import org.apache.reef.wake.remote.transport.Transport;
+import org.apache.reef.wake.remote.transport.netty.LoggingLinkListener;
+
+import java.net.SocketAddress;
+import java.util.concurrent.Callable;
+
+/**
+ * Opens the link of a remote sender queue to its remote address.
+ */
+class ConnectCallable implements Callable<Link<byte[]>> {
+
+  private final Transport transport;
+  private final SocketAddress remoteAddress;
+
+  ConnectCallable(final Transport transport, final SocketAddress localAddress, final SocketAddress remoteAddress) {
+    this.transport = transport;
+    this.remoteAddress = remoteAddress;
+  }
+
+  @Override
+  public Link<byte[]> call() throws Exception {
+    return transport.open(remoteAddress,
+        new ByteCodec(),
+        new LoggingLinkListener<byte[]>());
+  }
+}
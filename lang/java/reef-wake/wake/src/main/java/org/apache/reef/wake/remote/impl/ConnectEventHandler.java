@@ -0,0 +1,49 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.reef.wake.remote.impl;
+
+import org.apache.reef.wake.EventHandler;
+import org.apache.reef.wake.remote.transport.Link;
+
+import java.util.concurrent.ExecutionException;
+
+/**
+ * Hands the link opened by a {@link ConnectCallable} to its remote sender queue,
+ * or fails the queue if the link could not be opened.
+ */
+class ConnectEventHandler implements EventHandler<ConnectFutureTask<Link<byte[]>>> {
+
+  private final RemoteSenderQueue queue;
+
+  ConnectEventHandler(final RemoteSenderQueue queue) {
+    this.queue = queue;
+  }
+
+  @Override
+  public void onNext(final ConnectFutureTask<Link<byte[]>> value) {
+    final Link<byte[]> link;
+    try {
+      link = value.get();
+    } catch (final InterruptedException | ExecutionException ex) {
+      queue.connectFailed(ex instanceof ExecutionException ? ex.getCause() : ex);
+      return;
+    }
+    queue.setLink(link);
+  }
+}
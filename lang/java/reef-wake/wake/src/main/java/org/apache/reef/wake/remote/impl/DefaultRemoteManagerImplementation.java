@@ -31,6 +31,8 @@ import org.apache.reef.wake.remote.transport.netty.NettyMessagingTransport;
 
 import javax.inject.Inject;
 import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.util.Map;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
@@ -79,16 +81,24 @@ public final class DefaultRemoteManagerImplementation implements RemoteManager {
         @Parameter(RemoteConfiguration.OrderingGuarantee.class) final boolean orderingGuarantee,
         @Parameter(RemoteConfiguration.NumberOfTries.class) final int numberOfTries,
         @Parameter(RemoteConfiguration.RetryTimeout.class) final int retryTimeout,
+        @Parameter(RemoteConfiguration.CompactTypeTags.class) final boolean compactTypeTags,
         final LocalAddressProvider localAddressProvider,
         final TransportFactory tpFactory,
-        final TcpPortProvider tcpPortProvider) {
+        final TcpPortProvider tcpPortProvider,
+        final RemoteSenderQueuePolicy senderQueuePolicy,
+        final RemoteReceiverStagePolicy receiverStagePolicy) {
 
     this.name = name;
-    this.handlerContainer = new HandlerContainer<>(name, codec);
+    final Codec<T> wireCodec = compactTypeTags && codec instanceof MultiCodec
+        ? ((MultiCodec<T>) codec).withCompactTypeTags(true)
+        : codec;
+    this.handlerContainer = new HandlerContainer<>(name, wireCodec);
 
     this.reRecvStage = orderingGuarantee ?
-        new OrderedRemoteReceiverStage(this.handlerContainer, errorHandler) :
-        new RemoteReceiverStage(this.handlerContainer, errorHandler, 10);
+        new OrderedRemoteReceiverStage(this.handlerContainer, errorHandler,
+            receiverStagePolicy.getOrderedReceiverThreads()) :
+        new RemoteReceiverStage(this.handlerContainer, this.handlerContainer.getBufferHandler(), errorHandler, 10,
+            receiverStagePolicy);
 
     this.transport = tpFactory.newInstance(hostAddress, listeningPort,
         this.reRecvStage, this.reRecvStage, numberOfTries, retryTimeout, tcpPortProvider);
@@ -97,7 +107,7 @@ public final class DefaultRemoteManagerImplementation implements RemoteManager {
 
     this.myIdentifier = new SocketRemoteIdentifier((InetSocketAddress)this.transport.getLocalAddress());
 
-    this.reSendStage = new RemoteSenderStage(codec, this.transport, 10);
+    this.reSendStage = new RemoteSenderStage(wireCodec, this.transport, 10, senderQueuePolicy);
 
     StageManager.instance().register(this);
 
@@ -155,6 +165,13 @@ public final class DefaultRemoteManagerImplementation implements RemoteManager {
     return this.handlerContainer.registerHandler(messageType, theHandler);
   }
 
+  /**
+   * Returns the number of events waiting to be sent to each remote destination.
+   */
+  public Map<SocketAddress, Integer> getSenderQueueDepths() {
+    return this.reSendStage.getQueueDepths();
+  }
+
   /**
    * Returns my identifier.
    */
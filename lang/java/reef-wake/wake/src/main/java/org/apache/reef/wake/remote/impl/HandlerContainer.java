@@ -19,6 +19,7 @@
 package org.apache.reef.wake.remote.impl;
 
 import org.apache.reef.wake.EventHandler;
+import org.apache.reef.wake.remote.BufferDecoder;
 import org.apache.reef.wake.remote.Codec;
 import org.apache.reef.wake.remote.RemoteIdentifier;
 import org.apache.reef.wake.remote.RemoteMessage;
@@ -26,6 +27,8 @@ import org.apache.reef.wake.remote.exception.RemoteRuntimeException;
 import org.apache.reef.wake.remote.transport.Transport;
 
 import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.nio.ByteBuffer;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 import java.util.logging.Level;
@@ -176,24 +179,67 @@ final class HandlerContainer<T> implements EventHandler<RemoteEvent<byte[]>> {
         }
       };
 
+  /** Dispatch messages whose payload is still held in a transport buffer. */
+  private final EventHandler<RemoteEvent<ByteBuffer>> bufferHandler = new EventHandler<RemoteEvent<ByteBuffer>>() {
+    @Override
+    public void onNext(final RemoteEvent<ByteBuffer> value) {
+      onNextBuffer(value);
+    }
+  };
+
+  /**
+   * Returns a handler that decodes messages directly from the received transport buffer.
+   * The buffer is only valid while the handler runs.
+   * @return An event handler for remote messages with a buffer payload.
+   */
+  EventHandler<RemoteEvent<ByteBuffer>> getBufferHandler() {
+    return this.bufferHandler;
+  }
+
   /**
    * Dispatch message received from the remote to proper event handler.
    * @param value Remote message, encoded as byte[].
    */
   @Override
-  @SuppressWarnings("checkstyle:diamondoperatorforvariabledefinition")
   public synchronized void onNext(final RemoteEvent<byte[]> value) {
-
     LOG.log(Level.FINER, "RemoteManager: {0} value: {1}", new Object[] {this.name, value});
+    dispatch(this.codec.decode(value.getEvent()), value.remoteAddress());
+  }
+
+  /**
+   * Dispatch message received from the remote to proper event handler.
+   * The codec decodes straight from the buffer if it is a {@link BufferDecoder}.
+   * @param value Remote message, held in a transport buffer.
+   */
+  private synchronized void onNextBuffer(final RemoteEvent<ByteBuffer> value) {
+    LOG.log(Level.FINER, "RemoteManager: {0} buffer value: {1}", new Object[] {this.name, value});
+    final ByteBuffer payload = value.getEvent();
+    final T decodedEvent;
+    if (this.codec instanceof BufferDecoder) {
+      decodedEvent = ((BufferDecoder<T>) this.codec).decode(payload);
+    } else {
+      final byte[] data = new byte[payload.remaining()];
+      payload.get(data);
+      decodedEvent = this.codec.decode(data);
+    }
+    dispatch(decodedEvent, value.remoteAddress());
+  }
+
+  /**
+   * Dispatch a decoded message to the handler registered for its source and type.
+   * @param decodedEvent Decoded message.
+   * @param remoteAddress Address of the sender.
+   */
+  @SuppressWarnings("checkstyle:diamondoperatorforvariabledefinition")
+  private void dispatch(final T decodedEvent, final SocketAddress remoteAddress) {
 
-    final T decodedEvent = this.codec.decode(value.getEvent());
     final Class<? extends T> clazz = (Class<? extends T>) decodedEvent.getClass();
 
     LOG.log(Level.FINEST, "RemoteManager: {0} decoded event {1} :: {2}",
         new Object[] {this.name, clazz.getCanonicalName(), decodedEvent});
 
     // check remote identifier and message type
-    final SocketRemoteIdentifier id = new SocketRemoteIdentifier((InetSocketAddress)value.remoteAddress());
+    final SocketRemoteIdentifier id = new SocketRemoteIdentifier((InetSocketAddress)remoteAddress);
 
     final Tuple2<RemoteIdentifier, Class<? extends T>> tuple =
         new Tuple2<RemoteIdentifier, Class<? extends T>>(id, clazz);
@@ -18,10 +18,13 @@
  */
 package org.apache.reef.wake.remote.impl;
 
+import org.apache.reef.wake.remote.BufferDecoder;
+import org.apache.reef.wake.remote.BufferEncoder;
 import org.apache.reef.wake.remote.Codec;
 import org.apache.reef.wake.remote.Decoder;
 import org.apache.reef.wake.remote.Encoder;
 
+import java.nio.ByteBuffer;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Map.Entry;
@@ -32,10 +35,12 @@ import java.util.Map.Entry;
  *
  * @param <T> type
  */
-public class MultiCodec<T> implements Codec<T> {
+public class MultiCodec<T> implements Codec<T>, BufferEncoder<T>, BufferDecoder<T> {
 
-  private final Encoder<T> encoder;
-  private final Decoder<T> decoder;
+  private final Map<Class<? extends T>, Codec<? extends T>> clazzToCodecMap;
+  private final boolean compactTypeTags;
+  private final MultiEncoder<T> encoder;
+  private final MultiDecoder<T> decoder;
 
   /**
    * Constructs a codec that encodes/decodes an object to/from bytes based on the class name.
@@ -43,16 +48,41 @@ public class MultiCodec<T> implements Codec<T> {
    * @param clazzToCodecMap a map of codec for class
    */
   public MultiCodec(final Map<Class<? extends T>, Codec<? extends T>> clazzToCodecMap) {
+    this(clazzToCodecMap, false);
+  }
+
+  /**
+   * Constructs a codec that encodes/decodes an object to/from bytes based on the class name or its type tag.
+   * Decoding accepts both forms regardless of the setting; see {@link MultiEncoder} for the type tags.
+   *
+   * @param clazzToCodecMap a map of codec for class
+   * @param compactTypeTags whether to send compact type tags instead of class names
+   */
+  public MultiCodec(final Map<Class<? extends T>, Codec<? extends T>> clazzToCodecMap,
+                    final boolean compactTypeTags) {
+    this.clazzToCodecMap = clazzToCodecMap;
+    this.compactTypeTags = compactTypeTags;
     final Map<Class<? extends T>, Encoder<? extends T>> clazzToEncoderMap = new HashMap<>();
     final Map<Class<? extends T>, Decoder<? extends T>> clazzToDecoderMap = new HashMap<>();
     for (final Entry<Class<? extends T>, Codec<? extends T>> e : clazzToCodecMap.entrySet()) {
       clazzToEncoderMap.put(e.getKey(), e.getValue());
       clazzToDecoderMap.put(e.getKey(), e.getValue());
     }
-    encoder = new MultiEncoder<>(clazzToEncoderMap);
+    encoder = new MultiEncoder<>(clazzToEncoderMap, compactTypeTags);
     decoder = new MultiDecoder<>(clazzToDecoderMap);
   }
 
+  /**
+   * Returns a codec of the same classes that sends type tags or class names as requested.
+   * RemoteManager uses it to apply {@code RemoteConfiguration.CompactTypeTags} to its message codec.
+   *
+   * @param newCompactTypeTags whether to send compact type tags instead of class names
+   * @return this codec if it already does so, or a new codec
+   */
+  public MultiCodec<T> withCompactTypeTags(final boolean newCompactTypeTags) {
+    return newCompactTypeTags == this.compactTypeTags ? this : new MultiCodec<>(clazzToCodecMap, newCompactTypeTags);
+  }
+
   /**
    * Encodes an object to a byte array.
    *
@@ -63,6 +93,28 @@ public class MultiCodec<T> implements Codec<T> {
     return encoder.encode(obj);
   }
 
+  /**
+   * Returns the encoded size of an object, if the codec of its class can tell it in advance.
+   *
+   * @param obj object to be encoded
+   * @return the size in bytes, or {@link BufferEncoder#UNKNOWN_SIZE}
+   */
+  @Override
+  public int getEncodedSize(final T obj) {
+    return encoder.getEncodedSize(obj);
+  }
+
+  /**
+   * Encodes an object at the position of the buffer.
+   *
+   * @param obj object to be encoded
+   * @param buffer the buffer to write to
+   */
+  @Override
+  public void encode(final T obj, final ByteBuffer buffer) {
+    encoder.encode(obj, buffer);
+  }
+
   /**
    * Decodes byte array.
    *
@@ -73,4 +125,14 @@ public class MultiCodec<T> implements Codec<T> {
     return decoder.decode(data);
   }
 
+  /**
+   * Decodes the remaining bytes of the buffer.
+   *
+   * @param buffer class name and byte payload
+   */
+  @Override
+  public T decode(final ByteBuffer buffer) {
+    return decoder.decode(buffer);
+  }
+
 }
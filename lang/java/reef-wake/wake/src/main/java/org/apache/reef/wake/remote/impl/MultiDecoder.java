@@ -18,21 +18,37 @@
  */
 package org.apache.reef.wake.remote.impl;
 
-import com.google.protobuf.InvalidProtocolBufferException;
+import org.apache.reef.wake.remote.BufferDecoder;
 import org.apache.reef.wake.remote.Decoder;
 import org.apache.reef.wake.remote.exception.RemoteRuntimeException;
 import org.apache.reef.wake.remote.proto.WakeRemoteProtos.WakeTuplePBuf;
 
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
 import java.util.Map;
+import java.util.Set;
 
 /**
  * Decoder using the WakeTuple protocol buffer.
  * (class name and bytes)
+ * The tuple is read in place; the payload reaches the decoder of the class as a slice
+ * if that decoder is a {@link BufferDecoder}, and with a single copy otherwise.
+ * Tuples may identify the class by name or by the compact type tag of {@link MultiEncoder};
+ * a tag is only accepted if its checksum matches the name of the class registered under it.
  *
  * @param <T> type
  */
-public class MultiDecoder<T> implements Decoder<T> {
-  private final Map<Class<? extends T>, Decoder<? extends T>> clazzToDecoderMap;
+public class MultiDecoder<T> implements BufferDecoder<T> {
+
+  private static final int CLASS_NAME_FIELD = WakeTuplePBuf.CLASSNAME_FIELD_NUMBER;
+  private static final int DATA_FIELD = WakeTuplePBuf.DATA_FIELD_NUMBER;
+  private static final int CLASS_ID_FIELD = WakeTuplePBuf.CLASSID_FIELD_NUMBER;
+  private static final int CLASS_CHECKSUM_FIELD = WakeTuplePBuf.CLASSCHECKSUM_FIELD_NUMBER;
+
+  private final Map<String, Decoder<? extends T>> nameToDecoderMap = new HashMap<>();
+  private final Map<Integer, TaggedClass<T>> typeTagToClassMap = new HashMap<>();
 
   /**
    * Constructs a decoder that decodes bytes based on the class name.
@@ -40,7 +56,16 @@ public class MultiDecoder<T> implements Decoder<T> {
    * @param clazzToDecoderMap a map of decoder for class
    */
   public MultiDecoder(final Map<Class<? extends T>, Decoder<? extends T>> clazzToDecoderMap) {
-    this.clazzToDecoderMap = clazzToDecoderMap;
+    for (final Map.Entry<Class<? extends T>, Decoder<? extends T>> e : clazzToDecoderMap.entrySet()) {
+      this.nameToDecoderMap.put(e.getKey().getName(), e.getValue());
+    }
+    final Set<Integer> collisions = MultiEncoder.getTypeTagCollisions(clazzToDecoderMap.keySet());
+    for (final Map.Entry<Class<? extends T>, Decoder<? extends T>> e : clazzToDecoderMap.entrySet()) {
+      final int typeTag = MultiEncoder.getTypeTag(e.getKey().getName());
+      if (!collisions.contains(typeTag)) {
+        this.typeTagToClassMap.put(typeTag, new TaggedClass<T>(e.getKey().getName(), e.getValue()));
+      }
+    }
   }
 
   /**
@@ -50,23 +75,83 @@ public class MultiDecoder<T> implements Decoder<T> {
    */
   @Override
   public T decode(final byte[] data) {
-    final WakeTuplePBuf tuple;
+    return decode(ByteBuffer.wrap(data));
+  }
+
+  /**
+   * Decodes the remaining bytes of the buffer.
+   *
+   * @param buffer class name and byte payload
+   */
+  @Override
+  public T decode(final ByteBuffer buffer) {
+    final ByteBuffer in = buffer.slice();
+    String className = null;
+    int typeTag = 0;
+    boolean hasTypeTag = false;
+    int checksum = 0;
+    boolean hasChecksum = false;
+    ByteBuffer payload = null;
+
     try {
-      tuple = WakeTuplePBuf.parseFrom(data);
-    } catch (final InvalidProtocolBufferException e) {
-      e.printStackTrace();
-      throw new RemoteRuntimeException(e);
+      while (in.hasRemaining()) {
+        final int tag = (int) WireFormat.readVarint(in);
+        final int field = tag >>> 3;
+        final int wireType = tag & 0x7;
+
+        if (field == CLASS_NAME_FIELD && wireType == WireFormat.WIRETYPE_LENGTH_DELIMITED) {
+          className = StandardCharsets.UTF_8.decode(WireFormat.readLengthDelimited(in)).toString();
+        } else if (field == DATA_FIELD && wireType == WireFormat.WIRETYPE_LENGTH_DELIMITED) {
+          payload = WireFormat.readLengthDelimited(in);
+        } else if (field == CLASS_ID_FIELD && wireType == WireFormat.WIRETYPE_VARINT) {
+          typeTag = (int) WireFormat.readVarint(in);
+          hasTypeTag = true;
+        } else if (field == CLASS_CHECKSUM_FIELD && wireType == WireFormat.WIRETYPE_FIXED32) {
+          checksum = WireFormat.readFixed32(in);
+          hasChecksum = true;
+        } else {
+          WireFormat.skipField(in, wireType);
+        }
+      }
+    } catch (final BufferUnderflowException | IllegalArgumentException e) {
+      throw new RemoteRuntimeException("Truncated WakeTuplePBuf", e);
     }
 
-    final String className = tuple.getClassName();
-    final byte[] message = tuple.getData().toByteArray();
-    final Class<?> clazz;
-    try {
-      clazz = Class.forName(className);
-    } catch (final ClassNotFoundException e) {
-      e.printStackTrace();
-      throw new RemoteRuntimeException(e);
+    if (className == null || payload == null || hasTypeTag != hasChecksum) {
+      throw new RemoteRuntimeException("WakeTuplePBuf is missing a required field");
+    }
+    if (!hasTypeTag) {
+      final Decoder<T> decoder = (Decoder<T>) this.nameToDecoderMap.get(className);
+      if (decoder == null) {
+        throw new RemoteRuntimeException("Decoder for " + className + " not known.");
+      }
+      return WireFormat.decodePayload(decoder, payload);
+    }
+
+    final TaggedClass<T> taggedClass = this.typeTagToClassMap.get(typeTag);
+    if (taggedClass == null) {
+      throw new RemoteRuntimeException("Decoder for type tag " + typeTag + " not known.");
+    }
+    if (taggedClass.checksum != checksum) {
+      throw new RemoteRuntimeException("Type tag " + typeTag + " was sent for a class other than " + taggedClass.name
+          + ", which is registered under it; send class names to this peer.");
+    }
+    return WireFormat.decodePayload((Decoder<T>) taggedClass.decoder, payload);
+  }
+
+  /**
+   * A class registered under its type tag, with the checksum of its name.
+   */
+  private static final class TaggedClass<T> {
+
+    private final String name;
+    private final int checksum;
+    private final Decoder<? extends T> decoder;
+
+    TaggedClass(final String name, final Decoder<? extends T> decoder) {
+      this.name = name;
+      this.checksum = MultiEncoder.getClassChecksum(name);
+      this.decoder = decoder;
     }
-    return clazzToDecoderMap.get(clazz).decode(message);
   }
 }
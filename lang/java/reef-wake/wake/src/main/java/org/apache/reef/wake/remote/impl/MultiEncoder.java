@@ -18,30 +18,137 @@
  */
 package org.apache.reef.wake.remote.impl;
 
-import com.google.protobuf.ByteString;
+import org.apache.reef.wake.remote.BufferEncoder;
 import org.apache.reef.wake.remote.Encoder;
 import org.apache.reef.wake.remote.exception.RemoteRuntimeException;
 import org.apache.reef.wake.remote.proto.WakeRemoteProtos.WakeTuplePBuf;
 
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Map;
+import java.util.Set;
+import java.util.zip.CRC32;
 
 /**
  * Encoder using the WakeTuple protocol buffer.
  * (class name and bytes)
+ * The tuple is framed in a single pre-sized buffer, and the UTF-8 class names are computed once up front.
+ * <p>
+ * With compact type tags, the tuple carries a varint type tag derived from the class name
+ * and the CRC32 of the name instead of the name itself; the required class name field is left empty.
+ * Both sides compute the same tag from the same class name, so no handshake is needed:
+ * {@link MultiDecoder} accepts tags and names alike, and checks the checksum against the class
+ * it registered under the tag, so that a different class that happens to share the tag is rejected
+ * rather than decoded as the wrong type.
+ * Only enable them when the receiving side also runs a decoder that understands tags.
  *
  * @param <T> type
  */
-public class MultiEncoder<T> implements Encoder<T> {
+public class MultiEncoder<T> implements BufferEncoder<T> {
+
+  private static final int CLASS_NAME_FIELD = WakeTuplePBuf.CLASSNAME_FIELD_NUMBER;
+  private static final int DATA_FIELD = WakeTuplePBuf.DATA_FIELD_NUMBER;
+  private static final int CLASS_ID_FIELD = WakeTuplePBuf.CLASSID_FIELD_NUMBER;
+  private static final int CLASS_CHECKSUM_FIELD = WakeTuplePBuf.CLASSCHECKSUM_FIELD_NUMBER;
+
+  /**
+   * Type tags are 28 bits wide, so that they fit into a varint of at most four bytes.
+   */
+  private static final int TYPE_TAG_MASK = 0x0FFFFFFF;
 
   private final Map<Class<? extends T>, Encoder<? extends T>> clazzToEncoderMap;
 
+  /**
+   * The serialized field that identifies each class: its type tag, or its name.
+   */
+  private final Map<Class<?>, byte[]> clazzToTypeFieldMap = new HashMap<>();
+
   /**
    * Constructs an encoder that encodes an object to bytes based on the class name.
    *
    * @param clazzToEncoderMap a map of encoder for class
    */
   public MultiEncoder(final Map<Class<? extends T>, Encoder<? extends T>> clazzToEncoderMap) {
+    this(clazzToEncoderMap, false);
+  }
+
+  /**
+   * Constructs an encoder that encodes an object to bytes based on the class name or its type tag.
+   * A class whose type tag collides with the one of another registered class is always sent by name.
+   *
+   * @param clazzToEncoderMap a map of encoder for class
+   * @param compactTypeTags whether to send type tags instead of class names
+   */
+  public MultiEncoder(final Map<Class<? extends T>, Encoder<? extends T>> clazzToEncoderMap,
+                      final boolean compactTypeTags) {
     this.clazzToEncoderMap = clazzToEncoderMap;
+    final Set<Integer> collisions = compactTypeTags
+        ? getTypeTagCollisions(clazzToEncoderMap.keySet())
+        : new HashSet<Integer>();
+    for (final Class<? extends T> clazz : clazzToEncoderMap.keySet()) {
+      final int typeTag = getTypeTag(clazz.getName());
+      final ByteBuffer field;
+      if (compactTypeTags && !collisions.contains(typeTag)) {
+        field = ByteBuffer.allocate(WireFormat.getLengthDelimitedSize(CLASS_NAME_FIELD, 0)
+            + WireFormat.getVarintSize(WireFormat.makeTag(CLASS_ID_FIELD, WireFormat.WIRETYPE_VARINT))
+            + WireFormat.getVarintSize(typeTag)
+            + WireFormat.getVarintSize(WireFormat.makeTag(CLASS_CHECKSUM_FIELD, WireFormat.WIRETYPE_FIXED32))
+            + Integer.SIZE / Byte.SIZE);
+        WireFormat.writeLengthDelimitedHeader(field, CLASS_NAME_FIELD, 0);
+        WireFormat.writeVarint(field, WireFormat.makeTag(CLASS_ID_FIELD, WireFormat.WIRETYPE_VARINT));
+        WireFormat.writeVarint(field, typeTag);
+        WireFormat.writeVarint(field, WireFormat.makeTag(CLASS_CHECKSUM_FIELD, WireFormat.WIRETYPE_FIXED32));
+        WireFormat.writeFixed32(field, getClassChecksum(clazz.getName()));
+      } else {
+        final byte[] name = clazz.getName().getBytes(StandardCharsets.UTF_8);
+        field = ByteBuffer.allocate(WireFormat.getLengthDelimitedSize(CLASS_NAME_FIELD, name.length));
+        WireFormat.writeLengthDelimitedHeader(field, CLASS_NAME_FIELD, name.length);
+        field.put(name);
+      }
+      this.clazzToTypeFieldMap.put(clazz, field.array());
+    }
+  }
+
+  /**
+   * Returns the compact type tag of a class: the low 28 bits of the hash code of its name.
+   * The hash code of strings is fixed by the language specification, so all JVMs agree on the tags.
+   *
+   * @param className the class name
+   * @return the type tag
+   */
+  static int getTypeTag(final String className) {
+    return className.hashCode() & TYPE_TAG_MASK;
+  }
+
+  /**
+   * Returns the checksum sent along with the type tag of a class: the CRC32 of the UTF-8 bytes of its name.
+   * It is independent of the tag, so a receiver detects a class that shares the tag of another class
+   * but is not registered on its side.
+   *
+   * @param className the class name
+   * @return the checksum
+   */
+  static int getClassChecksum(final String className) {
+    final CRC32 crc = new CRC32();
+    crc.update(className.getBytes(StandardCharsets.UTF_8));
+    return (int) crc.getValue();
+  }
+
+  /**
+   * @return the type tags shared by more than one of the given classes.
+   */
+  static Set<Integer> getTypeTagCollisions(final Set<? extends Class<?>> classes) {
+    final Set<Integer> seen = new HashSet<>();
+    final Set<Integer> collisions = new HashSet<>();
+    for (final Class<?> clazz : classes) {
+      final int typeTag = getTypeTag(clazz.getName());
+      if (!seen.add(typeTag)) {
+        collisions.add(typeTag);
+      }
+    }
+    return collisions;
   }
 
   /**
@@ -51,15 +158,71 @@ public class MultiEncoder<T> implements Encoder<T> {
    */
   @Override
   public byte[] encode(final T obj) {
+    final Encoder<T> encoder = getEncoder(obj);
+    final byte[] typeField = this.clazzToTypeFieldMap.get(obj.getClass());
+    final int dataSize = WireFormat.getEncodedSize(encoder, obj);
+    if (dataSize != UNKNOWN_SIZE) {
+      final byte[] out = new byte[getTupleSize(typeField, dataSize)];
+      writeTuple(ByteBuffer.wrap(out), typeField, (BufferEncoder<T>) encoder, obj, dataSize);
+      return out;
+    }
+
+    final byte[] data = encoder.encode(obj);
+    final byte[] out = new byte[getTupleSize(typeField, data.length)];
+    final ByteBuffer buffer = ByteBuffer.wrap(out);
+    buffer.put(typeField);
+    WireFormat.writeLengthDelimitedHeader(buffer, DATA_FIELD, data.length);
+    buffer.put(data);
+    return out;
+  }
+
+  /**
+   * Returns the size of the encoded tuple, if the encoder of the object's class can tell the size of the object.
+   *
+   * @param obj an object to be encoded
+   * @return the size in bytes, or {@link BufferEncoder#UNKNOWN_SIZE}
+   */
+  @Override
+  public int getEncodedSize(final T obj) {
+    final int dataSize = WireFormat.getEncodedSize(getEncoder(obj), obj);
+    return dataSize == UNKNOWN_SIZE
+        ? UNKNOWN_SIZE
+        : getTupleSize(this.clazzToTypeFieldMap.get(obj.getClass()), dataSize);
+  }
+
+  /**
+   * Encodes an object at the position of the buffer.
+   *
+   * @param obj an object to be encoded
+   * @param buffer the buffer to write to
+   * @throws RemoteRuntimeException if the size of the object is not known in advance
+   */
+  @Override
+  public void encode(final T obj, final ByteBuffer buffer) {
+    final Encoder<T> encoder = getEncoder(obj);
+    final int dataSize = WireFormat.getEncodedSize(encoder, obj);
+    if (dataSize == UNKNOWN_SIZE) {
+      throw new RemoteRuntimeException("Encoder " + encoder + " cannot encode into a buffer");
+    }
+    writeTuple(buffer, this.clazzToTypeFieldMap.get(obj.getClass()), (BufferEncoder<T>) encoder, obj, dataSize);
+  }
+
+  private Encoder<T> getEncoder(final T obj) {
     final Encoder<T> encoder = (Encoder<T>) clazzToEncoderMap.get(obj.getClass());
     if (encoder == null) {
       throw new RemoteRuntimeException("Encoder for " + obj.getClass() + " not known.");
     }
+    return encoder;
+  }
 
-    final WakeTuplePBuf.Builder tupleBuilder = WakeTuplePBuf.newBuilder();
-    tupleBuilder.setClassName(obj.getClass().getName());
-    tupleBuilder.setData(ByteString.copyFrom(encoder.encode(obj)));
-    return tupleBuilder.build().toByteArray();
+  private static int getTupleSize(final byte[] typeField, final int dataSize) {
+    return typeField.length + WireFormat.getLengthDelimitedSize(DATA_FIELD, dataSize);
   }
 
+  private static <T> void writeTuple(final ByteBuffer buffer, final byte[] typeField,
+                                     final BufferEncoder<T> encoder, final T obj, final int dataSize) {
+    buffer.put(typeField);
+    WireFormat.writeLengthDelimitedHeader(buffer, DATA_FIELD, dataSize);
+    encoder.encode(obj, buffer);
+  }
 }
@@ -18,18 +18,20 @@
  */
 package org.apache.reef.wake.remote.impl;
 
+import org.apache.reef.wake.remote.BufferDecoder;
 import org.apache.reef.wake.remote.Codec;
 import org.apache.reef.wake.remote.exception.RemoteRuntimeException;
 
 import javax.inject.Inject;
 import java.io.*;
+import java.nio.ByteBuffer;
 
 /**
  * Codec that uses Java serialization.
  *
  * @param <T> type
  */
-public class ObjectSerializableCodec<T> implements Codec<T> {
+public class ObjectSerializableCodec<T> implements Codec<T>, BufferDecoder<T> {
 
   @Inject
   public ObjectSerializableCodec() {
@@ -69,4 +71,53 @@ public class ObjectSerializableCodec<T> implements Codec<T> {
       throw new RemoteRuntimeException(ex);
     }
   }
+
+  /**
+   * Decodes an object from the remaining bytes of the buffer.
+   *
+   * @param buffer the buffer
+   * @return an object
+   * @throws RemoteRuntimeException
+   */
+  @SuppressWarnings("unchecked")
+  @Override
+  public T decode(final ByteBuffer buffer) {
+    try (final ObjectInputStream in = new ObjectInputStream(new ByteBufferInputStream(buffer.duplicate()))) {
+      return (T) in.readObject();
+    } catch (final ClassNotFoundException | IOException ex) {
+      throw new RemoteRuntimeException(ex);
+    }
+  }
+
+  /**
+   * An input stream that reads the remaining bytes of a buffer.
+   */
+  private static final class ByteBufferInputStream extends InputStream {
+
+    private final ByteBuffer buffer;
+
+    ByteBufferInputStream(final ByteBuffer buffer) {
+      this.buffer = buffer;
+    }
+
+    @Override
+    public int read() {
+      return buffer.hasRemaining() ? buffer.get() & 0xFF : -1;
+    }
+
+    @Override
+    public int read(final byte[] b, final int off, final int len) {
+      if (!buffer.hasRemaining()) {
+        return -1;
+      }
+      final int n = Math.min(len, buffer.remaining());
+      buffer.get(b, off, n);
+      return n;
+    }
+
+    @Override
+    public int available() {
+      return buffer.remaining();
+    }
+  }
 }
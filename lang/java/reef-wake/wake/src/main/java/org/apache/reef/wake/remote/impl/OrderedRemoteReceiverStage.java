@@ -26,13 +26,21 @@ import org.apache.reef.wake.impl.ThreadPoolStage;
 import org.apache.reef.wake.remote.exception.RemoteRuntimeException;
 
 import java.net.SocketAddress;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.*;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
 /**
  * Receive incoming events and dispatch to correct handlers in order.
+ * <p>
+ * By default, events are decoded on one cached thread pool and handled on another, so the number of threads
+ * grows with the number of sources sending at the same time. With a fixed number of workers, each source is
+ * hashed to one single-threaded worker that decodes and handles all of its events, which keeps them in order
+ * on a bounded number of threads.
  */
 public class OrderedRemoteReceiverStage implements EStage<TransportEvent> {
 
@@ -42,42 +50,96 @@ public class OrderedRemoteReceiverStage implements EStage<TransportEvent> {
 
   private static final long SHUTDOWN_TIMEOUT = WakeParameters.REMOTE_EXECUTOR_SHUTDOWN_TIMEOUT;
 
-  private final ExecutorService pushExecutor;
-  private final ExecutorService pullExecutor;
+  private final Map<String, ExecutorService> executors = new LinkedHashMap<>();
 
-  private final ThreadPoolStage<TransportEvent> pushStage;
+  private final List<ThreadPoolStage<TransportEvent>> pushStages = new ArrayList<>();
+
+  private final List<ThreadPoolStage<?>> stages = new ArrayList<>();
 
   /**
-   * Constructs an ordered remote receiver stage.
+   * Constructs an ordered remote receiver stage on unbounded cached thread pools.
    *
    * @param handler      the handler of remote events
    * @param errorHandler the exception handler
    */
   public OrderedRemoteReceiverStage(
       final EventHandler<RemoteEvent<byte[]>> handler, final EventHandler<Throwable> errorHandler) {
+    this(handler, errorHandler, 0);
+  }
+
+  /**
+   * Constructs an ordered remote receiver stage.
+   *
+   * @param handler      the handler of remote events
+   * @param errorHandler the exception handler
+   * @param numThreads   the number of workers, each handling the events of the sources hashed to it;
+   *                     0 for unbounded cached thread pools
+   */
+  public OrderedRemoteReceiverStage(final EventHandler<RemoteEvent<byte[]>> handler,
+                                    final EventHandler<Throwable> errorHandler, final int numThreads) {
 
-    this.pushExecutor = Executors.newCachedThreadPool(new DefaultThreadFactory(CLASS_NAME + ":Push"));
-    this.pullExecutor = Executors.newCachedThreadPool(new DefaultThreadFactory(CLASS_NAME + ":Pull"));
+    if (numThreads < 0) {
+      throw new IllegalArgumentException("Invalid number of threads: " + numThreads);
+    }
 
     final ConcurrentMap<SocketAddress, OrderedEventStream> streamMap = new ConcurrentHashMap<>();
 
-    final ThreadPoolStage<OrderedEventStream> pullStage = new ThreadPoolStage<>(
-        new OrderedPullEventHandler(handler), this.pullExecutor, errorHandler);
+    if (numThreads == 0) {
+
+      final ExecutorService pushExecutor =
+          Executors.newCachedThreadPool(new DefaultThreadFactory(CLASS_NAME + ":Push"));
+      final ExecutorService pullExecutor =
+          Executors.newCachedThreadPool(new DefaultThreadFactory(CLASS_NAME + ":Pull"));
+      this.executors.put("PushExecutor", pushExecutor);
+      this.executors.put("PullExecutor", pullExecutor);
+
+      final ThreadPoolStage<OrderedEventStream> pullStage = new ThreadPoolStage<>(
+          new OrderedPullEventHandler(handler), pullExecutor, errorHandler);
+
+      this.pushStages.add(new ThreadPoolStage<>(
+          new OrderedPushEventHandler(streamMap, pullStage), pushExecutor, errorHandler)); // for decoupling
+      this.stages.add(pullStage);
 
-    this.pushStage = new ThreadPoolStage<>(
-        new OrderedPushEventHandler(streamMap, pullStage), this.pushExecutor, errorHandler); // for decoupling
+    } else {
+
+      // each worker pulls in place: a source only ever runs on its own worker, one event at a time
+      final EventHandler<TransportEvent> workerHandler =
+          new OrderedPushEventHandler(streamMap, new OrderedPullEventHandler(handler));
+
+      for (int i = 0; i < numThreads; ++i) {
+        final ExecutorService executor =
+            Executors.newSingleThreadExecutor(new DefaultThreadFactory(CLASS_NAME + ":Worker-" + i));
+        this.executors.put("WorkerExecutor-" + i, executor);
+        this.pushStages.add(new ThreadPoolStage<>(workerHandler, executor, errorHandler));
+      }
+    }
+    this.stages.addAll(this.pushStages);
   }
 
   @Override
   public void onNext(final TransportEvent value) {
     LOG.log(Level.FINEST, "Push: {0}", value);
-    this.pushStage.onNext(value);
+    this.pushStages.get(getWorkerIndex(value.getRemoteAddress())).onNext(value);
+  }
+
+  private int getWorkerIndex(final SocketAddress remoteAddress) {
+    final int numWorkers = this.pushStages.size();
+    if (numWorkers == 1 || remoteAddress == null) {
+      return 0;
+    }
+    final int hash = remoteAddress.hashCode();
+    return ((hash ^ (hash >>> 16)) & Integer.MAX_VALUE) % numWorkers;
   }
 
   @Override
   public void close() throws Exception {
-    close("PushExecutor", this.pushExecutor);
-    close("PullExecutor", this.pullExecutor);
+    for (final Map.Entry<String, ExecutorService> entry : this.executors.entrySet()) {
+      close(entry.getKey(), entry.getValue());
+    }
+    // the stages run on the executors closed above; closing them unregisters their metrics
+    for (final ThreadPoolStage<?> stage : this.stages) {
+      stage.close();
+    }
   }
 
   private static void close(final String name, final ExecutorService executor) {
@@ -104,10 +166,10 @@ class OrderedPushEventHandler implements EventHandler<TransportEvent> {
 
   private final RemoteEventCodec<byte[]> codec;
   private final ConcurrentMap<SocketAddress, OrderedEventStream> streamMap; // per remote address
-  private final ThreadPoolStage<OrderedEventStream> pullStage;
+  private final EventHandler<OrderedEventStream> pullStage;
 
   OrderedPushEventHandler(final ConcurrentMap<SocketAddress, OrderedEventStream> streamMap,
-                          final ThreadPoolStage<OrderedEventStream> pullStage) {
+                          final EventHandler<OrderedEventStream> pullStage) {
     this.codec = new RemoteEventCodec<>(new ByteCodec());
     this.streamMap = streamMap;
     this.pullStage = pullStage;
@@ -115,7 +177,17 @@ class OrderedPushEventHandler implements EventHandler<TransportEvent> {
 
   @Override
   public void onNext(final TransportEvent value) {
-    final RemoteEvent<byte[]> re = codec.decode(value.getData());
+    final RemoteEvent<byte[]> re;
+    if (value.hasBuffer()) {
+      // ordered events outlive this call, so the payload is copied out of the transport buffer
+      try {
+        re = codec.decode(value.getBuffer());
+      } finally {
+        value.release();
+      }
+    } else {
+      re = codec.decode(value.getData());
+    }
     re.setLocalAddress(value.getLocalAddress());
     re.setRemoteAddress(value.getRemoteAddress());
 
@@ -123,7 +195,7 @@ class OrderedPushEventHandler implements EventHandler<TransportEvent> {
       LOG.log(Level.FINER, "{0} {1}", new Object[]{value, re});
     }
 
-    LOG.log(Level.FINER, "Value length is {0}", value.getData().length);
+    LOG.log(Level.FINER, "Value length is {0}", value.getLength());
 
     final SocketAddress addr = re.remoteAddress();
     OrderedEventStream stream = streamMap.get(re.remoteAddress());
@@ -18,14 +18,19 @@
  */
 package org.apache.reef.wake.remote.impl;
 
+import org.apache.reef.wake.remote.BufferDecoder;
+import org.apache.reef.wake.remote.BufferEncoder;
 import org.apache.reef.wake.remote.Codec;
 
+import java.nio.ByteBuffer;
+
 /**
  * Codec of the event sent remotely.
  *
  * @param <T> type
  */
-public class RemoteEventCodec<T> implements Codec<RemoteEvent<T>> {
+public class RemoteEventCodec<T> implements Codec<RemoteEvent<T>>,
+    BufferEncoder<RemoteEvent<T>>, BufferDecoder<RemoteEvent<T>> {
 
   private final RemoteEventEncoder<T> encoder;
   private final RemoteEventDecoder<T> decoder;
@@ -51,6 +56,28 @@ public class RemoteEventCodec<T> implements Codec<RemoteEvent<T>> {
     return encoder.encode(obj);
   }
 
+  /**
+   * Returns the encoded size of the remote event object, if the event codec can tell it in advance.
+   *
+   * @param obj the remote event object
+   * @return the size in bytes, or {@link BufferEncoder#UNKNOWN_SIZE}
+   */
+  @Override
+  public int getEncodedSize(final RemoteEvent<T> obj) {
+    return encoder.getEncodedSize(obj);
+  }
+
+  /**
+   * Encodes the remote event object at the position of the buffer.
+   *
+   * @param obj the remote event object
+   * @param buffer the buffer to write to
+   */
+  @Override
+  public void encode(final RemoteEvent<T> obj, final ByteBuffer buffer) {
+    encoder.encode(obj, buffer);
+  }
+
   /**
    * Decodes a remote event object from the bytes.
    *
@@ -62,4 +89,15 @@ public class RemoteEventCodec<T> implements Codec<RemoteEvent<T>> {
     return decoder.decode(data);
   }
 
+  /**
+   * Decodes a remote event object from the buffer without copying the serialized message.
+   *
+   * @param buffer the buffer
+   * @return a remote event object
+   */
+  @Override
+  public RemoteEvent<T> decode(final ByteBuffer buffer) {
+    return decoder.decode(buffer);
+  }
+
 }
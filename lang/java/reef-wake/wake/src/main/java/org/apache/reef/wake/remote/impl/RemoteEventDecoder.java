@@ -18,17 +18,23 @@
  */
 package org.apache.reef.wake.remote.impl;
 
-import com.google.protobuf.InvalidProtocolBufferException;
+import org.apache.reef.wake.remote.BufferDecoder;
 import org.apache.reef.wake.remote.Decoder;
 import org.apache.reef.wake.remote.exception.RemoteRuntimeException;
 import org.apache.reef.wake.remote.proto.WakeRemoteProtos.WakeMessagePBuf;
 
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+
 /**
  * Remote event decoder using the WakeMessage protocol buffer.
  *
  * @param <T> type
  */
-public class RemoteEventDecoder<T> implements Decoder<RemoteEvent<T>> {
+public class RemoteEventDecoder<T> implements BufferDecoder<RemoteEvent<T>> {
+
+  private static final int DATA_FIELD = WakeMessagePBuf.DATA_FIELD_NUMBER;
+  private static final int SEQ_FIELD = WakeMessagePBuf.SEQ_FIELD_NUMBER;
 
   private final Decoder<T> decoder;
 
@@ -50,13 +56,50 @@ public class RemoteEventDecoder<T> implements Decoder<RemoteEvent<T>> {
    */
   @Override
   public RemoteEvent<T> decode(final byte[] data) {
-    final WakeMessagePBuf pbuf;
+    return decode(ByteBuffer.wrap(data));
+  }
+
+  /**
+   * Decodes a remote event from a buffer holding a serialized WakeMessagePBuf.
+   * The protocol buffer wire format is walked in place, so the payload reaches the event decoder
+   * as a slice of the original buffer if the event decoder is a {@link BufferDecoder},
+   * and with a single copy otherwise.
+   *
+   * @param buffer the buffer; its remaining bytes are the serialized message
+   * @return a remote event object
+   * @throws RemoteRuntimeException
+   */
+  @Override
+  public RemoteEvent<T> decode(final ByteBuffer buffer) {
+    final ByteBuffer in = buffer.slice();
+    ByteBuffer payload = null;
+    long seq = 0;
+    boolean hasSeq = false;
+
     try {
-      pbuf = WakeMessagePBuf.parseFrom(data);
-      return new RemoteEvent<T>(null, null, pbuf.getSeq(), decoder.decode(pbuf.getData().toByteArray()));
-    } catch (final InvalidProtocolBufferException e) {
-      throw new RemoteRuntimeException(e);
+      while (in.hasRemaining()) {
+        final int tag = (int) WireFormat.readVarint(in);
+        final int field = tag >>> 3;
+        final int wireType = tag & 0x7;
+
+        if (field == DATA_FIELD && wireType == WireFormat.WIRETYPE_LENGTH_DELIMITED) {
+          payload = WireFormat.readLengthDelimited(in);
+        } else if (field == SEQ_FIELD && wireType == WireFormat.WIRETYPE_VARINT) {
+          seq = WireFormat.readVarint(in);
+          hasSeq = true;
+        } else {
+          WireFormat.skipField(in, wireType);
+        }
+      }
+    } catch (final BufferUnderflowException | IllegalArgumentException e) {
+      throw new RemoteRuntimeException("Truncated WakeMessagePBuf", e);
     }
+
+    if (payload == null || !hasSeq) {
+      throw new RemoteRuntimeException("WakeMessagePBuf is missing a required field");
+    }
+
+    return new RemoteEvent<>(null, null, seq, WireFormat.decodePayload(decoder, payload));
   }
 
   @Override
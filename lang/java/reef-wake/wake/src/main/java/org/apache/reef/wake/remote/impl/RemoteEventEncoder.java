@@ -18,17 +18,27 @@
  */
 package org.apache.reef.wake.remote.impl;
 
-import com.google.protobuf.ByteString;
+import org.apache.reef.wake.remote.BufferEncoder;
 import org.apache.reef.wake.remote.Encoder;
 import org.apache.reef.wake.remote.exception.RemoteRuntimeException;
 import org.apache.reef.wake.remote.proto.WakeRemoteProtos.WakeMessagePBuf;
 
+import java.nio.ByteBuffer;
+
 /**
  * Remote event encoder using the WakeMessage protocol buffer.
+ * The message is framed in a single pre-sized buffer: if the event encoder is a {@link BufferEncoder}
+ * the event is written straight into it, otherwise its bytes are copied in once.
+ * The output is byte for byte what the protocol buffer serializer produces.
  *
  * @param <T> type
  */
-public class RemoteEventEncoder<T> implements Encoder<RemoteEvent<T>> {
+public class RemoteEventEncoder<T> implements BufferEncoder<RemoteEvent<T>> {
+
+  private static final int DATA_FIELD = WakeMessagePBuf.DATA_FIELD_NUMBER;
+  private static final int SEQ_FIELD = WakeMessagePBuf.SEQ_FIELD_NUMBER;
+  private static final int SEQ_TAG_SIZE =
+      WireFormat.getVarintSize(WireFormat.makeTag(SEQ_FIELD, WireFormat.WIRETYPE_VARINT));
 
   private final Encoder<T> encoder;
 
@@ -50,15 +60,72 @@ public class RemoteEventEncoder<T> implements Encoder<RemoteEvent<T>> {
    */
   @Override
   public byte[] encode(final RemoteEvent<T> obj) {
+    final T event = getEvent(obj);
+    final int dataSize = WireFormat.getEncodedSize(this.encoder, event);
+    if (dataSize != UNKNOWN_SIZE) {
+      final byte[] out = new byte[getMessageSize(dataSize, obj.getSeq())];
+      writeMessage(ByteBuffer.wrap(out), obj.getSeq(), event, dataSize);
+      return out;
+    }
+
+    final byte[] data = this.encoder.encode(event);
+    final byte[] out = new byte[getMessageSize(data.length, obj.getSeq())];
+    final ByteBuffer buffer = ByteBuffer.wrap(out);
+    WireFormat.writeLengthDelimitedHeader(buffer, DATA_FIELD, data.length);
+    buffer.put(data);
+    writeSeq(buffer, obj.getSeq());
+    return out;
+  }
+
+  /**
+   * Returns the size of the encoded remote event, if the event encoder can tell the size of the event.
+   *
+   * @param obj the remote event
+   * @return the size in bytes, or {@link BufferEncoder#UNKNOWN_SIZE}
+   */
+  @Override
+  public int getEncodedSize(final RemoteEvent<T> obj) {
+    final int dataSize = WireFormat.getEncodedSize(this.encoder, getEvent(obj));
+    return dataSize == UNKNOWN_SIZE ? UNKNOWN_SIZE : getMessageSize(dataSize, obj.getSeq());
+  }
+
+  /**
+   * Encodes the remote event at the position of the buffer.
+   *
+   * @param obj the remote event
+   * @param buffer the buffer to write to
+   * @throws RemoteRuntimeException if the size of the event is not known in advance
+   */
+  @Override
+  public void encode(final RemoteEvent<T> obj, final ByteBuffer buffer) {
+    final T event = getEvent(obj);
+    final int dataSize = WireFormat.getEncodedSize(this.encoder, event);
+    if (dataSize == UNKNOWN_SIZE) {
+      throw new RemoteRuntimeException("Encoder " + this.encoder + " cannot encode into a buffer");
+    }
+    writeMessage(buffer, obj.getSeq(), event, dataSize);
+  }
+
+  private static <T> T getEvent(final RemoteEvent<T> obj) {
     if (obj.getEvent() == null) {
       throw new RemoteRuntimeException("Event is null");
     }
+    return obj.getEvent();
+  }
 
-    final WakeMessagePBuf.Builder builder = WakeMessagePBuf.newBuilder();
-    builder.setSeq(obj.getSeq());
-    builder.setData(ByteString.copyFrom(encoder.encode(obj.getEvent())));
+  private static int getMessageSize(final int dataSize, final long seq) {
+    return WireFormat.getLengthDelimitedSize(DATA_FIELD, dataSize) + SEQ_TAG_SIZE + WireFormat.getVarintSize(seq);
+  }
+
+  private void writeMessage(final ByteBuffer buffer, final long seq, final T event, final int dataSize) {
+    WireFormat.writeLengthDelimitedHeader(buffer, DATA_FIELD, dataSize);
+    ((BufferEncoder<T>) this.encoder).encode(event, buffer);
+    writeSeq(buffer, seq);
+  }
 
-    return builder.build().toByteArray();
+  private static void writeSeq(final ByteBuffer buffer, final long seq) {
+    WireFormat.writeVarint(buffer, WireFormat.makeTag(SEQ_FIELD, WireFormat.WIRETYPE_VARINT));
+    WireFormat.writeVarint(buffer, seq);
   }
 
   @Override
@@ -20,6 +20,7 @@ package org.apache.reef.wake.remote.impl;
 
 import org.apache.reef.wake.EventHandler;
 
+import java.nio.ByteBuffer;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -31,7 +32,9 @@ class RemoteReceiverEventHandler implements EventHandler<TransportEvent> {
   private static final Logger LOG = Logger.getLogger(RemoteReceiverEventHandler.class.getName());
 
   private final RemoteEventCodec<byte[]> codec;
+  private final RemoteEventDecoder<ByteBuffer> bufferDecoder;
   private final EventHandler<RemoteEvent<byte[]>> handler;
+  private final EventHandler<RemoteEvent<ByteBuffer>> bufferHandler;
 
   /**
    * Constructs a remote receiver event handler.
@@ -39,8 +42,22 @@ class RemoteReceiverEventHandler implements EventHandler<TransportEvent> {
    * @param handler the upstream handler
    */
   RemoteReceiverEventHandler(final EventHandler<RemoteEvent<byte[]>> handler) {
+    this(handler, null);
+  }
+
+  /**
+   * Constructs a remote receiver event handler.
+   *
+   * @param handler       the upstream handler
+   * @param bufferHandler the upstream handler for events received into transport buffers;
+   *                      if null, such events are copied into byte arrays and passed to the handler
+   */
+  RemoteReceiverEventHandler(final EventHandler<RemoteEvent<byte[]>> handler,
+                             final EventHandler<RemoteEvent<ByteBuffer>> bufferHandler) {
     this.codec = new RemoteEventCodec<byte[]>(new ByteCodec());
+    this.bufferDecoder = new RemoteEventDecoder<>(new ByteBufferCodec());
     this.handler = handler;
+    this.bufferHandler = bufferHandler;
   }
 
   /**
@@ -50,7 +67,28 @@ class RemoteReceiverEventHandler implements EventHandler<TransportEvent> {
    */
   @Override
   public void onNext(final TransportEvent e) {
-    final RemoteEvent<byte[]> re = codec.decode(e.getData());
+    if (e.hasBuffer()) {
+      try {
+        if (this.bufferHandler != null) {
+          final RemoteEvent<ByteBuffer> re = bufferDecoder.decode(e.getBuffer());
+          re.setLocalAddress(e.getLocalAddress());
+          re.setRemoteAddress(e.getRemoteAddress());
+          if (LOG.isLoggable(Level.FINER)) {
+            LOG.log(Level.FINER, "{0} {1}", new Object[]{e, re});
+          }
+          bufferHandler.onNext(re);
+        } else {
+          dispatch(e, codec.decode(e.getBuffer()));
+        }
+      } finally {
+        e.release();
+      }
+    } else {
+      dispatch(e, codec.decode(e.getData()));
+    }
+  }
+
+  private void dispatch(final TransportEvent e, final RemoteEvent<byte[]> re) {
     re.setLocalAddress(e.getLocalAddress());
     re.setRemoteAddress(e.getRemoteAddress());
 
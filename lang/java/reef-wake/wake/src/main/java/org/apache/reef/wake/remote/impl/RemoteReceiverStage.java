@@ -18,13 +18,16 @@
  */
 package org.apache.reef.wake.remote.impl;
 
-import org.apache.reef.wake.EStage;
+import org.apache.reef.wake.BackpressureListener;
+import org.apache.reef.wake.BoundedEStage;
 import org.apache.reef.wake.EventHandler;
 import org.apache.reef.wake.WakeParameters;
 import org.apache.reef.wake.impl.DefaultThreadFactory;
+import org.apache.reef.wake.impl.RingBufferStage;
 import org.apache.reef.wake.impl.ThreadPoolStage;
 import org.apache.reef.wake.remote.exception.RemoteRuntimeException;
 
+import java.nio.ByteBuffer;
 import java.util.List;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
@@ -34,14 +37,17 @@ import java.util.logging.Logger;
 
 /**
  * Receive incoming events and dispatch to correct handlers.
+ * <p>
+ * The RING_BUFFER stage, and the THREAD_POOL stage when given a capacity, are bounded and signal backpressure,
+ * which the transport uses to stop reading from its connections; the unbounded stage never saturates.
  */
-public class RemoteReceiverStage implements EStage<TransportEvent> {
+public class RemoteReceiverStage implements BoundedEStage<TransportEvent> {
 
   private static final Logger LOG = Logger.getLogger(RemoteReceiverStage.class.getName());
 
   private final EventHandler<TransportEvent> handler;
-  private final ThreadPoolStage<TransportEvent> stage;
-  private final ExecutorService executor; // for decoupling
+  private final BoundedEStage<TransportEvent> stage;
+  private final ExecutorService executor; // for decoupling; null for the ring buffer stage
 
   private final long shutdownTimeout = WakeParameters.REMOTE_EXECUTOR_SHUTDOWN_TIMEOUT;
 
@@ -54,13 +60,55 @@ public class RemoteReceiverStage implements EStage<TransportEvent> {
    */
   public RemoteReceiverStage(final EventHandler<RemoteEvent<byte[]>> handler,
                              final EventHandler<Throwable> errorHandler, final int numThreads) {
+    this(handler, null, errorHandler, numThreads);
+  }
+
+  /**
+   * Constructs a remote receiver stage.
+   *
+   * @param handler       the handler of remote events
+   * @param bufferHandler the handler of remote events received into transport buffers;
+   *                      the payload buffer is only valid while the handler runs
+   * @param errorHandler  the exception handler
+   * @param numThreads    the number of threads
+   */
+  public RemoteReceiverStage(final EventHandler<RemoteEvent<byte[]>> handler,
+                             final EventHandler<RemoteEvent<ByteBuffer>> bufferHandler,
+                             final EventHandler<Throwable> errorHandler, final int numThreads) {
+    this(handler, bufferHandler, errorHandler, numThreads, new RemoteReceiverStagePolicy(
+        RemoteReceiverStagePolicy.StageType.THREAD_POOL, 1, RingBufferStage.WaitStrategy.PARK));
+  }
 
-    this.handler = new RemoteReceiverEventHandler(handler);
+  /**
+   * Constructs a remote receiver stage.
+   *
+   * @param handler       the handler of remote events
+   * @param bufferHandler the handler of remote events received into transport buffers;
+   *                      the payload buffer is only valid while the handler runs
+   * @param errorHandler  the exception handler
+   * @param numThreads    the number of threads of the THREAD_POOL stage
+   * @param stagePolicy   the kind and capacity of the stage that dispatches the events
+   */
+  public RemoteReceiverStage(final EventHandler<RemoteEvent<byte[]>> handler,
+                             final EventHandler<RemoteEvent<ByteBuffer>> bufferHandler,
+                             final EventHandler<Throwable> errorHandler, final int numThreads,
+                             final RemoteReceiverStagePolicy stagePolicy) {
 
-    this.executor = Executors.newFixedThreadPool(
-        numThreads, new DefaultThreadFactory(RemoteReceiverStage.class.getName()));
+    this.handler = new RemoteReceiverEventHandler(handler, bufferHandler);
 
-    this.stage = new ThreadPoolStage<>(this.handler, this.executor, errorHandler);
+    if (stagePolicy.getStageType() == RemoteReceiverStagePolicy.StageType.RING_BUFFER) {
+      this.executor = null;
+      this.stage = new RingBufferStage<>(RemoteReceiverStage.class.getName(), this.handler,
+          stagePolicy.getRingBufferSize(), RingBufferStage.ProducerType.MULTI, stagePolicy.getWaitStrategy(),
+          errorHandler);
+    } else {
+      this.executor = Executors.newFixedThreadPool(
+          numThreads, new DefaultThreadFactory(RemoteReceiverStage.class.getName()));
+      this.stage = stagePolicy.getCapacity() > 0 ?
+          new ThreadPoolStage<>(RemoteReceiverStage.class.getName(), this.handler,
+              this.executor, stagePolicy.getCapacity(), errorHandler) :
+          new ThreadPoolStage<>(this.handler, this.executor, errorHandler);
+    }
   }
 
   /**
@@ -74,6 +122,46 @@ public class RemoteReceiverStage implements EStage<TransportEvent> {
     stage.onNext(value);
   }
 
+  /**
+   * Handles the received event if the stage has room for it; the unbounded stage always has.
+   *
+   * @param value the event
+   * @return true if the stage accepted the event, false if it is full
+   */
+  @Override
+  public boolean offer(final TransportEvent value) {
+    LOG.log(Level.FINEST, "{0}", value);
+    return this.stage.offer(value);
+  }
+
+  /**
+   * @return the capacity of the stage; Integer.MAX_VALUE for the unbounded stage
+   */
+  @Override
+  public int getCapacity() {
+    return this.stage.getCapacity();
+  }
+
+  @Override
+  public int getQueueLength() {
+    return this.stage.getQueueLength();
+  }
+
+  @Override
+  public boolean isSaturated() {
+    return this.stage.isSaturated();
+  }
+
+  /**
+   * Adds a backpressure listener; the unbounded stage never notifies it.
+   *
+   * @param listener the listener
+   */
+  @Override
+  public void addBackpressureListener(final BackpressureListener listener) {
+    this.stage.addBackpressureListener(listener);
+  }
+
   /**
    * Closes the stage.
    */
@@ -81,7 +169,9 @@ public class RemoteReceiverStage implements EStage<TransportEvent> {
   public void close() throws Exception {
     LOG.log(Level.FINE, "close");
 
-    if (this.executor != null) {
+    if (this.executor == null) {
+      this.stage.close();
+    } else {
       this.executor.shutdown();
       try {
         // wait for threads to finish for timeout
@@ -94,6 +184,8 @@ public class RemoteReceiverStage implements EStage<TransportEvent> {
         LOG.log(Level.WARNING, "Close interrupted", e);
         throw new RemoteRuntimeException(e);
       }
+      // unregisters the metrics of the stage; the executor is closed above
+      this.stage.close();
     }
   }
 }
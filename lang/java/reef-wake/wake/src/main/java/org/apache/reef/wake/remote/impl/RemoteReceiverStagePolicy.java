@@ -0,0 +1,172 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.reef.wake.remote.impl;
+
+import org.apache.reef.tang.annotations.Parameter;
+import org.apache.reef.wake.impl.RingBufferStage;
+import org.apache.reef.wake.remote.RemoteConfiguration;
+
+import javax.inject.Inject;
+
+/**
+ * Kind of the stage that dispatches received events to their handlers,
+ * and number of workers of the ordered receiver stage.
+ */
+public final class RemoteReceiverStagePolicy {
+
+  /**
+   * The stage that dispatches received events.
+   */
+  public enum StageType {
+    /**
+     * A ThreadPoolStage.
+     */
+    THREAD_POOL,
+    /**
+     * A multi-producer RingBufferStage.
+     */
+    RING_BUFFER
+  }
+
+  private final StageType stageType;
+  private final int ringBufferSize;
+  private final RingBufferStage.WaitStrategy waitStrategy;
+  private final int orderedReceiverThreads;
+  private final int capacity;
+
+  /**
+   * Constructs a receiver stage policy.
+   *
+   * @param stageType      THREAD_POOL or RING_BUFFER
+   * @param ringBufferSize the capacity of the ring buffer of the RING_BUFFER stage
+   * @param waitStrategy   how the thread of the RING_BUFFER stage waits: BUSY_SPIN, YIELD or PARK
+   * @param orderedReceiverThreads the number of workers of the ordered receiver stage; 0 for cached pools
+   * @param capacity       the maximum number of events the THREAD_POOL stage holds; 0 for unbounded
+   */
+  @Inject
+  private RemoteReceiverStagePolicy(
+      @Parameter(RemoteConfiguration.ReceiverStage.class) final String stageType,
+      @Parameter(RemoteConfiguration.ReceiverRingBufferSize.class) final int ringBufferSize,
+      @Parameter(RemoteConfiguration.ReceiverWaitStrategy.class) final String waitStrategy,
+      @Parameter(RemoteConfiguration.OrderedReceiverThreads.class) final int orderedReceiverThreads,
+      @Parameter(RemoteConfiguration.ReceiverStageCapacity.class) final int capacity) {
+    this(StageType.valueOf(stageType), ringBufferSize, RingBufferStage.WaitStrategy.valueOf(waitStrategy),
+        orderedReceiverThreads, capacity);
+  }
+
+  /**
+   * Constructs a receiver stage policy.
+   *
+   * @param stageType      the stage that dispatches received events
+   * @param ringBufferSize the capacity of the ring buffer of the RING_BUFFER stage
+   * @param waitStrategy   how the thread of the RING_BUFFER stage waits for events
+   */
+  public RemoteReceiverStagePolicy(final StageType stageType,
+                                   final int ringBufferSize,
+                                   final RingBufferStage.WaitStrategy waitStrategy) {
+    this(stageType, ringBufferSize, waitStrategy, 0);
+  }
+
+  /**
+   * Constructs a receiver stage policy.
+   *
+   * @param stageType      the stage that dispatches received events
+   * @param ringBufferSize the capacity of the ring buffer of the RING_BUFFER stage
+   * @param waitStrategy   how the thread of the RING_BUFFER stage waits for events
+   * @param orderedReceiverThreads the number of workers of the ordered receiver stage; 0 for cached pools
+   */
+  public RemoteReceiverStagePolicy(final StageType stageType,
+                                   final int ringBufferSize,
+                                   final RingBufferStage.WaitStrategy waitStrategy,
+                                   final int orderedReceiverThreads) {
+    this(stageType, ringBufferSize, waitStrategy, orderedReceiverThreads, 0);
+  }
+
+  /**
+   * Constructs a receiver stage policy.
+   *
+   * @param stageType      the stage that dispatches received events
+   * @param ringBufferSize the capacity of the ring buffer of the RING_BUFFER stage
+   * @param waitStrategy   how the thread of the RING_BUFFER stage waits for events
+   * @param orderedReceiverThreads the number of workers of the ordered receiver stage; 0 for cached pools
+   * @param capacity       the maximum number of events the THREAD_POOL stage holds; 0 for unbounded
+   */
+  public RemoteReceiverStagePolicy(final StageType stageType,
+                                   final int ringBufferSize,
+                                   final RingBufferStage.WaitStrategy waitStrategy,
+                                   final int orderedReceiverThreads,
+                                   final int capacity) {
+    if (ringBufferSize <= 0) {
+      throw new IllegalArgumentException("Invalid receiver ring buffer size: " + ringBufferSize);
+    }
+    if (orderedReceiverThreads < 0) {
+      throw new IllegalArgumentException("Invalid number of ordered receiver threads: " + orderedReceiverThreads);
+    }
+    if (capacity < 0) {
+      throw new IllegalArgumentException("Invalid receiver stage capacity: " + capacity);
+    }
+    this.stageType = stageType;
+    this.ringBufferSize = ringBufferSize;
+    this.waitStrategy = waitStrategy;
+    this.orderedReceiverThreads = orderedReceiverThreads;
+    this.capacity = capacity;
+  }
+
+  /**
+   * @return the stage that dispatches received events
+   */
+  public StageType getStageType() {
+    return this.stageType;
+  }
+
+  /**
+   * @return the capacity of the ring buffer of the RING_BUFFER stage
+   */
+  public int getRingBufferSize() {
+    return this.ringBufferSize;
+  }
+
+  /**
+   * @return how the thread of the RING_BUFFER stage waits for events
+   */
+  public RingBufferStage.WaitStrategy getWaitStrategy() {
+    return this.waitStrategy;
+  }
+
+  /**
+   * @return the number of workers of the ordered receiver stage; 0 for unbounded cached thread pools
+   */
+  public int getOrderedReceiverThreads() {
+    return this.orderedReceiverThreads;
+  }
+
+  /**
+   * @return the maximum number of events the THREAD_POOL stage holds; 0 for unbounded
+   */
+  public int getCapacity() {
+    return this.capacity;
+  }
+
+  @Override
+  public String toString() {
+    return String.format("RemoteReceiverStagePolicy: { stage: %s ringBufferSize: %d waitStrategy: %s " +
+        "orderedReceiverThreads: %d capacity: %d }", this.stageType, this.ringBufferSize, this.waitStrategy,
+        this.orderedReceiverThreads, this.capacity);
+  }
+}
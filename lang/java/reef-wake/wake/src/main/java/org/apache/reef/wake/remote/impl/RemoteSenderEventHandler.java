@@ -21,18 +21,14 @@ package org.apache.reef.wake.remote.impl;
 import org.apache.reef.wake.EventHandler;
 import org.apache.reef.wake.remote.Encoder;
 import org.apache.reef.wake.remote.exception.RemoteRuntimeException;
-import org.apache.reef.wake.remote.transport.Link;
-import org.apache.reef.wake.remote.transport.Transport;
-import org.apache.reef.wake.remote.transport.netty.LoggingLinkListener;
 
-import java.net.SocketAddress;
-import java.util.concurrent.*;
-import java.util.concurrent.atomic.AtomicReference;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
 /**
  * Remote sender event handler.
+ * <p>
+ * Encodes events in the calling thread and puts them on the queue of their remote destination.
  *
  * @param <T> type
  */
@@ -40,48 +36,27 @@ class RemoteSenderEventHandler<T> implements EventHandler<RemoteEvent<T>> {
 
   private static final Logger LOG = Logger.getLogger(RemoteSenderEventHandler.class.getName());
 
-  private final BlockingQueue<RemoteEvent<T>> queue = new LinkedBlockingQueue<>();
-  private final AtomicReference<Link<byte[]>> linkRef = new AtomicReference<>();
-
   private final RemoteEventEncoder<T> encoder;
-  private final Transport transport;
-  private final ExecutorService executor;
+  private final RemoteSenderStage stage;
+  private final EventHandler<RemoteEvent<?>> dropHandler;
 
   /**
    * Constructs a remote sender event handler.
    *
-   * @param encoder   the encoder
-   * @param transport the transport to send events
-   * @param executor  the executor service used for creating channels
+   * @param encoder     the encoder
+   * @param stage       the stage that keeps the queues of remote destinations
+   * @param dropHandler the handler of events dropped because their queue is full
    */
-  RemoteSenderEventHandler(final Encoder<T> encoder, final Transport transport, final ExecutorService executor) {
+  RemoteSenderEventHandler(final Encoder<T> encoder, final RemoteSenderStage stage,
+                           final EventHandler<RemoteEvent<?>> dropHandler) {
     this.encoder = new RemoteEventEncoder<>(encoder);
-    this.transport = transport;
-    this.executor = executor;
+    this.stage = stage;
+    this.dropHandler = dropHandler;
   }
 
   @Override
   public String toString() {
-    return String.format("RemoteSenderEventHandler: { transport: %s encoder: %s}", this.transport, this.encoder);
-  }
-
-  void setLink(final Link<byte[]> link) {
-    LOG.log(Level.FINEST, "thread {0} set link {1}", new Object[] {Thread.currentThread(), link});
-    linkRef.compareAndSet(null, link);
-    consumeQueue();
-  }
-
-  void consumeQueue() {
-    try {
-      RemoteEvent<T> event;
-      while ((event = queue.poll(0, TimeUnit.MICROSECONDS)) != null) {
-        LOG.log(Level.FINEST, "Event: {0}", event);
-        linkRef.get().write(encoder.encode(event));
-      }
-    } catch (final InterruptedException ex) {
-      LOG.log(Level.SEVERE, "Interrupted", ex);
-      throw new RemoteRuntimeException(ex);
-    }
+    return String.format("RemoteSenderEventHandler: { stage: %s encoder: %s}", this.stage, this.encoder);
   }
 
   /**
@@ -94,28 +69,11 @@ class RemoteSenderEventHandler<T> implements EventHandler<RemoteEvent<T>> {
   public void onNext(final RemoteEvent<T> value) {
     try {
 
-      LOG.log(Level.FINEST, "Link: {0} event: {1}", new Object[] {linkRef, value});
+      LOG.log(Level.FINEST, "Send event: {0}", value);
 
-      if (linkRef.get() == null) {
-        queue.add(value);
-
-        final Link<byte[]> link = transport.get(value.remoteAddress());
-        if (link != null) {
-          LOG.log(Level.FINEST, "transport get link: {0}", link);
-          setLink(link);
-          return;
-        }
-
-        final ConnectFutureTask<Link<byte[]>> cf = new ConnectFutureTask<>(
-            new ConnectCallable(transport, value.localAddress(), value.remoteAddress()),
-            new ConnectEventHandler<>(this));
-        executor.submit(cf);
-
-      } else {
-        // encode and write bytes
-        // consumeQueue();
-        LOG.log(Level.FINEST, "Send: {0} event: {1}", new Object[] {linkRef, value});
-        linkRef.get().write(encoder.encode(value));
+      final RemoteSenderQueue queue = this.stage.getQueue(value.remoteAddress());
+      if (!queue.send(value, this.encoder.encode(value))) {
+        this.dropHandler.onNext(value);
       }
 
     } catch (final RemoteRuntimeException ex) {
@@ -124,42 +82,3 @@ class RemoteSenderEventHandler<T> implements EventHandler<RemoteEvent<T>> {
     }
   }
 }
-
-class ConnectCallable implements Callable<Link<byte[]>> {
-
-  private final Transport transport;
-  private final SocketAddress remoteAddress;
-
-  ConnectCallable(final Transport transport, final SocketAddress localAddress, final SocketAddress remoteAddress) {
-    this.transport = transport;
-    this.remoteAddress = remoteAddress;
-  }
-
-  @Override
-  public Link<byte[]> call() throws Exception {
-    return transport.open(remoteAddress,
-        new ByteCodec(),
-        new LoggingLinkListener<byte[]>());
-  }
-}
-
-class ConnectEventHandler<T> implements EventHandler<ConnectFutureTask<Link<byte[]>>> {
-
-  private static final Logger LOG = Logger.getLogger(ConnectEventHandler.class.getName());
-
-  private final RemoteSenderEventHandler<T> handler;
-
-  ConnectEventHandler(final RemoteSenderEventHandler<T> handler) {
-    this.handler = handler;
-  }
-
-  @Override
-  public void onNext(final ConnectFutureTask<Link<byte[]>> value) {
-    try {
-      handler.setLink(value.get());
-    } catch (final InterruptedException | ExecutionException ex) {
-      LOG.log(Level.SEVERE, "Execution Exception", ex);
-      throw new RemoteRuntimeException(ex);
-    }
-  }
-}
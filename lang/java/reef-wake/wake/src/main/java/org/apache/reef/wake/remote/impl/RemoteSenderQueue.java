@@ -0,0 +1,290 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.reef.wake.remote.impl;
+
+import org.apache.reef.wake.EventHandler;
+import org.apache.reef.wake.impl.MpscRingBuffer;
+import org.apache.reef.wake.remote.exception.RemoteRuntimeException;
+import org.apache.reef.wake.remote.transport.Link;
+import org.apache.reef.wake.remote.transport.Transport;
+
+import java.net.SocketAddress;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Queue of encoded events to one remote destination.
+ * <p>
+ * Senders offer events to a lock-free ring and then try to become the single drainer that writes
+ * the ring to the link, so events keep their queue order whether or not the link was connected
+ * when they were sent.
+ * <p>
+ * The transport drops a link from its cache when the channel of the link closes; the queue then
+ * forgets the link and connects again. If a connect fails, the queued events go to the drop handler.
+ */
+final class RemoteSenderQueue {
+
+  private static final Logger LOG = Logger.getLogger(RemoteSenderQueue.class.getName());
+
+  private final SocketAddress remoteAddress;
+  private final Transport transport;
+  private final ExecutorService executor;
+  private final RemoteSenderQueuePolicy.Backpressure backpressure;
+  private final EventHandler<RemoteEvent<?>> dropHandler;
+  private final MpscRingBuffer<QueuedEvent> ring;
+
+  private final AtomicReference<Link<byte[]>> linkRef = new AtomicReference<>();
+  private final AtomicBoolean connecting = new AtomicBoolean(false);
+  private final AtomicBoolean draining = new AtomicBoolean(false);
+
+  private final Lock lock = new ReentrantLock();
+  private final Condition notFull = this.lock.newCondition();
+  private final AtomicInteger waiters = new AtomicInteger(0);
+
+  private volatile SocketAddress localAddress;
+
+  /**
+   * Constructs a sender queue.
+   *
+   * @param remoteAddress the remote destination
+   * @param transport     the transport to open the link with
+   * @param executor      the executor service used for creating channels
+   * @param policy        the capacity, backpressure and drop handler of the queue
+   */
+  RemoteSenderQueue(final SocketAddress remoteAddress, final Transport transport,
+                    final ExecutorService executor, final RemoteSenderQueuePolicy policy) {
+    this.remoteAddress = remoteAddress;
+    this.transport = transport;
+    this.executor = executor;
+    this.backpressure = policy.getBackpressure();
+    this.dropHandler = policy.getDropHandler();
+    this.ring = new MpscRingBuffer<>(policy.getCapacity());
+  }
+
+  /**
+   * Queues an encoded event and writes the queue to the link if it is connected.
+   *
+   * @param event the event
+   * @param data  the encoded event
+   * @return false if the queue was full and the event was dropped
+   * @throws RemoteRuntimeException if the queue is full and the backpressure is FAIL_FAST,
+   *                                or if the sender is interrupted while blocked
+   */
+  boolean send(final RemoteEvent<?> event, final byte[] data) {
+
+    this.localAddress = event.localAddress();
+    final QueuedEvent queued = new QueuedEvent(event, data);
+
+    if (!this.ring.offer(queued)) {
+      switch (this.backpressure) {
+      case BLOCK:
+        awaitOffer(queued);
+        break;
+      case DROP:
+        return false;
+      default:
+        throw new RemoteRuntimeException(String.format(
+            "Send queue to %s is full: %d events", this.remoteAddress, this.ring.capacity()));
+      }
+    }
+
+    drain();
+    return true;
+  }
+
+  /**
+   * @return the number of events waiting to be written to the link
+   */
+  int getDepth() {
+    return this.ring.size();
+  }
+
+  /**
+   * Sets the link once connected and writes out the queue.
+   *
+   * @param link the link to the remote destination
+   */
+  void setLink(final Link<byte[]> link) {
+    LOG.log(Level.FINEST, "thread {0} set link {1}", new Object[] {Thread.currentThread(), link});
+    this.linkRef.set(link);
+    this.connecting.set(false);
+    drain();
+  }
+
+  /**
+   * Hands the queued events to the drop handler and allows the next send to try connecting again.
+   *
+   * @param cause the reason the connect failed
+   */
+  void connectFailed(final Throwable cause) {
+    // only the events queued before the failure are dropped
+    int numFailed = getDepth();
+    LOG.log(Level.WARNING, "Failed to connect to " + this.remoteAddress + "; dropping " + numFailed +
+        " queued events", cause);
+    while (numFailed > 0 && this.draining.compareAndSet(false, true)) {
+      try {
+        QueuedEvent queued;
+        while (numFailed > 0 && (queued = this.ring.poll()) != null) {
+          --numFailed;
+          if (this.dropHandler != null) {
+            this.dropHandler.onNext(queued.getEvent());
+          }
+        }
+      } finally {
+        this.draining.set(false);
+      }
+    }
+    this.connecting.set(false);
+    signalNotFull();
+    // events queued after the failure get a connect of their own
+    if (!this.ring.isEmpty()) {
+      connect();
+    }
+  }
+
+  /**
+   * Waits until the event fits in the queue, writing out the queue or connecting in the meantime.
+   * The drainer signals the waiters after it takes events off the ring; a waiter registers itself
+   * before it tries the ring, so it cannot miss that signal.
+   */
+  private void awaitOffer(final QueuedEvent queued) {
+    while (true) {
+      drain();
+      this.lock.lock();
+      this.waiters.incrementAndGet();
+      try {
+        if (this.ring.offer(queued)) {
+          return;
+        }
+        this.notFull.await();
+      } catch (final InterruptedException e) {
+        throw new RemoteRuntimeException("Interrupted while waiting for the send queue to " + this.remoteAddress, e);
+      } finally {
+        this.waiters.decrementAndGet();
+        this.lock.unlock();
+      }
+    }
+  }
+
+  private void signalNotFull() {
+    if (this.waiters.get() > 0) {
+      this.lock.lock();
+      try {
+        this.notFull.signalAll();
+      } finally {
+        this.lock.unlock();
+      }
+    }
+  }
+
+  /**
+   * Gets the link, forgetting it if the transport dropped it because its channel closed.
+   *
+   * @return the link, or null if there is none
+   */
+  private Link<byte[]> getLink() {
+    final Link<byte[]> link = this.linkRef.get();
+    if (link != null && this.transport.<byte[]>get(this.remoteAddress) != link) {
+      LOG.log(Level.FINE, "Link {0} to {1} closed", new Object[] {link, this.remoteAddress});
+      this.linkRef.compareAndSet(link, null);
+      return null;
+    }
+    return link;
+  }
+
+  private void connect() {
+    if (!this.connecting.compareAndSet(false, true)) {
+      return;
+    }
+    final Link<byte[]> link = this.transport.get(this.remoteAddress);
+    if (link != null) {
+      LOG.log(Level.FINEST, "transport get link: {0}", link);
+      setLink(link);
+      return;
+    }
+    this.executor.submit(new ConnectFutureTask<>(
+        new ConnectCallable(this.transport, this.localAddress, this.remoteAddress), new ConnectEventHandler(this)));
+  }
+
+  /**
+   * Writes the queued events to the link, unless another thread is already doing so,
+   * or connects if there is no link. The queue is checked again after giving up the drainer role,
+   * so an event offered while the previous drainer was finishing is not left behind.
+   */
+  private void drain() {
+    while (!this.ring.isEmpty() && this.draining.compareAndSet(false, true)) {
+      final Link<byte[]> link;
+      try {
+        link = getLink();
+        if (link != null) {
+          QueuedEvent queued;
+          while ((queued = this.ring.poll()) != null) {
+            link.write(queued.getData());
+          }
+        }
+      } finally {
+        this.draining.set(false);
+      }
+      signalNotFull();
+      if (link == null) {
+        if (this.linkRef.get() != null) {
+          // the link was set while this thread was the drainer, so the drain of setLink gave up; drain again
+          continue;
+        }
+        connect();
+        return;
+      }
+    }
+  }
+
+  @Override
+  public String toString() {
+    return String.format("RemoteSenderQueue: { remote: %s depth: %d link: %s }",
+        this.remoteAddress, getDepth(), this.linkRef.get());
+  }
+
+  /**
+   * An event and its encoding, kept together so an event that cannot be sent can be handed back.
+   */
+  private static final class QueuedEvent {
+
+    private final RemoteEvent<?> event;
+    private final byte[] data;
+
+    QueuedEvent(final RemoteEvent<?> event, final byte[] data) {
+      this.event = event;
+      this.data = data;
+    }
+
+    RemoteEvent<?> getEvent() {
+      return this.event;
+    }
+
+    byte[] getData() {
+      return this.data;
+    }
+  }
+}
@@ -0,0 +1,113 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.reef.wake.remote.impl;
+
+import org.apache.reef.tang.annotations.Parameter;
+import org.apache.reef.wake.EventHandler;
+import org.apache.reef.wake.remote.RemoteConfiguration;
+
+import javax.inject.Inject;
+
+/**
+ * Capacity and backpressure of the queues of outgoing events to remote destinations.
+ */
+public final class RemoteSenderQueuePolicy {
+
+  /**
+   * What a sender does when the queue to a remote destination is full.
+   */
+  public enum Backpressure {
+    /**
+     * Wait until there is room in the queue.
+     */
+    BLOCK,
+    /**
+     * Hand the event to the drop handler.
+     */
+    DROP,
+    /**
+     * Throw a RemoteRuntimeException.
+     */
+    FAIL_FAST
+  }
+
+  private final int capacity;
+  private final Backpressure backpressure;
+  private final EventHandler<RemoteEvent<?>> dropHandler;
+
+  /**
+   * Constructs a sender queue policy.
+   *
+   * @param capacity     the capacity of the queue to each remote destination
+   * @param backpressure what a sender does when the queue is full: BLOCK, DROP or FAIL_FAST
+   * @param dropHandler  the handler of dropped events
+   */
+  @Inject
+  private RemoteSenderQueuePolicy(
+      @Parameter(RemoteConfiguration.SenderQueueCapacity.class) final int capacity,
+      @Parameter(RemoteConfiguration.SenderBackpressure.class) final String backpressure,
+      @Parameter(RemoteConfiguration.SenderDropHandler.class) final EventHandler<RemoteEvent<?>> dropHandler) {
+    this(capacity, Backpressure.valueOf(backpressure), dropHandler);
+  }
+
+  /**
+   * Constructs a sender queue policy.
+   *
+   * @param capacity     the capacity of the queue to each remote destination
+   * @param backpressure what a sender does when the queue is full
+   * @param dropHandler  the handler of dropped events
+   */
+  public RemoteSenderQueuePolicy(final int capacity,
+                                 final Backpressure backpressure,
+                                 final EventHandler<RemoteEvent<?>> dropHandler) {
+    if (capacity <= 0) {
+      throw new IllegalArgumentException("Invalid sender queue capacity: " + capacity);
+    }
+    this.capacity = capacity;
+    this.backpressure = backpressure;
+    this.dropHandler = dropHandler;
+  }
+
+  /**
+   * @return the capacity of the queue to each remote destination
+   */
+  public int getCapacity() {
+    return this.capacity;
+  }
+
+  /**
+   * @return what a sender does when the queue is full
+   */
+  public Backpressure getBackpressure() {
+    return this.backpressure;
+  }
+
+  /**
+   * @return the handler of dropped events
+   */
+  public EventHandler<RemoteEvent<?>> getDropHandler() {
+    return this.dropHandler;
+  }
+
+  @Override
+  public String toString() {
+    return String.format("RemoteSenderQueuePolicy: { capacity: %d backpressure: %s }",
+        this.capacity, this.backpressure);
+  }
+}
@@ -18,6 +18,8 @@
  */
 package org.apache.reef.wake.remote.impl;
 
+import org.apache.reef.tang.Tang;
+import org.apache.reef.tang.exceptions.InjectionException;
 import org.apache.reef.wake.EventHandler;
 import org.apache.reef.wake.Stage;
 import org.apache.reef.wake.WakeParameters;
@@ -26,7 +28,12 @@ import org.apache.reef.wake.remote.Encoder;
 import org.apache.reef.wake.remote.exception.RemoteRuntimeException;
 import org.apache.reef.wake.remote.transport.Transport;
 
+import java.net.SocketAddress;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
@@ -35,6 +42,8 @@ import java.util.logging.Logger;
 
 /**
  * Stage to manage resources related to sending event remotely.
+ * <p>
+ * Keeps one bounded queue of outgoing events per remote destination.
  */
 public class RemoteSenderStage implements Stage {
 
@@ -45,28 +54,91 @@ public class RemoteSenderStage implements Stage {
   private final ExecutorService executor;
   private final Encoder encoder;
   private final Transport transport;
+  private final RemoteSenderQueuePolicy queuePolicy;
+  private final ConcurrentMap<SocketAddress, RemoteSenderQueue> queues = new ConcurrentHashMap<>();
 
   /**
-   * Constructs a remote sender stage.
+   * Constructs a remote sender stage with the default queue policy.
    *
    * @param encoder    the encoder of the event
    * @param transport  the transport to send events
    * @param numThreads the number of threads
    */
   public RemoteSenderStage(final Encoder encoder, final Transport transport, final int numThreads) {
+    this(encoder, transport, numThreads, getDefaultQueuePolicy());
+  }
+
+  /**
+   * Constructs a remote sender stage.
+   *
+   * @param encoder     the encoder of the event
+   * @param transport   the transport to send events
+   * @param numThreads  the number of threads
+   * @param queuePolicy the capacity and backpressure of the queue to each remote destination
+   */
+  public RemoteSenderStage(final Encoder encoder, final Transport transport, final int numThreads,
+                           final RemoteSenderQueuePolicy queuePolicy) {
     this.encoder = encoder;
     this.transport = transport;
+    this.queuePolicy = queuePolicy;
     this.executor = Executors.newFixedThreadPool(
         numThreads, new DefaultThreadFactory(RemoteSenderStage.class.getName()));
   }
 
+  private static RemoteSenderQueuePolicy getDefaultQueuePolicy() {
+    try {
+      return Tang.Factory.getTang().newInjector().getInstance(RemoteSenderQueuePolicy.class);
+    } catch (final InjectionException e) {
+      throw new RuntimeException(e);
+    }
+  }
+
   /**
    * Returns a new remote sender event handler.
    *
    * @return a remote sender event handler
    */
   public <T> EventHandler<RemoteEvent<T>> getHandler() {
-    return new RemoteSenderEventHandler<T>(encoder, transport, executor);
+    return new RemoteSenderEventHandler<T>(encoder, this, queuePolicy.getDropHandler());
+  }
+
+  /**
+   * Gets the number of events waiting to be sent to a remote destination.
+   *
+   * @param remoteAddress the remote destination
+   * @return the queue depth; 0 if nothing was ever sent to the destination
+   */
+  public int getQueueDepth(final SocketAddress remoteAddress) {
+    final RemoteSenderQueue queue = queues.get(remoteAddress);
+    return queue == null ? 0 : queue.getDepth();
+  }
+
+  /**
+   * Gets the number of events waiting to be sent to each remote destination.
+   *
+   * @return a snapshot of the queue depths by remote destination
+   */
+  public Map<SocketAddress, Integer> getQueueDepths() {
+    final Map<SocketAddress, Integer> depths = new HashMap<>();
+    for (final Map.Entry<SocketAddress, RemoteSenderQueue> entry : queues.entrySet()) {
+      depths.put(entry.getKey(), entry.getValue().getDepth());
+    }
+    return depths;
+  }
+
+  /**
+   * Returns the queue of a remote destination, creating it on first use.
+   */
+  RemoteSenderQueue getQueue(final SocketAddress remoteAddress) {
+    RemoteSenderQueue queue = queues.get(remoteAddress);
+    if (queue == null) {
+      final RemoteSenderQueue newQueue = new RemoteSenderQueue(remoteAddress, transport, executor, queuePolicy);
+      queue = queues.putIfAbsent(remoteAddress, newQueue);
+      if (queue == null) {
+        queue = newQueue;
+      }
+    }
+    return queue;
   }
 
   /**
@@ -18,14 +18,22 @@
  */
 package org.apache.reef.wake.remote.impl;
 
+import org.apache.reef.wake.remote.BufferDecoder;
+import org.apache.reef.wake.remote.BufferEncoder;
 import org.apache.reef.wake.remote.Codec;
+import org.apache.reef.wake.remote.exception.RemoteRuntimeException;
 
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
 import java.nio.charset.StandardCharsets;
 
 /**
  * Codec that encodes/decodes a string.
  */
-public class StringCodec implements Codec<String> {
+public class StringCodec implements Codec<String>, BufferEncoder<String>, BufferDecoder<String> {
 
   /**
    * Returns a byte array representation of the string.
@@ -38,6 +46,52 @@ public class StringCodec implements Codec<String> {
     return obj.getBytes(StandardCharsets.UTF_8);
   }
 
+  /**
+   * Returns the length of the UTF-8 representation of the string.
+   * Unpaired surrogates count as one byte, as they are replaced by '?' on encoding.
+   *
+   * @param obj the string
+   * @return the number of bytes
+   */
+  @Override
+  public int getEncodedSize(final String obj) {
+    int size = 0;
+    for (int i = 0; i < obj.length(); ++i) {
+      final char c = obj.charAt(i);
+      if (c < 0x80) {
+        size += 1;
+      } else if (c < 0x800) {
+        size += 2;
+      } else if (Character.isHighSurrogate(c) && i + 1 < obj.length() && Character.isLowSurrogate(obj.charAt(i + 1))) {
+        size += 4;
+        ++i;
+      } else if (Character.isSurrogate(c)) {
+        size += 1;
+      } else {
+        size += 3;
+      }
+    }
+    return size;
+  }
+
+  /**
+   * Writes the UTF-8 representation of the string into the buffer.
+   *
+   * @param obj the string
+   * @param buffer the buffer to write to
+   */
+  @Override
+  public void encode(final String obj, final ByteBuffer buffer) {
+    final CharsetEncoder encoder = StandardCharsets.UTF_8.newEncoder()
+        .onMalformedInput(CodingErrorAction.REPLACE)
+        .onUnmappableCharacter(CodingErrorAction.REPLACE);
+    final CharBuffer in = CharBuffer.wrap(obj);
+    final CoderResult result = encoder.encode(in, buffer, true);
+    if (result.isOverflow() || encoder.flush(buffer).isOverflow()) {
+      throw new RemoteRuntimeException("Buffer too small for the encoded string");
+    }
+  }
+
   /**
    * Returns a string decoded from the byte array.
    *
@@ -48,5 +102,16 @@ public class StringCodec implements Codec<String> {
   public String decode(final byte[] buf) {
     return new String(buf, StandardCharsets.UTF_8);
   }
+
+  /**
+   * Returns a string decoded from the remaining bytes of the buffer.
+   *
+   * @param buffer the buffer
+   * @return a string
+   */
+  @Override
+  public String decode(final ByteBuffer buffer) {
+    return StandardCharsets.UTF_8.decode(buffer.duplicate()).toString();
+  }
 }
 
@@ -18,16 +18,26 @@
  */
 package org.apache.reef.wake.remote.impl;
 
+import io.netty.buffer.ByteBuf;
 import org.apache.reef.wake.remote.transport.Link;
 
 import java.net.SocketAddress;
+import java.nio.ByteBuffer;
 
 /**
  * Event sent from a remote node.
+ * <p>
+ * The payload is either a byte array or, when the transport runs in zero-copy mode,
+ * a reference-counted buffer that still holds the received frame.
+ * A buffer-backed event must be released by its consumer: either explicitly via {@link #release()}
+ * after the data obtained from {@link #getBuffer()} is no longer needed, or implicitly by
+ * calling {@link #getData()}, which copies the payload out and releases the buffer.
  */
 public class TransportEvent {
 
-  private final byte[] data;
+  private byte[] data;
+  private ByteBuf buffer;
+  private final int length;
   private final SocketAddress localAddr;
   private final SocketAddress remoteAddr;
   private final Link<byte[]> link;
@@ -41,6 +51,8 @@ public class TransportEvent {
    */
   public TransportEvent(final byte[] data, final SocketAddress localAddr, final SocketAddress remoteAddr) {
     this.data = data;
+    this.buffer = null;
+    this.length = data.length;
     this.localAddr = localAddr;
     this.remoteAddr = remoteAddr;
     link = null;
@@ -55,6 +67,45 @@ public class TransportEvent {
    */
   public TransportEvent(final byte[] data, final Link<byte[]> link) {
     this.data = data;
+    this.buffer = null;
+    this.length = data.length;
+    this.link = link;
+    if (this.link != null) {
+      localAddr = link.getLocalAddress();
+      remoteAddr = link.getRemoteAddress();
+    } else {
+      localAddr = null;
+      remoteAddr = null;
+    }
+  }
+
+  /**
+   * Constructs a buffer-backed event. The event takes over one reference of the buffer.
+   *
+   * @param buffer     the received frame; its readable bytes are the payload
+   * @param localAddr  the local socket address
+   * @param remoteAddr the remote socket address
+   */
+  public TransportEvent(final ByteBuf buffer, final SocketAddress localAddr, final SocketAddress remoteAddr) {
+    this.data = null;
+    this.buffer = buffer;
+    this.length = buffer.readableBytes();
+    this.localAddr = localAddr;
+    this.remoteAddr = remoteAddr;
+    link = null;
+  }
+
+  /**
+   * Constructs a buffer-backed event using a link to initialize local and remote address.
+   * The event takes over one reference of the buffer.
+   *
+   * @param buffer the received frame; its readable bytes are the payload
+   * @param link   the link the frame was received on
+   */
+  public TransportEvent(final ByteBuf buffer, final Link<byte[]> link) {
+    this.data = null;
+    this.buffer = buffer;
+    this.length = buffer.readableBytes();
     this.link = link;
     if (this.link != null) {
       localAddr = link.getLocalAddress();
@@ -69,18 +120,62 @@ public class TransportEvent {
   public String toString() {
     return String.format(
         "TransportEvent: {local: %s remote: %s size: %d bytes}",
-        this.localAddr, this.remoteAddr, this.data.length);
+        this.localAddr, this.remoteAddr, this.length);
   }
 
   /**
    * Gets the data.
+   * For a buffer-backed event, the payload is copied out and the buffer is released on the first call.
    *
    * @return data
    */
-  public byte[] getData() {
+  public synchronized byte[] getData() {
+    if (data == null && buffer != null) {
+      data = new byte[length];
+      buffer.getBytes(buffer.readerIndex(), data);
+      release();
+    }
     return data;
   }
 
+  /**
+   * Checks whether the payload is still held in a transport buffer.
+   *
+   * @return true if the payload can be read through {@link #getBuffer()} without a copy
+   */
+  public synchronized boolean hasBuffer() {
+    return buffer != null;
+  }
+
+  /**
+   * Gets a view of the payload held in the transport buffer.
+   * The view is valid until {@link #release()} is called.
+   *
+   * @return a buffer positioned at the start of the payload, or null if the event is not buffer-backed
+   */
+  public synchronized ByteBuffer getBuffer() {
+    return buffer != null ? buffer.nioBuffer(buffer.readerIndex(), length) : null;
+  }
+
+  /**
+   * Releases the transport buffer. Does nothing for events that are not buffer-backed.
+   */
+  public synchronized void release() {
+    if (buffer != null) {
+      buffer.release();
+      buffer = null;
+    }
+  }
+
+  /**
+   * Gets the size of the payload in bytes.
+   *
+   * @return the payload length
+   */
+  public int getLength() {
+    return length;
+  }
+
   /**
    * Returns the link associated with the event.
    * which can be used to write back to the client
@@ -0,0 +1,165 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.reef.wake.remote.impl;
+
+import org.apache.reef.wake.remote.BufferDecoder;
+import org.apache.reef.wake.remote.BufferEncoder;
+import org.apache.reef.wake.remote.Decoder;
+import org.apache.reef.wake.remote.Encoder;
+import org.apache.reef.wake.remote.exception.RemoteRuntimeException;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+
+/**
+ * Reads and writes the protocol buffer wire format in place on byte buffers.
+ * Used by the Wake codecs to frame and unframe WakeMessagePBuf and WakeTuplePBuf
+ * without building intermediate protocol buffer objects.
+ */
+final class WireFormat {
+
+  static final int WIRETYPE_VARINT = 0;
+  static final int WIRETYPE_FIXED64 = 1;
+  static final int WIRETYPE_LENGTH_DELIMITED = 2;
+  static final int WIRETYPE_FIXED32 = 5;
+
+  /**
+   * Empty private constructor to prohibit instantiation of utility class.
+   */
+  private WireFormat() {
+  }
+
+  static int makeTag(final int field, final int wireType) {
+    return field << 3 | wireType;
+  }
+
+  /**
+   * @return the number of bytes of the varint encoding of the value.
+   */
+  static int getVarintSize(final long value) {
+    return value == 0 ? 1 : (Long.SIZE - Long.numberOfLeadingZeros(value) + 6) / 7;
+  }
+
+  /**
+   * @return the number of bytes of a length delimited field with a payload of the given length.
+   */
+  static int getLengthDelimitedSize(final int field, final int length) {
+    return getVarintSize(makeTag(field, WIRETYPE_LENGTH_DELIMITED)) + getVarintSize(length) + length;
+  }
+
+  static void writeVarint(final ByteBuffer out, final long value) {
+    long remaining = value;
+    while ((remaining & ~0x7FL) != 0) {
+      out.put((byte) (remaining & 0x7F | 0x80));
+      remaining >>>= 7;
+    }
+    out.put((byte) remaining);
+  }
+
+  /**
+   * Writes the tag and the length of a length delimited field; the caller writes the payload next.
+   */
+  static void writeLengthDelimitedHeader(final ByteBuffer out, final int field, final int length) {
+    writeVarint(out, makeTag(field, WIRETYPE_LENGTH_DELIMITED));
+    writeVarint(out, length);
+  }
+
+  /**
+   * Writes a fixed32 value, which protocol buffers store little-endian.
+   */
+  static void writeFixed32(final ByteBuffer out, final int value) {
+    out.put((byte) value).put((byte) (value >>> 8)).put((byte) (value >>> 16)).put((byte) (value >>> 24));
+  }
+
+  static int readFixed32(final ByteBuffer in) {
+    return in.get() & 0xFF | (in.get() & 0xFF) << 8 | (in.get() & 0xFF) << 16 | (in.get() & 0xFF) << 24;
+  }
+
+  static long readVarint(final ByteBuffer in) {
+    long result = 0;
+    for (int shift = 0; shift < 64; shift += 7) {
+      final byte b = in.get();
+      result |= (long) (b & 0x7F) << shift;
+      if ((b & 0x80) == 0) {
+        return result;
+      }
+    }
+    throw new RemoteRuntimeException("Malformed varint");
+  }
+
+  /**
+   * Reads the length of a length delimited field and returns its payload as a slice of the buffer.
+   * The position of the buffer moves past the payload.
+   */
+  static ByteBuffer readLengthDelimited(final ByteBuffer in) {
+    final int length = (int) readVarint(in);
+    if (length < 0 || length > in.remaining()) {
+      throw new BufferUnderflowException();
+    }
+    final ByteBuffer payload = in.duplicate();
+    payload.limit(in.position() + length);
+    in.position(in.position() + length);
+    return payload.slice();
+  }
+
+  static void skipField(final ByteBuffer in, final int wireType) {
+    switch (wireType) {
+    case WIRETYPE_VARINT:
+      readVarint(in);
+      break;
+    case WIRETYPE_FIXED64:
+      in.position(in.position() + 8);
+      break;
+    case WIRETYPE_LENGTH_DELIMITED:
+      readLengthDelimited(in);
+      break;
+    case WIRETYPE_FIXED32:
+      in.position(in.position() + 4);
+      break;
+    default:
+      throw new RemoteRuntimeException("Unsupported wire type " + wireType);
+    }
+  }
+
+  /**
+   * Returns the encoded size of the object if the encoder can write it into a buffer directly.
+   *
+   * @return the size in bytes, or {@link BufferEncoder#UNKNOWN_SIZE}.
+   */
+  @SuppressWarnings("unchecked")
+  static <T> int getEncodedSize(final Encoder<T> encoder, final T obj) {
+    return encoder instanceof BufferEncoder
+        ? ((BufferEncoder<T>) encoder).getEncodedSize(obj)
+        : BufferEncoder.UNKNOWN_SIZE;
+  }
+
+  /**
+   * Decodes a payload slice, handing it over as is if the decoder is a {@link BufferDecoder}
+   * and copying it into a byte array otherwise.
+   */
+  @SuppressWarnings("unchecked")
+  static <T> T decodePayload(final Decoder<T> decoder, final ByteBuffer payload) {
+    if (decoder instanceof BufferDecoder) {
+      return ((BufferDecoder<T>) decoder).decode(payload);
+    }
+    final byte[] data = new byte[payload.remaining()];
+    payload.get(data);
+    return decoder.decode(data);
+  }
+}
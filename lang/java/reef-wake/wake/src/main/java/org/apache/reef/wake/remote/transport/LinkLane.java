@@ -0,0 +1,39 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.reef.wake.remote.transport;
+
+/**
+ * The lane of the connection a link to a peer writes to.
+ * Lanes keep bulk data transfers from delaying control messages and heartbeats to the same peer.
+ * They are opened with {@link org.apache.reef.wake.remote.transport.netty.NettyMessagingTransport};
+ * other transports only have the CONTROL lane.
+ */
+public enum LinkLane {
+
+  /**
+   * The single shared connection to the peer, for control messages and heartbeats.
+   */
+  CONTROL,
+
+  /**
+   * One of a pool of connections to the peer reserved for bulk data.
+   * Falls back to the CONTROL connection when the transport has no bulk connections or no lanes.
+   */
+  BULK
+}
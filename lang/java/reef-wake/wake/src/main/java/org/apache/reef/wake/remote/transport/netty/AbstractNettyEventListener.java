@@ -18,9 +18,9 @@
  */
 package org.apache.reef.wake.remote.transport.netty;
 
+import io.netty.buffer.ByteBuf;
 import io.netty.channel.Channel;
 import io.netty.channel.ChannelHandlerContext;
-import org.apache.reef.wake.EStage;
 import org.apache.reef.wake.EventHandler;
 import org.apache.reef.wake.remote.impl.TransportEvent;
 
@@ -38,14 +38,14 @@ abstract class AbstractNettyEventListener implements NettyEventListener {
   protected static final Logger LOG = Logger.getLogger(AbstractNettyEventListener.class.getName());
 
   protected final ConcurrentMap<SocketAddress, LinkReference> addrToLinkRefMap;
-  protected final EStage<TransportEvent> stage;
+  protected final ThrottledChannelGroup channelGroup;
   protected EventHandler<Exception> exceptionHandler;
 
   AbstractNettyEventListener(
       final ConcurrentMap<SocketAddress, LinkReference> addrToLinkRefMap,
-      final EStage<TransportEvent> stage) {
+      final ThrottledChannelGroup channelGroup) {
     this.addrToLinkRefMap = addrToLinkRefMap;
-    this.stage = stage;
+    this.channelGroup = channelGroup;
   }
 
   public void registerErrorHandler(final EventHandler<Exception> handler) {
@@ -56,6 +56,12 @@ abstract class AbstractNettyEventListener implements NettyEventListener {
   @Override
   public void channelRead(final ChannelHandlerContext ctx, final Object msg) {
     final Channel channel = ctx.channel();
+
+    if (msg instanceof ByteBuf) {
+      this.bufferRead(channel, (ByteBuf) msg);
+      return;
+    }
+
     final byte[] message = (byte[]) msg;
 
     if (LOG.isLoggable(Level.FINEST)) {
@@ -64,8 +70,32 @@ abstract class AbstractNettyEventListener implements NettyEventListener {
     }
 
     if (message.length > 0) {
-      // send to the dispatch stage
-      this.stage.onNext(this.getTransportEvent(message, channel));
+      // send to the dispatch stage, without waiting for room in it
+      this.channelGroup.dispatch(channel, this.getTransportEvent(message, channel));
+    }
+  }
+
+  /**
+   * Passes a frame received in zero-copy mode on to the dispatch stage.
+   * The caller releases the message after this returns,
+   * so the transport event takes its own reference that the stage has to release.
+   */
+  private void bufferRead(final Channel channel, final ByteBuf message) {
+
+    if (LOG.isLoggable(Level.FINEST)) {
+      LOG.log(Level.FINEST, "MessageEvent: local: {0} remote: {1} :: {2}", new Object[]{
+          channel.localAddress(), channel.remoteAddress(), message});
+    }
+
+    if (message.isReadable()) {
+      final TransportEvent event = this.getTransportEvent(message.retain(), channel);
+      try {
+        // send to the dispatch stage, without waiting for room in it
+        this.channelGroup.dispatch(channel, event);
+      } catch (final RuntimeException ex) {
+        event.release();
+        throw ex;
+      }
     }
   }
 
@@ -87,11 +117,14 @@ abstract class AbstractNettyEventListener implements NettyEventListener {
 
   protected abstract TransportEvent getTransportEvent(final byte[] message, final Channel channel);
 
+  protected abstract TransportEvent getTransportEvent(final ByteBuf message, final Channel channel);
+
   protected abstract void exceptionCleanup(final ChannelHandlerContext ctx, Throwable cause);
 
   protected void closeChannel(final Channel channel) {
+    // a BULK lane channel shares its remote address with the CONTROL link, which stays
     final LinkReference refRemoved =
-        channel != null && channel.remoteAddress() != null ?
+        channel != null && channel.remoteAddress() != null && !LinkPool.isBulkLane(channel) ?
             this.addrToLinkRefMap.remove(channel.remoteAddress()) : null;
     LOG.log(Level.FINER, "Channel closed: {0}. Link ref found and removed: {1}",
         new Object[]{channel, refRemoved != null});
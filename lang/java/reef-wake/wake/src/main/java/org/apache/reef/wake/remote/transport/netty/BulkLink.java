@@ -0,0 +1,116 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.reef.wake.remote.transport.netty;
+
+import io.netty.channel.Channel;
+import org.apache.reef.wake.remote.Encoder;
+import org.apache.reef.wake.remote.transport.Link;
+import org.apache.reef.wake.remote.transport.LinkListener;
+
+import java.net.ConnectException;
+import java.net.SocketAddress;
+
+/**
+ * A link of the BULK lane. It writes to the connection of one slot of the pool of its peer,
+ * so that its messages arrive in order, and checks the connection on every write.
+ * While the connection is down, writes fail right away to the link listener
+ * and the transport reconnects the slot in the background, at most once per retry timeout.
+ * Users of the BULK lane may keep the link, as it reconnects by itself.
+ *
+ * @param <T> type
+ */
+public final class BulkLink<T> implements Link<T> {
+
+  private final NettyMessagingTransport transport;
+  private final SocketAddress remoteAddr;
+  private final LinkPool pool;
+  private final int slot;
+  private final Encoder<? super T> encoder;
+  private final LinkListener<? super T> listener;
+
+  private volatile NettyLink<T> link;
+
+  BulkLink(final NettyMessagingTransport transport, final SocketAddress remoteAddr, final LinkPool pool,
+           final int slot, final Encoder<? super T> encoder, final LinkListener<? super T> listener) {
+    this.transport = transport;
+    this.remoteAddr = remoteAddr;
+    this.pool = pool;
+    this.slot = slot;
+    this.encoder = encoder;
+    this.listener = listener;
+  }
+
+  /**
+   * Writes the message to the connection of the slot.
+   * If the connection is down, reports the failure to the link listener and starts reconnecting it.
+   *
+   * @param message the message
+   */
+  @Override
+  public void write(final T message) {
+    final NettyLink<T> current = getLink();
+    if (current != null) {
+      current.write(message);
+    } else if (this.listener != null) {
+      this.listener.onException(
+          new ConnectException("Bulk link to " + this.remoteAddr + " slot " + this.slot + " is down"),
+          this.remoteAddr, message);
+    }
+  }
+
+  /**
+   * @return the link on the active connection of the slot, or null if the connection is down
+   */
+  private NettyLink<T> getLink() {
+    final NettyLink<T> current = this.link;
+    if (current != null && current.getChannel().isActive()) {
+      return current;
+    }
+    final Channel channel = this.pool.get(this.slot);
+    if (channel == null || !channel.isActive()) {
+      this.transport.reconnectBulk(this.remoteAddr, this.pool, this.slot);
+      return null;
+    }
+    synchronized (this) {
+      if (this.link == null || this.link.getChannel() != channel) {
+        this.link = new NettyLink<>(channel, this.encoder, this.listener);
+      }
+      return this.link;
+    }
+  }
+
+  /**
+   * @return the local address of the connection of the slot, or null if the connection is down
+   */
+  @Override
+  public SocketAddress getLocalAddress() {
+    final NettyLink<T> current = getLink();
+    return current != null ? current.getLocalAddress() : null;
+  }
+
+  @Override
+  public SocketAddress getRemoteAddress() {
+    return this.remoteAddr;
+  }
+
+  @Override
+  public String toString() {
+    return "BulkLink: " + this.remoteAddr + " slot " + this.slot;
+  }
+}
@@ -20,6 +20,7 @@ package org.apache.reef.wake.remote.transport.netty;
 
 import io.netty.buffer.ByteBuf;
 import io.netty.buffer.ByteBufInputStream;
+import io.netty.buffer.CompositeByteBuf;
 import io.netty.buffer.Unpooled;
 import io.netty.channel.ChannelHandlerContext;
 import io.netty.channel.ChannelPromise;
@@ -59,6 +60,8 @@ public class ChunkedReadWriteHandler extends ChunkedWriteHandler {
   private ByteBuf readBuffer;
   private byte[] retArr;
 
+  private CompositeByteBuf readComposite;
+
   /**
    * @see org.jboss.netty.handler.stream.ChunkedWriteHandler#handleUpstream(
    *      org.jboss.netty.channel.ChannelHandlerContext, org.jboss.netty.channel.ChannelEvent)
@@ -101,11 +104,51 @@ public class ChunkedReadWriteHandler extends ChunkedWriteHandler {
         //LOG.log(Level.FINEST, "{0} Sending dechunked message upstream", curThrName);
         super.channelRead(ctx, temp);
       }
+    } else if (msg instanceof ByteBuf) {
+
+      // zero-copy mode: the chunks are reference-counted buffers that are passed on without copying.
+      final ByteBuf chunk = (ByteBuf) msg;
+
+      if (start) {
+        expectedSize = Integer.reverseBytes(chunk.readInt());
+        if (chunk.readableBytes() == expectedSize) {
+          // the common case: the whole message arrived in a single chunk
+          expectedSize = 0;
+          super.channelRead(ctx, chunk);
+          return;
+        }
+        readComposite = ctx.alloc().compositeBuffer(expectedSize / (NettyChannelInitializer.MAXFRAMELENGTH - 1024) + 2);
+        start = false;
+      }
+
+      final int chunkSize = chunk.readableBytes();
+      readComposite.addComponent(chunk);
+      readComposite.writerIndex(readComposite.writerIndex() + chunkSize);
+
+      if (readComposite.writerIndex() == expectedSize) {
+        final ByteBuf temp = readComposite;
+        start = true;
+        expectedSize = 0;
+        readComposite = null;
+        super.channelRead(ctx, temp);
+      }
     } else {
       super.channelRead(ctx, msg);
     }
   }
 
+  /**
+   * Releases a partially received message when the channel goes away.
+   */
+  @Override
+  public void channelInactive(final ChannelHandlerContext ctx) throws Exception {
+    if (readComposite != null) {
+      readComposite.release();
+      readComposite = null;
+    }
+    super.channelInactive(ctx);
+  }
+
   /**
    * Thread-safe since there is no shared instance state.
    * Just prepend size to the message and stream it through
@@ -0,0 +1,88 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.reef.wake.remote.transport.netty;
+
+/**
+ * The codecs that can compress the messages of a messaging transport.
+ * <p>
+ * Each compressed frame starts with the id of its codec, so a receiver decodes frames of any codec.
+ */
+public enum CompressionCodec {
+
+  /**
+   * Messages are sent as they are.
+   */
+  NONE(0),
+
+  /**
+   * The LZ4 block format, an LZ77-class codec that favors speed over ratio.
+   */
+  LZ4(1),
+
+  /**
+   * Deflate at its fastest level; slower than LZ4, with a better ratio.
+   */
+  DEFLATE(2);
+
+  private final byte id;
+
+  CompressionCodec(final int id) {
+    this.id = (byte) id;
+  }
+
+  /**
+   * @return the id of the codec on the wire
+   */
+  byte getId() {
+    return this.id;
+  }
+
+  /**
+   * Gets the size of the largest output the codec can produce.
+   *
+   * @param length the size of the input
+   * @return the size of the largest output for the input size
+   */
+  int maxCompressedLength(final int length) {
+    switch (this) {
+    case LZ4:
+      return Lz4BlockCodec.maxCompressedLength(length);
+    case DEFLATE:
+      // the bound of zlib's deflateBound() for any level, without a zlib or gzip wrapper
+      return length + ((length + 7) >> 3) + ((length + 63) >> 6) + 5;
+    default:
+      return length;
+    }
+  }
+
+  /**
+   * Looks up a codec by its id on the wire.
+   *
+   * @param id the id of the codec
+   * @return the codec, or null if the id is unknown
+   */
+  static CompressionCodec fromId(final byte id) {
+    for (final CompressionCodec codec : values()) {
+      if (codec.id == id) {
+        return codec;
+      }
+    }
+    return null;
+  }
+}
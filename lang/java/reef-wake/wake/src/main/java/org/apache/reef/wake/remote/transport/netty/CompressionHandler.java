@@ -0,0 +1,224 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.reef.wake.remote.transport.netty;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.handler.codec.MessageToMessageCodec;
+import io.netty.handler.codec.compression.DecompressionException;
+
+import java.util.List;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Compresses the outgoing frames of a channel and decompresses its incoming frames.
+ * <p>
+ * A frame starts with the id of its {@link CompressionCodec}. Frames below the threshold of the policy,
+ * and frames that do not get smaller, follow with their bytes as they are; compressed frames follow with
+ * their uncompressed size as an int and the compressed bytes.
+ * <p>
+ * Netty calls the handler from the event loop of its channel only, so the codec state needs no locking.
+ */
+final class CompressionHandler extends MessageToMessageCodec<ByteBuf, ByteBuf> {
+
+  private static final int HEADER_SIZE = 1 + Integer.SIZE / Byte.SIZE;
+
+  /**
+   * The result of a codec whose output did not fit.
+   */
+  private static final int OVERFLOW = -1;
+
+  private final CompressionCodec codec;
+  private final int threshold;
+  private final CompressionStats stats;
+
+  private Lz4BlockCodec lz4;
+  private Deflater deflater;
+  private Inflater inflater;
+
+  CompressionHandler(final CompressionPolicy policy, final CompressionStats stats) {
+    this.codec = policy.getCodec();
+    this.threshold = policy.getThreshold();
+    this.stats = stats;
+  }
+
+  @Override
+  protected void encode(final ChannelHandlerContext ctx, final ByteBuf msg, final List<Object> out) throws Exception {
+    final int length = msg.readableBytes();
+    final long started = System.nanoTime();
+
+    if (length >= this.threshold) {
+      final ByteBuf compressed = compress(ctx, msg);
+      if (compressed != null) {
+        if (compressed.readableBytes() <= length) {
+          this.stats.onCompress(length, compressed.readableBytes() - 1, true, System.nanoTime() - started);
+          out.add(compressed);
+          return;
+        }
+        compressed.release();
+      }
+    }
+
+    final ByteBuf header = ctx.alloc().buffer(1).writeByte(CompressionCodec.NONE.getId());
+    out.add(Unpooled.wrappedBuffer(header, msg.retain()));
+    this.stats.onCompress(length, length, false, System.nanoTime() - started);
+  }
+
+  @Override
+  protected void decode(final ChannelHandlerContext ctx, final ByteBuf msg, final List<Object> out) throws Exception {
+    final byte id = msg.readByte();
+    final CompressionCodec frameCodec = CompressionCodec.fromId(id);
+    if (frameCodec == null) {
+      throw new DecompressionException("Unknown compression codec id " + id);
+    } else if (frameCodec == CompressionCodec.NONE) {
+      // a slice, since the byte array decoder reads from index 0 rather than from the reader index
+      out.add(msg.slice().retain());
+      return;
+    }
+
+    final long started = System.nanoTime();
+    final int length = msg.readInt();
+    // the frame decoder bounds the frames of the chunker, so the uncompressed size cannot exceed its bound either
+    if (length < 0 || length > NettyChannelInitializer.MAXFRAMELENGTH) {
+      throw new DecompressionException("Invalid uncompressed size " + length);
+    }
+    final byte[] input = toArray(msg);
+    final int inputOffset = msg.hasArray() ? msg.arrayOffset() + msg.readerIndex() : 0;
+    final ByteBuf decompressed = ctx.alloc().heapBuffer(length, length);
+    try {
+      switch (frameCodec) {
+      case LZ4:
+        Lz4BlockCodec.decompress(input, inputOffset, msg.readableBytes(),
+            decompressed.array(), decompressed.arrayOffset(), length);
+        break;
+      case DEFLATE:
+        inflate(input, inputOffset, msg.readableBytes(), decompressed.array(), decompressed.arrayOffset(), length);
+        break;
+      default:
+        throw new DecompressionException("Unexpected compression codec " + frameCodec);
+      }
+    } catch (final RuntimeException e) {
+      decompressed.release();
+      throw e;
+    }
+    decompressed.writerIndex(length);
+    out.add(decompressed);
+    this.stats.onDecompress(System.nanoTime() - started);
+  }
+
+  @Override
+  public void handlerRemoved(final ChannelHandlerContext ctx) throws Exception {
+    if (this.deflater != null) {
+      this.deflater.end();
+    }
+    if (this.inflater != null) {
+      this.inflater.end();
+    }
+    super.handlerRemoved(ctx);
+  }
+
+  /**
+   * Compresses the readable bytes of a buffer into a frame, leaving the buffer as it is.
+   *
+   * @return the frame, or null if the output of the codec did not fit its bound
+   */
+  private ByteBuf compress(final ChannelHandlerContext ctx, final ByteBuf msg) {
+    final int length = msg.readableBytes();
+    final byte[] input = toArray(msg);
+    final int inputOffset = msg.hasArray() ? msg.arrayOffset() + msg.readerIndex() : 0;
+
+    final ByteBuf frame = ctx.alloc().heapBuffer(HEADER_SIZE + this.codec.maxCompressedLength(length));
+    frame.writeByte(this.codec.getId()).writeInt(length);
+    final int outputOffset = frame.arrayOffset() + frame.writerIndex();
+    final int written;
+    switch (this.codec) {
+    case LZ4:
+      if (this.lz4 == null) {
+        this.lz4 = new Lz4BlockCodec();
+      }
+      written = this.lz4.compress(input, inputOffset, length, frame.array(), outputOffset);
+      break;
+    case DEFLATE:
+      written = deflate(input, inputOffset, length, frame.array(), outputOffset, frame.writableBytes());
+      break;
+    default:
+      frame.release();
+      throw new IllegalStateException("Unexpected compression codec " + this.codec);
+    }
+    if (written == OVERFLOW) {
+      frame.release();
+      return null;
+    }
+    frame.writerIndex(frame.writerIndex() + written);
+    return frame;
+  }
+
+  /**
+   * Deflates bytes into at most the given space.
+   *
+   * @return the size of the output, or {@link #OVERFLOW} if it does not fit
+   */
+  private int deflate(final byte[] src, final int srcOff, final int srcLen,
+                      final byte[] dst, final int dstOff, final int dstLen) {
+    if (this.deflater == null) {
+      this.deflater = new Deflater(Deflater.BEST_SPEED, true);
+    }
+    try {
+      this.deflater.setInput(src, srcOff, srcLen);
+      this.deflater.finish();
+      final int written = this.deflater.deflate(dst, dstOff, dstLen);
+      return this.deflater.finished() ? written : OVERFLOW;
+    } finally {
+      this.deflater.reset();
+    }
+  }
+
+  private void inflate(final byte[] src, final int srcOff, final int srcLen,
+                       final byte[] dst, final int dstOff, final int dstLen) {
+    if (this.inflater == null) {
+      this.inflater = new Inflater(true);
+    }
+    try {
+      this.inflater.setInput(src, srcOff, srcLen);
+      final int inflated = this.inflater.inflate(dst, dstOff, dstLen);
+      if (inflated != dstLen || !this.inflater.finished()) {
+        throw new DecompressionException("Deflate frame of " + inflated + " bytes, expected " + dstLen);
+      }
+    } catch (final DataFormatException e) {
+      throw new DecompressionException(e);
+    } finally {
+      this.inflater.reset();
+    }
+  }
+
+  /**
+   * @return the backing array of a heap buffer, or a copy of the readable bytes of a direct buffer
+   */
+  private static byte[] toArray(final ByteBuf buf) {
+    if (buf.hasArray()) {
+      return buf.array();
+    }
+    final byte[] bytes = new byte[buf.readableBytes()];
+    buf.getBytes(buf.readerIndex(), bytes);
+    return bytes;
+  }
+}
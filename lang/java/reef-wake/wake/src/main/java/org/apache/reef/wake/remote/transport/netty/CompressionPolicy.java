@@ -0,0 +1,80 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.reef.wake.remote.transport.netty;
+
+import org.apache.reef.tang.annotations.Parameter;
+import org.apache.reef.wake.remote.RemoteConfiguration;
+
+import javax.inject.Inject;
+import java.util.Locale;
+
+/**
+ * Policy for compressing the messages on the channels of a messaging transport.
+ * <p>
+ * When compression is enabled, messages of at least the threshold size are compressed with the codec,
+ * and sent as they are if they do not get smaller.
+ */
+public final class CompressionPolicy {
+
+  private final CompressionCodec codec;
+  private final int threshold;
+
+  /**
+   * Constructs a compression policy.
+   *
+   * @param codec     the name of the codec; NONE disables compression
+   * @param threshold the size in bytes below which messages are sent uncompressed
+   */
+  @Inject
+  private CompressionPolicy(
+      @Parameter(RemoteConfiguration.Compression.class) final String codec,
+      @Parameter(RemoteConfiguration.CompressionThreshold.class) final int threshold) {
+    if (threshold < 0) {
+      throw new IllegalArgumentException("Invalid compression threshold: " + threshold);
+    }
+    this.codec = CompressionCodec.valueOf(codec.toUpperCase(Locale.ROOT));
+    this.threshold = threshold;
+  }
+
+  /**
+   * @return true if the channels compress their messages
+   */
+  public boolean isEnabled() {
+    return this.codec != CompressionCodec.NONE;
+  }
+
+  /**
+   * @return the codec that compresses the messages
+   */
+  public CompressionCodec getCodec() {
+    return this.codec;
+  }
+
+  /**
+   * @return the size in bytes below which messages are sent uncompressed
+   */
+  public int getThreshold() {
+    return this.threshold;
+  }
+
+  @Override
+  public String toString() {
+    return String.format("CompressionPolicy: { codec: %s threshold: %d }", this.codec, this.threshold);
+  }
+}
@@ -0,0 +1,122 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.reef.wake.remote.transport.netty;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Compression statistics of a messaging transport, across all of its channels.
+ */
+public final class CompressionStats {
+
+  private final AtomicLong messageCount = new AtomicLong(0);
+  private final AtomicLong compressedCount = new AtomicLong(0);
+  private final AtomicLong uncompressedBytes = new AtomicLong(0);
+  private final AtomicLong compressedBytes = new AtomicLong(0);
+  private final AtomicLong compressNanos = new AtomicLong(0);
+  private final AtomicLong decompressNanos = new AtomicLong(0);
+
+  CompressionStats() {
+  }
+
+  /**
+   * Records an outgoing message.
+   *
+   * @param bytes      the size of the message
+   * @param wireBytes  the size of the message on the wire, without the codec id
+   * @param compressed true if the message was sent compressed
+   * @param nanos      the time spent compressing the message
+   */
+  void onCompress(final int bytes, final int wireBytes, final boolean compressed, final long nanos) {
+    this.messageCount.incrementAndGet();
+    this.uncompressedBytes.addAndGet(bytes);
+    this.compressedBytes.addAndGet(wireBytes);
+    if (compressed) {
+      this.compressedCount.incrementAndGet();
+    }
+    this.compressNanos.addAndGet(nanos);
+  }
+
+  /**
+   * Records the decompression of an incoming message.
+   *
+   * @param nanos the time spent decompressing the message
+   */
+  void onDecompress(final long nanos) {
+    this.decompressNanos.addAndGet(nanos);
+  }
+
+  /**
+   * @return the number of outgoing messages
+   */
+  public long getMessageCount() {
+    return this.messageCount.get();
+  }
+
+  /**
+   * @return the number of outgoing messages that were sent compressed
+   */
+  public long getCompressedCount() {
+    return this.compressedCount.get();
+  }
+
+  /**
+   * @return the number of bytes of the outgoing messages
+   */
+  public long getUncompressedBytes() {
+    return this.uncompressedBytes.get();
+  }
+
+  /**
+   * @return the number of bytes of the outgoing messages on the wire
+   */
+  public long getCompressedBytes() {
+    return this.compressedBytes.get();
+  }
+
+  /**
+   * @return the ratio of the message bytes to the bytes on the wire; 1.0 before any message
+   */
+  public double getCompressionRatio() {
+    final long wire = getCompressedBytes();
+    return wire == 0 ? 1.0 : (double) getUncompressedBytes() / wire;
+  }
+
+  /**
+   * @return the time in nanoseconds spent compressing outgoing messages
+   */
+  public long getCompressNanos() {
+    return this.compressNanos.get();
+  }
+
+  /**
+   * @return the time in nanoseconds spent decompressing incoming messages
+   */
+  public long getDecompressNanos() {
+    return this.decompressNanos.get();
+  }
+
+  @Override
+  public String toString() {
+    return String.format("CompressionStats: { messages: %d compressed: %d bytes: %d wire bytes: %d " +
+        "ratio: %.2f compress: %d us decompress: %d us }", getMessageCount(), getCompressedCount(),
+        getUncompressedBytes(), getCompressedBytes(), getCompressionRatio(),
+        getCompressNanos() / 1000, getDecompressNanos() / 1000);
+  }
+}
@@ -0,0 +1,86 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.reef.wake.remote.transport.netty;
+
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelDuplexHandler;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.util.AttributeKey;
+import org.apache.reef.wake.metrics.MetricsRegistry;
+import org.apache.reef.wake.metrics.StageMetrics;
+
+/**
+ * Registers the metrics of a channel while it is active and times the handling of the messages it receives.
+ * <p>
+ * The metrics are attached to the channel, so that the {@link NettyLink}s writing to it
+ * can count their messages and time them until the write completes.
+ */
+final class LinkMetricsHandler extends ChannelDuplexHandler {
+
+  /**
+   * Channel attribute holding the metrics of the channel while it is active.
+   */
+  static final AttributeKey<StageMetrics> METRICS = AttributeKey.valueOf(LinkMetricsHandler.class.getName());
+
+  /**
+   * Registers the metrics of an active channel, unless they are registered already.
+   * A connect future completes before the channel active event, so a new link registers the metrics
+   * of its channel itself rather than miss its first messages.
+   *
+   * @param channel the channel
+   */
+  static void register(final Channel channel) {
+    if (channel.attr(METRICS).get() != null || !channel.isActive()
+        || channel.pipeline().get(LinkMetricsHandler.class) == null) {
+      return;
+    }
+    final StageMetrics metrics = MetricsRegistry.instance().register(
+        channel.localAddress() + "->" + channel.remoteAddress(), NettyLink.class.getSimpleName());
+    if (!channel.attr(METRICS).compareAndSet(null, metrics)) {
+      MetricsRegistry.instance().unregister(metrics);
+    } else if (!channel.isActive()) {
+      // the channel went inactive while registering; its inactive event may have missed the metrics
+      MetricsRegistry.instance().unregister(channel.attr(METRICS).getAndRemove());
+    }
+  }
+
+  @Override
+  public void channelActive(final ChannelHandlerContext ctx) throws Exception {
+    register(ctx.channel());
+    super.channelActive(ctx);
+  }
+
+  @Override
+  public void channelInactive(final ChannelHandlerContext ctx) throws Exception {
+    MetricsRegistry.instance().unregister(ctx.channel().attr(METRICS).getAndRemove());
+    super.channelInactive(ctx);
+  }
+
+  @Override
+  public void channelRead(final ChannelHandlerContext ctx, final Object msg) throws Exception {
+    final StageMetrics metrics = ctx.channel().attr(METRICS).get();
+    if (metrics == null) {
+      super.channelRead(ctx, msg);
+      return;
+    }
+    final long started = metrics.startTimer();
+    super.channelRead(ctx, msg);
+    metrics.recordHandlerTime(started);
+  }
+}
@@ -0,0 +1,133 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.reef.wake.remote.transport.netty;
+
+import io.netty.channel.Channel;
+import io.netty.util.AttributeKey;
+
+/**
+ * The connections of the BULK lane to one peer.
+ * Slots are assigned to the links of the lane round-robin. A slot whose channel is no longer active
+ * is claimed by one thread at a time for reconnecting; the pool is never locked while connecting.
+ */
+final class LinkPool {
+
+  /**
+   * Marks the client channels of a pool, so that closing one of them
+   * does not drop the CONTROL link to the same peer.
+   */
+  static final AttributeKey<Boolean> BULK_LANE = AttributeKey.valueOf("BulkLane");
+
+  private final Channel[] channels;
+  private final boolean[] connecting;
+  private final long[] retryAt;
+  private int next = 0;
+
+  LinkPool(final int size) {
+    this.channels = new Channel[size];
+    this.connecting = new boolean[size];
+    this.retryAt = new long[size];
+  }
+
+  int size() {
+    return this.channels.length;
+  }
+
+  /**
+   * @return true if the slot holds a channel that is active
+   */
+  synchronized boolean isHealthy(final int slot) {
+    return this.channels[slot] != null && this.channels[slot].isActive();
+  }
+
+  synchronized Channel get(final int slot) {
+    return this.channels[slot];
+  }
+
+  /**
+   * Claims a slot that is not healthy for connecting, unless another thread connects it.
+   *
+   * @return true if the caller must connect the slot and report the outcome
+   */
+  synchronized boolean claim(final int slot) {
+    if (isHealthy(slot) || this.connecting[slot]) {
+      return false;
+    }
+    this.connecting[slot] = true;
+    return true;
+  }
+
+  /**
+   * Claims a slot that is not healthy for reconnecting, unless another thread connects it
+   * or its last connect failed less than a retry timeout ago.
+   *
+   * @param now the current time in milliseconds
+   * @return true if the caller must connect the slot and report the outcome
+   */
+  synchronized boolean claimRetry(final int slot, final long now) {
+    return now >= this.retryAt[slot] && claim(slot);
+  }
+
+  /**
+   * Ends the connect of a claimed slot.
+   */
+  synchronized void connected(final int slot, final Channel channel) {
+    this.channels[slot] = channel;
+    this.connecting[slot] = false;
+    notifyAll();
+  }
+
+  /**
+   * Ends the failed connect of a claimed slot.
+   *
+   * @param retryAt the time in milliseconds before which the slot is not reconnected again
+   */
+  synchronized void connectFailed(final int slot, final long retryAt) {
+    this.retryAt[slot] = retryAt;
+    this.connecting[slot] = false;
+    notifyAll();
+  }
+
+  /**
+   * Waits until no thread connects the slot.
+   */
+  synchronized void awaitConnected(final int slot) throws InterruptedException {
+    while (this.connecting[slot]) {
+      wait();
+    }
+  }
+
+  /**
+   * @return the next slot in round-robin order
+   */
+  synchronized int nextSlot() {
+    final int slot = this.next;
+    this.next = (this.next + 1) % this.channels.length;
+    return slot;
+  }
+
+  static boolean isBulkLane(final Channel channel) {
+    return Boolean.TRUE.equals(channel.attr(BULK_LANE).get());
+  }
+
+  @Override
+  public synchronized String toString() {
+    return String.format("LinkPool: { size: %d next: %d }", this.channels.length, this.next);
+  }
+}
@@ -0,0 +1,249 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.reef.wake.remote.transport.netty;
+
+import io.netty.handler.codec.compression.DecompressionException;
+
+import java.util.Arrays;
+
+/**
+ * Compressor and decompressor for the LZ4 block format.
+ * <p>
+ * A block is a sequence of (literals, match) pairs; each starts with a token holding the literal length
+ * in its high nibble and the match length minus 4 in its low nibble, with lengths of 15 or more continued
+ * in extra bytes, followed by the literals and the 16-bit little-endian offset of the match.
+ * The last sequence holds literals only. The compressor is the greedy, single-probe one of the reference
+ * implementation, so it is fast rather than thorough.
+ * <p>
+ * An instance keeps its hash table between calls and is not thread-safe.
+ */
+final class Lz4BlockCodec {
+
+  private static final int MIN_MATCH = 4;
+  private static final int LAST_LITERALS = 5;
+  private static final int MF_LIMIT = 12;
+  private static final int MAX_DISTANCE = 65535;
+  private static final int HASH_LOG = 12;
+  private static final int SKIP_TRIGGER = 6;
+  private static final int RUN_MASK = 15;
+
+  private final int[] hashTable = new int[1 << HASH_LOG];
+
+  /**
+   * Gets the size of the largest block the compressor can produce.
+   *
+   * @param length the size of the input
+   * @return the size of the largest block for the input size
+   */
+  static int maxCompressedLength(final int length) {
+    return length + length / 255 + 16;
+  }
+
+  /**
+   * Compresses bytes into a block.
+   *
+   * @param src    the input
+   * @param srcOff the offset of the input
+   * @param srcLen the size of the input
+   * @param dst    the output, with at least {@link #maxCompressedLength(int)} bytes from its offset
+   * @param dstOff the offset of the output
+   * @return the size of the block
+   */
+  int compress(final byte[] src, final int srcOff, final int srcLen, final byte[] dst, final int dstOff) {
+    final int srcEnd = srcOff + srcLen;
+    final int matchLimit = srcEnd - LAST_LITERALS;
+    final int mfLimit = srcEnd - MF_LIMIT;
+    int anchor = srcOff;
+    int op = dstOff;
+
+    if (srcLen > MF_LIMIT) {
+      Arrays.fill(this.hashTable, -1);
+      int ip = srcOff + 1;
+      while (ip < mfLimit) {
+        final int sequence = readInt(src, ip);
+        final int hash = hash(sequence);
+        int ref = this.hashTable[hash];
+        this.hashTable[hash] = ip;
+        if (ref < 0 || ip - ref > MAX_DISTANCE || readInt(src, ref) != sequence) {
+          // skip faster through data that does not compress
+          ip += 1 + ((ip - anchor) >>> SKIP_TRIGGER);
+          continue;
+        }
+
+        while (ip > anchor && ref > srcOff && src[ip - 1] == src[ref - 1]) {
+          --ip;
+          --ref;
+        }
+        int matchLen = MIN_MATCH;
+        while (ip + matchLen < matchLimit && src[ref + matchLen] == src[ip + matchLen]) {
+          ++matchLen;
+        }
+
+        op = writeSequence(src, anchor, ip - anchor, ip - ref, matchLen, dst, op);
+        ip += matchLen;
+        anchor = ip;
+      }
+    }
+
+    final int literals = srcEnd - anchor;
+    final int token = op++;
+    if (literals >= RUN_MASK) {
+      dst[token] = (byte) (RUN_MASK << 4);
+      op = writeLength(literals - RUN_MASK, dst, op);
+    } else {
+      dst[token] = (byte) (literals << 4);
+    }
+    System.arraycopy(src, anchor, dst, op, literals);
+    return op + literals - dstOff;
+  }
+
+  /**
+   * Decompresses a block.
+   *
+   * @param src    the block
+   * @param srcOff the offset of the block
+   * @param srcLen the size of the block
+   * @param dst    the output
+   * @param dstOff the offset of the output
+   * @param dstLen the size of the decompressed data
+   * @throws DecompressionException if the block is malformed or does not decompress to dstLen bytes
+   */
+  static void decompress(final byte[] src, final int srcOff, final int srcLen,
+                         final byte[] dst, final int dstOff, final int dstLen) {
+    final int srcEnd = srcOff + srcLen;
+    final int dstEnd = dstOff + dstLen;
+    int ip = srcOff;
+    int op = dstOff;
+
+    while (true) {
+      if (ip >= srcEnd) {
+        throw new DecompressionException("Truncated LZ4 block");
+      }
+      final int token = src[ip++] & 0xFF;
+
+      int literals = token >>> 4;
+      if (literals == RUN_MASK) {
+        int b;
+        do {
+          if (ip >= srcEnd) {
+            throw new DecompressionException("Truncated LZ4 literal length");
+          }
+          b = src[ip++] & 0xFF;
+          literals += b;
+        } while (b == 255 && literals > 0);
+      }
+      if (literals < 0 || literals > srcEnd - ip || literals > dstEnd - op) {
+        throw new DecompressionException("Invalid LZ4 literal length " + literals);
+      }
+      System.arraycopy(src, ip, dst, op, literals);
+      ip += literals;
+      op += literals;
+      if (ip == srcEnd) {
+        break;
+      }
+
+      if (srcEnd - ip < 2) {
+        throw new DecompressionException("Truncated LZ4 match offset");
+      }
+      final int offset = (src[ip] & 0xFF) | (src[ip + 1] & 0xFF) << 8;
+      ip += 2;
+      if (offset == 0 || offset > op - dstOff) {
+        throw new DecompressionException("Invalid LZ4 match offset " + offset);
+      }
+
+      int matchLen = token & RUN_MASK;
+      if (matchLen == RUN_MASK) {
+        int b;
+        do {
+          if (ip >= srcEnd) {
+            throw new DecompressionException("Truncated LZ4 match length");
+          }
+          b = src[ip++] & 0xFF;
+          matchLen += b;
+        } while (b == 255 && matchLen > 0);
+      }
+      matchLen += MIN_MATCH;
+      if (matchLen < MIN_MATCH || matchLen > dstEnd - op) {
+        throw new DecompressionException("Invalid LZ4 match length " + matchLen);
+      }
+
+      final int ref = op - offset;
+      if (offset >= matchLen) {
+        System.arraycopy(dst, ref, dst, op, matchLen);
+      } else {
+        // overlapping match: repeats the last offset bytes
+        for (int i = 0; i < matchLen; ++i) {
+          dst[op + i] = dst[ref + i];
+        }
+      }
+      op += matchLen;
+    }
+
+    if (op != dstEnd) {
+      throw new DecompressionException("LZ4 block of " + (op - dstOff) + " bytes, expected " + dstLen);
+    }
+  }
+
+  private static int writeSequence(final byte[] src, final int anchor, final int literals, final int offset,
+                                   final int matchLen, final byte[] dst, final int dstOff) {
+    int op = dstOff;
+    final int token = op++;
+    int tokenValue;
+    if (literals >= RUN_MASK) {
+      tokenValue = RUN_MASK << 4;
+      op = writeLength(literals - RUN_MASK, dst, op);
+    } else {
+      tokenValue = literals << 4;
+    }
+    System.arraycopy(src, anchor, dst, op, literals);
+    op += literals;
+
+    dst[op++] = (byte) offset;
+    dst[op++] = (byte) (offset >>> 8);
+
+    final int matchCode = matchLen - MIN_MATCH;
+    if (matchCode >= RUN_MASK) {
+      tokenValue |= RUN_MASK;
+      op = writeLength(matchCode - RUN_MASK, dst, op);
+    } else {
+      tokenValue |= matchCode;
+    }
+    dst[token] = (byte) tokenValue;
+    return op;
+  }
+
+  private static int writeLength(final int length, final byte[] dst, final int dstOff) {
+    int op = dstOff;
+    int remaining = length;
+    while (remaining >= 255) {
+      dst[op++] = (byte) 255;
+      remaining -= 255;
+    }
+    dst[op++] = (byte) remaining;
+    return op;
+  }
+
+  private static int readInt(final byte[] buf, final int i) {
+    return (buf[i] & 0xFF) | (buf[i + 1] & 0xFF) << 8 | (buf[i + 2] & 0xFF) << 16 | (buf[i + 3] & 0xFF) << 24;
+  }
+
+  private static int hash(final int sequence) {
+    return (sequence * -1640531535) >>> (32 - HASH_LOG);
+  }
+}
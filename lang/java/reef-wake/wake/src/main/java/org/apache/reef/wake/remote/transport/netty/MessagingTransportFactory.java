@@ -20,6 +20,7 @@ package org.apache.reef.wake.remote.transport.netty;
 
 import org.apache.reef.tang.Injector;
 import org.apache.reef.tang.Tang;
+import org.apache.reef.tang.annotations.Parameter;
 import org.apache.reef.tang.exceptions.InjectionException;
 import org.apache.reef.wake.EStage;
 import org.apache.reef.wake.EventHandler;
@@ -39,10 +40,26 @@ import javax.inject.Inject;
 public final class MessagingTransportFactory implements TransportFactory {
 
   private final String localAddress;
+  private final boolean zeroCopy;
+  private final WriteBatchingPolicy batchingPolicy;
+  private final CompressionPolicy compressionPolicy;
+  private final NettySocketOptions socketOptions;
+  private final int bulkLinksPerPeer;
 
   @Inject
-  private MessagingTransportFactory(final LocalAddressProvider localAddressProvider) {
+  private MessagingTransportFactory(
+      final LocalAddressProvider localAddressProvider,
+      @Parameter(RemoteConfiguration.ZeroCopyTransport.class) final boolean zeroCopy,
+      final WriteBatchingPolicy batchingPolicy,
+      final CompressionPolicy compressionPolicy,
+      final NettySocketOptions socketOptions,
+      @Parameter(RemoteConfiguration.BulkLinksPerPeer.class) final int bulkLinksPerPeer) {
     this.localAddress = localAddressProvider.getLocalAddress();
+    this.zeroCopy = zeroCopy;
+    this.batchingPolicy = batchingPolicy;
+    this.compressionPolicy = compressionPolicy;
+    this.socketOptions = socketOptions;
+    this.bulkLinksPerPeer = bulkLinksPerPeer;
   }
 
   /**
@@ -62,6 +79,11 @@ public final class MessagingTransportFactory implements TransportFactory {
     final Injector injector = Tang.Factory.getTang().newInjector();
     injector.bindVolatileParameter(RemoteConfiguration.HostAddress.class, this.localAddress);
     injector.bindVolatileParameter(RemoteConfiguration.Port.class, port);
+    injector.bindVolatileParameter(RemoteConfiguration.ZeroCopyTransport.class, this.zeroCopy);
+    injector.bindVolatileInstance(WriteBatchingPolicy.class, this.batchingPolicy);
+    injector.bindVolatileInstance(CompressionPolicy.class, this.compressionPolicy);
+    injector.bindVolatileInstance(NettySocketOptions.class, this.socketOptions);
+    injector.bindVolatileParameter(RemoteConfiguration.BulkLinksPerPeer.class, this.bulkLinksPerPeer);
     injector.bindVolatileParameter(RemoteConfiguration.RemoteClientStage.class, new SyncStage<>(clientHandler));
     injector.bindVolatileParameter(RemoteConfiguration.RemoteServerStage.class, new SyncStage<>(serverHandler));
 
@@ -124,6 +146,11 @@ public final class MessagingTransportFactory implements TransportFactory {
     final Injector injector = Tang.Factory.getTang().newInjector();
     injector.bindVolatileParameter(RemoteConfiguration.HostAddress.class, hostAddress);
     injector.bindVolatileParameter(RemoteConfiguration.Port.class, port);
+    injector.bindVolatileParameter(RemoteConfiguration.ZeroCopyTransport.class, this.zeroCopy);
+    injector.bindVolatileInstance(WriteBatchingPolicy.class, this.batchingPolicy);
+    injector.bindVolatileInstance(CompressionPolicy.class, this.compressionPolicy);
+    injector.bindVolatileInstance(NettySocketOptions.class, this.socketOptions);
+    injector.bindVolatileParameter(RemoteConfiguration.BulkLinksPerPeer.class, this.bulkLinksPerPeer);
     injector.bindVolatileParameter(RemoteConfiguration.RemoteClientStage.class, clientStage);
     injector.bindVolatileParameter(RemoteConfiguration.RemoteServerStage.class, serverStage);
     injector.bindVolatileParameter(RemoteConfiguration.NumberOfTries.class, numberOfTries);
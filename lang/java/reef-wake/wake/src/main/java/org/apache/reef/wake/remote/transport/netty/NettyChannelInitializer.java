@@ -27,6 +27,15 @@ import io.netty.handler.codec.bytes.ByteArrayEncoder;
 
 /**
  * Netty channel initializer for Transport.
+ * <p>
+ * In zero-copy mode the received frames are not converted into byte arrays:
+ * they travel up the pipeline as reference-counted buffers and are handed to the transport stages as such.
+ * <p>
+ * With write batching, a {@link WriteBatchingHandler} in front of the chunker decides when writes are flushed.
+ * <p>
+ * With compression, a {@link CompressionHandler} next to the frame codec compresses each frame.
+ * <p>
+ * A {@link LinkMetricsHandler} registers the metrics of each channel while it is active.
  */
 class NettyChannelInitializer extends ChannelInitializer<SocketChannel> {
   /**
@@ -34,19 +43,55 @@ class NettyChannelInitializer extends ChannelInitializer<SocketChannel> {
    */
   public static final int MAXFRAMELENGTH = 10 * 1024 * 1024;
   private final NettyChannelHandlerFactory handlerFactory;
+  private final boolean zeroCopy;
+  private final WriteBatchingPolicy batchingPolicy;
+  private final WriteBatchStats batchStats;
+  private final CompressionPolicy compressionPolicy;
+  private final CompressionStats compressionStats;
 
   NettyChannelInitializer(final NettyChannelHandlerFactory handlerFactory) {
+    this(handlerFactory, false);
+  }
+
+  NettyChannelInitializer(final NettyChannelHandlerFactory handlerFactory, final boolean zeroCopy) {
+    this(handlerFactory, zeroCopy, null, null);
+  }
+
+  NettyChannelInitializer(final NettyChannelHandlerFactory handlerFactory, final boolean zeroCopy,
+                          final WriteBatchingPolicy batchingPolicy, final WriteBatchStats batchStats) {
+    this(handlerFactory, zeroCopy, batchingPolicy, batchStats, null, null);
+  }
+
+  NettyChannelInitializer(final NettyChannelHandlerFactory handlerFactory, final boolean zeroCopy,
+                          final WriteBatchingPolicy batchingPolicy, final WriteBatchStats batchStats,
+                          final CompressionPolicy compressionPolicy, final CompressionStats compressionStats) {
     this.handlerFactory = handlerFactory;
+    this.zeroCopy = zeroCopy;
+    this.batchingPolicy = batchingPolicy;
+    this.batchStats = batchStats;
+    this.compressionPolicy = compressionPolicy;
+    this.compressionStats = compressionStats;
   }
 
   @Override
   protected void initChannel(final SocketChannel ch) throws Exception {
     ch.pipeline()
         .addLast("frameDecoder", new LengthFieldBasedFrameDecoder(MAXFRAMELENGTH, 0, 4, 0, 4))
-        .addLast("bytesDecoder", new ByteArrayDecoder())
-        .addLast("frameEncoder", new LengthFieldPrepender(4))
+        .addLast("frameEncoder", new LengthFieldPrepender(4));
+    if (compressionPolicy != null && compressionPolicy.isEnabled()) {
+      ch.pipeline().addLast("compression", new CompressionHandler(compressionPolicy, compressionStats));
+    }
+    if (!zeroCopy) {
+      ch.pipeline().addLast("bytesDecoder", new ByteArrayDecoder());
+    }
+    ch.pipeline()
         .addLast("bytesEncoder", new ByteArrayEncoder())
-        .addLast("chunker", new ChunkedReadWriteHandler())
+        .addLast("chunker", new ChunkedReadWriteHandler());
+    if (batchingPolicy != null && batchingPolicy.isEnabled()) {
+      ch.pipeline().addLast("batcher", new WriteBatchingHandler(batchingPolicy, batchStats));
+    }
+    ch.pipeline()
+        .addLast("metrics", new LinkMetricsHandler())
         .addLast("handler", handlerFactory.createChannelInboundHandler());
   }
 }
@@ -18,9 +18,9 @@
  */
 package org.apache.reef.wake.remote.transport.netty;
 
+import io.netty.buffer.ByteBuf;
 import io.netty.channel.Channel;
 import io.netty.channel.ChannelHandlerContext;
-import org.apache.reef.wake.EStage;
 import org.apache.reef.wake.remote.impl.TransportEvent;
 
 import java.net.SocketAddress;
@@ -37,8 +37,8 @@ final class NettyClientEventListener extends AbstractNettyEventListener {
 
   NettyClientEventListener(
       final ConcurrentMap<SocketAddress, LinkReference> addrToLinkRefMap,
-      final EStage<TransportEvent> stage) {
-    super(addrToLinkRefMap, stage);
+      final ThrottledChannelGroup channelGroup) {
+    super(addrToLinkRefMap, channelGroup);
   }
 
   @Override
@@ -52,6 +52,11 @@ final class NettyClientEventListener extends AbstractNettyEventListener {
     return new TransportEvent(message, channel.localAddress(), channel.remoteAddress());
   }
 
+  @Override
+  protected TransportEvent getTransportEvent(final ByteBuf message, final Channel channel) {
+    return new TransportEvent(message, channel.localAddress(), channel.remoteAddress());
+  }
+
   @Override
   protected void exceptionCleanup(final ChannelHandlerContext ctx, final Throwable cause) {
     this.closeChannel(ctx.channel());
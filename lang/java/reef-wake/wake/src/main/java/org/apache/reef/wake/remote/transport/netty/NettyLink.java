@@ -18,15 +18,19 @@
  */
 package org.apache.reef.wake.remote.transport.netty;
 
+import io.netty.buffer.ByteBuf;
 import io.netty.buffer.Unpooled;
 import io.netty.channel.Channel;
 import io.netty.channel.ChannelFuture;
 import io.netty.channel.ChannelFutureListener;
+import org.apache.reef.wake.metrics.StageMetrics;
 import org.apache.reef.wake.remote.Encoder;
 import org.apache.reef.wake.remote.transport.Link;
 import org.apache.reef.wake.remote.transport.LinkListener;
 
 import java.net.SocketAddress;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -35,6 +39,14 @@ import java.util.logging.Logger;
  *
  * If you set a {@code LinkListener<T>}, it keeps message until writeAndFlush operation completes
  * and notifies whether the sent message transferred successfully through the listener.
+ *
+ * If the channel batches its writes, messages are written without a flush
+ * and the batching handler of the channel flushes them.
+ *
+ * If the channel has metrics, each message counts as an event of the link
+ * and the time until its write completes as its time queued.
+ * Writes complete in the order they were issued, so one listener per link pairs each completion
+ * with the oldest pending write.
  */
 public class NettyLink<T> implements Link<T> {
 
@@ -45,6 +57,8 @@ public class NettyLink<T> implements Link<T> {
   private final Channel channel;
   private final Encoder<? super T> encoder;
   private final LinkListener<? super T> listener;
+  private final boolean batching;
+  private final NettyWriteMetricsListener metricsListener = new NettyWriteMetricsListener();
 
   /**
    * Constructs a link.
@@ -67,6 +81,8 @@ public class NettyLink<T> implements Link<T> {
     this.channel = channel;
     this.encoder = encoder;
     this.listener = listener;
+    this.batching = channel.pipeline().get(WriteBatchingHandler.class) != null;
+    LinkMetricsHandler.register(channel);
   }
 
   /**
@@ -77,12 +93,30 @@ public class NettyLink<T> implements Link<T> {
   @Override
   public void write(final T message) {
     LOG.log(Level.FINEST, "write {0} :: {1}", new Object[] {channel, message});
-    final ChannelFuture future = channel.writeAndFlush(Unpooled.wrappedBuffer(encoder.encode(message)));
+    final ByteBuf buffer = Unpooled.wrappedBuffer(encoder.encode(message));
+    final StageMetrics metrics = channel.attr(LinkMetricsHandler.METRICS).get();
+    if (metrics != null) {
+      metrics.getInMeter().mark(1);
+      metricsListener.enqueue(metrics.startTimer());
+    }
+    final ChannelFuture future = batching ? channel.write(buffer) : channel.writeAndFlush(buffer);
+    if (metrics != null) {
+      future.addListener(metricsListener);
+    }
     if (listener !=  null) {
       future.addListener(new NettyChannelFutureListener<>(message, listener));
     }
   }
 
+  /**
+   * Gets the channel of the link.
+   *
+   * @return the channel
+   */
+  Channel getChannel() {
+    return channel;
+  }
+
   /**
    * Gets a local address of the link.
    *
@@ -128,3 +162,36 @@ class NettyChannelFutureListener<T> implements ChannelFutureListener {
     }
   }
 }
+
+/**
+ * Counts the completed writes of a link and times them, shared by all the writes of the link.
+ * The timestamps of the pending writes are kept in a ring, so recording allocates nothing;
+ * while more writes than the ring holds are pending, the oldest are timed from a later write.
+ */
+final class NettyWriteMetricsListener implements ChannelFutureListener {
+
+  private static final int RING_SIZE = 1024;
+
+  private final AtomicLongArray timestamps = new AtomicLongArray(RING_SIZE);
+  private final AtomicLong issued = new AtomicLong(0);
+  private final AtomicLong completed = new AtomicLong(0);
+
+  /**
+   * Records the timestamp of a write issued to the channel.
+   *
+   * @param enqueued the timestamp taken by {@link StageMetrics#startTimer()}
+   */
+  void enqueue(final long enqueued) {
+    timestamps.set((int) (issued.getAndIncrement() % RING_SIZE), enqueued);
+  }
+
+  @Override
+  public void operationComplete(final ChannelFuture channelFuture) {
+    final long enqueued = timestamps.get((int) (completed.getAndIncrement() % RING_SIZE));
+    final StageMetrics metrics = channelFuture.channel().attr(LinkMetricsHandler.METRICS).get();
+    if (metrics != null) {
+      metrics.recordQueueTime(enqueued);
+      metrics.getOutMeter().mark(1);
+    }
+  }
+}
@@ -20,16 +20,13 @@ package org.apache.reef.wake.remote.transport.netty;
 
 import io.netty.bootstrap.Bootstrap;
 import io.netty.bootstrap.ServerBootstrap;
+import io.netty.buffer.PooledByteBufAllocator;
 import io.netty.channel.Channel;
 import io.netty.channel.ChannelFuture;
+import io.netty.channel.ChannelFutureListener;
 import io.netty.channel.ChannelOption;
 import io.netty.channel.EventLoopGroup;
-import io.netty.channel.group.ChannelGroup;
 import io.netty.channel.group.ChannelGroupFuture;
-import io.netty.channel.group.DefaultChannelGroup;
-import io.netty.channel.nio.NioEventLoopGroup;
-import io.netty.channel.socket.nio.NioServerSocketChannel;
-import io.netty.channel.socket.nio.NioSocketChannel;
 import io.netty.util.concurrent.Future;
 import io.netty.util.concurrent.GlobalEventExecutor;
 import org.apache.reef.tang.annotations.Parameter;
@@ -43,12 +40,14 @@ import org.apache.reef.wake.remote.exception.RemoteRuntimeException;
 import org.apache.reef.wake.remote.impl.TransportEvent;
 import org.apache.reef.wake.remote.ports.TcpPortProvider;
 import org.apache.reef.wake.remote.transport.Link;
+import org.apache.reef.wake.remote.transport.LinkLane;
 import org.apache.reef.wake.remote.transport.LinkListener;
 import org.apache.reef.wake.remote.transport.Transport;
 import org.apache.reef.wake.remote.transport.exception.TransportRuntimeException;
 
 import javax.inject.Inject;
 import java.io.IOException;
+import java.io.InterruptedIOException;
 import java.net.BindException;
 import java.net.ConnectException;
 import java.net.InetSocketAddress;
@@ -62,6 +61,11 @@ import java.util.logging.Logger;
 
 /**
  * Messaging transport implementation with Netty.
+ * <p>
+ * Each peer has one CONTROL connection. With bulk links, each peer also gets a pool of BULK connections,
+ * all opened together on first use; the links of the BULK lane are assigned to the connections of the pool
+ * round-robin, and a connection of the pool that went down is reopened by the next write of one of its links.
+ * Lanes are specific to this transport: see {@link #open(SocketAddress, Encoder, LinkListener, LinkLane)}.
  */
 public final class NettyMessagingTransport implements Transport {
 
@@ -79,6 +83,7 @@ public final class NettyMessagingTransport implements Transport {
   private static final int CLIENT_WORKER_NUM_THREADS = 10;
 
   private final ConcurrentMap<SocketAddress, LinkReference> addrToLinkRefMap = new ConcurrentHashMap<>();
+  private final ConcurrentMap<SocketAddress, LinkPool> addrToLinkPoolMap = new ConcurrentHashMap<>();
 
   private final EventLoopGroup clientWorkerGroup;
   private final EventLoopGroup serverBossGroup;
@@ -87,8 +92,8 @@ public final class NettyMessagingTransport implements Transport {
   private final Bootstrap clientBootstrap;
   private final Channel acceptor;
 
-  private final ChannelGroup clientChannelGroup = new DefaultChannelGroup(GlobalEventExecutor.INSTANCE);
-  private final ChannelGroup serverChannelGroup = new DefaultChannelGroup(GlobalEventExecutor.INSTANCE);
+  private final ThrottledChannelGroup clientChannelGroup;
+  private final ThrottledChannelGroup serverChannelGroup;
 
   private final InetSocketAddress localAddress;
 
@@ -97,6 +102,10 @@ public final class NettyMessagingTransport implements Transport {
 
   private final int numberOfTries;
   private final int retryTimeout;
+  private final int bulkLinksPerPeer;
+
+  private final WriteBatchStats writeBatchStats;
+  private final CompressionStats compressionStats = new CompressionStats();
 
   /**
    * Constructs a messaging transport.
@@ -108,6 +117,11 @@ public final class NettyMessagingTransport implements Transport {
    * @param numberOfTries the number of tries of connection
    * @param retryTimeout  the timeout of reconnection
    * @param tcpPortProvider  gives an iterator that produces random tcp ports in a range
+   * @param zeroCopy      whether received messages are passed to the stages in pooled buffers
+   * @param batchingPolicy  the write batching policy of the links
+   * @param compressionPolicy the compression policy of the channels
+   * @param socketOptions   the socket transport and socket options
+   * @param bulkLinksPerPeer the number of BULK lane connections to each peer; 0 to use the CONTROL connection
    */
   @Inject
   private NettyMessagingTransport(
@@ -118,44 +132,67 @@ public final class NettyMessagingTransport implements Transport {
       @Parameter(RemoteConfiguration.NumberOfTries.class) final int numberOfTries,
       @Parameter(RemoteConfiguration.RetryTimeout.class) final int retryTimeout,
       final TcpPortProvider tcpPortProvider,
-      final LocalAddressProvider localAddressProvider) {
+      final LocalAddressProvider localAddressProvider,
+      @Parameter(RemoteConfiguration.ZeroCopyTransport.class) final boolean zeroCopy,
+      final WriteBatchingPolicy batchingPolicy,
+      final CompressionPolicy compressionPolicy,
+      final NettySocketOptions socketOptions,
+      @Parameter(RemoteConfiguration.BulkLinksPerPeer.class) final int bulkLinksPerPeer) {
 
     if (listenPort < 0) {
       throw new RemoteRuntimeException("Invalid server port: " + listenPort);
     }
+    if (bulkLinksPerPeer < 0) {
+      throw new RemoteRuntimeException("Invalid number of bulk links per peer: " + bulkLinksPerPeer);
+    }
 
     final String host = UNKNOWN_HOST_NAME.equals(hostAddress) ? localAddressProvider.getLocalAddress() : hostAddress;
 
     this.numberOfTries = numberOfTries;
     this.retryTimeout = retryTimeout;
-    this.clientEventListener = new NettyClientEventListener(this.addrToLinkRefMap, clientStage);
-    this.serverEventListener = new NettyServerEventListener(this.addrToLinkRefMap, serverStage);
-
-    this.serverBossGroup = new NioEventLoopGroup(SERVER_BOSS_NUM_THREADS,
+    this.bulkLinksPerPeer = bulkLinksPerPeer;
+    // a connection whose events a bounded stage cannot take stops reading until the stage drains
+    this.clientChannelGroup = new ThrottledChannelGroup("client", GlobalEventExecutor.INSTANCE, clientStage);
+    this.serverChannelGroup = new ThrottledChannelGroup("server", GlobalEventExecutor.INSTANCE, serverStage);
+    this.clientEventListener = new NettyClientEventListener(this.addrToLinkRefMap, this.clientChannelGroup);
+    this.serverEventListener = new NettyServerEventListener(this.addrToLinkRefMap, this.serverChannelGroup);
+    this.writeBatchStats = new WriteBatchStats(batchingPolicy.getMaxMessages());
+
+    this.serverBossGroup = socketOptions.newEventLoopGroup(SERVER_BOSS_NUM_THREADS,
         new DefaultThreadFactory(CLASS_NAME + ":ServerBoss"));
-    this.serverWorkerGroup = new NioEventLoopGroup(SERVER_WORKER_NUM_THREADS,
+    this.serverWorkerGroup = socketOptions.newEventLoopGroup(SERVER_WORKER_NUM_THREADS,
         new DefaultThreadFactory(CLASS_NAME + ":ServerWorker"));
-    this.clientWorkerGroup = new NioEventLoopGroup(CLIENT_WORKER_NUM_THREADS,
+    this.clientWorkerGroup = socketOptions.newEventLoopGroup(CLIENT_WORKER_NUM_THREADS,
         new DefaultThreadFactory(CLASS_NAME + ":ClientWorker"));
 
     this.clientBootstrap = new Bootstrap()
         .group(this.clientWorkerGroup)
-        .channel(NioSocketChannel.class)
+        .channel(socketOptions.getSocketChannelClass())
         .handler(new NettyChannelInitializer(new NettyDefaultChannelHandlerFactory("client",
-            this.clientChannelGroup, this.clientEventListener)))
+            this.clientChannelGroup, this.clientEventListener), zeroCopy, batchingPolicy, this.writeBatchStats,
+            compressionPolicy, this.compressionStats))
         .option(ChannelOption.SO_REUSEADDR, true)
         .option(ChannelOption.SO_KEEPALIVE, true);
 
     final ServerBootstrap serverBootstrap = new ServerBootstrap()
         .group(this.serverBossGroup, this.serverWorkerGroup)
-        .channel(NioServerSocketChannel.class)
+        .channel(socketOptions.getServerSocketChannelClass())
         .childHandler(new NettyChannelInitializer(new NettyDefaultChannelHandlerFactory("server",
-            this.serverChannelGroup, this.serverEventListener)))
+            this.serverChannelGroup, this.serverEventListener), zeroCopy, batchingPolicy, this.writeBatchStats,
+            compressionPolicy, this.compressionStats))
         .option(ChannelOption.SO_BACKLOG, 128)
         .option(ChannelOption.SO_REUSEADDR, true)
         .childOption(ChannelOption.SO_KEEPALIVE, true);
 
-    LOG.log(Level.FINE, "Binding to {0}:{1}", new Object[] {host, listenPort});
+    socketOptions.configure(this.clientBootstrap);
+    socketOptions.configure(serverBootstrap);
+
+    if (zeroCopy) {
+      this.clientBootstrap.option(ChannelOption.ALLOCATOR, PooledByteBufAllocator.DEFAULT);
+      serverBootstrap.childOption(ChannelOption.ALLOCATOR, PooledByteBufAllocator.DEFAULT);
+    }
+
+    LOG.log(Level.FINE, "Binding to {0}:{1} with {2}", new Object[] {host, listenPort, socketOptions});
 
     try {
       if (listenPort > 0) {
@@ -171,7 +208,7 @@ public final class NettyMessagingTransport implements Transport {
             acceptorFound = serverBootstrap.bind(socketAddr).sync().channel();
             break;
           } catch (final Exception ex) {
-            if (ex instanceof BindException) { // Not visible to catch :(
+            if (isAddressInUse(ex)) { // Not visible to catch :(
               LOG.log(Level.FINEST, "The port {0} is already bound. Try again", port);
             } else {
               throw ex;
@@ -203,6 +240,10 @@ public final class NettyMessagingTransport implements Transport {
 
     LOG.log(Level.FINE, "Closing netty transport socket address: {0}", this.localAddress);
 
+    // Send out the writes still waiting in a batch
+    this.clientChannelGroup.flush();
+    this.serverChannelGroup.flush();
+
     final ChannelGroupFuture clientChannelGroupFuture = this.clientChannelGroup.close();
     final ChannelGroupFuture serverChannelGroupFuture = this.serverChannelGroup.close();
     final ChannelFuture acceptorFuture = this.acceptor.close();
@@ -327,6 +368,110 @@ public final class NettyMessagingTransport implements Transport {
     return link;
   }
 
+  /**
+   * Returns a link on the given lane to the remote address.
+   * The CONTROL lane, and the BULK lane without bulk links, return the same link as
+   * {@link #open(SocketAddress, Encoder, LinkListener)}. Otherwise, the first call for a peer opens all its
+   * BULK connections, and each call returns a new link on the next connection of the pool.
+   * Messages written to one link arrive in order; messages written to different links of a lane may not.
+   *
+   * @param remoteAddr the remote socket address
+   * @param encoder    the encoder
+   * @param listener   the link listener
+   * @param lane       the lane of the connection
+   * @return a link associated with the address and the lane
+   * @throws IOException if the connections of the lane cannot be opened
+   */
+  public <T> Link<T> open(final SocketAddress remoteAddr, final Encoder<? super T> encoder,
+                          final LinkListener<? super T> listener, final LinkLane lane) throws IOException {
+
+    if (lane == LinkLane.CONTROL || this.bulkLinksPerPeer == 0) {
+      return open(remoteAddr, encoder, listener);
+    }
+
+    LinkPool pool = this.addrToLinkPoolMap.get(remoteAddr);
+    if (pool == null) {
+      final LinkPool newPool = new LinkPool(this.bulkLinksPerPeer);
+      final LinkPool prior = this.addrToLinkPoolMap.putIfAbsent(remoteAddr, newPool);
+      pool = prior != null ? prior : newPool;
+    }
+
+    // warm up a new pool and replace the connections that went down; the pool is not locked while connecting
+    for (int i = 0; i < pool.size(); ++i) {
+      if (pool.claim(i)) {
+        Channel channel = null;
+        try {
+          channel = connectBulk(remoteAddr);
+        } finally {
+          if (channel != null) {
+            pool.connected(i, channel);
+          } else {
+            pool.connectFailed(i, System.currentTimeMillis() + this.retryTimeout);
+          }
+        }
+      } else {
+        try {
+          pool.awaitConnected(i);
+        } catch (final InterruptedException ex) {
+          Thread.currentThread().interrupt();
+          throw new InterruptedIOException("Interrupted while connecting bulk links to " + remoteAddr);
+        }
+      }
+    }
+    return new BulkLink<>(this, remoteAddr, pool, pool.nextSlot(), encoder, listener);
+  }
+
+  /**
+   * Starts reconnecting a slot of a BULK lane pool that went down, unless a connect of the slot is in progress
+   * or failed less than a retry timeout ago. Does not block: writes to the slot fail until it is back.
+   */
+  void reconnectBulk(final SocketAddress remoteAddr, final LinkPool pool, final int slot) {
+    if (!pool.claimRetry(slot, System.currentTimeMillis())) {
+      return;
+    }
+    newBulkBootstrap().connect(remoteAddr).addListener(new ChannelFutureListener() {
+      @Override
+      public void operationComplete(final ChannelFuture future) {
+        if (future.isSuccess()) {
+          LOG.log(Level.FINE, "Bulk link {0} to {1} reconnected", new Object[]{future.channel(), remoteAddr});
+          pool.connected(slot, future.channel());
+        } else {
+          LOG.log(Level.WARNING, "Cannot reopen bulk link to " + remoteAddr, future.cause());
+          pool.connectFailed(slot, System.currentTimeMillis() + retryTimeout);
+        }
+      }
+    });
+  }
+
+  private Bootstrap newBulkBootstrap() {
+    return this.clientBootstrap.clone().attr(LinkPool.BULK_LANE, Boolean.TRUE);
+  }
+
+  /**
+   * Opens a BULK lane connection, trying as often as a CONTROL connection.
+   */
+  private Channel connectBulk(final SocketAddress remoteAddr) throws IOException {
+    final Bootstrap bootstrap = newBulkBootstrap();
+    for (int i = 1;; ++i) {
+      final ChannelFuture connectFuture = bootstrap.connect(remoteAddr).awaitUninterruptibly();
+      if (connectFuture.isSuccess()) {
+        LOG.log(Level.FINE, "Bulk link {0} to {1} connected", new Object[]{connectFuture.channel(), remoteAddr});
+        return connectFuture.channel();
+      }
+      if (i >= this.numberOfTries) {
+        final ConnectException ex = new ConnectException("Bulk connection to " + remoteAddr + " refused");
+        ex.initCause(connectFuture.cause());
+        throw ex;
+      }
+      LOG.log(Level.WARNING, "Bulk connection refused. Retry {0} of {1}", new Object[]{i, this.numberOfTries});
+      try {
+        Thread.sleep(this.retryTimeout);
+      } catch (final InterruptedException interrupt) {
+        LOG.log(Level.WARNING, "Thread {0} interrupted while sleeping", Thread.currentThread());
+      }
+    }
+  }
+
   /**
    * Returns a link for the remote address if already cached; otherwise, returns null.
    *
@@ -369,6 +514,45 @@ public final class NettyMessagingTransport implements Transport {
     this.serverEventListener.registerErrorHandler(handler);
   }
 
+  /**
+   * Checks whether a bind failed because the address is in use.
+   * The native transport reports it as a plain IOException rather than a BindException.
+   *
+   * @param ex the exception thrown by the bind
+   * @return true if the address is already in use
+   */
+  private static boolean isAddressInUse(final Exception ex) {
+    return ex instanceof BindException ||
+        ex instanceof IOException && ex.getMessage() != null && ex.getMessage().contains("Address already in use");
+  }
+
+  /**
+   * Gets the flush statistics of the batched writes of this transport.
+   *
+   * @return the write batch statistics; all zero if write batching is off
+   */
+  public WriteBatchStats getWriteBatchStats() {
+    return this.writeBatchStats;
+  }
+
+  /**
+   * Gets the compression statistics of the channels of this transport.
+   *
+   * @return the compression statistics; all zero if compression is off
+   */
+  public CompressionStats getCompressionStats() {
+    return this.compressionStats;
+  }
+
+  /**
+   * Tells whether the transport stopped reading from some of its connections because a bounded stage was full.
+   *
+   * @return true while reads from some client or server connection are paused
+   */
+  public boolean isReadPaused() {
+    return this.clientChannelGroup.isPaused() || this.serverChannelGroup.isPaused();
+  }
+
   @Override
   public String toString() {
     return String.format("NettyMessagingTransport: { address: %s }", this.localAddress);
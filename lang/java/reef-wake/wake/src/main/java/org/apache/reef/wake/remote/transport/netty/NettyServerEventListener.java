@@ -18,9 +18,9 @@
  */
 package org.apache.reef.wake.remote.transport.netty;
 
+import io.netty.buffer.ByteBuf;
 import io.netty.channel.Channel;
 import io.netty.channel.ChannelHandlerContext;
-import org.apache.reef.wake.EStage;
 import org.apache.reef.wake.remote.impl.ByteCodec;
 import org.apache.reef.wake.remote.impl.TransportEvent;
 
@@ -35,8 +35,8 @@ final class NettyServerEventListener extends AbstractNettyEventListener {
 
   NettyServerEventListener(
       final ConcurrentMap<SocketAddress, LinkReference> addrToLinkRefMap,
-      final EStage<TransportEvent> stage) {
-    super(addrToLinkRefMap, stage);
+      final ThrottledChannelGroup channelGroup) {
+    super(addrToLinkRefMap, channelGroup);
   }
 
 
@@ -61,6 +61,11 @@ final class NettyServerEventListener extends AbstractNettyEventListener {
     return new TransportEvent(message, new NettyLink<>(channel, new ByteEncoder()));
   }
 
+  @Override
+  protected TransportEvent getTransportEvent(final ByteBuf message, final Channel channel) {
+    return new TransportEvent(message, new NettyLink<>(channel, new ByteEncoder()));
+  }
+
   @Override
   protected void exceptionCleanup(final ChannelHandlerContext ctx, final Throwable cause) {
     // noop
@@ -0,0 +1,177 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.reef.wake.remote.transport.netty;
+
+import io.netty.bootstrap.Bootstrap;
+import io.netty.bootstrap.ServerBootstrap;
+import io.netty.channel.ChannelOption;
+import io.netty.channel.EventLoopGroup;
+import io.netty.channel.epoll.Epoll;
+import io.netty.channel.epoll.EpollChannelOption;
+import io.netty.channel.epoll.EpollEventLoopGroup;
+import io.netty.channel.epoll.EpollServerSocketChannel;
+import io.netty.channel.epoll.EpollSocketChannel;
+import io.netty.channel.nio.NioEventLoopGroup;
+import io.netty.channel.socket.ServerSocketChannel;
+import io.netty.channel.socket.SocketChannel;
+import io.netty.channel.socket.nio.NioServerSocketChannel;
+import io.netty.channel.socket.nio.NioSocketChannel;
+import io.netty.util.internal.PlatformDependent;
+import org.apache.reef.tang.annotations.Parameter;
+import org.apache.reef.wake.remote.RemoteConfiguration;
+
+import javax.inject.Inject;
+import java.util.concurrent.ThreadFactory;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Socket transport choice and socket options of a messaging transport.
+ * <p>
+ * If the native epoll transport is requested but the native library is not available,
+ * or the JVM does not let Netty access the addresses of direct buffers that the library works on,
+ * the NIO transport is used instead and SO_REUSEPORT is ignored.
+ */
+public final class NettySocketOptions {
+
+  private static final Logger LOG = Logger.getLogger(NettySocketOptions.class.getName());
+
+  private final boolean nativeTransport;
+  private final boolean tcpNoDelay;
+  private final boolean reusePort;
+  private final int sendBufferSize;
+  private final int receiveBufferSize;
+
+  /**
+   * Constructs socket options.
+   *
+   * @param nativeTransport   whether to use the native epoll transport
+   * @param tcpNoDelay        whether sockets disable Nagle's algorithm
+   * @param reusePort         whether the server socket sets SO_REUSEPORT
+   * @param sendBufferSize    the socket send buffer size; 0 keeps the operating system default
+   * @param receiveBufferSize the socket receive buffer size; 0 keeps the operating system default
+   */
+  @Inject
+  private NettySocketOptions(
+      @Parameter(RemoteConfiguration.NativeTransport.class) final boolean nativeTransport,
+      @Parameter(RemoteConfiguration.TcpNoDelay.class) final boolean tcpNoDelay,
+      @Parameter(RemoteConfiguration.ReusePort.class) final boolean reusePort,
+      @Parameter(RemoteConfiguration.SendBufferSize.class) final int sendBufferSize,
+      @Parameter(RemoteConfiguration.ReceiveBufferSize.class) final int receiveBufferSize) {
+
+    if (sendBufferSize < 0 || receiveBufferSize < 0) {
+      throw new IllegalArgumentException(String.format(
+          "Invalid socket buffer sizes: send %d receive %d", sendBufferSize, receiveBufferSize));
+    }
+
+    if (nativeTransport && !Epoll.isAvailable()) {
+      LOG.log(Level.WARNING, "Native epoll transport is not available; falling back to NIO",
+          Epoll.unavailabilityCause());
+      this.nativeTransport = false;
+    } else if (nativeTransport && !PlatformDependent.hasUnsafe()) {
+      LOG.log(Level.WARNING, "Native epoll transport cannot access direct buffers on this JVM; falling back to NIO");
+      this.nativeTransport = false;
+    } else {
+      this.nativeTransport = nativeTransport;
+    }
+
+    if (reusePort && !this.nativeTransport) {
+      LOG.log(Level.WARNING, "SO_REUSEPORT requires the native epoll transport; ignored");
+    }
+
+    this.tcpNoDelay = tcpNoDelay;
+    this.reusePort = reusePort && this.nativeTransport;
+    this.sendBufferSize = sendBufferSize;
+    this.receiveBufferSize = receiveBufferSize;
+  }
+
+  /**
+   * @return true if the native epoll transport is in use
+   */
+  public boolean isNativeTransport() {
+    return this.nativeTransport;
+  }
+
+  /**
+   * Creates an event loop group for the selected transport.
+   *
+   * @param numThreads    the number of threads
+   * @param threadFactory the thread factory
+   * @return an event loop group
+   */
+  EventLoopGroup newEventLoopGroup(final int numThreads, final ThreadFactory threadFactory) {
+    return this.nativeTransport ?
+        new EpollEventLoopGroup(numThreads, threadFactory) : new NioEventLoopGroup(numThreads, threadFactory);
+  }
+
+  /**
+   * @return the client socket channel class of the selected transport
+   */
+  Class<? extends SocketChannel> getSocketChannelClass() {
+    return this.nativeTransport ? EpollSocketChannel.class : NioSocketChannel.class;
+  }
+
+  /**
+   * @return the server socket channel class of the selected transport
+   */
+  Class<? extends ServerSocketChannel> getServerSocketChannelClass() {
+    return this.nativeTransport ? EpollServerSocketChannel.class : NioServerSocketChannel.class;
+  }
+
+  /**
+   * Sets the socket options on a client bootstrap.
+   *
+   * @param bootstrap the client bootstrap
+   */
+  void configure(final Bootstrap bootstrap) {
+    bootstrap.option(ChannelOption.TCP_NODELAY, this.tcpNoDelay);
+    if (this.sendBufferSize > 0) {
+      bootstrap.option(ChannelOption.SO_SNDBUF, this.sendBufferSize);
+    }
+    if (this.receiveBufferSize > 0) {
+      bootstrap.option(ChannelOption.SO_RCVBUF, this.receiveBufferSize);
+    }
+  }
+
+  /**
+   * Sets the socket options on a server bootstrap and its accepted channels.
+   *
+   * @param bootstrap the server bootstrap
+   */
+  void configure(final ServerBootstrap bootstrap) {
+    bootstrap.childOption(ChannelOption.TCP_NODELAY, this.tcpNoDelay);
+    if (this.reusePort) {
+      bootstrap.option(EpollChannelOption.SO_REUSEPORT, true);
+    }
+    if (this.sendBufferSize > 0) {
+      bootstrap.childOption(ChannelOption.SO_SNDBUF, this.sendBufferSize);
+    }
+    if (this.receiveBufferSize > 0) {
+      // Set on the listening socket so that accepted sockets get it before the TCP window is negotiated
+      bootstrap.option(ChannelOption.SO_RCVBUF, this.receiveBufferSize);
+      bootstrap.childOption(ChannelOption.SO_RCVBUF, this.receiveBufferSize);
+    }
+  }
+
+  @Override
+  public String toString() {
+    return String.format("NettySocketOptions: { native: %b tcpNoDelay: %b reusePort: %b sndbuf: %d rcvbuf: %d }",
+        this.nativeTransport, this.tcpNoDelay, this.reusePort, this.sendBufferSize, this.receiveBufferSize);
+  }
+}
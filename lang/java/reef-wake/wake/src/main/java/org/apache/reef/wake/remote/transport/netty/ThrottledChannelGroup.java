@@ -0,0 +1,153 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.reef.wake.remote.transport.netty;
+
+import io.netty.channel.Channel;
+import io.netty.channel.group.DefaultChannelGroup;
+import io.netty.util.concurrent.EventExecutor;
+import org.apache.reef.wake.BackpressureListener;
+import org.apache.reef.wake.BoundedEStage;
+import org.apache.reef.wake.EStage;
+import org.apache.reef.wake.remote.impl.TransportEvent;
+
+import java.util.ArrayDeque;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Channel group that passes the events read from its channels to the stage they feed,
+ * and stops reading from a channel whose event a bounded stage rejected.
+ * <p>
+ * The event loop never waits for room in the stage: the rejected event, and the events already decoded
+ * from the same read, are kept in order, and autoRead is turned off for that channel only.
+ * The data left in its socket buffer then throttles its sender through TCP flow control,
+ * while the other channels keep reading. When the stage drains, each paused channel hands its events
+ * to the stage on its event loop and reads again once all of them are accepted.
+ */
+final class ThrottledChannelGroup extends DefaultChannelGroup implements BackpressureListener {
+
+  private static final Logger LOG = Logger.getLogger(ThrottledChannelGroup.class.getName());
+
+  private final String tag;
+  private final EStage<TransportEvent> stage;
+  private final BoundedEStage<TransportEvent> boundedStage; // null for an unbounded stage
+
+  /** The events of each paused channel not accepted by the stage yet; each queue is used by its event loop only. */
+  private final ConcurrentMap<Channel, Queue<TransportEvent>> pausedChannels = new ConcurrentHashMap<>();
+
+  /**
+   * @param tag      tag string
+   * @param executor the executor that notifies the listeners of group futures
+   * @param stage    the stage fed by the channels of the group
+   */
+  ThrottledChannelGroup(final String tag, final EventExecutor executor, final EStage<TransportEvent> stage) {
+    super(executor);
+    this.tag = tag;
+    this.stage = stage;
+    if (stage instanceof BoundedEStage) {
+      this.boundedStage = (BoundedEStage<TransportEvent>) stage;
+      this.boundedStage.addBackpressureListener(this);
+    } else {
+      this.boundedStage = null;
+    }
+  }
+
+  /**
+   * Passes an event read from a channel to the stage. Called from the event loop of the channel.
+   *
+   * @param channel the channel the event was read from
+   * @param event   the event
+   */
+  void dispatch(final Channel channel, final TransportEvent event) {
+    if (this.boundedStage == null) {
+      this.stage.onNext(event);
+      return;
+    }
+    final Queue<TransportEvent> pending = this.pausedChannels.get(channel);
+    if (pending != null) {
+      // decoded from the read that overflowed the stage; it has to follow the rejected event
+      pending.add(event);
+    } else if (!this.boundedStage.offer(event)) {
+      pause(channel, event);
+    }
+  }
+
+  private void pause(final Channel channel, final TransportEvent event) {
+    LOG.log(Level.FINE, "{0}: stage full, pausing reads of {1}", new Object[] {this.tag, channel});
+    channel.config().setAutoRead(false);
+    final Queue<TransportEvent> pending = new ArrayDeque<>();
+    pending.add(event);
+    this.pausedChannels.put(channel, pending);
+    if (!this.boundedStage.isSaturated()) {
+      // the stage drained before the channel was paused, so no drained notification is coming for it
+      resume(channel);
+    }
+  }
+
+  /**
+   * Hands the events of a paused channel to the stage and resumes reading once all of them are accepted.
+   * If the stage fills up again, the channel stays paused until the next time the stage drains.
+   * Runs on the event loop of the channel.
+   */
+  private void resume(final Channel channel) {
+    final Queue<TransportEvent> pending = this.pausedChannels.get(channel);
+    if (pending == null) {
+      return;
+    }
+    while (!pending.isEmpty()) {
+      if (!this.boundedStage.offer(pending.peek())) {
+        return;
+      }
+      pending.remove();
+    }
+    this.pausedChannels.remove(channel);
+    LOG.log(Level.FINE, "{0}: resuming reads of {1}", new Object[] {this.tag, channel});
+    channel.config().setAutoRead(true);
+    channel.read();
+  }
+
+  @Override
+  public void onSaturated() {
+    LOG.log(Level.FINE, "{0}: stage saturated", this.tag);
+  }
+
+  @Override
+  public void onDrained() {
+    LOG.log(Level.FINE, "{0}: stage drained, resuming {1} paused channels",
+        new Object[] {this.tag, this.pausedChannels.size()});
+    for (final Channel channel : this.pausedChannels.keySet()) {
+      channel.eventLoop().execute(new Runnable() {
+        @Override
+        public void run() {
+          resume(channel);
+        }
+      });
+    }
+  }
+
+  /**
+   * @return true while reads from some channel of the group are paused
+   */
+  boolean isPaused() {
+    return !this.pausedChannels.isEmpty();
+  }
+}
@@ -0,0 +1,126 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.reef.wake.remote.transport.netty;
+
+import org.apache.reef.wake.metrics.Histogram;
+import org.apache.reef.wake.metrics.UniformHistogram;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Flush statistics of the batched writes of a messaging transport, across all of its channels.
+ */
+public final class WriteBatchStats {
+
+  private final AtomicLong flushCount = new AtomicLong(0);
+  private final AtomicLong thresholdFlushCount = new AtomicLong(0);
+  private final AtomicLong delayedFlushCount = new AtomicLong(0);
+  private final AtomicLong messageCount = new AtomicLong(0);
+  private final AtomicLong byteCount = new AtomicLong(0);
+  private final UniformHistogram batchSizes;
+
+  /**
+   * Constructs batch statistics.
+   *
+   * @param maxMessages the message threshold of the batching policy; batch sizes above it share the last bin
+   */
+  WriteBatchStats(final int maxMessages) {
+    this.batchSizes = new UniformHistogram(1, maxMessages + 1);
+  }
+
+  /**
+   * Records a flush.
+   *
+   * @param messages  the number of messages in the batch
+   * @param bytes     the number of bytes in the batch
+   * @param threshold true if a threshold triggered the flush
+   * @param delayed   true if the flush delay (or the idle event loop) triggered the flush
+   */
+  void onFlush(final int messages, final long bytes, final boolean threshold, final boolean delayed) {
+    this.flushCount.incrementAndGet();
+    if (threshold) {
+      this.thresholdFlushCount.incrementAndGet();
+    } else if (delayed) {
+      this.delayedFlushCount.incrementAndGet();
+    }
+    this.messageCount.addAndGet(messages);
+    this.byteCount.addAndGet(bytes);
+    this.batchSizes.update(messages);
+  }
+
+  /**
+   * @return the number of flushes
+   */
+  public long getFlushCount() {
+    return this.flushCount.get();
+  }
+
+  /**
+   * @return the number of flushes triggered by the byte or message threshold
+   */
+  public long getThresholdFlushCount() {
+    return this.thresholdFlushCount.get();
+  }
+
+  /**
+   * @return the number of flushes triggered by the flush delay or the idle event loop
+   */
+  public long getDelayedFlushCount() {
+    return this.delayedFlushCount.get();
+  }
+
+  /**
+   * @return the number of flushed messages
+   */
+  public long getMessageCount() {
+    return this.messageCount.get();
+  }
+
+  /**
+   * @return the number of flushed bytes
+   */
+  public long getByteCount() {
+    return this.byteCount.get();
+  }
+
+  /**
+   * @return the mean number of messages per flush
+   */
+  public double getMeanBatchSize() {
+    final long flushes = getFlushCount();
+    return flushes == 0 ? 0.0 : (double) getMessageCount() / flushes;
+  }
+
+  /**
+   * Gets the distribution of batch sizes.
+   * Bin i counts the flushes of i messages; the last bin also counts larger batches.
+   *
+   * @return the batch size histogram
+   */
+  public Histogram getBatchSizeHistogram() {
+    return this.batchSizes;
+  }
+
+  @Override
+  public String toString() {
+    return String.format("WriteBatchStats: { flushes: %d threshold: %d delayed: %d messages: %d bytes: %d " +
+        "mean batch: %.2f }", getFlushCount(), getThresholdFlushCount(), getDelayedFlushCount(),
+        getMessageCount(), getByteCount(), getMeanBatchSize());
+  }
+}
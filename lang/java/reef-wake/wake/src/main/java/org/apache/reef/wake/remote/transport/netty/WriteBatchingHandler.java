@@ -0,0 +1,114 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.reef.wake.remote.transport.netty;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelOutboundHandlerAdapter;
+import io.netty.channel.ChannelPromise;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Outbound handler that coalesces writes and decides when to flush them.
+ * <p>
+ * All methods run on the event loop of the channel, so the pending counters need no synchronization
+ * and a scheduled flush always comes after the writes it is meant to flush.
+ */
+final class WriteBatchingHandler extends ChannelOutboundHandlerAdapter {
+
+  private final WriteBatchingPolicy policy;
+  private final WriteBatchStats stats;
+
+  private ChannelHandlerContext context;
+  private int pendingMessages = 0;
+  private long pendingBytes = 0;
+  private boolean flushScheduled = false;
+  private boolean thresholdFlush = false;
+  private boolean delayedFlush = false;
+
+  private final Runnable flushTask = new Runnable() {
+    @Override
+    public void run() {
+      flushScheduled = false;
+      if (pendingMessages > 0) {
+        delayedFlush = true;
+        flushPending(context);
+      }
+    }
+  };
+
+  WriteBatchingHandler(final WriteBatchingPolicy policy, final WriteBatchStats stats) {
+    this.policy = policy;
+    this.stats = stats;
+  }
+
+  @Override
+  public void handlerAdded(final ChannelHandlerContext ctx) {
+    this.context = ctx;
+  }
+
+  @Override
+  public void write(final ChannelHandlerContext ctx, final Object msg, final ChannelPromise promise)
+      throws Exception {
+
+    ++this.pendingMessages;
+    if (msg instanceof ByteBuf) {
+      this.pendingBytes += ((ByteBuf) msg).readableBytes();
+    } else if (msg instanceof byte[]) {
+      this.pendingBytes += ((byte[]) msg).length;
+    }
+
+    ctx.write(msg, promise);
+
+    if (this.pendingMessages >= this.policy.getMaxMessages() || this.pendingBytes >= this.policy.getMaxBytes()) {
+      this.thresholdFlush = true;
+      flushPending(ctx);
+    } else if (!this.flushScheduled) {
+      this.flushScheduled = true;
+      if (this.policy.getFlushDelayMicros() > 0) {
+        ctx.executor().schedule(this.flushTask, this.policy.getFlushDelayMicros(), TimeUnit.MICROSECONDS);
+      } else {
+        ctx.executor().execute(this.flushTask);
+      }
+    }
+  }
+
+  @Override
+  public void flush(final ChannelHandlerContext ctx) throws Exception {
+    flushPending(ctx);
+  }
+
+  /**
+   * Records the pending batch, resets the pending counters and flushes the channel.
+   * The write path and the flush task call this rather than ctx.flush(), which would skip this handler.
+   *
+   * @param ctx the context of this handler
+   */
+  private void flushPending(final ChannelHandlerContext ctx) {
+    if (this.pendingMessages > 0) {
+      this.stats.onFlush(this.pendingMessages, this.pendingBytes, this.thresholdFlush, this.delayedFlush);
+      this.pendingMessages = 0;
+      this.pendingBytes = 0;
+    }
+    this.thresholdFlush = false;
+    this.delayedFlush = false;
+    ctx.flush();
+  }
+}
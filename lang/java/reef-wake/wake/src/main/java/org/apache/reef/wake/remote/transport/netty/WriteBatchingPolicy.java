@@ -0,0 +1,98 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.reef.wake.remote.transport.netty;
+
+import org.apache.reef.tang.annotations.Parameter;
+import org.apache.reef.wake.remote.RemoteConfiguration;
+
+import javax.inject.Inject;
+
+/**
+ * Policy for coalescing writes on the channels of a messaging transport.
+ * <p>
+ * When batching is enabled, a link writes messages without flushing them and the channel
+ * flushes once the pending bytes or messages reach a threshold, or when the flush delay expires.
+ */
+public final class WriteBatchingPolicy {
+
+  private final boolean enabled;
+  private final int maxBytes;
+  private final int maxMessages;
+  private final int flushDelayMicros;
+
+  /**
+   * Constructs a write batching policy.
+   *
+   * @param enabled          whether links batch their writes
+   * @param maxBytes         the number of pending bytes that triggers a flush
+   * @param maxMessages      the number of pending messages that triggers a flush
+   * @param flushDelayMicros the time in microseconds a write can wait for a flush;
+   *                         zero flushes when the event loop has run its other pending tasks
+   */
+  @Inject
+  private WriteBatchingPolicy(
+      @Parameter(RemoteConfiguration.WriteBatching.class) final boolean enabled,
+      @Parameter(RemoteConfiguration.WriteBatchMaxBytes.class) final int maxBytes,
+      @Parameter(RemoteConfiguration.WriteBatchMaxMessages.class) final int maxMessages,
+      @Parameter(RemoteConfiguration.WriteBatchFlushDelay.class) final int flushDelayMicros) {
+    if (maxBytes <= 0 || maxMessages <= 0 || flushDelayMicros < 0) {
+      throw new IllegalArgumentException(String.format(
+          "Invalid write batching thresholds: maxBytes %d maxMessages %d flushDelay %d us",
+          maxBytes, maxMessages, flushDelayMicros));
+    }
+    this.enabled = enabled;
+    this.maxBytes = maxBytes;
+    this.maxMessages = maxMessages;
+    this.flushDelayMicros = flushDelayMicros;
+  }
+
+  /**
+   * @return true if links batch their writes
+   */
+  public boolean isEnabled() {
+    return this.enabled;
+  }
+
+  /**
+   * @return the number of pending bytes that triggers a flush
+   */
+  public int getMaxBytes() {
+    return this.maxBytes;
+  }
+
+  /**
+   * @return the number of pending messages that triggers a flush
+   */
+  public int getMaxMessages() {
+    return this.maxMessages;
+  }
+
+  /**
+   * @return the time in microseconds a write can wait for a flush
+   */
+  public int getFlushDelayMicros() {
+    return this.flushDelayMicros;
+  }
+
+  @Override
+  public String toString() {
+    return String.format("WriteBatchingPolicy: { enabled: %b maxBytes: %d maxMessages: %d flushDelay: %d us }",
+        this.enabled, this.maxBytes, this.maxMessages, this.flushDelayMicros);
+  }
+}
@@ -50,6 +50,15 @@ public interface Clock extends Runnable, AutoCloseable {
    */
   Time scheduleAlarm(final int offset, final EventHandler<Alarm> handler);
 
+  /**
+   * Cancel an alarm that has not fired yet. The alarm is removed from the schedule
+   * right away and no longer keeps the clock from being idle or from closing.
+   * @param alarm Alarm returned by scheduleAlarm().
+   * @return true if the alarm was cancelled, false if it already fired, was already cancelled,
+   * or was not scheduled on this clock.
+   */
+  boolean cancelAlarm(final Time alarm);
+
   /**
    * This will stop the clock after all client alarms
    * finish executing.
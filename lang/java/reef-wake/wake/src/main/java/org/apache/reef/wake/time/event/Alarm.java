@@ -19,6 +19,8 @@
 package org.apache.reef.wake.time.event;
 
 import org.apache.reef.wake.EventHandler;
+import org.apache.reef.wake.metrics.StageMetrics;
+import org.apache.reef.wake.profiler.HandlerProfiler;
 import org.apache.reef.wake.time.Time;
 
 /**
@@ -39,6 +41,11 @@ public abstract class Alarm extends Time implements Runnable {
    */
   @Override
   public final void run() {
-    this.handler.onNext(this);
+    final HandlerProfiler.Sample sample = HandlerProfiler.instance().begin(null, this.handler, StageMetrics.NOT_TIMED);
+    try {
+      this.handler.onNext(this);
+    } finally {
+      HandlerProfiler.instance().end(sample);
+    }
   }
 }
@@ -30,6 +30,7 @@ import org.apache.reef.wake.time.event.StopTime;
 import org.apache.reef.wake.time.runtime.event.*;
 
 import javax.inject.Inject;
+import java.util.Iterator;
 import java.util.Set;
 import java.util.TreeSet;
 import java.util.logging.Level;
@@ -83,6 +84,15 @@ public final class RuntimeClock implements Clock {
   /** Set to true when the clock is closed. */
   private boolean isClosed = false;
 
+  /** Graceful shutdown event in the schedule; null unless close() was called. */
+  private StopTime gracefulStop = null;
+
+  /**
+   * Set when cancelling an alarm leaves no client alarms in the schedule,
+   * so that the event loop wakes up and fires the IdleClock event.
+   */
+  private boolean idleAfterCancel = false;
+
   /** Exception that caused the clock to stop. */
   private Throwable exceptionCausedStop = null;
 
@@ -155,6 +165,67 @@ public final class RuntimeClock implements Clock {
     return alarm;
   }
 
+  /**
+   * Cancel a client alarm and remove it from the schedule.
+   * If it was the last client alarm, the graceful shutdown (if any) moves up
+   * and the event loop fires the IdleClock event.
+   * @param alarm Alarm returned by scheduleAlarm().
+   * @return true if the alarm was cancelled, false if it already fired, was already cancelled,
+   * or was not scheduled on this clock.
+   */
+  @Override
+  public boolean cancelAlarm(final Time alarm) {
+
+    if (!(alarm instanceof ClientAlarm)) {
+      return false;
+    }
+
+    final int eventQueueLen;
+    synchronized (this.schedule) {
+
+      if (!this.schedule.remove(alarm)) {
+        return false;
+      }
+
+      --this.numClientAlarms;
+      assert this.numClientAlarms >= 0;
+      eventQueueLen = this.numClientAlarms;
+
+      if (alarm.getTimestamp() == this.lastClientAlarm) {
+        this.lastClientAlarm = this.findLastClientAlarm();
+        if (this.gracefulStop != null) {
+          this.schedule.remove(this.gracefulStop);
+          this.gracefulStop = new StopTime(Math.max(this.timer.getCurrent(), this.lastClientAlarm + 1));
+          this.schedule.add(this.gracefulStop);
+        }
+      }
+
+      if (this.numClientAlarms == 0) {
+        this.idleAfterCancel = true;
+      }
+
+      this.schedule.notify();
+    }
+
+    LOG.log(Level.FINEST, "Cancel alarm: {0} Outstanding client alarms: {1}", new Object[] {alarm, eventQueueLen});
+    return true;
+  }
+
+  /**
+   * Find the timestamp of the latest client alarm in the schedule. Caller must hold the schedule lock.
+   * @return Timestamp of the last client alarm, or 0 if there are none.
+   */
+  private long findLastClientAlarm() {
+    final Iterator<Time> it = this.schedule.descendingIterator();
+    while (it.hasNext()) {
+      final Time event = it.next();
+      if (event instanceof ClientAlarm) {
+        return event.getTimestamp();
+      }
+    }
+    return 0;
+  }
+
   /**
    * Stop the clock. Remove all other events from the schedule and fire StopTimer
    * event immediately. It is recommended to use close() method for graceful shutdown
@@ -218,11 +289,12 @@ public final class RuntimeClock implements Clock {
 
       this.isClosed = true;
 
-      final Time stopEvent = new StopTime(Math.max(this.timer.getCurrent(), this.lastClientAlarm + 1));
+      final StopTime stopEvent = new StopTime(Math.max(this.timer.getCurrent(), this.lastClientAlarm + 1));
       LOG.log(Level.FINE,
           "Graceful shutdown scheduled: {0} Outstanding client alarms: {1}",
           new Object[] {stopEvent, this.numClientAlarms});
 
+      this.gracefulStop = stopEvent;
       this.schedule.add(stopEvent);
       this.schedule.notify();
     }
@@ -242,6 +314,18 @@ public final class RuntimeClock implements Clock {
     }
   }
 
+  /**
+   * Check if the clock is idle, and reset the flag raised by cancelling the last client alarm:
+   * the event loop fires the IdleClock event once for both.
+   * @return True if there are no client alarms in the schedule, false otherwise.
+   */
+  private boolean pollIdle() {
+    synchronized (this.schedule) {
+      this.idleAfterCancel = false;
+      return this.isIdle();
+    }
+  }
+
   /**
    * The clock is closed after a call to stop() or close().
    * A closed clock cannot add new alarms to the schedule, but, in case of the
@@ -300,7 +384,7 @@ public final class RuntimeClock implements Clock {
 
         try {
 
-          if (this.isIdle()) {
+          if (this.pollIdle()) {
             // Handle an idle clock event, without locking this.schedule
             this.handlers.onNext(new IdleClock(this.timer.getCurrent()));
           }
@@ -309,16 +393,14 @@ public final class RuntimeClock implements Clock {
           final int eventQueueLen;
           synchronized (this.schedule) {
 
-            while (this.schedule.isEmpty()) {
-              this.schedule.wait();
-            }
-
-            assert this.schedule.first() != null;
-
             // Wait until the first scheduled time is ready.
-            // NOTE: while waiting, another alarm could be scheduled with a shorter duration
-            // so the next time I go around the loop I need to revise my duration.
-            while (true) {
+            // NOTE: while waiting, another alarm could be scheduled with a shorter duration,
+            // or the first one could be cancelled, so the next time I go around the loop I need to revise my duration.
+            while (!this.idleAfterCancel) {
+              if (this.schedule.isEmpty()) {
+                this.schedule.wait();
+                continue;
+              }
               final long waitDuration = this.timer.getDuration(this.schedule.first());
               if (waitDuration <= 0) {
                 break;
@@ -326,6 +408,11 @@ public final class RuntimeClock implements Clock {
               this.schedule.wait(waitDuration);
             }
 
+            if (this.idleAfterCancel) {
+              // The last client alarm was cancelled; go around the loop to fire the IdleClock event.
+              continue;
+            }
+
             // Remove the event from the schedule and process it:
             event = this.schedule.pollFirst();
 
@@ -0,0 +1,254 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.reef.wake.time.runtime;
+
+import org.apache.reef.wake.EventHandler;
+import org.apache.reef.wake.time.Time;
+import org.apache.reef.wake.time.event.Alarm;
+
+import java.util.Collection;
+import java.util.PriorityQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Hierarchical timer wheel used by TimerWheelClock.
+ * <p>
+ * Each level is a ring of buckets; an alarm goes into the bucket of the lowest level whose span covers it,
+ * in constant time. Non-empty buckets are kept in a priority queue ordered by expiration, so finding the
+ * next deadline costs O(log b) in the number of buckets rather than the number of alarms.
+ * When a bucket of a higher level expires, its alarms are re-inserted and cascade into finer levels.
+ * <p>
+ * The wheel is not thread-safe: only the clock's event loop touches it.
+ */
+final class TimerWheel {
+
+  /**
+   * An alarm in the wheel; also the alarm handed to clients, so cancelling it needs no lookup.
+   */
+  static final class Entry extends Alarm {
+
+    private static final int SCHEDULED = 0;
+    private static final int FIRED = 1;
+    private static final int CANCELLED = 2;
+
+    private final AtomicInteger state = new AtomicInteger(SCHEDULED);
+
+    private Bucket bucket;
+    private Entry prev;
+    private Entry next;
+
+    Entry(final long timestamp, final EventHandler<Alarm> handler) {
+      super(timestamp, handler);
+    }
+
+    /**
+     * Claims the alarm for firing.
+     * @return false if the alarm was cancelled.
+     */
+    boolean markFired() {
+      return this.state.compareAndSet(SCHEDULED, FIRED);
+    }
+
+    /**
+     * Claims the alarm for cancellation.
+     * @return false if the alarm already fired or was cancelled.
+     */
+    boolean markCancelled() {
+      return this.state.compareAndSet(SCHEDULED, CANCELLED);
+    }
+
+    boolean isCancelled() {
+      return this.state.get() == CANCELLED;
+    }
+
+    /**
+     * Removes the alarm from its bucket, if any. Event loop only.
+     */
+    void unlink() {
+      if (this.bucket != null) {
+        this.bucket.remove(this);
+      }
+    }
+  }
+
+  /**
+   * The time at which a bucket expires.
+   */
+  private static final class Deadline extends Time {
+
+    Deadline(final long timestamp) {
+      super(timestamp);
+    }
+  }
+
+  /**
+   * A doubly linked list of alarms that expire together.
+   */
+  static final class Bucket implements Comparable<Bucket> {
+
+    private final Entry root = new Entry(0, null);
+    private long expiration = -1;
+
+    Bucket() {
+      this.root.prev = this.root;
+      this.root.next = this.root;
+    }
+
+    long getExpiration() {
+      return this.expiration;
+    }
+
+    /**
+     * @return the expiration of the bucket, as a Time that the clock's Timer can check.
+     */
+    Time getDeadline() {
+      return new Deadline(this.expiration);
+    }
+
+    /**
+     * Sets the expiration of the bucket.
+     * @return true if the expiration changed, i.e. the bucket must be (re)queued.
+     */
+    private boolean setExpiration(final long newExpiration) {
+      final boolean changed = this.expiration != newExpiration;
+      this.expiration = newExpiration;
+      return changed;
+    }
+
+    private void add(final Entry entry) {
+      entry.bucket = this;
+      entry.prev = this.root.prev;
+      entry.next = this.root;
+      this.root.prev.next = entry;
+      this.root.prev = entry;
+    }
+
+    private void remove(final Entry entry) {
+      entry.prev.next = entry.next;
+      entry.next.prev = entry.prev;
+      entry.prev = null;
+      entry.next = null;
+      entry.bucket = null;
+    }
+
+    /**
+     * Empties the bucket into the given collection, in insertion order, and resets its expiration.
+     */
+    void flush(final Collection<Entry> entries) {
+      Entry entry = this.root.next;
+      while (entry != this.root) {
+        final Entry next = entry.next;
+        remove(entry);
+        entries.add(entry);
+        entry = next;
+      }
+      this.expiration = -1;
+    }
+
+    @Override
+    public int compareTo(final Bucket other) {
+      return Long.compare(this.expiration, other.expiration);
+    }
+  }
+
+  private final long tickMs;
+  private final int wheelSize;
+  private final long interval;
+  private final Bucket[] buckets;
+  private final PriorityQueue<Bucket> queue;
+
+  private long currentTime;
+  private TimerWheel overflowWheel = null;
+
+  /**
+   * Creates the lowest level of a wheel.
+   * @param tickMs Time span of one bucket of the lowest level, in milliseconds.
+   * @param wheelSize Number of buckets in each level.
+   * @param startMs Current time.
+   */
+  TimerWheel(final long tickMs, final int wheelSize, final long startMs) {
+    this(tickMs, wheelSize, startMs, new PriorityQueue<Bucket>());
+  }
+
+  private TimerWheel(final long tickMs, final int wheelSize, final long startMs, final PriorityQueue<Bucket> queue) {
+    this.tickMs = tickMs;
+    this.wheelSize = wheelSize;
+    this.interval = tickMs * wheelSize;
+    this.queue = queue;
+    this.currentTime = startMs - startMs % tickMs;
+    this.buckets = new Bucket[wheelSize];
+    for (int i = 0; i < wheelSize; ++i) {
+      this.buckets[i] = new Bucket();
+    }
+  }
+
+  /**
+   * Adds an alarm to the wheel.
+   * @param entry Alarm to add.
+   * @return false if the alarm is already due (or cancelled) and was not added.
+   */
+  boolean add(final Entry entry) {
+    final long expiration = entry.getTimestamp();
+    if (entry.isCancelled() || expiration < this.currentTime + this.tickMs) {
+      return false;
+    } else if (expiration < this.currentTime + this.interval) {
+      final long virtualId = expiration / this.tickMs;
+      final Bucket bucket = this.buckets[(int) (virtualId % this.wheelSize)];
+      bucket.add(entry);
+      if (bucket.setExpiration(virtualId * this.tickMs)) {
+        this.queue.offer(bucket);
+      }
+      return true;
+    } else {
+      if (this.overflowWheel == null) {
+        this.overflowWheel = new TimerWheel(this.interval, this.wheelSize, this.currentTime, this.queue);
+      }
+      return this.overflowWheel.add(entry);
+    }
+  }
+
+  /**
+   * @return the non-empty bucket that expires first, or null if the wheel is empty.
+   */
+  Bucket peekBucket() {
+    return this.queue.peek();
+  }
+
+  /**
+   * Removes the bucket that expires first and moves the wheel's time to its expiration.
+   * The caller re-adds the bucket's alarms, which either fire or cascade into a finer level.
+   * @return the expired bucket, or null if the wheel is empty.
+   */
+  Bucket pollBucket() {
+    final Bucket bucket = this.queue.poll();
+    if (bucket != null) {
+      advanceClock(bucket.getExpiration());
+    }
+    return bucket;
+  }
+
+  private void advanceClock(final long timeMs) {
+    if (timeMs >= this.currentTime + this.tickMs) {
+      this.currentTime = timeMs - timeMs % this.tickMs;
+      if (this.overflowWheel != null) {
+        this.overflowWheel.advanceClock(this.currentTime);
+      }
+    }
+  }
+}
@@ -0,0 +1,436 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.reef.wake.time.runtime;
+
+import org.apache.reef.tang.InjectionFuture;
+import org.apache.reef.tang.annotations.Parameter;
+import org.apache.reef.wake.EventHandler;
+import org.apache.reef.wake.impl.PubSubEventHandler;
+import org.apache.reef.wake.time.Clock;
+import org.apache.reef.wake.time.Time;
+import org.apache.reef.wake.time.event.Alarm;
+import org.apache.reef.wake.time.event.StartTime;
+import org.apache.reef.wake.time.event.StopTime;
+import org.apache.reef.wake.time.runtime.event.*;
+
+import javax.inject.Inject;
+import java.util.ArrayDeque;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Implementation of clock on a hierarchical timer wheel.
+ *
+ * Has the same events and shutdown semantics as RuntimeClock, but schedules and cancels
+ * alarms in constant time without a global lock: scheduling threads hand alarms over to the
+ * event loop through a lock-free queue, and only wake the loop up when the new alarm is due
+ * before the time the loop is sleeping until. The loop owns the wheel.
+ *
+ * Select it by binding the Clock interface: {@code bindImplementation(Clock.class, TimerWheelClock.class)}.
+ */
+public final class TimerWheelClock implements Clock {
+
+  private static final Logger LOG = Logger.getLogger(TimerWheelClock.class.getName());
+  private static final String CLASS_NAME = TimerWheelClock.class.getCanonicalName();
+
+  /** Time span of one bucket of the lowest level of the wheel, in milliseconds. */
+  private static final long TICK_MS = 1;
+
+  /** Number of buckets in each level of the wheel. */
+  private static final int WHEEL_SIZE = 64;
+
+  /** Number of cancelled alarms after which the event loop wakes up to unlink them from the wheel. */
+  private static final int MAX_CANCELLED = 1024;
+
+  /** Value of nextWakeup while the event loop is running; schedulers need not wake it up. */
+  private static final long AWAKE = Long.MIN_VALUE;
+
+  /**
+   * Injectable source of current time information.
+   * Usually an instance of RealTimer that wraps the system clock.
+   */
+  private final Timer timer;
+
+  /** Event handlers - populated with the injectable parameters provided to the constructor. */
+  private final PubSubEventHandler<Time> handlers = new PubSubEventHandler<>();
+
+  private final InjectionFuture<Set<EventHandler<StartTime>>> startHandler;
+  private final InjectionFuture<Set<EventHandler<StopTime>>> stopHandler;
+  private final InjectionFuture<Set<EventHandler<RuntimeStart>>> runtimeStartHandler;
+  private final InjectionFuture<Set<EventHandler<RuntimeStop>>> runtimeStopHandler;
+  private final InjectionFuture<Set<EventHandler<IdleClock>>> idleHandler;
+
+  /** Alarms scheduled but not yet put into the wheel by the event loop. */
+  private final Queue<TimerWheel.Entry> pending = new ConcurrentLinkedQueue<>();
+
+  /** Alarms cancelled but not yet unlinked from the wheel by the event loop. */
+  private final Queue<TimerWheel.Entry> cancelled = new ConcurrentLinkedQueue<>();
+
+  /** Set when cancelling an alarm leaves the clock idle, so that the event loop fires the IdleClock event. */
+  private final AtomicBoolean idleAfterCancel = new AtomicBoolean(false);
+
+  /** Number of client alarms scheduled and neither fired nor cancelled. */
+  private final AtomicInteger numClientAlarms = new AtomicInteger(0);
+
+  /** Approximate number of alarms in the cancelled queue. */
+  private final AtomicInteger numCancelled = new AtomicInteger(0);
+
+  /** Set to true when the clock is closed, gracefully or not. */
+  private final AtomicBoolean isClosed = new AtomicBoolean(false);
+
+  /** Stop event of a forceful stop; null unless stop() was called. */
+  private volatile StopTime forcedStop = null;
+
+  /** Exception that caused the clock to stop. */
+  private volatile Throwable exceptionCausedStop = null;
+
+  /** Thread of the event loop; null until run() starts. */
+  private volatile Thread loopThread = null;
+
+  /** Timestamp the event loop sleeps until, Long.MAX_VALUE if it has no deadline, AWAKE if running. */
+  private volatile long nextWakeup = AWAKE;
+
+  @Inject
+  private TimerWheelClock(
+      final Timer timer,
+      @Parameter(Clock.StartHandler.class)
+          final InjectionFuture<Set<EventHandler<StartTime>>> startHandler,
+      @Parameter(Clock.StopHandler.class)
+          final InjectionFuture<Set<EventHandler<StopTime>>> stopHandler,
+      @Parameter(Clock.RuntimeStartHandler.class)
+          final InjectionFuture<Set<EventHandler<RuntimeStart>>> runtimeStartHandler,
+      @Parameter(Clock.RuntimeStopHandler.class)
+          final InjectionFuture<Set<EventHandler<RuntimeStop>>> runtimeStopHandler,
+      @Parameter(Clock.IdleHandler.class)
+          final InjectionFuture<Set<EventHandler<IdleClock>>> idleHandler) {
+
+    this.timer = timer;
+    this.startHandler = startHandler;
+    this.stopHandler = stopHandler;
+    this.runtimeStartHandler = runtimeStartHandler;
+    this.runtimeStopHandler = runtimeStopHandler;
+    this.idleHandler = idleHandler;
+
+    LOG.log(Level.FINE, "TimerWheelClock instantiated.");
+  }
+
+  /**
+   * Schedule a new Alarm event in `offset` milliseconds into the future,
+   * and supply an event handler to be called at that time.
+   * @param offset Number of milliseconds into the future relative to current time.
+   * @param handler Event handler to be invoked.
+   * @return Newly scheduled alarm.
+   * @throws IllegalStateException if the clock is already closed.
+   */
+  @Override
+  public Time scheduleAlarm(final int offset, final EventHandler<Alarm> handler) {
+
+    final TimerWheel.Entry alarm = new TimerWheel.Entry(this.timer.getCurrent() + offset, handler);
+
+    // Count the alarm before checking for close, so that a concurrent close() waits for it.
+    this.numClientAlarms.incrementAndGet();
+    if (this.isClosed.get()) {
+      if (this.numClientAlarms.decrementAndGet() == 0) {
+        wakeup();
+      }
+      throw new IllegalStateException("Scheduling alarm on a closed clock");
+    }
+
+    this.pending.add(alarm);
+    if (alarm.getTimestamp() < this.nextWakeup) {
+      wakeup();
+    }
+
+    LOG.log(Level.FINEST, "Schedule alarm: {0}", alarm);
+    return alarm;
+  }
+
+  /**
+   * Cancel an alarm scheduled on this clock. The alarm will not fire and does not count as
+   * an outstanding client alarm anymore. The event loop unlinks it from the wheel the next time
+   * it wakes up, or right away if the cancelled alarms pile up or the clock becomes idle.
+   * @param alarm Alarm returned by scheduleAlarm().
+   * @return true if the alarm was cancelled, false if it already fired, was already cancelled,
+   * or was not scheduled on this clock.
+   */
+  @Override
+  public boolean cancelAlarm(final Time alarm) {
+    if (!(alarm instanceof TimerWheel.Entry) || !((TimerWheel.Entry) alarm).markCancelled()) {
+      return false;
+    }
+    this.cancelled.add((TimerWheel.Entry) alarm);
+    if (this.numClientAlarms.decrementAndGet() == 0) {
+      this.idleAfterCancel.set(true);
+      wakeup();
+    } else if (this.numCancelled.incrementAndGet() >= MAX_CANCELLED) {
+      wakeup();
+    }
+    LOG.log(Level.FINEST, "Cancel alarm: {0}", alarm);
+    return true;
+  }
+
+  /**
+   * Stop the clock. Remove all other events from the schedule and fire StopTimer
+   * event immediately. It is recommended to use close() method for graceful shutdown
+   * instead of stop().
+   */
+  @Override
+  public void stop() {
+    this.stop(null);
+  }
+
+  /**
+   * Stop the clock on exception.
+   * Remove all other events from the schedule and fire StopTimer event immediately.
+   * @param exception Exception that is the cause for the stop. Can be null.
+   */
+  @Override
+  public void stop(final Throwable exception) {
+
+    LOG.entering(CLASS_NAME, "stop");
+
+    if (!this.isClosed.compareAndSet(false, true)) {
+      LOG.log(Level.FINEST, "Clock has already been closed");
+      return;
+    }
+
+    this.exceptionCausedStop = exception;
+    this.forcedStop = new StopTime(this.timer.getCurrent());
+
+    LOG.log(Level.FINE, "Stop scheduled immediately: {0} Outstanding client alarms: {1}",
+        new Object[] {this.forcedStop, this.numClientAlarms.get()});
+
+    wakeup();
+
+    LOG.exiting(CLASS_NAME, "stop");
+  }
+
+  /**
+   * Wait for all client alarms to finish executing and gracefully shutdown the clock.
+   */
+  @Override
+  public void close() {
+
+    LOG.entering(CLASS_NAME, "close");
+
+    if (!this.isClosed.compareAndSet(false, true)) {
+      LOG.exiting(CLASS_NAME, "close", "Clock has already been closed");
+      return;
+    }
+
+    LOG.log(Level.FINE, "Graceful shutdown scheduled. Outstanding client alarms: {0}", this.numClientAlarms.get());
+
+    wakeup();
+
+    LOG.exiting(CLASS_NAME, "close");
+  }
+
+  /**
+   * Check if there are no client alarms scheduled.
+   * @return True if there are no client alarms in the schedule, false otherwise.
+   */
+  @Override
+  public boolean isIdle() {
+    return this.forcedStop != null || this.numClientAlarms.get() == 0;
+  }
+
+  /**
+   * The clock is closed after a call to stop() or close().
+   * A closed clock cannot add new alarms to the schedule, but, in case of the
+   * graceful shutdown, can still invoke previously scheduled ones.
+   * @return true if closed, false otherwise.
+   */
+  @Override
+  public boolean isClosed() {
+    return this.isClosed.get();
+  }
+
+  private void wakeup() {
+    final Thread thread = this.loopThread;
+    if (thread != null) {
+      LockSupport.unpark(thread);
+    }
+  }
+
+  /**
+   * Register event handlers for the given event class.
+   * @param eventClass Event type to handle. Must be derived from Time.
+   * @param handlers One or many event handlers that can process given event type.
+   * @param <T> Event type - must be derived from class Time. (i.e. contain a timestamp).
+   */
+  @SuppressWarnings("checkstyle:hiddenfield")
+  private <T extends Time> void subscribe(final Class<T> eventClass, final Set<EventHandler<T>> handlers) {
+    for (final EventHandler<T> handler : handlers) {
+      LOG.log(Level.FINEST, "Subscribe: event {0} handler {1}", new Object[] {eventClass.getName(), handler});
+      this.handlers.subscribe(eventClass, handler);
+    }
+  }
+
+  /**
+   * Main event loop.
+   * Set up the event handlers, and go into event loop that moves scheduled alarms into the wheel,
+   * fires the due ones and sleeps until the next bucket of the wheel expires.
+   */
+  @Override
+  public void run() {
+
+    LOG.entering(CLASS_NAME, "run");
+
+    try {
+
+      LOG.log(Level.FINE, "Subscribe event handlers");
+
+      subscribe(StartTime.class, this.startHandler.get());
+      subscribe(StopTime.class, this.stopHandler.get());
+      subscribe(RuntimeStart.class, this.runtimeStartHandler.get());
+      subscribe(RuntimeStop.class, this.runtimeStopHandler.get());
+      subscribe(IdleClock.class, this.idleHandler.get());
+
+      LOG.log(Level.FINE, "Initiate runtime start");
+      this.handlers.onNext(new RuntimeStart(this.timer.getCurrent()));
+
+      LOG.log(Level.FINE, "Initiate start time");
+      this.handlers.onNext(new StartTime(this.timer.getCurrent()));
+
+      this.loopThread = Thread.currentThread();
+
+      final TimerWheel wheel = new TimerWheel(TICK_MS, WHEEL_SIZE, this.timer.getCurrent());
+      final ArrayDeque<TimerWheel.Entry> due = new ArrayDeque<>();
+      boolean checkIdle = true;
+
+      // Timestamp of the last client alarm that fired; the graceful shutdown event comes after it.
+      // Cancelled alarms do not count, so cancelling the latest alarm does not push the StopTime into the future.
+      long lastFiredAlarm = 0;
+
+      while (true) {
+
+        if ((this.idleAfterCancel.getAndSet(false) || checkIdle) && this.isIdle()) {
+          this.handlers.onNext(new IdleClock(this.timer.getCurrent()));
+        }
+        checkIdle = false;
+
+        // Move newly scheduled alarms into the wheel; the ones already due fire right away.
+        // Alarms cancelled before they got there are dropped here.
+        TimerWheel.Entry entry;
+        while ((entry = this.pending.poll()) != null) {
+          if (!wheel.add(entry) && !entry.isCancelled()) {
+            due.add(entry);
+          }
+        }
+
+        // Unlink the cancelled alarms, so that the wheel does not hold on to them until their buckets expire.
+        this.numCancelled.set(0);
+        while ((entry = this.cancelled.poll()) != null) {
+          entry.unlink();
+        }
+
+        // Expire the buckets whose time has come. Alarms of coarser buckets cascade into finer ones.
+        while (due.isEmpty()) {
+          final TimerWheel.Bucket bucket = wheel.peekBucket();
+          if (bucket == null || !this.timer.isReady(bucket.getDeadline())) {
+            break;
+          }
+          final ArrayDeque<TimerWheel.Entry> expired = new ArrayDeque<>();
+          wheel.pollBucket().flush(expired);
+          for (final TimerWheel.Entry expiredEntry : expired) {
+            if (!wheel.add(expiredEntry) && !expiredEntry.isCancelled()) {
+              due.add(expiredEntry);
+            }
+          }
+        }
+
+        if (this.forcedStop != null) {
+          break;
+        }
+
+        while (this.forcedStop == null) {
+          entry = due.poll();
+          if (entry == null) {
+            break;
+          }
+          if (entry.markFired()) {
+            this.numClientAlarms.decrementAndGet();
+            lastFiredAlarm = Math.max(lastFiredAlarm, entry.getTimestamp());
+            LOG.log(Level.FINER, "Process event: {0}", entry);
+            entry.run();
+            checkIdle = true;
+          }
+        }
+
+        if (!due.isEmpty() || this.forcedStop != null || !this.pending.isEmpty() || this.idleAfterCancel.get()) {
+          continue;
+        }
+
+        if (this.isClosed.get() && this.numClientAlarms.get() == 0) {
+          final StopTime stopEvent = new StopTime(Math.max(this.timer.getCurrent(), lastFiredAlarm + 1));
+          LOG.log(Level.FINE, "Graceful shutdown: {0}", stopEvent);
+          this.handlers.onNext(stopEvent);
+          break;
+        }
+
+        // Sleep until the next bucket expires. A scheduler that adds an earlier alarm wakes us up;
+        // publishing the deadline before checking the pending queue again makes sure none is missed.
+        final TimerWheel.Bucket next = wheel.peekBucket();
+        this.nextWakeup = next == null ? Long.MAX_VALUE : next.getExpiration();
+        if (this.pending.isEmpty() && !this.idleAfterCancel.get()
+            && !(this.isClosed.get() && this.numClientAlarms.get() == 0)) {
+          if (next == null) {
+            LockSupport.park(this);
+          } else {
+            final long waitDuration = this.timer.getDuration(next.getDeadline());
+            if (waitDuration > 0) {
+              LockSupport.parkNanos(this, TimeUnit.MILLISECONDS.toNanos(waitDuration));
+            }
+          }
+          if (Thread.interrupted()) {
+            LOG.log(Level.FINEST, "Wait interrupted; continue event loop.");
+          }
+        }
+        this.nextWakeup = AWAKE;
+      }
+
+      if (this.forcedStop != null) {
+        LOG.log(Level.FINE, "Forceful stop: {0}", this.forcedStop);
+        this.pending.clear();
+        this.cancelled.clear();
+        this.handlers.onNext(this.forcedStop);
+      }
+
+      this.handlers.onNext(new RuntimeStop(this.timer.getCurrent(), this.exceptionCausedStop));
+
+    } catch (final Exception e) {
+
+      LOG.log(Level.SEVERE, "Error in timer wheel clock", e);
+      this.handlers.onNext(new RuntimeStop(this.timer.getCurrent(), e));
+
+    } finally {
+      this.loopThread = null;
+      LOG.log(Level.FINE, "Timer wheel clock exit");
+    }
+
+    LOG.exiting(CLASS_NAME, "run");
+  }
+}
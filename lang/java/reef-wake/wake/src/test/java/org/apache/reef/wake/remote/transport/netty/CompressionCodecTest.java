@@ -0,0 +1,134 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.reef.wake.remote.transport.netty;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.embedded.EmbeddedChannel;
+import io.netty.handler.codec.compression.DecompressionException;
+import org.apache.reef.tang.Tang;
+import org.apache.reef.tang.exceptions.InjectionException;
+import org.apache.reef.wake.remote.RemoteConfiguration;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.zip.Deflater;
+
+/**
+ * Tests for the compression codecs of the messaging transport.
+ */
+public class CompressionCodecTest {
+
+  /**
+   * Test that LZ4 blocks match the output of the reference implementation (liblz4 1.9.4, LZ4_compress_default)
+   * and that the reference blocks decompress to their input.
+   */
+  @Test
+  public void testLz4ReferenceVectors() {
+    final StringBuilder text = new StringBuilder();
+    for (int i = 0; i < 4; ++i) {
+      text.append("The quick brown fox jumps over the lazy dog. ");
+    }
+    final byte[] ramp = new byte[192];
+    for (int i = 0; i < ramp.length; ++i) {
+      ramp[i] = (byte) (i % 64);
+    }
+
+    assertLz4Block(new byte[0], "00");
+    assertLz4Block("hello".getBytes(StandardCharsets.US_ASCII), "5068656c6c6f");
+    assertLz4Block(text.toString().getBytes(StandardCharsets.US_ASCII),
+        "ff1e54686520717569636b2062726f776e20666f78206a756d7073206f76657220746865206c617a7920646f672e20" +
+        "2d006f50646f672e20");
+    assertLz4Block(new byte[1000], "1f000100ffffffd2500000000000");
+    assertLz4Block(ramp,
+        "ff31000102030405060708090a0b0c0d0e0f101112131415161718191a1b1c1d1e1f202122232425262728292a2b2c2d2e2f" +
+        "303132333435363738393a3b3c3d3e3f400068503b3c3d3e3f");
+  }
+
+  /**
+   * Test that incompressible input fits the bound of each codec.
+   */
+  @Test
+  public void testMaxCompressedLength() {
+    final Random random = new Random(42);
+    for (final int length : new int[]{0, 1, 15, 255, 4096, 1 << 20}) {
+      final byte[] input = new byte[length];
+      random.nextBytes(input);
+
+      final byte[] lz4 = new byte[CompressionCodec.LZ4.maxCompressedLength(length)];
+      Assert.assertTrue(new Lz4BlockCodec().compress(input, 0, length, lz4, 0) <= lz4.length);
+
+      final byte[] deflated = new byte[CompressionCodec.DEFLATE.maxCompressedLength(length)];
+      final Deflater deflater = new Deflater(Deflater.BEST_SPEED, true);
+      deflater.setInput(input);
+      deflater.finish();
+      deflater.deflate(deflated);
+      Assert.assertTrue("Deflate output of " + length + " bytes exceeds its bound", deflater.finished());
+      deflater.end();
+    }
+  }
+
+  /**
+   * Test that a frame claiming an uncompressed size beyond the frame bound is rejected before it is allocated.
+   */
+  @Test
+  public void testOversizedFrameRejected() throws InjectionException {
+    final CompressionPolicy policy = Tang.Factory.getTang().newInjector(Tang.Factory.getTang().newConfigurationBuilder()
+        .bindNamedParameter(RemoteConfiguration.Compression.class, "LZ4")
+        .build()).getInstance(CompressionPolicy.class);
+    final EmbeddedChannel channel = new EmbeddedChannel(new CompressionHandler(policy, new CompressionStats()));
+
+    final ByteBuf frame = Unpooled.buffer()
+        .writeByte(CompressionCodec.LZ4.getId())
+        .writeInt(NettyChannelInitializer.MAXFRAMELENGTH + 1)
+        .writeByte(0);
+    try {
+      channel.writeInbound(frame);
+      Assert.fail("A frame larger than the frame bound must be rejected");
+    } catch (final DecompressionException e) {
+      Assert.assertEquals("Invalid uncompressed size " + (NettyChannelInitializer.MAXFRAMELENGTH + 1), e.getMessage());
+      Assert.assertEquals(0, frame.refCnt());
+    }
+    Assert.assertNull(channel.readInbound());
+    channel.finish();
+  }
+
+  private static void assertLz4Block(final byte[] input, final String referenceHex) {
+    final byte[] reference = fromHex(referenceHex);
+
+    final byte[] block = new byte[Lz4BlockCodec.maxCompressedLength(input.length)];
+    final int blockLength = new Lz4BlockCodec().compress(input, 0, input.length, block, 0);
+    Assert.assertArrayEquals(reference, Arrays.copyOf(block, blockLength));
+
+    final byte[] output = new byte[input.length];
+    Lz4BlockCodec.decompress(reference, 0, reference.length, output, 0, output.length);
+    Assert.assertArrayEquals(input, output);
+  }
+
+  private static byte[] fromHex(final String hex) {
+    final byte[] bytes = new byte[hex.length() / 2];
+    for (int i = 0; i < bytes.length; ++i) {
+      bytes[i] = (byte) Integer.parseInt(hex.substring(2 * i, 2 * i + 2), 16);
+    }
+    return bytes;
+  }
+}
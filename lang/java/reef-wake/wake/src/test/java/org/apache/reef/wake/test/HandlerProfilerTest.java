@@ -0,0 +1,168 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.reef.wake.test;
+
+import org.apache.reef.wake.EventHandler;
+import org.apache.reef.wake.impl.SingleThreadStage;
+import org.apache.reef.wake.impl.SyncStage;
+import org.apache.reef.wake.impl.ThreadPoolStage;
+import org.apache.reef.wake.metrics.StageMetrics;
+import org.apache.reef.wake.profiler.HandlerProfile;
+import org.apache.reef.wake.profiler.HandlerProfiler;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TestName;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tests for the sampling profiler of event handler invocations.
+ */
+public class HandlerProfilerTest {
+
+  private static final String LOG_PREFIX = "TEST ";
+  @Rule
+  public TestName name = new TestName();
+
+  @After
+  public void tearDown() {
+    HandlerProfiler.instance().stop();
+  }
+
+  @Test
+  public void testNestedHandlers() throws Exception {
+    System.out.println(LOG_PREFIX + name.getMethodName());
+
+    final HandlerProfiler profiler = HandlerProfiler.instance();
+    profiler.start(1);
+
+    final int numEvents = 10;
+    final CountDownLatch latch = new CountDownLatch(numEvents);
+    final SyncStage<Integer> inner = new SyncStage<>("inner", new SpinHandler(latch));
+    final ThreadPoolStage<Integer> outer = new ThreadPoolStage<>("outer", new EventHandler<Integer>() {
+      @Override
+      public void onNext(final Integer value) {
+        inner.onNext(value);
+      }
+    }, 1);
+
+    for (int i = 0; i < numEvents; ++i) {
+      outer.onNext(i);
+    }
+    Assert.assertTrue(latch.await(10, TimeUnit.SECONDS));
+    outer.close();
+    profiler.stop();
+
+    final String outerStack = "outer;" + HandlerProfilerTest.class.getName() + "$1";
+    final String innerStack = outerStack + ";inner;" + SpinHandler.class.getName();
+    HandlerProfile outerProfile = null;
+    HandlerProfile innerProfile = null;
+    for (final HandlerProfile profile : profiler.getProfiles()) {
+      if (profile.getStack().equals(outerStack)) {
+        outerProfile = profile;
+      } else if (profile.getStack().equals(innerStack)) {
+        innerProfile = profile;
+      }
+    }
+    Assert.assertNotNull(outerProfile);
+    Assert.assertNotNull(innerProfile);
+    Assert.assertEquals(numEvents, outerProfile.getSamples());
+    Assert.assertEquals(numEvents, innerProfile.getSamples());
+    Assert.assertEquals(numEvents, outerProfile.getQueuedSamples());
+    Assert.assertEquals("The synchronous stage has no queue", 0, innerProfile.getQueuedSamples());
+    Assert.assertTrue(outerProfile.getWallNanos() >= innerProfile.getWallNanos());
+    Assert.assertEquals(outerProfile.getWallNanos() - innerProfile.getWallNanos(), outerProfile.getSelfWallNanos());
+    Assert.assertTrue(innerProfile.getSelfWallNanos() >= numEvents * SpinHandler.SPIN_NANOS);
+
+    final String folded = profiler.toFoldedStacks(false);
+    Assert.assertTrue(folded, folded.contains(innerStack + " "));
+
+    final String trace = profiler.toChromeTrace();
+    Assert.assertTrue(trace.startsWith("{\"displayTimeUnit\":\"ms\",\"traceEvents\":["));
+    Assert.assertTrue(trace.contains("\"name\":\"thread_name\""));
+    Assert.assertTrue(trace.contains(
+        "\"name\":\"" + SpinHandler.class.getName() + "\",\"cat\":\"inner\",\"ph\":\"X\""));
+  }
+
+  @Test
+  public void testSamplingInterval() throws Exception {
+    System.out.println(LOG_PREFIX + name.getMethodName());
+
+    final HandlerProfiler profiler = HandlerProfiler.instance();
+    profiler.start(10, 5);
+    Assert.assertEquals(10, profiler.getSamplingInterval());
+
+    final int numEvents = 100;
+    final CountDownLatch latch = new CountDownLatch(numEvents);
+    final SingleThreadStage<Integer> stage = new SingleThreadStage<>("sampled", new SpinHandler(latch), numEvents);
+    for (int i = 0; i < numEvents; ++i) {
+      stage.onNext(i);
+    }
+    Assert.assertTrue(latch.await(10, TimeUnit.SECONDS));
+    stage.close();
+    profiler.stop();
+
+    long samples = 0;
+    for (final HandlerProfile profile : profiler.getProfiles()) {
+      if (profile.getStack().startsWith("sampled;")) {
+        samples += profile.getSamples();
+      }
+    }
+    Assert.assertEquals(numEvents / 10, samples);
+
+    // the trace keeps the most recent samples only
+    final String trace = profiler.toChromeTrace();
+    Assert.assertEquals(5, trace.split("\"ph\":\"X\"", -1).length - 1);
+  }
+
+  @Test
+  public void testStopped() {
+    System.out.println(LOG_PREFIX + name.getMethodName());
+
+    final HandlerProfiler profiler = HandlerProfiler.instance();
+    Assert.assertFalse(profiler.isRunning());
+    Assert.assertNull(profiler.begin("stopped", new SpinHandler(null), StageMetrics.NOT_TIMED));
+  }
+
+  /**
+   * Handler that spins for a while, so that its time is measurable.
+   */
+  private static final class SpinHandler implements EventHandler<Integer> {
+
+    private static final long SPIN_NANOS = 100000;
+
+    private final CountDownLatch latch;
+
+    SpinHandler(final CountDownLatch latch) {
+      this.latch = latch;
+    }
+
+    @Override
+    public void onNext(final Integer value) {
+      final long start = System.nanoTime();
+      while (System.nanoTime() - start < SPIN_NANOS) {
+        Thread.yield();
+      }
+      latch.countDown();
+    }
+  }
+}
@@ -19,13 +19,37 @@
 package org.apache.reef.wake.test;
 
 
+import org.apache.reef.tang.Tang;
+import org.apache.reef.wake.EventHandler;
+import org.apache.reef.wake.impl.PeriodicEvent;
+import org.apache.reef.wake.impl.SingleThreadStage;
+import org.apache.reef.wake.impl.SyncStage;
+import org.apache.reef.wake.impl.ThreadPoolStage;
+import org.apache.reef.wake.impl.TimerStage;
 import org.apache.reef.wake.metrics.Histogram;
+import org.apache.reef.wake.metrics.LogLinearHistogram;
+import org.apache.reef.wake.metrics.LogLinearHistogramCodec;
+import org.apache.reef.wake.metrics.MetricsRegistry;
+import org.apache.reef.wake.metrics.StageMetrics;
 import org.apache.reef.wake.metrics.UniformHistogram;
+import org.apache.reef.wake.remote.address.LocalAddressProvider;
+import org.apache.reef.wake.remote.impl.ByteCodec;
+import org.apache.reef.wake.remote.impl.OrderedRemoteReceiverStage;
+import org.apache.reef.wake.remote.impl.RemoteEvent;
+import org.apache.reef.wake.remote.impl.TransportEvent;
+import org.apache.reef.wake.remote.transport.Link;
+import org.apache.reef.wake.remote.transport.Transport;
+import org.apache.reef.wake.remote.transport.TransportFactory;
+import org.apache.reef.wake.remote.transport.netty.LoggingLinkListener;
+import org.junit.Assert;
 import org.junit.Rule;
 import org.junit.Test;
 import org.junit.rules.TestName;
 
+import java.net.InetSocketAddress;
 import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Metrics tests.
@@ -52,4 +76,226 @@ public class MetricsTest {
       histogram.getValue(i);
     }
   }
+
+  @Test
+  public void testLogLinearHistogram() throws Exception {
+    System.out.println(LOG_PREFIX + name.getMethodName());
+
+    final LogLinearHistogram histogram = new LogLinearHistogram();
+    Assert.assertEquals(0, histogram.getPercentile(99));
+
+    // Bins tile the range of non-negative longs without gaps.
+    Assert.assertEquals(0, histogram.getBinLowerBound(0));
+    for (int i = 1; i < histogram.getNumBins(); ++i) {
+      Assert.assertEquals(histogram.getBinUpperBound(i - 1) + 1, histogram.getBinLowerBound(i));
+    }
+    Assert.assertEquals(Long.MAX_VALUE, histogram.getBinUpperBound(histogram.getNumBins() - 1));
+
+    for (int i = 1; i <= 100000; ++i) {
+      histogram.update(i * 1000L);
+    }
+    final double precision = 1.0 / (1 << LogLinearHistogram.DEFAULT_PRECISION_BITS);
+    Assert.assertEquals(100000, histogram.getCount());
+    Assert.assertEquals(1000, histogram.getMin());
+    Assert.assertEquals(100000000, histogram.getMax());
+    Assert.assertEquals(50000000, histogram.getPercentile(50), 50000000 * precision);
+    Assert.assertEquals(99000000, histogram.getPercentile(99), 99000000 * precision);
+    Assert.assertEquals(99900000, histogram.getPercentile(99.9), 99900000 * precision);
+    Assert.assertEquals(100000000, histogram.getPercentile(100));
+    Assert.assertEquals(50000500.0, histogram.getMean(), 1e-6);
+  }
+
+  @Test
+  public void testLogLinearHistogramConcurrentMerge() throws Exception {
+    System.out.println(LOG_PREFIX + name.getMethodName());
+
+    final int numThreads = 4;
+    final int numValues = 100000;
+    final LogLinearHistogram shared = new LogLinearHistogram();
+    final LogLinearHistogram merged = new LogLinearHistogram();
+    final LogLinearHistogramCodec codec = new LogLinearHistogramCodec();
+    final Thread[] threads = new Thread[numThreads];
+    for (int t = 0; t < numThreads; ++t) {
+      final int offset = t * numValues;
+      threads[t] = new Thread(new Runnable() {
+        @Override
+        public void run() {
+          for (int i = 0; i < numValues; ++i) {
+            shared.update(offset + i);
+          }
+        }
+      });
+      threads[t].start();
+
+      // Each "evaluator" sends its own histogram, which is merged on the receiving side.
+      final LogLinearHistogram local = new LogLinearHistogram();
+      for (int i = 0; i < numValues; ++i) {
+        local.update(offset + i);
+      }
+      merged.merge(codec.decode(codec.encode(local)));
+    }
+    for (final Thread thread : threads) {
+      thread.join();
+    }
+
+    Assert.assertEquals(numThreads * numValues, shared.getCount());
+    Assert.assertEquals(shared.getCount(), merged.getCount());
+    Assert.assertEquals(shared.getMin(), merged.getMin());
+    Assert.assertEquals(shared.getMax(), merged.getMax());
+    Assert.assertEquals(shared.getMean(), merged.getMean(), 1e-6);
+    for (int i = 0; i < shared.getNumBins(); ++i) {
+      Assert.assertEquals(shared.getValue(i), merged.getValue(i));
+    }
+    Assert.assertTrue(codec.encode(merged).length < numThreads * numValues / 100);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testLogLinearHistogramMergePrecision() throws Exception {
+    new LogLinearHistogram(5).merge(new LogLinearHistogram(7));
+  }
+
+  @Test
+  public void testStageMetrics() throws Exception {
+    System.out.println(LOG_PREFIX + name.getMethodName());
+
+    final int numEvents = 100;
+    final CountDownLatch handled = new CountDownLatch(2 * numEvents);
+    final EventHandler<Integer> handler = new EventHandler<Integer>() {
+      @Override
+      public void onNext(final Integer value) {
+        handled.countDown();
+      }
+    };
+    final CountDownLatch ticks = new CountDownLatch(3);
+    final EventHandler<PeriodicEvent> tickHandler = new EventHandler<PeriodicEvent>() {
+      @Override
+      public void onNext(final PeriodicEvent value) {
+        ticks.countDown();
+      }
+    };
+
+    final ThreadPoolStage<Integer> threadPoolStage = new ThreadPoolStage<>("metricsThreadPool", handler, 2);
+    final SingleThreadStage<Integer> singleThreadStage = new SingleThreadStage<>("metricsSingleThread", handler, 128);
+    final TimerStage timerStage = new TimerStage("metricsTimer", tickHandler, 0, 10);
+    final SyncStage<Integer> unmetered = new SyncStage<>("metricsSync", handler);
+
+    for (int i = 0; i < numEvents; ++i) {
+      threadPoolStage.onNext(i);
+      singleThreadStage.onNext(i);
+    }
+    Assert.assertTrue(handled.await(10, TimeUnit.SECONDS));
+    Assert.assertTrue(ticks.await(10, TimeUnit.SECONDS));
+
+    final MetricsRegistry registry = MetricsRegistry.instance();
+    for (final StageMetrics metrics : new StageMetrics[] {threadPoolStage.getMetrics(),
+        singleThreadStage.getMetrics()}) {
+      Assert.assertSame(metrics, registry.get(metrics.getName()));
+      Assert.assertEquals(numEvents, metrics.getInMeter().getCount());
+      waitForCompletions(metrics, numEvents);
+      Assert.assertEquals(numEvents, metrics.getQueueTime().getCount());
+      Assert.assertEquals(numEvents, metrics.getHandlerTime().getCount());
+      Assert.assertEquals(0, metrics.getPendingCount());
+    }
+    Assert.assertEquals("TimerStage", timerStage.getMetrics().getType());
+    Assert.assertTrue(timerStage.getMetrics().getHandlerTime().getCount() >= 2);
+    Assert.assertNull("Only the instrumented stages are registered", registry.get("metricsSync"));
+
+    final String json = registry.toJson();
+    Assert.assertTrue(json, json.contains("\"name\":\"metricsThreadPool\""));
+    Assert.assertTrue(json, json.contains("\"type\":\"SingleThreadStage\""));
+
+    threadPoolStage.close();
+    singleThreadStage.close();
+    timerStage.close();
+    unmetered.close();
+    Assert.assertNull(registry.get("metricsThreadPool"));
+    Assert.assertNull(registry.get("metricsSingleThread"));
+    Assert.assertNull(registry.get("metricsTimer"));
+  }
+
+  @Test
+  public void testReceiverStageUnregistersMetrics() throws Exception {
+    System.out.println(LOG_PREFIX + name.getMethodName());
+
+    final int before = countReceiverStages();
+    final EventHandler<RemoteEvent<byte[]>> handler = new EventHandler<RemoteEvent<byte[]>>() {
+      @Override
+      public void onNext(final RemoteEvent<byte[]> value) {
+      }
+    };
+    final EventHandler<Throwable> errorHandler = new EventHandler<Throwable>() {
+      @Override
+      public void onNext(final Throwable value) {
+      }
+    };
+
+    final OrderedRemoteReceiverStage cached = new OrderedRemoteReceiverStage(handler, errorHandler);
+    final OrderedRemoteReceiverStage workers = new OrderedRemoteReceiverStage(handler, errorHandler, 4);
+    Assert.assertEquals("push, pull and 4 worker stages", before + 6, countReceiverStages());
+
+    cached.close();
+    workers.close();
+    Assert.assertEquals(before, countReceiverStages());
+  }
+
+  private static int countReceiverStages() {
+    int count = 0;
+    for (final StageMetrics metrics : MetricsRegistry.instance().getAll()) {
+      if (metrics.getName().startsWith(OrderedRemoteReceiverStage.class.getPackage().getName() + ".OrderedP")) {
+        ++count;
+      }
+    }
+    return count;
+  }
+
+  @Test
+  public void testLinkMetrics() throws Exception {
+    System.out.println(LOG_PREFIX + name.getMethodName());
+
+    final int numMessages = 10;
+    final String hostAddress = Tang.Factory.getTang().newInjector()
+        .getInstance(LocalAddressProvider.class).getLocalAddress();
+    final TransportFactory tpFactory = Tang.Factory.getTang().newInjector().getInstance(TransportFactory.class);
+    final CountDownLatch received = new CountDownLatch(numMessages);
+    final SyncStage<TransportEvent> stage = new SyncStage<>(new EventHandler<TransportEvent>() {
+      @Override
+      public void onNext(final TransportEvent value) {
+        value.release();
+        received.countDown();
+      }
+    });
+
+    try (final Transport server = tpFactory.newInstance(hostAddress, 0, stage, stage, 1, 10000);
+         final Transport client = tpFactory.newInstance(hostAddress, 0, stage, stage, 1, 10000)) {
+      final Link<byte[]> link = client.open(new InetSocketAddress(hostAddress, server.getListeningPort()),
+          new ByteCodec(), new LoggingLinkListener<byte[]>());
+      for (int i = 0; i < numMessages; ++i) {
+        link.write(new byte[] {(byte) i});
+      }
+      Assert.assertTrue(received.await(10, TimeUnit.SECONDS));
+
+      final String linkName = link.getLocalAddress() + "->" + link.getRemoteAddress();
+      final StageMetrics sent = MetricsRegistry.instance().get(linkName);
+      Assert.assertNotNull("Link metrics registered as " + linkName, sent);
+      Assert.assertEquals("NettyLink", sent.getType());
+      waitForCompletions(sent, numMessages);
+      Assert.assertEquals(numMessages, sent.getQueueTime().getCount());
+
+      final StageMetrics accepted =
+          MetricsRegistry.instance().get(link.getRemoteAddress() + "->" + link.getLocalAddress());
+      Assert.assertNotNull(accepted);
+      for (int i = 0; i < 1000 && accepted.getHandlerTime().getCount() < numMessages; ++i) {
+        Thread.sleep(10);
+      }
+      Assert.assertEquals(numMessages, accepted.getHandlerTime().getCount());
+    }
+  }
+
+  private static void waitForCompletions(final StageMetrics metrics, final long expected) throws InterruptedException {
+    // Completions are counted after the handler returns, so they may trail the handled events.
+    for (int i = 0; i < 1000 && metrics.getOutMeter().getCount() < expected; ++i) {
+      Thread.sleep(10);
+    }
+    Assert.assertEquals(expected, metrics.getOutMeter().getCount());
+  }
 }
@@ -0,0 +1,115 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.reef.wake.test;
+
+import org.apache.reef.wake.impl.MpscRingBuffer;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+/**
+ * Tests for the bounded multi-producer single-consumer ring buffer.
+ */
+public class MpscRingBufferTest {
+
+  @Test
+  public void testCapacityRoundsUpToPowerOfTwo() {
+    Assert.assertEquals(1, new MpscRingBuffer<Integer>(1).capacity());
+    Assert.assertEquals(8, new MpscRingBuffer<Integer>(5).capacity());
+    Assert.assertEquals(1024, new MpscRingBuffer<Integer>(1024).capacity());
+  }
+
+  @Test
+  public void testFifoAndFull() {
+    final MpscRingBuffer<Integer> ring = new MpscRingBuffer<>(4);
+    Assert.assertTrue(ring.isEmpty());
+    Assert.assertNull(ring.poll());
+
+    // Wrap around the ring a few times
+    for (int round = 0; round < 3; ++round) {
+      for (int i = 0; i < 4; ++i) {
+        Assert.assertTrue(ring.offer(i));
+      }
+      Assert.assertFalse(ring.offer(4));
+      Assert.assertEquals(4, ring.size());
+      for (int i = 0; i < 4; ++i) {
+        Assert.assertEquals(Integer.valueOf(i), ring.poll());
+      }
+      Assert.assertTrue(ring.isEmpty());
+      Assert.assertEquals(0, ring.size());
+    }
+  }
+
+  /**
+   * Test that concurrent producers lose no element and that each producer's elements keep their order.
+   */
+  @Test
+  public void testConcurrentProducers() throws InterruptedException {
+    final int numProducers = 4;
+    final int numElements = 100000;
+    final MpscRingBuffer<long[]> ring = new MpscRingBuffer<>(256);
+    final CountDownLatch start = new CountDownLatch(1);
+
+    final List<Thread> producers = new ArrayList<>(numProducers);
+    for (int p = 0; p < numProducers; ++p) {
+      final int producer = p;
+      final Thread thread = new Thread(new Runnable() {
+        @Override
+        public void run() {
+          try {
+            start.await();
+          } catch (final InterruptedException e) {
+            throw new RuntimeException(e);
+          }
+          for (int i = 0; i < numElements; ++i) {
+            final long[] element = new long[] {producer, i};
+            while (!ring.offer(element)) {
+              Thread.yield();
+            }
+          }
+        }
+      });
+      thread.start();
+      producers.add(thread);
+    }
+
+    start.countDown();
+    final long[] next = new long[numProducers];
+    for (int received = 0; received < numProducers * numElements;) {
+      final long[] element = ring.poll();
+      if (element == null) {
+        Thread.yield();
+        continue;
+      }
+      Assert.assertEquals(next[(int) element[0]]++, element[1]);
+      ++received;
+    }
+
+    for (final Thread thread : producers) {
+      thread.join();
+    }
+    Assert.assertTrue(ring.isEmpty());
+    for (final long count : next) {
+      Assert.assertEquals(numElements, count);
+    }
+  }
+}
@@ -20,6 +20,8 @@ package org.apache.reef.wake.test;
 
 import org.apache.reef.wake.EStage;
 import org.apache.reef.wake.EventHandler;
+import org.apache.reef.wake.exception.WakeRuntimeException;
+import org.apache.reef.wake.impl.MultiEventHandler;
 import org.apache.reef.wake.impl.PubSubEventHandler;
 import org.apache.reef.wake.impl.ThreadPoolStage;
 import org.apache.reef.wake.impl.TimerStage;
@@ -30,8 +32,13 @@ import org.junit.Rule;
 import org.junit.Test;
 import org.junit.rules.TestName;
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 
@@ -80,6 +87,58 @@ public class PubSubThreadPoolStageTest {
     Assert.assertEquals(orgSet, procSet);
   }
 
+  /**
+   * Test that events go to the handlers of their superclasses, in the order the handlers subscribed.
+   */
+  @Test
+  public void testPubSubSubclassDispatch() {
+    System.out.println(LOG_PREFIX + name.getMethodName());
+
+    final List<String> calls = new ArrayList<>();
+    final PubSubEventHandler<TestEvent> handler = new PubSubEventHandler<>();
+    handler.subscribe(TestEvent.class, new RecordingHandler<TestEvent>("base", calls));
+    handler.subscribe(SubTestEvent.class, new RecordingHandler<SubTestEvent>("sub", calls));
+
+    handler.onNext(new SubTestEvent("sub"));
+    Assert.assertEquals(Arrays.asList("base", "sub"), calls);
+
+    calls.clear();
+    handler.onNext(new TestEvent("base"));
+    Assert.assertEquals(Arrays.asList("base"), calls);
+
+    // a subscription after the first event of a class is seen by the next one
+    calls.clear();
+    handler.subscribe(TestEvent.class, new RecordingHandler<TestEvent>("late", calls));
+    handler.onNext(new SubTestEvent("sub"));
+    Assert.assertEquals(Arrays.asList("base", "sub", "late"), calls);
+  }
+
+  /**
+   * Test that MultiEventHandler picks the handler of the closest superclass.
+   */
+  @Test
+  public void testMultiEventHandlerSubclassDispatch() {
+    System.out.println(LOG_PREFIX + name.getMethodName());
+
+    final List<String> calls = new ArrayList<>();
+    final Map<Class<? extends TestEvent>, EventHandler<? extends TestEvent>> map = new LinkedHashMap<>();
+    map.put(TestEvent.class, new RecordingHandler<TestEvent>("base", calls));
+    map.put(SubTestEvent.class, new RecordingHandler<SubTestEvent>("sub", calls));
+    final MultiEventHandler<TestEvent> handler = new MultiEventHandler<>(map);
+
+    handler.onNext(new SubTestEvent("sub"));
+    handler.onNext(new SubSubTestEvent("subsub"));
+    handler.onNext(new TestEvent("base"));
+    Assert.assertEquals(Arrays.asList("sub", "sub", "base"), calls);
+  }
+
+  @Test(expected = WakeRuntimeException.class)
+  public void testMultiEventHandlerNoHandler() {
+    final Map<Class<? extends TestEvent>, EventHandler<? extends TestEvent>> map = new LinkedHashMap<>();
+    map.put(SubTestEvent.class, new RecordingHandler<SubTestEvent>("sub", new ArrayList<String>()));
+    new MultiEventHandler<>(map).onNext(new TestEvent("base"));
+  }
+
   class TestEvent {
     private final String msg;
 
@@ -92,6 +151,33 @@ public class PubSubThreadPoolStageTest {
     }
   }
 
+  class SubTestEvent extends TestEvent {
+    SubTestEvent(final String msg) {
+      super(msg);
+    }
+  }
+
+  final class SubSubTestEvent extends SubTestEvent {
+    SubSubTestEvent(final String msg) {
+      super(msg);
+    }
+  }
+
+  static final class RecordingHandler<E> implements EventHandler<E> {
+    private final String name;
+    private final List<String> calls;
+
+    RecordingHandler(final String name, final List<String> calls) {
+      this.name = name;
+      this.calls = calls;
+    }
+
+    @Override
+    public void onNext(final E e) {
+      calls.add(name);
+    }
+  }
+
   class TestEventHandler implements EventHandler<TestEvent> {
 
     private final String name;
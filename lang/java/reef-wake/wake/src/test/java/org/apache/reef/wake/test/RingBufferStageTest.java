@@ -0,0 +1,255 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.reef.wake.test;
+
+import org.apache.reef.tang.Configuration;
+import org.apache.reef.tang.Tang;
+import org.apache.reef.wake.EStage;
+import org.apache.reef.wake.EventHandler;
+import org.apache.reef.wake.StageConfiguration;
+import org.apache.reef.wake.impl.RingBufferStage;
+import org.apache.reef.wake.remote.RemoteConfiguration;
+import org.apache.reef.wake.remote.impl.TransportEvent;
+import org.apache.reef.wake.test.util.CountingBackpressureListener;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TestName;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+
+import javax.inject.Inject;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Ring buffer stage tests, for each wait strategy.
+ */
+@RunWith(Parameterized.class)
+public class RingBufferStageTest {
+
+  private static final String LOG_PREFIX = "TEST ";
+  @Rule
+  public TestName name = new TestName();
+
+  private final RingBufferStage.WaitStrategy waitStrategy;
+
+  public RingBufferStageTest(final RingBufferStage.WaitStrategy waitStrategy) {
+    this.waitStrategy = waitStrategy;
+  }
+
+  @Parameterized.Parameters
+  public static Collection<Object[]> waitStrategies() {
+    return Arrays.asList(new Object[][] {
+        {RingBufferStage.WaitStrategy.BUSY_SPIN}, {RingBufferStage.WaitStrategy.YIELD},
+        {RingBufferStage.WaitStrategy.PARK}});
+  }
+
+  @Test
+  public void testSingleProducerOrder() throws Exception {
+    System.out.println(LOG_PREFIX + name.getMethodName());
+
+    final int numEvents = 100000;
+    final AtomicInteger expected = new AtomicInteger(0);
+    final AtomicInteger outOfOrder = new AtomicInteger(0);
+    final CountDownLatch latch = new CountDownLatch(numEvents);
+
+    final RingBufferStage<Integer> stage = new RingBufferStage<>("SingleProducer", new EventHandler<Integer>() {
+      @Override
+      public void onNext(final Integer value) {
+        if (value != expected.getAndIncrement()) {
+          outOfOrder.incrementAndGet();
+        }
+        latch.countDown();
+      }
+    }, 16, RingBufferStage.ProducerType.SINGLE, this.waitStrategy, null);
+
+    // The ring buffer wraps around many times.
+    for (int i = 0; i < numEvents; ++i) {
+      stage.onNext(i);
+    }
+
+    Assert.assertTrue(latch.await(10, TimeUnit.SECONDS));
+    stage.close();
+
+    Assert.assertEquals(0, outOfOrder.get());
+    Assert.assertEquals(16, stage.getCapacity());
+    Assert.assertEquals(0, stage.getQueueLength());
+  }
+
+  @Test
+  public void testManyProducers() throws Exception {
+    System.out.println(LOG_PREFIX + name.getMethodName());
+
+    final int numProducers = 4;
+    final int numEvents = 25000;
+    final AtomicLong sum = new AtomicLong(0);
+    final CountDownLatch latch = new CountDownLatch(numProducers * numEvents);
+
+    final RingBufferStage<Integer> stage = new RingBufferStage<>("ManyProducers", new EventHandler<Integer>() {
+      @Override
+      public void onNext(final Integer value) {
+        sum.addAndGet(value);
+        latch.countDown();
+      }
+    }, 50, RingBufferStage.ProducerType.MULTI, this.waitStrategy, null);
+
+    final Thread[] producers = new Thread[numProducers];
+    for (int p = 0; p < numProducers; ++p) {
+      producers[p] = new Thread(new Runnable() {
+        @Override
+        public void run() {
+          for (int i = 0; i < numEvents; ++i) {
+            stage.onNext(i);
+          }
+        }
+      });
+      producers[p].start();
+    }
+    for (final Thread producer : producers) {
+      producer.join();
+    }
+
+    Assert.assertTrue(latch.await(10, TimeUnit.SECONDS));
+    stage.close();
+
+    Assert.assertEquals(numProducers * ((long) numEvents * (numEvents - 1) / 2), sum.get());
+    Assert.assertEquals(64, stage.getCapacity());
+    Assert.assertEquals(stage.getInMeter().getCount(), stage.getOutMeter().getCount());
+  }
+
+  @Test
+  public void testCloseDrainsRingBuffer() throws Exception {
+    System.out.println(LOG_PREFIX + name.getMethodName());
+
+    final AtomicInteger count = new AtomicInteger(0);
+    final RingBufferStage<Integer> stage = new RingBufferStage<>("CloseDrains", new EventHandler<Integer>() {
+      @Override
+      public void onNext(final Integer value) {
+        count.incrementAndGet();
+      }
+    }, 1024, RingBufferStage.ProducerType.MULTI, this.waitStrategy, null);
+
+    for (int i = 0; i < 1000; ++i) {
+      stage.onNext(i);
+    }
+    stage.close();
+
+    Assert.assertEquals(1000, count.get());
+    Assert.assertTrue(stage.isClosed());
+  }
+
+  @Test
+  public void testOfferWhenFull() throws Exception {
+    System.out.println(LOG_PREFIX + name.getMethodName());
+
+    final CountDownLatch release = new CountDownLatch(1);
+    final AtomicInteger count = new AtomicInteger(0);
+    final RingBufferStage<Integer> stage = new RingBufferStage<>("OfferWhenFull", new EventHandler<Integer>() {
+      @Override
+      public void onNext(final Integer value) {
+        try {
+          release.await();
+        } catch (final InterruptedException e) {
+          throw new RuntimeException(e);
+        }
+        count.incrementAndGet();
+      }
+    }, 8, RingBufferStage.ProducerType.MULTI, this.waitStrategy, null);
+    final CountingBackpressureListener listener = new CountingBackpressureListener();
+    stage.addBackpressureListener(listener);
+
+    // the slots of the events being handled are only freed once the stage thread is done with them
+    for (int i = 0; i < 8; ++i) {
+      Assert.assertTrue(stage.offer(i));
+    }
+    Assert.assertFalse("A full ring buffer must reject offers", stage.offer(8));
+    Assert.assertTrue(stage.isSaturated());
+    Assert.assertEquals(1, listener.getSaturatedCount());
+
+    release.countDown();
+    stage.close();
+
+    Assert.assertEquals(8, count.get());
+    Assert.assertFalse(stage.isSaturated());
+    Assert.assertEquals(1, listener.getDrainedCount());
+  }
+
+  @Test
+  public void testErrorHandler() throws Exception {
+    System.out.println(LOG_PREFIX + name.getMethodName());
+
+    final CountDownLatch errors = new CountDownLatch(10);
+    final RingBufferStage<Integer> stage = new RingBufferStage<>("ErrorHandler", new EventHandler<Integer>() {
+      @Override
+      public void onNext(final Integer value) {
+        throw new IllegalArgumentException("event " + value);
+      }
+    }, 16, RingBufferStage.ProducerType.MULTI, this.waitStrategy, new EventHandler<Throwable>() {
+      @Override
+      public void onNext(final Throwable value) {
+        errors.countDown();
+      }
+    });
+
+    for (int i = 0; i < 10; ++i) {
+      stage.onNext(i);
+    }
+
+    Assert.assertTrue("The stage thread must survive handler exceptions", errors.await(10, TimeUnit.SECONDS));
+    stage.close();
+  }
+
+  @Test
+  public void testInjection() throws Exception {
+    System.out.println(LOG_PREFIX + name.getMethodName());
+
+    final Configuration conf = Tang.Factory.getTang().newConfigurationBuilder()
+        .bind(RemoteConfiguration.RemoteServerStage.class, RingBufferStage.class)
+        .bindNamedParameter(StageConfiguration.StageName.class, "InjectedRingBufferStage")
+        .bindNamedParameter(StageConfiguration.StageHandler.class, NoopHandler.class)
+        .bindNamedParameter(StageConfiguration.Capacity.class, "128")
+        .bindNamedParameter(StageConfiguration.WaitStrategy.class, this.waitStrategy.name())
+        .build();
+
+    final EStage<TransportEvent> stage =
+        Tang.Factory.getTang().newInjector(conf).getNamedInstance(RemoteConfiguration.RemoteServerStage.class);
+    Assert.assertTrue(stage instanceof RingBufferStage);
+    Assert.assertEquals(128, ((RingBufferStage<TransportEvent>) stage).getCapacity());
+    stage.close();
+  }
+
+  /**
+   * Event handler that does nothing, for injection.
+   */
+  static final class NoopHandler implements EventHandler<TransportEvent> {
+
+    @Inject
+    NoopHandler() {
+    }
+
+    @Override
+    public void onNext(final TransportEvent value) {
+    }
+  }
+}
@@ -18,17 +18,25 @@
  */
 package org.apache.reef.wake.test;
 
+import org.apache.reef.tang.Injector;
+import org.apache.reef.tang.Tang;
 import org.apache.reef.wake.EStage;
 import org.apache.reef.wake.EventHandler;
+import org.apache.reef.wake.StageConfiguration;
 import org.apache.reef.wake.impl.MultiEventHandler;
 import org.apache.reef.wake.impl.SingleThreadStage;
 import org.apache.reef.wake.impl.ThreadPoolStage;
+import org.apache.reef.wake.impl.VirtualThreadExecutorService;
+import org.apache.reef.wake.test.util.CountingBackpressureListener;
 import org.junit.Assert;
 import org.junit.Rule;
 import org.junit.Test;
 import org.junit.rules.TestName;
 
 import java.util.*;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
 
 
 /**
@@ -142,6 +150,124 @@ public class ThreadPoolStageTest {
     Assert.assertEquals(orgSet, procSet);
   }
 
+  @Test
+  public void testVirtualThreadExecutorService() throws Exception {
+    System.out.println(LOG_PREFIX + name.getMethodName());
+
+    // every handler blocks until all of them have started, which only works if none of them waits for a thread
+    final int numEvents = 500;
+    final CountDownLatch started = new CountDownLatch(numEvents);
+    final CountDownLatch done = new CountDownLatch(numEvents);
+
+    final Injector injector = Tang.Factory.getTang().newInjector(Tang.Factory.getTang().newConfigurationBuilder()
+        .bindNamedParameter(StageConfiguration.StageExecutorService.class, VirtualThreadExecutorService.class)
+        .build());
+    final ExecutorService executor = injector.getNamedInstance(StageConfiguration.StageExecutorService.class);
+    Assert.assertTrue(executor instanceof VirtualThreadExecutorService);
+    Assert.assertEquals(VirtualThreadExecutorService.isVirtualThreadSupported(),
+        ((VirtualThreadExecutorService) executor).isVirtual());
+
+    final ThreadPoolStage<Integer> stage = new ThreadPoolStage<>("blocking", new EventHandler<Integer>() {
+      @Override
+      public void onNext(final Integer value) {
+        started.countDown();
+        try {
+          if (started.await(10, TimeUnit.SECONDS)) {
+            done.countDown();
+          }
+        } catch (final InterruptedException e) {
+          throw new RuntimeException(e);
+        }
+      }
+    }, executor);
+
+    for (int i = 0; i < numEvents; ++i) {
+      stage.onNext(i);
+    }
+
+    Assert.assertTrue(done.await(20, TimeUnit.SECONDS));
+    Assert.assertEquals(0, stage.getQueueLength());
+    stage.close();
+    executor.shutdown();
+    Assert.assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+  }
+
+  @Test
+  public void testBoundedThreadPoolStage() throws Exception {
+    System.out.println(LOG_PREFIX + name.getMethodName());
+
+    final CountDownLatch release = new CountDownLatch(1);
+    final CountDownLatch handled = new CountDownLatch(5);
+    final ThreadPoolStage<Integer> stage = new ThreadPoolStage<>("bounded", new EventHandler<Integer>() {
+      @Override
+      public void onNext(final Integer value) {
+        try {
+          release.await();
+        } catch (final InterruptedException e) {
+          throw new RuntimeException(e);
+        }
+        handled.countDown();
+      }
+    }, 1, 4);
+    final CountingBackpressureListener listener = new CountingBackpressureListener();
+    stage.addBackpressureListener(listener);
+
+    for (int i = 0; i < 4; ++i) {
+      Assert.assertTrue(stage.offer(i));
+    }
+    Assert.assertFalse("A full stage must reject offers", stage.offer(4));
+    Assert.assertEquals(4, stage.getCapacity());
+    Assert.assertEquals(4, stage.getQueueLength());
+    Assert.assertTrue(stage.isSaturated());
+    Assert.assertEquals(1, listener.getSaturatedCount());
+
+    // onNext waits for room instead
+    final Thread producer = new Thread(new Runnable() {
+      @Override
+      public void run() {
+        stage.onNext(4);
+      }
+    });
+    producer.start();
+    producer.join(100);
+    Assert.assertTrue(producer.isAlive());
+
+    release.countDown();
+    producer.join(10000);
+    Assert.assertTrue(handled.await(10, TimeUnit.SECONDS));
+    while (stage.getQueueLength() > 0) {
+      Thread.sleep(1);
+    }
+    stage.close();
+
+    Assert.assertFalse(stage.isSaturated());
+    Assert.assertEquals(listener.getSaturatedCount(), listener.getDrainedCount());
+  }
+
+  @Test
+  public void testUnboundedThreadPoolStageOffer() throws Exception {
+    System.out.println(LOG_PREFIX + name.getMethodName());
+
+    final CountDownLatch handled = new CountDownLatch(100);
+    final ThreadPoolStage<Integer> stage = new ThreadPoolStage<>("unbounded", new EventHandler<Integer>() {
+      @Override
+      public void onNext(final Integer value) {
+        handled.countDown();
+      }
+    }, 1);
+    final CountingBackpressureListener listener = new CountingBackpressureListener();
+    stage.addBackpressureListener(listener);
+
+    for (int i = 0; i < 100; ++i) {
+      Assert.assertTrue("An unbounded stage must accept every offer", stage.offer(i));
+    }
+    Assert.assertTrue(handled.await(10, TimeUnit.SECONDS));
+    Assert.assertEquals(Integer.MAX_VALUE, stage.getCapacity());
+    Assert.assertFalse(stage.isSaturated());
+    Assert.assertEquals(0, listener.getSaturatedCount());
+    stage.close();
+  }
+
   @Test
   public void testMeter() throws Exception {
     System.out.println(LOG_PREFIX + name.getMethodName());
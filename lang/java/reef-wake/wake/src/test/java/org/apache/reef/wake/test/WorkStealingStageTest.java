@@ -0,0 +1,179 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.reef.wake.test;
+
+import org.apache.reef.tang.Configuration;
+import org.apache.reef.tang.Tang;
+import org.apache.reef.wake.EStage;
+import org.apache.reef.wake.EventHandler;
+import org.apache.reef.wake.StageConfiguration;
+import org.apache.reef.wake.impl.WorkStealingStage;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TestName;
+
+import javax.inject.Inject;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Work-stealing stage tests.
+ */
+public class WorkStealingStageTest {
+
+  private static final String LOG_PREFIX = "TEST ";
+  @Rule
+  public TestName name = new TestName();
+
+  @Test
+  public void testManyProducers() throws Exception {
+    System.out.println(LOG_PREFIX + name.getMethodName());
+
+    final int numProducers = 8;
+    final int numEvents = 10000;
+    final CountDownLatch latch = new CountDownLatch(numProducers * numEvents);
+    final AtomicInteger sum = new AtomicInteger(0);
+
+    final WorkStealingStage<Integer> stage = new WorkStealingStage<>("ManyProducers", new EventHandler<Integer>() {
+      @Override
+      public void onNext(final Integer value) {
+        sum.addAndGet(value);
+        latch.countDown();
+      }
+    }, 4, 16);
+
+    final Thread[] producers = new Thread[numProducers];
+    for (int i = 0; i < numProducers; ++i) {
+      producers[i] = new Thread(new Runnable() {
+        @Override
+        public void run() {
+          for (int j = 0; j < numEvents; ++j) {
+            stage.onNext(1);
+          }
+        }
+      });
+      producers[i].start();
+    }
+    for (final Thread producer : producers) {
+      producer.join();
+    }
+
+    Assert.assertTrue(latch.await(10, TimeUnit.SECONDS));
+    stage.close();
+
+    Assert.assertEquals(numProducers * numEvents, sum.get());
+    Assert.assertEquals(0, stage.getQueueLength());
+    Assert.assertEquals(stage.getInMeter().getCount(), stage.getOutMeter().getCount());
+  }
+
+  @Test
+  public void testStealing() throws Exception {
+    System.out.println(LOG_PREFIX + name.getMethodName());
+
+    final int numEvents = 200;
+    final CountDownLatch latch = new CountDownLatch(numEvents);
+
+    final WorkStealingStage<Integer> stage = new WorkStealingStage<>("Stealing", new EventHandler<Integer>() {
+      @Override
+      public void onNext(final Integer value) {
+        try {
+          Thread.sleep(1);
+        } catch (final InterruptedException e) {
+          throw new RuntimeException(e);
+        }
+        latch.countDown();
+      }
+    }, 4, 4);
+
+    // A single producer thread puts all events into the queue of the same stage thread.
+    for (int i = 0; i < numEvents; ++i) {
+      stage.onNext(i);
+    }
+
+    Assert.assertTrue(latch.await(10, TimeUnit.SECONDS));
+    stage.close();
+
+    long stolen = 0;
+    for (final long count : stage.getStealCounts()) {
+      stolen += count;
+    }
+    Assert.assertTrue("Idle threads must steal events", stolen > 0);
+    Assert.assertEquals(4, stage.getQueueLengths().length);
+  }
+
+  @Test
+  public void testCloseDrainsQueues() throws Exception {
+    System.out.println(LOG_PREFIX + name.getMethodName());
+
+    final AtomicInteger count = new AtomicInteger(0);
+    final WorkStealingStage<Integer> stage = new WorkStealingStage<>(new EventHandler<Integer>() {
+      @Override
+      public void onNext(final Integer value) {
+        count.incrementAndGet();
+      }
+    }, 2);
+
+    for (int i = 0; i < 1000; ++i) {
+      stage.onNext(i);
+    }
+    stage.close();
+
+    Assert.assertEquals(1000, count.get());
+    Assert.assertTrue(stage.isClosed());
+  }
+
+  @Test
+  public void testInjection() throws Exception {
+    System.out.println(LOG_PREFIX + name.getMethodName());
+
+    final Configuration conf = Tang.Factory.getTang().newConfigurationBuilder()
+        .bindImplementation(EStage.class, WorkStealingStage.class)
+        .bindNamedParameter(StageConfiguration.StageName.class, "InjectedWorkStealingStage")
+        .bindNamedParameter(StageConfiguration.StageHandler.class, NoopHandler.class)
+        .bindNamedParameter(StageConfiguration.NumberOfThreads.class, "2")
+        .bindNamedParameter(StageConfiguration.BatchSize.class, "8")
+        .build();
+
+    final EStage<Integer> stage = Tang.Factory.getTang().newInjector(conf).getInstance(EStage.class);
+    Assert.assertTrue(stage instanceof WorkStealingStage);
+
+    for (int i = 0; i < 100; ++i) {
+      stage.onNext(i);
+    }
+    stage.close();
+
+    Assert.assertEquals(100, ((WorkStealingStage<Integer>) stage).getOutMeter().getCount());
+  }
+
+  /**
+   * Event handler that does nothing, for injection.
+   */
+  static final class NoopHandler implements EventHandler<Integer> {
+
+    @Inject
+    NoopHandler() {
+    }
+
+    @Override
+    public void onNext(final Integer value) {
+    }
+  }
+}
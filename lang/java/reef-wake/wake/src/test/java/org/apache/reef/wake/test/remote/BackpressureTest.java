@@ -0,0 +1,113 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.reef.wake.test.remote;
+
+import org.apache.reef.tang.Injector;
+import org.apache.reef.tang.Tang;
+import org.apache.reef.wake.EStage;
+import org.apache.reef.wake.EventHandler;
+import org.apache.reef.wake.impl.LoggingEventHandler;
+import org.apache.reef.wake.impl.LoggingUtils;
+import org.apache.reef.wake.impl.ThreadPoolStage;
+import org.apache.reef.wake.remote.address.LocalAddressProvider;
+import org.apache.reef.wake.remote.impl.TransportEvent;
+import org.apache.reef.wake.remote.transport.Link;
+import org.apache.reef.wake.remote.transport.TransportFactory;
+import org.apache.reef.wake.remote.transport.netty.LoggingLinkListener;
+import org.apache.reef.wake.remote.transport.netty.NettyMessagingTransport;
+import org.apache.reef.wake.test.util.CountingBackpressureListener;
+import org.apache.reef.wake.test.util.PassThroughEncoder;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.net.InetSocketAddress;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+
+/**
+ * Tests for the backpressure between bounded stages and the messaging transport.
+ */
+public class BackpressureTest {
+
+  private static final int CAPACITY = 16;
+  private static final int NUM_MESSAGES = 1000;
+
+  /**
+   * Test that the transport pauses reads from the connection that overflowed the server stage
+   * without blocking its event loop, and that all messages arrive once the stage drains.
+   */
+  @Test
+  public void testReadsPausedWhileFull() throws Exception {
+    LoggingUtils.setLoggingLevel(Level.INFO);
+
+    final Injector injector = Tang.Factory.getTang().newInjector();
+
+    final CountDownLatch release = new CountDownLatch(1);
+    final CountDownLatch received = new CountDownLatch(NUM_MESSAGES);
+
+    final EStage<TransportEvent> clientStage = new ThreadPoolStage<>("client",
+        new LoggingEventHandler<TransportEvent>(), 1, new LoggingEventHandler<Throwable>());
+    final ThreadPoolStage<TransportEvent> serverStage = new ThreadPoolStage<>("server",
+        new EventHandler<TransportEvent>() {
+          @Override
+          public void onNext(final TransportEvent value) {
+            try {
+              release.await();
+            } catch (final InterruptedException e) {
+              throw new RuntimeException(e);
+            }
+            received.countDown();
+          }
+        }, 2, CAPACITY);
+    final CountingBackpressureListener listener = new CountingBackpressureListener();
+    serverStage.addBackpressureListener(listener);
+
+    final String hostAddress = injector.getInstance(LocalAddressProvider.class).getLocalAddress();
+    final NettyMessagingTransport transport = (NettyMessagingTransport) injector.getInstance(TransportFactory.class)
+        .newInstance(hostAddress, 0, clientStage, serverStage, 1, 10000);
+    final Link<byte[]> link = transport.open(new InetSocketAddress(hostAddress, transport.getListeningPort()),
+        new PassThroughEncoder(), new LoggingLinkListener<byte[]>());
+
+    for (int i = 0; i < NUM_MESSAGES; ++i) {
+      link.write(new byte[1024]);
+    }
+
+    final long deadline = System.currentTimeMillis() + 10000;
+    while (!transport.isReadPaused() && System.currentTimeMillis() < deadline) {
+      Thread.sleep(10);
+    }
+    Assert.assertTrue("The transport must pause reads of a full stage", transport.isReadPaused());
+    Assert.assertTrue(serverStage.getQueueLength() <= CAPACITY);
+
+    release.countDown();
+    Assert.assertTrue(received.await(20, TimeUnit.SECONDS));
+    final long drainDeadline = System.currentTimeMillis() + 10000;
+    while ((serverStage.getQueueLength() > 0 || transport.isReadPaused()) &&
+        System.currentTimeMillis() < drainDeadline) {
+      Thread.sleep(1);
+    }
+    Assert.assertFalse(transport.isReadPaused());
+    Assert.assertEquals(listener.getSaturatedCount(), listener.getDrainedCount());
+
+    transport.close();
+    clientStage.close();
+    serverStage.close();
+  }
+}
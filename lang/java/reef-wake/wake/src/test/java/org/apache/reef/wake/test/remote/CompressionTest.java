@@ -0,0 +1,151 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.reef.wake.test.remote;
+
+import org.apache.reef.tang.Injector;
+import org.apache.reef.tang.Tang;
+import org.apache.reef.wake.EStage;
+import org.apache.reef.wake.EventHandler;
+import org.apache.reef.wake.impl.LoggingEventHandler;
+import org.apache.reef.wake.impl.LoggingUtils;
+import org.apache.reef.wake.impl.ThreadPoolStage;
+import org.apache.reef.wake.impl.TimerStage;
+import org.apache.reef.wake.remote.RemoteConfiguration;
+import org.apache.reef.wake.remote.address.LocalAddressProvider;
+import org.apache.reef.wake.remote.impl.TransportEvent;
+import org.apache.reef.wake.remote.transport.Link;
+import org.apache.reef.wake.remote.transport.TransportFactory;
+import org.apache.reef.wake.remote.transport.netty.CompressionStats;
+import org.apache.reef.wake.remote.transport.netty.LoggingLinkListener;
+import org.apache.reef.wake.remote.transport.netty.NettyMessagingTransport;
+import org.apache.reef.wake.test.util.Monitor;
+import org.apache.reef.wake.test.util.PassThroughEncoder;
+import org.apache.reef.wake.test.util.TimeoutHandler;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
+
+/**
+ * Tests for the compression of the messaging transport.
+ */
+public class CompressionTest {
+
+  private static final int THRESHOLD = 256;
+
+  /**
+   * Test that LZ4 compresses sparse messages and that all messages arrive intact.
+   */
+  @Test
+  public void testLz4() throws Exception {
+    final CompressionStats stats = runCompressedWrites("lz4");
+    Assert.assertTrue(stats.getCompressionRatio() > 2.0);
+  }
+
+  /**
+   * Test that Deflate compresses sparse messages and that all messages arrive intact.
+   */
+  @Test
+  public void testDeflate() throws Exception {
+    final CompressionStats stats = runCompressedWrites("DEFLATE");
+    Assert.assertTrue(stats.getCompressionRatio() > 2.0);
+  }
+
+  private CompressionStats runCompressedWrites(final String codec) throws Exception {
+    LoggingUtils.setLoggingLevel(Level.INFO);
+    final Monitor monitor = new Monitor();
+    final TimerStage timer = new TimerStage(new TimeoutHandler(monitor), 20000, 20000);
+
+    final Injector injector = Tang.Factory.getTang().newInjector(Tang.Factory.getTang().newConfigurationBuilder()
+        .bindNamedParameter(RemoteConfiguration.Compression.class, codec)
+        .bindNamedParameter(RemoteConfiguration.CompressionThreshold.class, Integer.toString(THRESHOLD))
+        .build());
+
+    final List<byte[]> messages = newMessages();
+    final AtomicInteger received = new AtomicInteger(0);
+    final AtomicInteger corrupted = new AtomicInteger(0);
+
+    final EStage<TransportEvent> clientStage = new ThreadPoolStage<>("client",
+        new LoggingEventHandler<TransportEvent>(), 1, new LoggingEventHandler<Throwable>());
+    final EStage<TransportEvent> serverStage = new ThreadPoolStage<>("server", new EventHandler<TransportEvent>() {
+      @Override
+      public void onNext(final TransportEvent value) {
+        final int index = received.getAndIncrement();
+        if (!Arrays.equals(messages.get(index), value.getData())) {
+          corrupted.incrementAndGet();
+        }
+        if (index + 1 == messages.size()) {
+          monitor.mnotify();
+        }
+      }
+    }, 1, new LoggingEventHandler<Throwable>());
+
+    final String hostAddress = injector.getInstance(LocalAddressProvider.class).getLocalAddress();
+    final NettyMessagingTransport transport = (NettyMessagingTransport) injector.getInstance(TransportFactory.class)
+        .newInstance(hostAddress, 0, clientStage, serverStage, 1, 10000);
+    final Link<byte[]> link = transport.open(new InetSocketAddress(hostAddress, transport.getListeningPort()),
+        new PassThroughEncoder(), new LoggingLinkListener<byte[]>());
+
+    for (final byte[] message : messages) {
+      link.write(message);
+    }
+
+    monitor.mwait();
+
+    final CompressionStats stats = transport.getCompressionStats();
+    transport.close();
+    clientStage.close();
+    serverStage.close();
+    timer.close();
+
+    Assert.assertEquals(messages.size(), received.get());
+    Assert.assertEquals(0, corrupted.get());
+    Assert.assertEquals(messages.size(), stats.getMessageCount());
+    // the small and the random messages are sent as they are
+    Assert.assertEquals(messages.size() - 2, stats.getCompressedCount());
+    Assert.assertTrue(stats.getCompressNanos() > 0);
+    return stats;
+  }
+
+  /**
+   * Creates sparse messages of growing sizes, one below the threshold and one that does not compress.
+   */
+  private static List<byte[]> newMessages() {
+    final Random random = new Random(42);
+    final List<byte[]> messages = new ArrayList<>();
+    messages.add(new byte[THRESHOLD / 2]);
+    for (int size = THRESHOLD; size <= 1 << 20; size *= 4) {
+      final byte[] sparse = new byte[size];
+      for (int i = 0; i < size; i += 16 + random.nextInt(16)) {
+        sparse[i] = (byte) random.nextInt();
+      }
+      messages.add(sparse);
+    }
+    final byte[] noise = new byte[4096];
+    random.nextBytes(noise);
+    messages.add(noise);
+    return messages;
+  }
+}
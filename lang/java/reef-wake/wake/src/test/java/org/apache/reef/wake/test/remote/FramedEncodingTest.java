@@ -0,0 +1,213 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.reef.wake.test.remote;
+
+import com.google.protobuf.ByteString;
+import org.apache.reef.wake.remote.BufferEncoder;
+import org.apache.reef.wake.remote.Codec;
+import org.apache.reef.wake.remote.exception.RemoteRuntimeException;
+import org.apache.reef.wake.remote.impl.ByteCodec;
+import org.apache.reef.wake.remote.impl.MultiCodec;
+import org.apache.reef.wake.remote.impl.ObjectSerializableCodec;
+import org.apache.reef.wake.remote.impl.RemoteEvent;
+import org.apache.reef.wake.remote.impl.RemoteEventCodec;
+import org.apache.reef.wake.remote.impl.StringCodec;
+import org.apache.reef.wake.remote.proto.WakeRemoteProtos.WakeMessagePBuf;
+import org.apache.reef.wake.remote.proto.WakeRemoteProtos.WakeTuplePBuf;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.zip.CRC32;
+
+/**
+ * Tests for the single-pass framed encoding of remote events and tuples, and for compact type tags.
+ */
+public class FramedEncodingTest {
+
+  private static final long[] SEQS = {0, 1, 127, 128, 1L << 35, Long.MAX_VALUE, -1};
+
+  /**
+   * Test that remote events are encoded exactly like the protocol buffer serializer does,
+   * with and without a buffer-capable event encoder.
+   */
+  @Test
+  public void testRemoteEventMatchesProtocolBuffer() {
+    final RemoteEventCodec<String> bufferCodec = new RemoteEventCodec<>(new StringCodec());
+    final RemoteEventCodec<String> arrayCodec = new RemoteEventCodec<>(new ObjectSerializableCodec<String>());
+
+    for (final long seq : SEQS) {
+      final RemoteEvent<String> event = new RemoteEvent<>(null, null, seq, "caf\u00e9 \ud83d\ude00");
+      assertMessage(bufferCodec.encode(event), seq, new StringCodec().encode(event.getEvent()));
+      assertMessage(arrayCodec.encode(event), seq, new ObjectSerializableCodec<String>().encode(event.getEvent()));
+
+      Assert.assertEquals(bufferCodec.encode(event).length, bufferCodec.getEncodedSize(event));
+      Assert.assertEquals(BufferEncoder.UNKNOWN_SIZE, arrayCodec.getEncodedSize(event));
+      Assert.assertEquals(event.getEvent(), arrayCodec.decode(arrayCodec.encode(event)).getEvent());
+    }
+  }
+
+  /**
+   * Test that tuples are encoded exactly like the protocol buffer serializer does, and decode from slices.
+   */
+  @Test
+  public void testMultiCodecMatchesProtocolBuffer() {
+    final MultiCodec<Object> codec = newMultiCodec();
+    final byte[] bytes = {1, 2, 3};
+
+    final byte[] encodedString = codec.encode("hello");
+    final byte[] encodedBytes = codec.encode(bytes);
+    Assert.assertArrayEquals(WakeTuplePBuf.newBuilder()
+        .setClassName(String.class.getName())
+        .setData(ByteString.copyFromUtf8("hello"))
+        .build().toByteArray(), encodedString);
+    Assert.assertArrayEquals(WakeTuplePBuf.newBuilder()
+        .setClassName(byte[].class.getName())
+        .setData(ByteString.copyFrom(bytes))
+        .build().toByteArray(), encodedBytes);
+
+    Assert.assertEquals("hello", codec.decode(encodedString));
+    Assert.assertEquals("hello", codec.decode(ByteBuffer.wrap(encodedString)));
+    Assert.assertArrayEquals(bytes, (byte[]) codec.decode(encodedBytes));
+  }
+
+  /**
+   * Test that compact type tags shrink tuples, and that tuples with tags and with names decode either way.
+   */
+  @Test
+  public void testCompactTypeTags() throws Exception {
+    final MultiCodec<Object> namedCodec = newMultiCodec(false);
+    final MultiCodec<Object> taggedCodec = newMultiCodec(true);
+
+    final byte[] named = namedCodec.encode("hello");
+    final byte[] tagged = taggedCodec.encode("hello");
+    Assert.assertTrue(tagged.length < named.length);
+    Assert.assertEquals(tagged.length, taggedCodec.getEncodedSize("hello"));
+
+    // the tagged tuple is still a valid tuple of the shared schema, with an empty class name
+    final WakeTuplePBuf tuple = WakeTuplePBuf.parseFrom(tagged);
+    Assert.assertEquals("", tuple.getClassName());
+    Assert.assertTrue(tuple.hasClassId());
+    Assert.assertTrue(tuple.hasClassChecksum());
+    Assert.assertEquals("hello", tuple.getData().toStringUtf8());
+
+    Assert.assertEquals("hello", namedCodec.decode(tagged));
+    Assert.assertEquals("hello", taggedCodec.decode(named));
+    Assert.assertEquals("hello", taggedCodec.decode(tagged));
+
+    Assert.assertSame(namedCodec, namedCodec.withCompactTypeTags(false));
+    Assert.assertArrayEquals(tagged, namedCodec.withCompactTypeTags(true).encode("hello"));
+  }
+
+  /**
+   * Test that a tuple with a type tag no registered class has is rejected.
+   */
+  @Test(expected = RemoteRuntimeException.class)
+  public void testUnknownTypeTag() {
+    final byte[] tuple = WakeTuplePBuf.newBuilder()
+        .setClassName("")
+        .setClassId(0x0ABCDEF)
+        .setClassChecksum(0)
+        .setData(ByteString.copyFromUtf8("hello"))
+        .build().toByteArray();
+    newMultiCodec(true).decode(tuple);
+  }
+
+  /**
+   * Test that a tuple with the type tag of a registered class but the checksum of another class name,
+   * as sent by a peer whose class shares the tag, is rejected rather than decoded as the registered class.
+   */
+  @Test
+  public void testTypeTagOfOtherClass() throws Exception {
+    final WakeTuplePBuf tagged = WakeTuplePBuf.parseFrom(newMultiCodec(true).encode("hello"));
+    final CRC32 crc = new CRC32();
+    crc.update("org.example.OtherClass".getBytes(StandardCharsets.UTF_8));
+    final byte[] tuple = tagged.toBuilder().setClassChecksum((int) crc.getValue()).build().toByteArray();
+    try {
+      newMultiCodec(true).decode(tuple);
+      Assert.fail("A tuple with the checksum of another class must be rejected");
+    } catch (final RemoteRuntimeException e) {
+      Assert.assertTrue(e.getMessage(), e.getMessage().contains(String.class.getName()));
+    }
+  }
+
+  /**
+   * Test that a remote event of a multi codec is written into a shared buffer in one pass
+   * and decoded back from a slice of it.
+   */
+  @Test
+  public void testNestedEncodeIntoBuffer() {
+    final RemoteEventCodec<Object> codec = new RemoteEventCodec<>(newMultiCodec());
+    final RemoteEvent<Object> event = new RemoteEvent<Object>(null, null, 7, "nested");
+
+    final int size = codec.getEncodedSize(event);
+    Assert.assertEquals(codec.encode(event).length, size);
+
+    final ByteBuffer buffer = ByteBuffer.allocateDirect(size + 8);
+    buffer.putInt(0xCAFE);
+    codec.encode(event, buffer);
+    Assert.assertEquals(size + 4, buffer.position());
+    buffer.putInt(0xBABE).flip();
+
+    buffer.getInt();
+    final ByteBuffer message = buffer.slice();
+    message.limit(size);
+    final RemoteEvent<Object> decoded = codec.decode(message);
+    Assert.assertEquals(7, decoded.getSeq());
+    Assert.assertEquals("nested", decoded.getEvent());
+    Assert.assertEquals(0xBABE, buffer.getInt(size + 4));
+  }
+
+  /**
+   * Test that the string codec predicts the size of its UTF-8 output, including unpaired surrogates.
+   */
+  @Test
+  public void testStringEncodedSize() {
+    final StringCodec codec = new StringCodec();
+    final String[] strings = {"", "ascii", "\u00e9\u00e8", "\u4e2d\u6587", "\ud83d\ude00", "a\ud83db", "z\ude00"};
+    for (final String s : strings) {
+      final byte[] expected = s.getBytes(StandardCharsets.UTF_8);
+      Assert.assertEquals(s, expected.length, codec.getEncodedSize(s));
+      final ByteBuffer buffer = ByteBuffer.allocate(expected.length);
+      codec.encode(s, buffer);
+      Assert.assertArrayEquals(s, expected, buffer.array());
+    }
+  }
+
+  private static void assertMessage(final byte[] encoded, final long seq, final byte[] data) {
+    Assert.assertArrayEquals(WakeMessagePBuf.newBuilder()
+        .setSeq(seq)
+        .setData(ByteString.copyFrom(data))
+        .build().toByteArray(), encoded);
+  }
+
+  private static MultiCodec<Object> newMultiCodec() {
+    return newMultiCodec(false);
+  }
+
+  private static MultiCodec<Object> newMultiCodec(final boolean compactTypeTags) {
+    final Map<Class<? extends Object>, Codec<? extends Object>> codecs = new HashMap<>();
+    codecs.put(String.class, new StringCodec());
+    codecs.put(byte[].class, new ByteCodec());
+    return new MultiCodec<>(codecs, compactTypeTags);
+  }
+}
@@ -0,0 +1,226 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.reef.wake.test.remote;
+
+import org.apache.reef.tang.Injector;
+import org.apache.reef.tang.Tang;
+import org.apache.reef.wake.EStage;
+import org.apache.reef.wake.EventHandler;
+import org.apache.reef.wake.impl.LoggingEventHandler;
+import org.apache.reef.wake.impl.LoggingUtils;
+import org.apache.reef.wake.impl.ThreadPoolStage;
+import org.apache.reef.wake.impl.TimerStage;
+import org.apache.reef.wake.remote.RemoteConfiguration;
+import org.apache.reef.wake.remote.address.LocalAddressProvider;
+import org.apache.reef.wake.remote.impl.TransportEvent;
+import org.apache.reef.wake.remote.transport.Link;
+import org.apache.reef.wake.remote.transport.LinkLane;
+import org.apache.reef.wake.remote.transport.LinkListener;
+import org.apache.reef.wake.remote.transport.Transport;
+import org.apache.reef.wake.remote.transport.TransportFactory;
+import org.apache.reef.wake.remote.transport.netty.LoggingLinkListener;
+import org.apache.reef.wake.remote.transport.netty.NettyMessagingTransport;
+import org.apache.reef.wake.test.util.Monitor;
+import org.apache.reef.wake.test.util.PassThroughEncoder;
+import org.apache.reef.wake.test.util.TimeoutHandler;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
+
+/**
+ * Tests for the CONTROL and BULK lanes of the messaging transport.
+ */
+public class LinkLaneTest {
+
+  /**
+   * Test that BULK links round-robin over their own connections and that messages arrive on all lanes.
+   */
+  @Test
+  public void testBulkLanes() throws Exception {
+    LoggingUtils.setLoggingLevel(Level.INFO);
+    final Monitor monitor = new Monitor();
+    final TimerStage timer = new TimerStage(new TimeoutHandler(monitor), 20000, 20000);
+
+    final int bulkLinks = 2;
+    final int numMessages = 30;
+    final AtomicInteger received = new AtomicInteger(0);
+    final Set<SocketAddress> senders = Collections.newSetFromMap(new ConcurrentHashMap<SocketAddress, Boolean>());
+
+    final Injector injector = Tang.Factory.getTang().newInjector(Tang.Factory.getTang().newConfigurationBuilder()
+        .bindNamedParameter(RemoteConfiguration.BulkLinksPerPeer.class, Integer.toString(bulkLinks))
+        .build());
+
+    final EStage<TransportEvent> clientStage = new ThreadPoolStage<>("client",
+        new LoggingEventHandler<TransportEvent>(), 1, new LoggingEventHandler<Throwable>());
+    final EStage<TransportEvent> serverStage = new ThreadPoolStage<>("server", new EventHandler<TransportEvent>() {
+      @Override
+      public void onNext(final TransportEvent value) {
+        senders.add(value.getRemoteAddress());
+        if (received.incrementAndGet() == numMessages) {
+          monitor.mnotify();
+        }
+      }
+    }, 1, new LoggingEventHandler<Throwable>());
+
+    final String hostAddress = injector.getInstance(LocalAddressProvider.class).getLocalAddress();
+    final NettyMessagingTransport transport = (NettyMessagingTransport) injector.getInstance(TransportFactory.class)
+        .newInstance(hostAddress, 0, clientStage, serverStage, 1, 10000);
+    final InetSocketAddress remoteAddr = new InetSocketAddress(hostAddress, transport.getListeningPort());
+
+    final Link<byte[]> control = transport.open(
+        remoteAddr, new PassThroughEncoder(), new LoggingLinkListener<byte[]>(), LinkLane.CONTROL);
+    Assert.assertSame(control, transport.get(remoteAddr));
+
+    final Set<SocketAddress> bulkAddresses = new HashSet<>();
+    for (int i = 0; i < numMessages; ++i) {
+      final Link<byte[]> link = i % 3 == 0 ? control : transport.open(
+          remoteAddr, new PassThroughEncoder(), new LoggingLinkListener<byte[]>(), LinkLane.BULK);
+      if (link != control) {
+        bulkAddresses.add(link.getLocalAddress());
+      }
+      link.write(new byte[]{(byte) i});
+    }
+
+    monitor.mwait();
+
+    Assert.assertEquals(bulkLinks, bulkAddresses.size());
+    Assert.assertFalse(bulkAddresses.contains(control.getLocalAddress()));
+    Assert.assertSame(control, transport.get(remoteAddr));
+
+    transport.close();
+    clientStage.close();
+    serverStage.close();
+    timer.close();
+
+    Assert.assertEquals(numMessages, received.get());
+    Assert.assertEquals(bulkLinks + 1, senders.size());
+  }
+
+  /**
+   * Test that the BULK lane falls back to the CONTROL link without bulk links.
+   */
+  @Test
+  public void testBulkLaneFallback() throws Exception {
+    final Injector injector = Tang.Factory.getTang().newInjector();
+    final EStage<TransportEvent> stage = new ThreadPoolStage<>("stage",
+        new LoggingEventHandler<TransportEvent>(), 1, new LoggingEventHandler<Throwable>());
+
+    final String hostAddress = injector.getInstance(LocalAddressProvider.class).getLocalAddress();
+    final NettyMessagingTransport transport = (NettyMessagingTransport) injector.getInstance(TransportFactory.class)
+        .newInstance(hostAddress, 0, stage, stage, 1, 10000);
+    final InetSocketAddress remoteAddr = new InetSocketAddress(hostAddress, transport.getListeningPort());
+
+    final Link<byte[]> bulk = transport.open(
+        remoteAddr, new PassThroughEncoder(), new LoggingLinkListener<byte[]>(), LinkLane.BULK);
+    Assert.assertSame(bulk, transport.get(remoteAddr));
+
+    transport.close();
+    stage.close();
+  }
+
+  /**
+   * Test that a BULK link whose connection went down fails its writes to the link listener right away,
+   * without waiting for a reconnect, and reconnects in the background once the peer is back.
+   */
+  @Test
+  public void testBulkLinkReconnects() throws Exception {
+    final int retryTimeout = 500;
+    final Injector injector = Tang.Factory.getTang().newInjector(Tang.Factory.getTang().newConfigurationBuilder()
+        .bindNamedParameter(RemoteConfiguration.BulkLinksPerPeer.class, "1")
+        .build());
+    final TransportFactory tpFactory = injector.getInstance(TransportFactory.class);
+    final String hostAddress = injector.getInstance(LocalAddressProvider.class).getLocalAddress();
+
+    final BlockingQueue<Byte> received = new LinkedBlockingQueue<>();
+    final EventHandler<TransportEvent> serverHandler = new EventHandler<TransportEvent>() {
+      @Override
+      public void onNext(final TransportEvent value) {
+        received.add(value.getData()[0]);
+      }
+    };
+    final BlockingQueue<Byte> failed = new LinkedBlockingQueue<>();
+    final LinkListener<byte[]> listener = new LinkListener<byte[]>() {
+      @Override
+      public void onSuccess(final byte[] message) {
+      }
+
+      @Override
+      public void onException(final Throwable cause, final SocketAddress remoteAddress, final byte[] message) {
+        failed.add(message[0]);
+      }
+    };
+    final EStage<TransportEvent> clientStage = new ThreadPoolStage<>("client",
+        new LoggingEventHandler<TransportEvent>(), 1, new LoggingEventHandler<Throwable>());
+    final EStage<TransportEvent> serverStage = new ThreadPoolStage<>("server", serverHandler, 1,
+        new LoggingEventHandler<Throwable>());
+
+    final NettyMessagingTransport client = (NettyMessagingTransport) tpFactory
+        .newInstance(hostAddress, 0, clientStage, clientStage, 3, retryTimeout);
+    Transport server = tpFactory.newInstance(hostAddress, 0, serverStage, serverStage, 1, 10000);
+    final int port = server.getListeningPort();
+    final InetSocketAddress remoteAddr = new InetSocketAddress(hostAddress, port);
+
+    final Link<byte[]> link = client.open(remoteAddr, new PassThroughEncoder(), listener, LinkLane.BULK);
+    link.write(new byte[]{1});
+    Assert.assertEquals(Byte.valueOf((byte) 1), received.poll(10, TimeUnit.SECONDS));
+    final SocketAddress firstLocalAddress = link.getLocalAddress();
+
+    // stop the server: the connection of the link goes down
+    server.close();
+    Thread.sleep(1000); // let the client see its connection close
+
+    final int numDown = 10;
+    final long started = System.currentTimeMillis();
+    for (int i = 0; i < numDown; ++i) {
+      link.write(new byte[]{2});
+    }
+    Assert.assertTrue("Writes to a link that is down must not wait for a reconnect",
+        System.currentTimeMillis() - started < retryTimeout);
+    for (int i = 0; i < numDown; ++i) {
+      Assert.assertEquals(Byte.valueOf((byte) 2), failed.poll(10, TimeUnit.SECONDS));
+    }
+
+    // restart the server on the same port: the link reconnects in the background
+    server = tpFactory.newInstance(hostAddress, port, serverStage, serverStage, 1, 10000);
+    Byte delivered = null;
+    final long deadline = System.currentTimeMillis() + 10000;
+    while (delivered == null && System.currentTimeMillis() < deadline) {
+      link.write(new byte[]{3});
+      delivered = received.poll(100, TimeUnit.MILLISECONDS);
+    }
+    Assert.assertEquals(Byte.valueOf((byte) 3), delivered);
+    Assert.assertNotEquals(firstLocalAddress, link.getLocalAddress());
+
+    client.close();
+    server.close();
+    clientStage.close();
+    serverStage.close();
+  }
+}
@@ -0,0 +1,159 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.reef.wake.test.remote;
+
+import io.netty.channel.epoll.Epoll;
+import org.apache.reef.tang.Injector;
+import org.apache.reef.tang.Tang;
+import org.apache.reef.tang.exceptions.InjectionException;
+import org.apache.reef.wake.EStage;
+import org.apache.reef.wake.EventHandler;
+import org.apache.reef.wake.impl.LoggingEventHandler;
+import org.apache.reef.wake.impl.LoggingUtils;
+import org.apache.reef.wake.impl.ThreadPoolStage;
+import org.apache.reef.wake.impl.TimerStage;
+import org.apache.reef.wake.remote.RemoteConfiguration;
+import org.apache.reef.wake.remote.address.LocalAddressProvider;
+import org.apache.reef.wake.remote.impl.TransportEvent;
+import org.apache.reef.wake.remote.transport.Link;
+import org.apache.reef.wake.remote.transport.Transport;
+import org.apache.reef.wake.remote.transport.TransportFactory;
+import org.apache.reef.wake.remote.transport.netty.NettySocketOptions;
+import org.apache.reef.wake.test.util.Monitor;
+import org.apache.reef.wake.test.util.PassThroughEncoder;
+import org.apache.reef.wake.test.util.TimeoutHandler;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.net.InetSocketAddress;
+import java.util.Arrays;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Tests for the native epoll option of the messaging transport,
+ * with a loopback throughput and latency comparison against NIO.
+ */
+public class NativeTransportTest {
+
+  private static final Logger LOG = Logger.getLogger(NativeTransportTest.class.getName());
+
+  private static final int NUM_PINGS = 2000;
+  private static final int NUM_MESSAGES = 20000;
+  private static final int MESSAGE_SIZE = 1024;
+
+  /**
+   * Test that NIO is used unless the native transport is requested and the native library is available.
+   */
+  @Test
+  public void testNativeTransportSelection() throws InjectionException {
+    Assert.assertFalse(newInjector(false).getInstance(NettySocketOptions.class).isNativeTransport());
+    if (newInjector(true).getInstance(NettySocketOptions.class).isNativeTransport()) {
+      Assert.assertTrue(Epoll.isAvailable());
+    }
+  }
+
+  /**
+   * Compare the loopback round-trip latency and one-way throughput of the NIO and native transports.
+   * Where the native transport is not available, the second run measures the NIO fallback.
+   */
+  @Test
+  public void testLoopbackThroughputAndLatency() throws Exception {
+    LoggingUtils.setLoggingLevel(Level.INFO);
+    runLoopback(false);
+    runLoopback(true);
+  }
+
+  private void runLoopback(final boolean nativeTransport) throws Exception {
+    final Injector injector = newInjector(nativeTransport);
+    final boolean nativeInUse = injector.getInstance(NettySocketOptions.class).isNativeTransport();
+    final Monitor monitor = new Monitor();
+    final TimerStage timer = new TimerStage(new TimeoutHandler(monitor), 60000, 60000);
+
+    final BlockingQueue<byte[]> echoes = new ArrayBlockingQueue<>(1);
+    final AtomicInteger received = new AtomicInteger(0);
+
+    final EStage<TransportEvent> clientStage = new ThreadPoolStage<>("client", new EventHandler<TransportEvent>() {
+      @Override
+      public void onNext(final TransportEvent value) {
+        echoes.add(value.getData());
+      }
+    }, 1, new LoggingEventHandler<Throwable>());
+    final EStage<TransportEvent> serverStage = new ThreadPoolStage<>("server", new EventHandler<TransportEvent>() {
+      @Override
+      public void onNext(final TransportEvent value) {
+        final byte[] data = value.getData();
+        if (data.length == 1) {
+          value.getLink().write(data);
+        } else if (received.incrementAndGet() == NUM_MESSAGES) {
+          monitor.mnotify();
+        }
+      }
+    }, 1, new LoggingEventHandler<Throwable>());
+
+    final String hostAddress = injector.getInstance(LocalAddressProvider.class).getLocalAddress();
+    final Transport transport = injector.getInstance(TransportFactory.class)
+        .newInstance(hostAddress, 0, clientStage, serverStage, 1, 10000);
+    final Link<byte[]> link = transport.open(
+        new InetSocketAddress(hostAddress, transport.getListeningPort()), new PassThroughEncoder(), null);
+
+    // Round-trip latency of one-byte pings
+    final long[] latencies = new long[NUM_PINGS];
+    final byte[] ping = new byte[] {1};
+    for (int i = 0; i < NUM_PINGS; ++i) {
+      final long start = System.nanoTime();
+      link.write(ping);
+      Assert.assertNotNull(echoes.poll(10, TimeUnit.SECONDS));
+      latencies[i] = System.nanoTime() - start;
+    }
+    Arrays.sort(latencies);
+
+    // One-way throughput
+    final byte[] message = new byte[MESSAGE_SIZE];
+    final long start = System.nanoTime();
+    for (int i = 0; i < NUM_MESSAGES; ++i) {
+      link.write(message);
+    }
+    monitor.mwait();
+    final long elapsed = System.nanoTime() - start;
+
+    transport.close();
+    clientStage.close();
+    serverStage.close();
+    timer.close();
+
+    Assert.assertEquals(NUM_MESSAGES, received.get());
+
+    LOG.log(Level.INFO, "{0} transport: round trip p50 {1} us p99 {2} us, throughput {3} msgs/s ({4} MB/s)",
+        new Object[] {nativeInUse ? "epoll" : nativeTransport ? "nio (native fallback)" : "nio",
+            latencies[NUM_PINGS / 2] / 1000, latencies[NUM_PINGS * 99 / 100] / 1000,
+            NUM_MESSAGES * 1000000000L / elapsed,
+            (double) NUM_MESSAGES * MESSAGE_SIZE * 1000 / elapsed});
+  }
+
+  private static Injector newInjector(final boolean nativeTransport) throws InjectionException {
+    return Tang.Factory.getTang().newInjector(Tang.Factory.getTang().newConfigurationBuilder()
+        .bindNamedParameter(RemoteConfiguration.NativeTransport.class, Boolean.toString(nativeTransport))
+        .build());
+  }
+}
@@ -40,12 +40,18 @@ import org.junit.rules.TestName;
 
 import java.net.UnknownHostException;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.logging.Level;
 
@@ -114,6 +120,130 @@ public class RemoteManagerTest {
     timer.close();
   }
 
+  @Test
+  public void testRemoteManagerRingBufferReceiverTest() throws Exception {
+    System.out.println(LOG_PREFIX + name.getMethodName());
+    LoggingUtils.setLoggingLevel(Level.INFO);
+
+    final RemoteManagerFactory ringBufferFactory = Tang.Factory.getTang().newInjector(
+        Tang.Factory.getTang().newConfigurationBuilder()
+            .bindNamedParameter(RemoteConfiguration.ReceiverStage.class, "RING_BUFFER")
+            .bindNamedParameter(RemoteConfiguration.ReceiverRingBufferSize.class, "64")
+            .build()).getInstance(RemoteManagerFactory.class);
+
+    final int numEvents = 1000;
+    final CountDownLatch latch = new CountDownLatch(numEvents);
+    final String hostAddress = localAddressProvider.getLocalAddress();
+
+    try (final RemoteManager rm = ringBufferFactory.getInstance(
+        "name", hostAddress, 0, new ObjectSerializableCodec<TestEvent>(), new LoggingEventHandler<Throwable>(),
+        false, 3, 10000, localAddressProvider,
+        Tang.Factory.getTang().newInjector().getInstance(TcpPortProvider.class))) {
+
+      rm.registerHandler(TestEvent.class, new EventHandler<RemoteMessage<TestEvent>>() {
+        @Override
+        public void onNext(final RemoteMessage<TestEvent> value) {
+          latch.countDown();
+        }
+      });
+
+      final EventHandler<TestEvent> proxyHandler = rm.getHandler(rm.getMyIdentifier(), TestEvent.class);
+      for (int i = 0; i < numEvents; ++i) {
+        proxyHandler.onNext(new TestEvent("hello" + i, i));
+      }
+
+      Assert.assertTrue("All events must be received", latch.await(30, TimeUnit.SECONDS));
+    }
+  }
+
+  @Test
+  public void testRemoteManagerCompactTypeTagsTest() throws Exception {
+    System.out.println(LOG_PREFIX + name.getMethodName());
+    LoggingUtils.setLoggingLevel(Level.INFO);
+
+    final RemoteManagerFactory taggedFactory = Tang.Factory.getTang().newInjector(
+        Tang.Factory.getTang().newConfigurationBuilder()
+            .bindNamedParameter(RemoteConfiguration.CompactTypeTags.class, "true")
+            .build()).getInstance(RemoteManagerFactory.class);
+
+    final Map<Class<?>, Codec<?>> clazzToCodecMap = new HashMap<>();
+    clazzToCodecMap.put(TestEvent.class, new ObjectSerializableCodec<TestEvent>());
+    final Codec<?> codec = new MultiCodec<Object>(clazzToCodecMap);
+
+    final int numEvents = 100;
+    final CountDownLatch latch = new CountDownLatch(numEvents);
+    final String hostAddress = localAddressProvider.getLocalAddress();
+
+    // the receiver sends class names, and decodes the type tags of the sender
+    try (final RemoteManager receiver = this.remoteManagerFactory.getInstance(
+             "receiver", hostAddress, 0, codec, new LoggingEventHandler<Throwable>(), false, 3, 10000,
+             localAddressProvider, Tang.Factory.getTang().newInjector().getInstance(TcpPortProvider.class));
+         final RemoteManager sender = taggedFactory.getInstance(
+             "sender", hostAddress, 0, codec, new LoggingEventHandler<Throwable>(), false, 3, 10000,
+             localAddressProvider, Tang.Factory.getTang().newInjector().getInstance(TcpPortProvider.class))) {
+
+      receiver.registerHandler(TestEvent.class, new EventHandler<RemoteMessage<TestEvent>>() {
+        @Override
+        public void onNext(final RemoteMessage<TestEvent> value) {
+          latch.countDown();
+        }
+      });
+
+      final EventHandler<TestEvent> proxyHandler = sender.getHandler(receiver.getMyIdentifier(), TestEvent.class);
+      for (int i = 0; i < numEvents; ++i) {
+        proxyHandler.onNext(new TestEvent("hello" + i, i));
+      }
+
+      Assert.assertTrue("All events must be received", latch.await(30, TimeUnit.SECONDS));
+    }
+  }
+
+  @Test
+  public void testRemoteManagerOrderedWorkersTest() throws Exception {
+    System.out.println(LOG_PREFIX + name.getMethodName());
+    LoggingUtils.setLoggingLevel(Level.INFO);
+
+    final RemoteManagerFactory orderedFactory = Tang.Factory.getTang().newInjector(
+        Tang.Factory.getTang().newConfigurationBuilder()
+            .bindNamedParameter(RemoteConfiguration.OrderedReceiverThreads.class, "2")
+            .build()).getInstance(RemoteManagerFactory.class);
+
+    final int numEvents = 1000;
+    final CountDownLatch latch = new CountDownLatch(numEvents);
+    final List<Double> received = Collections.synchronizedList(new ArrayList<Double>());
+    final Set<String> threadNames = Collections.synchronizedSet(new HashSet<String>());
+    final String hostAddress = localAddressProvider.getLocalAddress();
+
+    try (final RemoteManager rm = orderedFactory.getInstance(
+        "name", hostAddress, 0, new ObjectSerializableCodec<TestEvent>(), new LoggingEventHandler<Throwable>(),
+        true, 3, 10000, localAddressProvider,
+        Tang.Factory.getTang().newInjector().getInstance(TcpPortProvider.class))) {
+
+      rm.registerHandler(TestEvent.class, new EventHandler<RemoteMessage<TestEvent>>() {
+        @Override
+        public void onNext(final RemoteMessage<TestEvent> value) {
+          received.add(value.getMessage().getLoad());
+          threadNames.add(Thread.currentThread().getName());
+          latch.countDown();
+        }
+      });
+
+      final EventHandler<TestEvent> proxyHandler = rm.getHandler(rm.getMyIdentifier(), TestEvent.class);
+      for (int i = 0; i < numEvents; ++i) {
+        proxyHandler.onNext(new TestEvent("hello" + i, i));
+      }
+
+      Assert.assertTrue("All events must be received", latch.await(30, TimeUnit.SECONDS));
+    }
+
+    for (int i = 0; i < numEvents; ++i) {
+      Assert.assertEquals("Events of a source must arrive in order", i, received.get(i), 0.0);
+    }
+    for (final String threadName : threadNames) {
+      Assert.assertTrue(threadName, threadName.startsWith("OrderedRemoteReceiverStage:Worker-"));
+    }
+  }
+
   @Test
   public void testRemoteManagerConnectionRetryTest() throws Exception {
     final ExecutorService smExecutor = Executors.newFixedThreadPool(1);
@@ -0,0 +1,334 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.reef.wake.test.remote;
+
+import org.apache.reef.wake.EventHandler;
+import org.apache.reef.wake.remote.Encoder;
+import org.apache.reef.wake.remote.exception.RemoteRuntimeException;
+import org.apache.reef.wake.remote.impl.RemoteEvent;
+import org.apache.reef.wake.remote.impl.RemoteEventCodec;
+import org.apache.reef.wake.remote.impl.RemoteSenderQueuePolicy;
+import org.apache.reef.wake.remote.impl.RemoteSenderStage;
+import org.apache.reef.wake.remote.impl.StringCodec;
+import org.apache.reef.wake.remote.transport.Link;
+import org.apache.reef.wake.remote.transport.LinkListener;
+import org.apache.reef.wake.remote.transport.Transport;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Tests for the bounded send queues of the remote sender stage.
+ */
+public class RemoteSenderStageTest {
+
+  private static final int CAPACITY = 4;
+
+  private final SocketAddress localAddress = new InetSocketAddress("127.0.0.1", 10000);
+  private final SocketAddress remoteAddress = new InetSocketAddress("127.0.0.1", 10001);
+  private final RemoteEventCodec<String> codec = new RemoteEventCodec<>(new StringCodec());
+
+  /**
+   * Test that events beyond the capacity are dropped to the drop handler and that the queued ones are sent
+   * in order once the link connects.
+   */
+  @Test
+  public void testDrop() throws Exception {
+    final AtomicInteger dropped = new AtomicInteger(0);
+    final SlowTransport transport = new SlowTransport();
+    final RemoteSenderStage stage = new RemoteSenderStage(new StringCodec(), transport, 1,
+        new RemoteSenderQueuePolicy(CAPACITY, RemoteSenderQueuePolicy.Backpressure.DROP,
+            new EventHandler<RemoteEvent<?>>() {
+              @Override
+              public void onNext(final RemoteEvent<?> value) {
+                dropped.incrementAndGet();
+              }
+            }));
+    final EventHandler<RemoteEvent<String>> handler = stage.getHandler();
+
+    for (int i = 0; i < 10; ++i) {
+      handler.onNext(newEvent(i));
+    }
+    Assert.assertEquals(10 - CAPACITY, dropped.get());
+    Assert.assertEquals(CAPACITY, stage.getQueueDepth(this.remoteAddress));
+    Assert.assertEquals(Integer.valueOf(CAPACITY), stage.getQueueDepths().get(this.remoteAddress));
+
+    transport.connect();
+    transport.link.await(CAPACITY);
+    Assert.assertEquals(0, stage.getQueueDepth(this.remoteAddress));
+    assertInOrder(transport.link.getMessages(), CAPACITY);
+    stage.close();
+  }
+
+  /**
+   * Test that a full queue throws with the fail-fast backpressure.
+   */
+  @Test
+  public void testFailFast() throws Exception {
+    final SlowTransport transport = new SlowTransport();
+    final RemoteSenderStage stage = new RemoteSenderStage(new StringCodec(), transport, 1,
+        new RemoteSenderQueuePolicy(CAPACITY, RemoteSenderQueuePolicy.Backpressure.FAIL_FAST, null));
+    final EventHandler<RemoteEvent<String>> handler = stage.getHandler();
+
+    for (int i = 0; i < CAPACITY; ++i) {
+      handler.onNext(newEvent(i));
+    }
+    try {
+      handler.onNext(newEvent(CAPACITY));
+      Assert.fail("A full queue must throw with FAIL_FAST");
+    } catch (final RemoteRuntimeException expected) {
+      Assert.assertEquals(CAPACITY, stage.getQueueDepth(this.remoteAddress));
+    }
+    transport.connect();
+    stage.close();
+  }
+
+  /**
+   * Test that senders wait for room with the blocking backpressure and lose nothing.
+   */
+  @Test
+  public void testBlock() throws Exception {
+    final int numEvents = 100;
+    final SlowTransport transport = new SlowTransport();
+    final RemoteSenderStage stage = new RemoteSenderStage(new StringCodec(), transport, 1,
+        new RemoteSenderQueuePolicy(CAPACITY, RemoteSenderQueuePolicy.Backpressure.BLOCK, null));
+    final EventHandler<RemoteEvent<String>> handler = stage.getHandler();
+
+    final CountDownLatch done = new CountDownLatch(1);
+    final Thread sender = new Thread(new Runnable() {
+      @Override
+      public void run() {
+        for (int i = 0; i < numEvents; ++i) {
+          handler.onNext(newEvent(i));
+        }
+        done.countDown();
+      }
+    });
+    sender.start();
+
+    Assert.assertFalse("The sender must block on a full queue", done.await(200, TimeUnit.MILLISECONDS));
+    Assert.assertEquals(CAPACITY, stage.getQueueDepth(this.remoteAddress));
+
+    transport.connect();
+    Assert.assertTrue(done.await(10, TimeUnit.SECONDS));
+    transport.link.await(numEvents);
+    assertInOrder(transport.link.getMessages(), numEvents);
+    stage.close();
+  }
+
+  /**
+   * Test that the queue connects again after the channel of its link closes.
+   */
+  @Test
+  public void testReconnect() throws Exception {
+    final SlowTransport transport = new SlowTransport();
+    final RemoteSenderStage stage = new RemoteSenderStage(new StringCodec(), transport, 1,
+        new RemoteSenderQueuePolicy(CAPACITY, RemoteSenderQueuePolicy.Backpressure.BLOCK, null));
+    final EventHandler<RemoteEvent<String>> handler = stage.getHandler();
+    transport.connect();
+
+    for (int i = 0; i < 2; ++i) {
+      handler.onNext(newEvent(i));
+    }
+    final RecordingLink firstLink = transport.link;
+    firstLink.await(2);
+    // let the drainer that wrote the first events give up the first link
+    Thread.sleep(100);
+
+    transport.closeLink();
+    for (int i = 2; i < 10; ++i) {
+      handler.onNext(newEvent(i));
+    }
+    final RecordingLink secondLink = transport.link;
+    secondLink.await(8);
+
+    assertInOrder(firstLink.getMessages(), 0, 2);
+    assertInOrder(secondLink.getMessages(), 2, 8);
+    stage.close();
+  }
+
+  /**
+   * Test that the queued events go to the drop handler when the connect fails,
+   * and that a later send connects again.
+   */
+  @Test
+  public void testConnectFailed() throws Exception {
+    final AtomicInteger dropped = new AtomicInteger(0);
+    final SlowTransport transport = new SlowTransport();
+    final RemoteSenderStage stage = new RemoteSenderStage(new StringCodec(), transport, 1,
+        new RemoteSenderQueuePolicy(CAPACITY, RemoteSenderQueuePolicy.Backpressure.DROP,
+            new EventHandler<RemoteEvent<?>>() {
+              @Override
+              public void onNext(final RemoteEvent<?> value) {
+                synchronized (dropped) {
+                  dropped.incrementAndGet();
+                  dropped.notifyAll();
+                }
+              }
+            }));
+    final EventHandler<RemoteEvent<String>> handler = stage.getHandler();
+
+    transport.failure = new IOException("Connection refused");
+    for (int i = 0; i < 3; ++i) {
+      handler.onNext(newEvent(i));
+    }
+    transport.connect();
+    final long deadline = System.currentTimeMillis() + 10000;
+    synchronized (dropped) {
+      while (dropped.get() < 3 && System.currentTimeMillis() < deadline) {
+        dropped.wait(100);
+      }
+    }
+    Assert.assertEquals(3, dropped.get());
+    Assert.assertEquals(0, stage.getQueueDepth(this.remoteAddress));
+
+    transport.failure = null;
+    handler.onNext(newEvent(3));
+    transport.link.await(1);
+    assertInOrder(transport.link.getMessages(), 3, 1);
+    stage.close();
+  }
+
+  private RemoteEvent<String> newEvent(final int i) {
+    return new RemoteEvent<>(this.localAddress, this.remoteAddress, i, "event-" + i);
+  }
+
+  private void assertInOrder(final List<byte[]> messages, final int count) {
+    assertInOrder(messages, 0, count);
+  }
+
+  private void assertInOrder(final List<byte[]> messages, final int first, final int count) {
+    Assert.assertEquals(count, messages.size());
+    for (int i = 0; i < count; ++i) {
+      Assert.assertEquals("event-" + (first + i), this.codec.decode(messages.get(i)).getEvent());
+    }
+  }
+
+  /**
+   * Transport whose connection completes only when the test says so.
+   * Like the Netty transport, it caches the open link and drops it from the cache when it closes.
+   */
+  private final class SlowTransport implements Transport {
+
+    private final CountDownLatch connected = new CountDownLatch(1);
+    private volatile RecordingLink link = new RecordingLink();
+    private volatile boolean linkOpen = false;
+    private volatile IOException failure = null;
+
+    void connect() {
+      this.connected.countDown();
+    }
+
+    synchronized void closeLink() {
+      this.linkOpen = false;
+      this.link = new RecordingLink();
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> Link<T> open(final SocketAddress remoteAddr, final Encoder<? super T> encoder,
+                            final LinkListener<? super T> listener) throws IOException {
+      try {
+        this.connected.await();
+      } catch (final InterruptedException e) {
+        throw new IOException(e);
+      }
+      if (this.failure != null) {
+        throw this.failure;
+      }
+      synchronized (this) {
+        this.linkOpen = true;
+        return (Link<T>) this.link;
+      }
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public synchronized <T> Link<T> get(final SocketAddress remoteAddr) {
+      return this.linkOpen ? (Link<T>) this.link : null;
+    }
+
+    @Override
+    public int getListeningPort() {
+      return 10000;
+    }
+
+    @Override
+    public SocketAddress getLocalAddress() {
+      return localAddress;
+    }
+
+    @Override
+    public void registerErrorHandler(final EventHandler<Exception> handler) {
+    }
+
+    @Override
+    public void close() {
+      this.connected.countDown();
+    }
+  }
+
+  /**
+   * Link that records what is written to it.
+   */
+  private final class RecordingLink implements Link<byte[]> {
+
+    private final List<byte[]> messages = Collections.synchronizedList(new ArrayList<byte[]>());
+
+    @Override
+    public void write(final byte[] message) {
+      synchronized (this.messages) {
+        this.messages.add(message);
+        this.messages.notifyAll();
+      }
+    }
+
+    void await(final int count) throws InterruptedException {
+      final long deadline = System.currentTimeMillis() + 10000;
+      synchronized (this.messages) {
+        while (this.messages.size() < count && System.currentTimeMillis() < deadline) {
+          this.messages.wait(100);
+        }
+      }
+    }
+
+    List<byte[]> getMessages() {
+      return this.messages;
+    }
+
+    @Override
+    public SocketAddress getLocalAddress() {
+      return localAddress;
+    }
+
+    @Override
+    public SocketAddress getRemoteAddress() {
+      return remoteAddress;
+    }
+  }
+}
@@ -0,0 +1,169 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.reef.wake.test.remote;
+
+import org.apache.reef.tang.Injector;
+import org.apache.reef.tang.Tang;
+import org.apache.reef.tang.exceptions.InjectionException;
+import org.apache.reef.wake.EStage;
+import org.apache.reef.wake.EventHandler;
+import org.apache.reef.wake.impl.LoggingEventHandler;
+import org.apache.reef.wake.impl.LoggingUtils;
+import org.apache.reef.wake.impl.ThreadPoolStage;
+import org.apache.reef.wake.impl.TimerStage;
+import org.apache.reef.wake.remote.RemoteConfiguration;
+import org.apache.reef.wake.remote.address.LocalAddressProvider;
+import org.apache.reef.wake.remote.impl.TransportEvent;
+import org.apache.reef.wake.remote.transport.Link;
+import org.apache.reef.wake.remote.transport.LinkListener;
+import org.apache.reef.wake.remote.transport.TransportFactory;
+import org.apache.reef.wake.remote.transport.netty.NettyMessagingTransport;
+import org.apache.reef.wake.remote.transport.netty.WriteBatchStats;
+import org.apache.reef.wake.test.util.Monitor;
+import org.apache.reef.wake.test.util.PassThroughEncoder;
+import org.apache.reef.wake.test.util.TimeoutHandler;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
+
+/**
+ * Tests for the write batching of the messaging transport.
+ */
+public class WriteBatchingTest {
+
+  /**
+   * Test that batched writes arrive in order and that the thresholds trigger flushes.
+   */
+  @Test
+  public void testThresholdFlush() throws Exception {
+    final int numMessages = 1000;
+    final WriteBatchStats stats = runBatchedWrites(numMessages, 16, 1000);
+
+    Assert.assertEquals(numMessages, stats.getMessageCount());
+    Assert.assertTrue(stats.getThresholdFlushCount() > 0);
+    Assert.assertTrue(stats.getFlushCount() < numMessages);
+    Assert.assertTrue(stats.getMeanBatchSize() > 1.0);
+    Assert.assertEquals(stats.getFlushCount(), stats.getBatchSizeHistogram().getCount());
+  }
+
+  /**
+   * Test that writes below the thresholds are flushed by the timer.
+   */
+  @Test
+  public void testDelayedFlush() throws Exception {
+    final WriteBatchStats stats = runBatchedWrites(3, 1000, 1000);
+
+    Assert.assertEquals(3, stats.getMessageCount());
+    Assert.assertEquals(0, stats.getThresholdFlushCount());
+    Assert.assertTrue(stats.getDelayedFlushCount() > 0);
+  }
+
+  /**
+   * Test that writes below the thresholds are flushed when the event loop runs out of work.
+   */
+  @Test
+  public void testIdleFlush() throws Exception {
+    final WriteBatchStats stats = runBatchedWrites(3, 1000, 0);
+
+    Assert.assertEquals(3, stats.getMessageCount());
+    Assert.assertEquals(0, stats.getThresholdFlushCount());
+    Assert.assertTrue(stats.getDelayedFlushCount() > 0);
+  }
+
+  private WriteBatchStats runBatchedWrites(final int numMessages, final int maxMessages, final int flushDelay)
+      throws Exception {
+
+    LoggingUtils.setLoggingLevel(Level.INFO);
+    final Monitor monitor = new Monitor();
+    final TimerStage timer = new TimerStage(new TimeoutHandler(monitor), 20000, 20000);
+
+    final Injector injector = newInjector(maxMessages, flushDelay);
+    final AtomicInteger received = new AtomicInteger(0);
+    final AtomicInteger sent = new AtomicInteger(0);
+    final AtomicInteger outOfOrder = new AtomicInteger(0);
+
+    final EStage<TransportEvent> clientStage = new ThreadPoolStage<>("client",
+        new LoggingEventHandler<TransportEvent>(), 1, new LoggingEventHandler<Throwable>());
+    final EStage<TransportEvent> serverStage = new ThreadPoolStage<>("server", new EventHandler<TransportEvent>() {
+      @Override
+      public void onNext(final TransportEvent value) {
+        final int index = received.getAndIncrement();
+        if (!("message-" + index).equals(new String(value.getData(), StandardCharsets.UTF_8))) {
+          outOfOrder.incrementAndGet();
+        }
+        if (index + 1 == numMessages) {
+          monitor.mnotify();
+        }
+      }
+    }, 1, new LoggingEventHandler<Throwable>());
+
+    final String hostAddress = injector.getInstance(LocalAddressProvider.class).getLocalAddress();
+    final NettyMessagingTransport transport = (NettyMessagingTransport) injector.getInstance(TransportFactory.class)
+        .newInstance(hostAddress, 0, clientStage, serverStage, 1, 10000);
+    final Link<byte[]> link = transport.open(new InetSocketAddress(hostAddress, transport.getListeningPort()),
+        new PassThroughEncoder(), new LinkListener<byte[]>() {
+          @Override
+          public void onSuccess(final byte[] message) {
+            sent.incrementAndGet();
+          }
+
+          @Override
+          public void onException(final Throwable cause, final SocketAddress remoteAddress, final byte[] message) {
+          }
+        });
+
+    for (int i = 0; i < numMessages; ++i) {
+      link.write(("message-" + i).getBytes(StandardCharsets.UTF_8));
+    }
+
+    monitor.mwait();
+
+    // every message is flushed, and counted, while the channel is still open
+    final WriteBatchStats stats = transport.getWriteBatchStats();
+    final long flushCount = stats.getFlushCount();
+    Assert.assertEquals(numMessages, stats.getMessageCount());
+    Assert.assertTrue(flushCount >= (numMessages + maxMessages - 1) / maxMessages);
+    Assert.assertEquals(flushCount, stats.getBatchSizeHistogram().getCount());
+    Assert.assertEquals(0, stats.getBatchSizeHistogram().getValue(0));
+
+    transport.close();
+    Assert.assertEquals(flushCount, stats.getFlushCount());
+    clientStage.close();
+    serverStage.close();
+    timer.close();
+
+    Assert.assertEquals(numMessages, received.get());
+    Assert.assertEquals(numMessages, sent.get());
+    Assert.assertEquals(0, outOfOrder.get());
+    return stats;
+  }
+
+  private static Injector newInjector(final int maxMessages, final int flushDelay) throws InjectionException {
+    return Tang.Factory.getTang().newInjector(Tang.Factory.getTang().newConfigurationBuilder()
+        .bindNamedParameter(RemoteConfiguration.WriteBatching.class, "true")
+        .bindNamedParameter(RemoteConfiguration.WriteBatchMaxMessages.class, Integer.toString(maxMessages))
+        .bindNamedParameter(RemoteConfiguration.WriteBatchFlushDelay.class, Integer.toString(flushDelay))
+        .build());
+  }
+}
@@ -0,0 +1,201 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.reef.wake.test.remote;
+
+import org.apache.reef.tang.Injector;
+import org.apache.reef.tang.Tang;
+import org.apache.reef.tang.exceptions.InjectionException;
+import org.apache.reef.wake.EStage;
+import org.apache.reef.wake.EventHandler;
+import org.apache.reef.wake.impl.LoggingEventHandler;
+import org.apache.reef.wake.impl.LoggingUtils;
+import org.apache.reef.wake.impl.ThreadPoolStage;
+import org.apache.reef.wake.impl.TimerStage;
+import org.apache.reef.wake.remote.RemoteConfiguration;
+import org.apache.reef.wake.remote.RemoteIdentifier;
+import org.apache.reef.wake.remote.RemoteManager;
+import org.apache.reef.wake.remote.RemoteManagerFactory;
+import org.apache.reef.wake.remote.RemoteMessage;
+import org.apache.reef.wake.remote.address.LocalAddressProvider;
+import org.apache.reef.wake.remote.impl.ObjectSerializableCodec;
+import org.apache.reef.wake.remote.impl.RemoteEvent;
+import org.apache.reef.wake.remote.impl.RemoteEventCodec;
+import org.apache.reef.wake.remote.impl.StringCodec;
+import org.apache.reef.wake.remote.impl.TransportEvent;
+import org.apache.reef.wake.remote.ports.TcpPortProvider;
+import org.apache.reef.wake.remote.transport.Link;
+import org.apache.reef.wake.remote.transport.Transport;
+import org.apache.reef.wake.remote.transport.TransportFactory;
+import org.apache.reef.wake.test.util.Monitor;
+import org.apache.reef.wake.test.util.PassThroughEncoder;
+import org.apache.reef.wake.test.util.TimeoutHandler;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+
+/**
+ * Tests for the zero-copy receive path of the messaging transport.
+ */
+public class ZeroCopyTransportTest {
+
+  private static final int SMALL_SIZE = 1 << 10;
+  private static final int LARGE_SIZE = 1 << 25; // spans several chunks
+
+  private final Injector injector;
+  private final LocalAddressProvider localAddressProvider;
+
+  public ZeroCopyTransportTest() throws InjectionException {
+    this.injector = Tang.Factory.getTang().newInjector(Tang.Factory.getTang().newConfigurationBuilder()
+        .bindNamedParameter(RemoteConfiguration.ZeroCopyTransport.class, "true")
+        .build());
+    this.localAddressProvider = this.injector.getInstance(LocalAddressProvider.class);
+  }
+
+  /**
+   * Test that frames arrive as buffers, single- and multi-chunk, with the same content as sent.
+   */
+  @Test
+  public void testBufferTransportEvents() throws Exception {
+    LoggingUtils.setLoggingLevel(Level.INFO);
+    final Monitor monitor = new Monitor();
+    final TimerStage timer = new TimerStage(new TimeoutHandler(monitor), 20000, 20000);
+
+    final byte[] small = pattern(SMALL_SIZE);
+    final byte[] large = pattern(LARGE_SIZE);
+    final AtomicInteger buffered = new AtomicInteger(0);
+    final AtomicLong received = new AtomicLong(0);
+
+    final EStage<TransportEvent> clientStage = new ThreadPoolStage<>("client",
+        new LoggingEventHandler<TransportEvent>(), 1, new LoggingEventHandler<Throwable>());
+    final EStage<TransportEvent> serverStage = new ThreadPoolStage<>("server", new EventHandler<TransportEvent>() {
+      @Override
+      public void onNext(final TransportEvent value) {
+        if (value.hasBuffer()) {
+          buffered.incrementAndGet();
+        }
+        final ByteBuffer buffer = value.getBuffer();
+        final byte[] data = new byte[buffer.remaining()];
+        buffer.get(data);
+        value.release();
+        Assert.assertFalse(value.hasBuffer());
+        Assert.assertArrayEquals(data.length == SMALL_SIZE ? small : large, data);
+        if (received.addAndGet(data.length) == SMALL_SIZE + LARGE_SIZE) {
+          monitor.mnotify();
+        }
+      }
+    }, 1, new LoggingEventHandler<Throwable>());
+
+    final String hostAddress = this.localAddressProvider.getLocalAddress();
+    final Transport transport = this.injector.getInstance(TransportFactory.class)
+        .newInstance(hostAddress, 0, clientStage, serverStage, 1, 10000);
+    final Link<byte[]> link = transport.open(
+        new InetSocketAddress(hostAddress, transport.getListeningPort()), new PassThroughEncoder(), null);
+
+    link.write(small);
+    link.write(large);
+
+    monitor.mwait();
+
+    transport.close();
+    clientStage.close();
+    serverStage.close();
+    timer.close();
+
+    Assert.assertEquals(2, buffered.get());
+    Assert.assertEquals(SMALL_SIZE + LARGE_SIZE, received.get());
+  }
+
+  /**
+   * Test that a remote manager on a zero-copy transport dispatches messages with and without ordering.
+   */
+  @Test
+  public void testRemoteManagerOnZeroCopyTransport() throws Exception {
+    runRemoteManager(false);
+    runRemoteManager(true);
+  }
+
+  private void runRemoteManager(final boolean orderingGuarantee) throws Exception {
+    LoggingUtils.setLoggingLevel(Level.INFO);
+    final Monitor monitor = new Monitor();
+    final TimerStage timer = new TimerStage(new TimeoutHandler(monitor), 5000, 5000);
+
+    final int expected = 100;
+    final AtomicInteger counter = new AtomicInteger(0);
+
+    final RemoteManager rm = this.injector.getInstance(RemoteManagerFactory.class).getInstance(
+        "zerocopy", this.localAddressProvider.getLocalAddress(), 0, new ObjectSerializableCodec<String>(),
+        new LoggingEventHandler<Throwable>(), orderingGuarantee, 3, 10000,
+        this.localAddressProvider, this.injector.getInstance(TcpPortProvider.class));
+
+    rm.registerHandler(String.class, new EventHandler<RemoteMessage<String>>() {
+      @Override
+      public void onNext(final RemoteMessage<String> value) {
+        Assert.assertTrue(value.getMessage().startsWith("hello"));
+        if (counter.incrementAndGet() == expected) {
+          monitor.mnotify();
+        }
+      }
+    });
+
+    final RemoteIdentifier remoteId = rm.getMyIdentifier();
+    final EventHandler<String> proxy = rm.getHandler(remoteId, String.class);
+    for (int i = 0; i < expected; ++i) {
+      proxy.onNext("hello" + i);
+    }
+
+    monitor.mwait();
+    rm.close();
+    timer.close();
+
+    Assert.assertEquals(expected, counter.get());
+  }
+
+  /**
+   * Test that decoding a remote event from a buffer matches decoding it from a byte array.
+   */
+  @Test
+  public void testRemoteEventBufferDecode() {
+    final RemoteEventCodec<String> codec = new RemoteEventCodec<>(new StringCodec());
+    final byte[] encoded = codec.encode(new RemoteEvent<>(null, null, 42, "payload"));
+
+    final ByteBuffer buffer = ByteBuffer.allocateDirect(encoded.length + 4);
+    buffer.putInt(0xCAFE).put(encoded).flip();
+    buffer.getInt();
+
+    final RemoteEvent<String> fromBuffer = codec.decode(buffer);
+    final RemoteEvent<String> fromArray = codec.decode(encoded);
+
+    Assert.assertEquals(fromArray.getSeq(), fromBuffer.getSeq());
+    Assert.assertEquals(fromArray.getEvent(), fromBuffer.getEvent());
+    Assert.assertEquals(4, buffer.position());
+  }
+
+  private static byte[] pattern(final int size) {
+    final byte[] data = new byte[size];
+    for (int i = 0; i < size; ++i) {
+      data[i] = (byte) (i * 31);
+    }
+    return data;
+  }
+}
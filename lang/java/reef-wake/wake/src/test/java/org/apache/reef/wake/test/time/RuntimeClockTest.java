@@ -19,6 +19,7 @@
 package org.apache.reef.wake.test.time;
 
 import org.apache.reef.tang.Configuration;
+import org.apache.reef.tang.Injector;
 import org.apache.reef.tang.Tang;
 import org.apache.reef.tang.exceptions.InjectionException;
 import org.apache.reef.wake.EventHandler;
@@ -26,45 +27,89 @@ import org.apache.reef.wake.impl.LoggingUtils;
 import org.apache.reef.wake.impl.ThreadPoolStage;
 import org.apache.reef.wake.test.time.util.AlarmProducer;
 import org.apache.reef.wake.test.time.util.EventRecorder;
+import org.apache.reef.wake.time.Clock;
 import org.apache.reef.wake.time.Time;
 import org.apache.reef.wake.time.event.Alarm;
+import org.apache.reef.wake.time.event.StopTime;
 import org.apache.reef.wake.time.runtime.LogicalTimer;
 import org.apache.reef.wake.time.runtime.RealTimer;
 import org.apache.reef.wake.time.runtime.RuntimeClock;
 import org.apache.reef.wake.time.runtime.Timer;
+import org.apache.reef.wake.time.runtime.TimerWheelClock;
 import org.junit.Assert;
 import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
 
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.List;
 import java.util.Random;
+import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.TimeUnit;
 import java.util.logging.Level;
 
 /**
- * Tests for RuntimeClock event loop.
+ * Tests for the event loops of RuntimeClock and TimerWheelClock.
  */
+@RunWith(Parameterized.class)
 public class RuntimeClockTest {
 
   private static final Tang TANG = Tang.Factory.getTang();
 
   private final Random rand = new Random();
 
+  private final Class<? extends Clock> clockClass;
+
+  public RuntimeClockTest(final Class<? extends Clock> clockClass) {
+    this.clockClass = clockClass;
+  }
+
+  @Parameterized.Parameters
+  public static Collection<Object[]> clockClasses() {
+    return Arrays.asList(new Object[][] {{RuntimeClock.class}, {TimerWheelClock.class}});
+  }
+
   /**
-   * Create new RuntimeClock object injected with the given timer.
+   * Create new clock object injected with the given timer.
    *
-   * @param timerClass Timer to use inside the RuntimeClock. Must implement the Timer interface.
-   * @return A new instance of the RuntimeClock, instrumented with the given timer.
+   * @param timerClass Timer to use inside the clock. Must implement the Timer interface.
+   * @return A new instance of the clock under test, instrumented with the given timer.
    * @throws InjectionException On configuration error.
    */
-  private static RuntimeClock buildClock(
+  private Clock buildClock(
       final Class<? extends Timer> timerClass) throws InjectionException {
 
     final Configuration clockConfig = TANG.newConfigurationBuilder()
         .bind(Timer.class, timerClass)
+        .bind(Clock.class, this.clockClass)
         .build();
 
-    return TANG.newInjector(clockConfig).getInstance(RuntimeClock.class);
+    return TANG.newInjector(clockConfig).getInstance(Clock.class);
+  }
+
+  /**
+   * Create new clock object injected with the given timer and stop handler.
+   *
+   * @param timerClass Timer to use inside the clock. Must implement the Timer interface.
+   * @param stopRecorder Stop handler of the clock.
+   * @return A new instance of the clock under test, instrumented with the given timer.
+   * @throws InjectionException On configuration error.
+   */
+  private Clock buildClock(
+      final Class<? extends Timer> timerClass, final StopRecorder stopRecorder) throws InjectionException {
+
+    final Configuration clockConfig = TANG.newConfigurationBuilder()
+        .bind(Timer.class, timerClass)
+        .bind(Clock.class, this.clockClass)
+        .bindSetEntry(Clock.StopHandler.class, StopRecorder.class)
+        .build();
+
+    final Injector injector = TANG.newInjector(clockConfig);
+    injector.bindVolatileInstance(StopRecorder.class, stopRecorder);
+    return injector.getInstance(Clock.class);
   }
 
   /**
@@ -77,7 +122,7 @@ public class RuntimeClockTest {
 
     LoggingUtils.setLoggingLevel(Level.FINEST);
 
-    try (final RuntimeClock clock = buildClock(RealTimer.class)) {
+    try (final Clock clock = buildClock(RealTimer.class)) {
 
       new Thread(clock).start();
 
@@ -101,7 +146,7 @@ public class RuntimeClockTest {
 
     LoggingUtils.setLoggingLevel(Level.FINEST);
 
-    try (final RuntimeClock clock = buildClock(RealTimer.class)) {
+    try (final Clock clock = buildClock(RealTimer.class)) {
 
       new Thread(clock).start();
 
@@ -140,7 +185,7 @@ public class RuntimeClockTest {
     final int numThreads = 3;
     final CountDownLatch eventCountLatch = new CountDownLatch(numThreads);
 
-    try (final RuntimeClock clock = buildClock(RealTimer.class)) {
+    try (final Clock clock = buildClock(RealTimer.class)) {
 
       final EventHandler<Alarm> handler = new EventHandler<Alarm>() {
         @Override
@@ -171,7 +216,7 @@ public class RuntimeClockTest {
     final int expectedEvent = 2;
     final CountDownLatch eventCountLatch = new CountDownLatch(expectedEvent);
 
-    try (final RuntimeClock clock = buildClock(LogicalTimer.class)) {
+    try (final Clock clock = buildClock(LogicalTimer.class)) {
 
       new Thread(clock).start();
 
@@ -197,7 +242,7 @@ public class RuntimeClockTest {
 
     final long[] expected = new long[numAlarms];
 
-    try (final RuntimeClock clock = buildClock(RealTimer.class)) {
+    try (final Clock clock = buildClock(RealTimer.class)) {
 
       new Thread(clock).start();
 
@@ -239,7 +284,7 @@ public class RuntimeClockTest {
     final CountDownLatch eventCountLatch = new CountDownLatch(numAlarms);
     final EventRecorder alarmRecorder = new EventRecorder(eventCountLatch);
 
-    final RuntimeClock clock = buildClock(RealTimer.class);
+    final Clock clock = buildClock(RealTimer.class);
     new Thread(clock).start();
 
     clock.scheduleAlarm(100, alarmRecorder);
@@ -277,7 +322,7 @@ public class RuntimeClockTest {
     final CountDownLatch eventCountLatch = new CountDownLatch(numAlarms);
     final EventRecorder alarmRecorder = new EventRecorder(eventCountLatch);
 
-    final RuntimeClock clock = buildClock(RealTimer.class);
+    final Clock clock = buildClock(RealTimer.class);
     new Thread(clock).start();
 
     clock.scheduleAlarm(100, alarmRecorder);
@@ -290,4 +335,120 @@ public class RuntimeClockTest {
     Thread.sleep(200);
     Assert.assertTrue("No events should be in the schedule", alarmRecorder.getEvents().isEmpty());
   }
+
+  /**
+   * Test alarm cancellation. Schedule two alarms and cancel the first one.
+   * Make sure that only the second one fires, and that an alarm cannot be cancelled twice or after it fired.
+   * @throws InjectionException Error building a runtime clock object.
+   * @throws InterruptedException Sleep interrupted.
+   */
+  @Test
+  public void testCancelAlarm() throws InjectionException, InterruptedException {
+
+    LoggingUtils.setLoggingLevel(Level.FINEST);
+
+    final CountDownLatch eventCountLatch = new CountDownLatch(1);
+    final EventRecorder alarmRecorder = new EventRecorder(eventCountLatch);
+
+    try (final Clock clock = buildClock(RealTimer.class)) {
+
+      new Thread(clock).start();
+
+      final Time cancelled = clock.scheduleAlarm(100, alarmRecorder);
+      final Time kept = clock.scheduleAlarm(150, alarmRecorder);
+
+      Assert.assertTrue("Alarm must be cancelled", clock.cancelAlarm(cancelled));
+      Assert.assertFalse("Alarm cannot be cancelled twice", clock.cancelAlarm(cancelled));
+      Assert.assertFalse("Clock cannot be idle yet", clock.isIdle());
+
+      Assert.assertTrue(eventCountLatch.await(10, TimeUnit.SECONDS));
+      Thread.sleep(100);
+
+      final List<Time> events = alarmRecorder.getEvents();
+      Assert.assertEquals("Only the alarm that was not cancelled must fire", 1, events.size());
+      Assert.assertSame("Only the alarm that was not cancelled must fire", kept, events.get(0));
+      Assert.assertFalse("Alarm cannot be cancelled after it fired", clock.cancelAlarm(kept));
+      Assert.assertTrue("No client alarms should be scheduled at this time", clock.isIdle());
+    }
+  }
+
+  /**
+   * Test graceful shutdown after cancelling the only alarm. Schedule a distant alarm,
+   * close the clock and cancel the alarm. Make sure that the clock becomes idle
+   * and its event loop exits without waiting for the cancelled alarm.
+   * @throws InjectionException Error building a runtime clock object.
+   * @throws InterruptedException Sleep interrupted.
+   */
+  @Test
+  public void testCancelAlarmOnGracefulClose() throws InjectionException, InterruptedException {
+
+    LoggingUtils.setLoggingLevel(Level.FINEST);
+
+    final EventRecorder alarmRecorder = new EventRecorder();
+
+    final Clock clock = buildClock(RealTimer.class);
+    final Thread clockThread = new Thread(clock);
+    clockThread.start();
+
+    final Time alarm = clock.scheduleAlarm(60000, alarmRecorder);
+    clock.close();
+
+    Assert.assertFalse("Clock cannot be idle yet", clock.isIdle());
+    Assert.assertTrue("Alarm must be cancelled", clock.cancelAlarm(alarm));
+    Assert.assertTrue("No client alarms should be scheduled at this time", clock.isIdle());
+
+    clockThread.join(5000);
+    Assert.assertFalse("Clock event loop must exit once the last alarm is cancelled", clockThread.isAlive());
+    Assert.assertTrue("No events should occur", alarmRecorder.getEvents().isEmpty());
+  }
+
+  /**
+   * Test graceful shutdown after cancelling the latest alarm. Schedule two alarms, cancel the later one
+   * and close the clock. Make sure that the StopTime comes right after the alarm that fired,
+   * rather than after the cancelled one.
+   * @throws InjectionException Error building a runtime clock object.
+   * @throws InterruptedException Wait interrupted.
+   */
+  @Test
+  public void testStopTimeAfterCancelAlarm() throws InjectionException, InterruptedException {
+
+    LoggingUtils.setLoggingLevel(Level.FINEST);
+
+    final EventRecorder alarmRecorder = new EventRecorder();
+    final StopRecorder stopRecorder = new StopRecorder();
+
+    final Clock clock = buildClock(RealTimer.class, stopRecorder);
+    new Thread(clock).start();
+
+    final Time kept = clock.scheduleAlarm(100, alarmRecorder);
+    final Time cancelled = clock.scheduleAlarm(60000, alarmRecorder);
+
+    Assert.assertTrue("Alarm must be cancelled", clock.cancelAlarm(cancelled));
+    clock.close();
+
+    final StopTime stopTime = stopRecorder.getStopTimes().poll(10, TimeUnit.SECONDS);
+    Assert.assertNotNull("Clock must stop once the remaining alarm fired", stopTime);
+    Assert.assertEquals("Only the alarm that was not cancelled must fire", 1, alarmRecorder.getEventCount());
+    Assert.assertTrue("StopTime must come after the alarm that fired",
+        stopTime.getTimestamp() > kept.getTimestamp());
+    Assert.assertTrue("StopTime cannot come after the time it was fired at",
+        stopTime.getTimestamp() <= System.currentTimeMillis());
+  }
+
+  /**
+   * Stop handler that records the StopTime events of the clock.
+   */
+  static final class StopRecorder implements EventHandler<StopTime> {
+
+    private final BlockingQueue<StopTime> stopTimes = new LinkedBlockingQueue<>();
+
+    BlockingQueue<StopTime> getStopTimes() {
+      return this.stopTimes;
+    }
+
+    @Override
+    public void onNext(final StopTime value) {
+      this.stopTimes.add(value);
+    }
+  }
 }
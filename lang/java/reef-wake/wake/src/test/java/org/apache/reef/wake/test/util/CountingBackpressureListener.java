@@ -0,0 +1,50 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.reef.wake.test.util;
+
+import org.apache.reef.wake.BackpressureListener;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A backpressure listener that counts the notifications, used in tests.
+ */
+public class CountingBackpressureListener implements BackpressureListener {
+
+  private final AtomicInteger saturated = new AtomicInteger(0);
+  private final AtomicInteger drained = new AtomicInteger(0);
+
+  @Override
+  public void onSaturated() {
+    saturated.incrementAndGet();
+  }
+
+  @Override
+  public void onDrained() {
+    drained.incrementAndGet();
+  }
+
+  public int getSaturatedCount() {
+    return saturated.get();
+  }
+
+  public int getDrainedCount() {
+    return drained.get();
+  }
+}
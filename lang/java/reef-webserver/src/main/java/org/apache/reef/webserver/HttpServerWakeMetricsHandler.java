@@ -0,0 +1,86 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.reef.webserver;
+
+import org.apache.reef.wake.metrics.MetricsRegistry;
+
+import javax.inject.Inject;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Http handler for the metrics of the Wake stages and links of the process.
+ * Example of a query: http://localhost:8080/Wake/v1/Metrics
+ */
+public final class HttpServerWakeMetricsHandler implements HttpHandler {
+
+  private static final Logger LOG = Logger.getLogger(HttpServerWakeMetricsHandler.class.getName());
+
+  /**
+   * specification that would match URI request.
+   */
+  private String uriSpecification = "Wake";
+
+  @Inject
+  public HttpServerWakeMetricsHandler() {
+  }
+
+  /**
+   * @return URI specification for the handler.
+   */
+  @Override
+  public String getUriSpecification() {
+    return uriSpecification;
+  }
+
+  /**
+   * set URI specification.
+   */
+  @Override
+  public void setUriSpecification(final String s) {
+    uriSpecification = s;
+  }
+
+  /**
+   * Writes the contents of the MetricsRegistry as JSON.
+   */
+  @Override
+  public void onHttpRequest(
+      final ParsedHttpRequest parsedHttpRequest,
+      final HttpServletResponse response) throws IOException {
+
+    LOG.log(Level.FINE, "HttpServerWakeMetricsHandler onHttpRequest is called: {0}",
+        parsedHttpRequest.getRequestUri());
+
+    final String entity = parsedHttpRequest.getTargetEntity();
+    final String target = entity == null ? "" : entity.toLowerCase();
+
+    switch (target) {
+    case "metrics":
+      response.setContentType("application/json");
+      response.getOutputStream().write(MetricsRegistry.instance().toJson().getBytes(StandardCharsets.UTF_8));
+      break;
+    default:
+      response.getWriter().println(String.format("Unsupported query for entity: [%s].", target));
+    }
+  }
+}
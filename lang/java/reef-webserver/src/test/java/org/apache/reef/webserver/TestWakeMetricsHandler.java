@@ -0,0 +1,68 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.reef.webserver;
+
+import org.apache.reef.tang.Tang;
+import org.apache.reef.tang.exceptions.InjectionException;
+import org.apache.reef.wake.impl.LoggingEventHandler;
+import org.apache.reef.wake.impl.ThreadPoolStage;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mortbay.io.bio.StringEndPoint;
+import org.mortbay.jetty.*;
+
+import javax.servlet.http.HttpServletResponse;
+
+/**
+ * Test Http Server Wake Metrics Handler.
+ */
+public class TestWakeMetricsHandler {
+  private Request request;
+  private Response response;
+  private JettyHandler handler;
+
+  @Before
+  public void setUp() throws InjectionException {
+
+    this.request = new Request(
+        new HttpConnection(new LocalConnector(), new StringEndPoint(), new Server()));
+
+    this.response = new Response(
+        new HttpConnection(new LocalConnector(), new StringEndPoint(), new Server()));
+
+    this.handler = Tang.Factory.getTang().newInjector(Tang.Factory.getTang().newConfigurationBuilder()
+        .bindSetEntry(HttpEventHandlers.class, HttpServerWakeMetricsHandler.class)
+        .build())
+        .getInstance(JettyHandler.class);
+  }
+
+  @Test
+  public void testGetMetrics() throws Exception {
+    final ThreadPoolStage<Object> stage =
+        new ThreadPoolStage<>("TestWakeMetricsHandler", new LoggingEventHandler<Object>(), 1);
+    try {
+      this.request.setUri(new HttpURI("http://microsoft.com:8080/Wake/v1/Metrics"));
+      this.handler.handle("target", this.request, this.response, 0);
+      Assert.assertEquals(HttpServletResponse.SC_OK, this.response.getStatus());
+    } finally {
+      stage.close();
+    }
+  }
+}